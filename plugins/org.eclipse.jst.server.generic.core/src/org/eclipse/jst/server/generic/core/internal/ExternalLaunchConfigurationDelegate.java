@@ -99,7 +99,7 @@ public class ExternalLaunchConfigurationDelegate extends AbstractJavaLaunchConfi
 		@SuppressWarnings("null")
 		ExternalServerBehaviour serverBehavior = (ExternalServerBehaviour) server.loadAdapter(ServerBehaviourDelegate.class, null);
 		
-		// initialize the server, check the ports and start the PingThread that will check 
+		// initialize the server, check the ports and start the readiness probe that will check 
 		// server state
 		serverBehavior.setupLaunch(launch, mode, monitor);
 
@@ -32,7 +32,6 @@ import org.eclipse.jst.server.generic.servertype.definition.ServerRuntime;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
-import org.eclipse.wst.server.core.util.SocketUtil;
 
 /**
  * Subclass of <code>GenericServerBehavior</code> that supports 
@@ -79,15 +78,7 @@ public class ExternalServerBehaviour extends GenericServerBehaviour {
     }
     
     private ServerPort portInUse() {
-    	ServerPort[] ports = getServer().getServerPorts(null);
-    	ServerPort sp;
-    	for(int i=0;i<ports.length;i++){
-    		sp = ports[i];
-    		if (SocketUtil.isPortInUse(sp.getPort(), 5)) {
-    			return sp;
-    		}
-    	}
-    	return null;
+    	return findPortInUse(getServer().getServerPorts(null));
 	}
     
 	/**
@@ -45,6 +45,7 @@ import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerPort;
 import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.eclipse.wst.server.core.model.ServerDelegate;
+import org.eclipse.wst.server.core.util.ServerReadinessProbe;
 import org.eclipse.wst.server.core.util.SocketUtil;
 
 /**
@@ -57,8 +58,11 @@ public class GenericServerBehaviour extends ServerBehaviourDelegate {
 	public static final String ATTR_STOP = "stop-server"; //$NON-NLS-1$
 	public static final String ATTR_SERVER_ID = "server-id"; //$NON-NLS-1$
 	
-	// the thread used to ping the server to check for startup
-	protected transient PingThread ping;
+	// time to wait for ports in use to be released before starting, in ms
+	protected static final long PORT_IN_USE_TIMEOUT = 2500;
+	
+	// the probe used to ping the server to check for startup
+	protected transient ServerReadinessProbe ping;
     protected transient IDebugEventSetListener processListener;
     protected transient IProcess process;
     
@@ -404,15 +408,32 @@ public class GenericServerBehaviour extends ServerBehaviourDelegate {
     	ServerPort[] ports = getServer().getServerPorts(null);
     	ServerPort sp = null;
     	if(SocketUtil.isLocalhost(host)){
-	    	for(int i=0;i<ports.length;i++){
-	    		sp= ports[i];
-	    		if (SocketUtil.isPortInUse(ports[i].getPort(), 5))
-	    			throw new CoreException(new Status(IStatus.ERROR, CorePlugin.PLUGIN_ID, 0, NLS.bind(GenericServerCoreMessages.errorPortInUse,Integer.toString(sp.getPort()),sp.getName()),null));
-	    	}
+    		sp = findPortInUse(ports);
+    		if (sp != null)
+    			throw new CoreException(new Status(IStatus.ERROR, CorePlugin.PLUGIN_ID, 0, NLS.bind(GenericServerCoreMessages.errorPortInUse,Integer.toString(sp.getPort()),sp.getName()),null));
     	}
     	setServerState(IServer.STATE_STARTING);
     	setMode(launchMode);
     }
+    /**
+     * Returns the first of the given ports that is in use, probing all of them
+     * at once and waiting up to {@link #PORT_IN_USE_TIMEOUT} for them to be released.
+     * 
+     * @param ports the server ports
+     * @return the first port in use, or <code>null</code> if all ports are free
+     */
+    protected ServerPort findPortInUse(ServerPort[] ports) {
+    	int[] ports2 = new int[ports.length];
+    	for (int i = 0; i < ports.length; i++)
+    		ports2[i] = ports[i].getPort();
+    	Map<Integer, Boolean> inUse = SocketUtil.getPortsInUse(null, ports2, PORT_IN_USE_TIMEOUT);
+    	for (int i = 0; i < ports.length; i++) {
+    		if (inUse.get(Integer.valueOf(ports2[i])).booleanValue())
+    			return ports[i];
+    	}
+    	return null;
+    }
+
     /**
      * Call to start Ping thread that will check for startup of the server.
      *
@@ -435,7 +456,16 @@ public class GenericServerBehaviour extends ServerBehaviourDelegate {
         	int port = sp.getPort();
     		if (port != 80)
     			url += ":" + port; //$NON-NLS-1$
-    		ping = new PingThread(getServer(), url, this);
+    		// remote servers are probed until they come up
+    		long timeout = getServer().getStartTimeout() * 1000L;
+    		if (timeout <= 0 || isRemote())
+    			timeout = -1;
+    		ping = new ServerReadinessProbe(getServer(), url, timeout) {
+    			protected void serverReady() {
+    				setServerStarted();
+    			}
+    		};
+    		ping.start();
     	} catch (Exception e) {
     		Trace.trace(Trace.SEVERE, "Can't ping for server startup."); //$NON-NLS-1$
     	}  	
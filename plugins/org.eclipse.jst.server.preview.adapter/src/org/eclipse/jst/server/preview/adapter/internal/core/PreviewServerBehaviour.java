@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2018 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -43,13 +43,14 @@ import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.eclipse.wst.server.core.util.IStaticWeb;
 import org.eclipse.wst.server.core.util.ProjectModule;
 import org.eclipse.wst.server.core.util.PublishUtil;
+import org.eclipse.wst.server.core.util.ServerReadinessProbe;
 import org.eclipse.wst.server.core.util.SocketUtil;
 /**
  * Generic Http server.
  */
 public class PreviewServerBehaviour extends ServerBehaviourDelegate {
-	// the thread used to ping the server to check for startup
-	protected transient PingThread ping = null;
+	// the probe used to ping the server to check for startup
+	protected transient ServerReadinessProbe ping = null;
 	protected transient IDebugEventSetListener processListener;
 
 	/**
@@ -138,7 +139,13 @@ public class PreviewServerBehaviour extends ServerBehaviourDelegate {
 			String url = "http://localhost";
 			if (port != 80)
 				url += ":" + port;
-			ping = new PingThread(getServer(), url, this);
+			int timeout = getServer().getStartTimeout();
+			ping = new ServerReadinessProbe(getServer(), url, timeout > 0 ? timeout * 1000L : -1) {
+				protected void serverReady() {
+					setServerStarted();
+				}
+			};
+			ping.start();
 		} catch (Exception e) {
 			Trace.trace(Trace.SEVERE, "Can't ping for Tomcat startup.");
 		}
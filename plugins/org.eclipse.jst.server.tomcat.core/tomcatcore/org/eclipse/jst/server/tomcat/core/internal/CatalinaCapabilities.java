@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * The configuration capabilities of a version of Tomcat that is configured
+ * by a {@link CatalinaConfiguration}.
+ */
+public class CatalinaCapabilities {
+	public static final CatalinaCapabilities TOMCAT_50 = new CatalinaCapabilities("v5.0", false, false, false, new String[] {
+		"org.apache.coyote.http11.Http11Protocol", "HTTP/1.1",
+		"org.apache.jk.server.JkCoyoteHandler", "AJP/1.3"
+	});
+
+	public static final CatalinaCapabilities TOMCAT_55 = new CatalinaCapabilities("v5.5", true, true, false, new String[] {
+		"org.apache.coyote.http11.Http11Protocol", "HTTP/1.1",
+		"org.apache.coyote.http11.Http11AprProtocol", "HTTP/1.1",
+		"org.apache.coyote.ajp.AjpAprProtocol", "AJP/1.3",
+		"org.apache.jk.server.JkCoyoteHandler", "AJP/1.3"
+	});
+
+	public static final CatalinaCapabilities TOMCAT_60 = new CatalinaCapabilities("v6.0", true, true, false, new String[] {
+		"org.apache.coyote.http11.Http11Protocol", "HTTP/1.1",
+		"org.apache.coyote.http11.Http11NioProtocol", "HTTP/1.1",
+		"org.apache.coyote.http11.Http11AprProtocol", "HTTP/1.1",
+		"org.apache.coyote.ajp.AjpAprProtocol", "AJP/1.3",
+		"org.apache.jk.server.JkCoyoteHandler", "AJP/1.3"
+	});
+
+	public static final CatalinaCapabilities TOMCAT_70 = new CatalinaCapabilities("v7.0", TOMCAT_60, true);
+
+	public static final CatalinaCapabilities TOMCAT_80 = new CatalinaCapabilities("v8.0", TOMCAT_60, true);
+
+	public static final CatalinaCapabilities TOMCAT_85 = new CatalinaCapabilities("v8.5", TOMCAT_60, true);
+
+	public static final CatalinaCapabilities TOMCAT_90 = new CatalinaCapabilities("v9.0", TOMCAT_60, true);
+
+	public static final CatalinaCapabilities TOMCAT_100 = new CatalinaCapabilities("v10.0", TOMCAT_60, true);
+
+	private final String label;
+	private final boolean contextXml;
+	private final boolean removeKeptContextFiles;
+	private final boolean metaInfResources;
+	private final Map<String, String> protocolHandlers;
+
+	private CatalinaCapabilities(String label, boolean contextXml, boolean removeKeptContextFiles, boolean metaInfResources, String[] protocolHandlers) {
+		this.label = label;
+		this.contextXml = contextXml;
+		this.removeKeptContextFiles = removeKeptContextFiles;
+		this.metaInfResources = metaInfResources;
+		Map<String, String> map = new HashMap<String, String>();
+		for (int i = 0; i < protocolHandlers.length; i += 2)
+			map.put(protocolHandlers[i], protocolHandlers[i + 1]);
+		this.protocolHandlers = Collections.unmodifiableMap(map);
+	}
+
+	private CatalinaCapabilities(String label, CatalinaCapabilities base, boolean metaInfResources) {
+		this.label = label;
+		this.contextXml = base.contextXml;
+		this.removeKeptContextFiles = base.removeKeptContextFiles;
+		this.metaInfResources = metaInfResources;
+		this.protocolHandlers = base.protocolHandlers;
+	}
+
+	/**
+	 * Returns the version label used in messages, e.g. "v9.0".
+	 *
+	 * @return the version label
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Returns true if the configuration includes a shared context.xml file.
+	 *
+	 * @return true if context.xml is supported
+	 */
+	public boolean hasContextXml() {
+		return contextXml;
+	}
+
+	/**
+	 * Returns true if context XML files kept from an earlier publish can be
+	 * removed when the server is cleaned up.
+	 *
+	 * @return true if kept context files can be removed
+	 */
+	public boolean canRemoveKeptContextFiles() {
+		return removeKeptContextFiles;
+	}
+
+	/**
+	 * Returns true if META-INF/resources of jars can be served when serving
+	 * modules without publishing.
+	 *
+	 * @return true if META-INF/resources are supported
+	 */
+	public boolean hasMetaInfResources() {
+		return metaInfResources;
+	}
+
+	/**
+	 * Returns the protocol name of a connector protocol handler class.
+	 *
+	 * @param className a protocol handler class name
+	 * @return the protocol name, e.g. "HTTP/1.1", or <code>null</code> if
+	 *    the class is not known
+	 */
+	public String getProtocolHandlerName(String className) {
+		return protocolHandlers.get(className);
+	}
+
+	public String toString() {
+		return "CatalinaCapabilities[" + label + "]";
+	}
+}
@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+/**
+ * A persisted cache of the versions of catalina.jar files.
+ * <p>
+ * The version of a jar is cached by the path, size, and time stamp of the
+ * jar, so that the version is only read again if the jar changes, including
+ * across sessions. Entries for jars that no longer exist are dropped when the
+ * cache is loaded or saved. To read the version, only the end of the jar, the central
+ * directory, and the ServerInfo.properties entry are read, rather than opening
+ * the jar as a zip file.
+ * </p>
+ */
+public class CatalinaVersionCache {
+	private static final String SERVER_INFO = "org/apache/catalina/util/ServerInfo.properties";
+
+	private static final String CACHE_FILE = "catalina-versions.properties";
+
+	// zip format signatures and record sizes
+	private static final int EOCD_SIGNATURE = 0x06054b50;
+	private static final int CEN_SIGNATURE = 0x02014b50;
+	private static final int LOC_SIGNATURE = 0x04034b50;
+	private static final int EOCD_SIZE = 22;
+	private static final int CEN_SIZE = 46;
+	private static final int LOC_SIZE = 30;
+	private static final int MAX_COMMENT = 0xFFFF;
+
+	private static CatalinaVersionCache instance;
+
+	private static class Version {
+		protected final long size;
+		protected final long lastModified;
+		protected final String version;
+
+		protected Version(long size, long lastModified, String version) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.version = version;
+		}
+	}
+
+	private final File file;
+	private final Map<String, Version> versions = new ConcurrentHashMap<String, Version>();
+
+	/**
+	 * Create a cache that is stored in the given file, and load it.
+	 *
+	 * @param file the cache file, or <code>null</code> to not persist the cache
+	 */
+	public CatalinaVersionCache(File file) {
+		this.file = file;
+		load();
+	}
+
+	/**
+	 * Returns the shared cache, stored in the plugin state location.
+	 *
+	 * @return the cache
+	 */
+	public static synchronized CatalinaVersionCache getInstance() {
+		if (instance == null) {
+			String state = TomcatPlugin.getTomcatStateLocation();
+			instance = new CatalinaVersionCache(state == null ? null : new File(state, CACHE_FILE));
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the version of the given catalina.jar, e.g. "9.0.50".
+	 *
+	 * @param jar a catalina.jar file
+	 * @return the version, or an empty string if the version is not known
+	 */
+	public String getVersion(File jar) {
+		String path = jar.getAbsolutePath();
+		long size = jar.length();
+		long lastModified = jar.lastModified();
+		Version v = versions.get(path);
+		if (v != null && v.size == size && v.lastModified == lastModified)
+			return v.version;
+
+		String version = readVersion(jar);
+		versions.put(path, new Version(size, lastModified, version));
+		save();
+		return version;
+	}
+
+	/**
+	 * Reads the version of the given catalina.jar.
+	 *
+	 * @param jar a catalina.jar file
+	 * @return the version, or an empty string if the version is not known
+	 */
+	public static String readVersion(File jar) {
+		byte[] b = null;
+		try {
+			b = readEntry(jar, SERVER_INFO);
+		} catch (IOException e) {
+			Trace.trace(Trace.FINER, "Could not read the central directory of " + jar + ", opening the jar", e);
+			try {
+				b = readEntryFromZip(jar, SERVER_INFO);
+			} catch (IOException e2) {
+				// ignore and handle as unknown version
+			}
+		}
+		if (b == null)
+			return "";
+
+		try {
+			Properties props = new Properties();
+			props.load(new ByteArrayInputStream(b));
+			String serverVersion = props.getProperty("server.info");
+			if (serverVersion != null) {
+				int index = serverVersion.indexOf("/");
+				if (index > 0)
+					return serverVersion.substring(index + 1);
+			}
+		} catch (IOException e) {
+			// ignore and handle as unknown version
+		}
+		return "";
+	}
+
+	/**
+	 * Reads a single entry of a zip file by locating it in the central
+	 * directory.
+	 *
+	 * @param zip a zip file
+	 * @param name the entry name
+	 * @return the contents of the entry, or <code>null</code> if the zip file
+	 *    does not contain the entry
+	 * @throws IOException if the file cannot be read or is not in a supported
+	 *    format
+	 */
+	public static byte[] readEntry(File zip, String name) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(zip, "r");
+		try {
+			long length = raf.length();
+			if (length < EOCD_SIZE)
+				throw new IOException("Not a zip file");
+
+			// find the end of central directory record, followed by a comment
+			int tail = (int) Math.min(length, EOCD_SIZE + MAX_COMMENT);
+			byte[] buf = new byte[tail];
+			raf.seek(length - tail);
+			raf.readFully(buf);
+			int eocd = -1;
+			for (int i = tail - EOCD_SIZE; i >= 0; i--) {
+				if (getInt(buf, i) == EOCD_SIGNATURE && i + EOCD_SIZE + getShort(buf, i + 20) == tail) {
+					eocd = i;
+					break;
+				}
+			}
+			if (eocd < 0)
+				throw new IOException("End of central directory not found");
+
+			long cenSize = getInt(buf, eocd + 12) & 0xFFFFFFFFL;
+			long cenOffset = getInt(buf, eocd + 16) & 0xFFFFFFFFL;
+			if (cenSize == 0xFFFFFFFFL || cenOffset == 0xFFFFFFFFL || cenOffset + cenSize > length)
+				throw new IOException("Unsupported central directory");
+
+			byte[] cen = new byte[(int) cenSize];
+			raf.seek(cenOffset);
+			raf.readFully(cen);
+
+			byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+			int pos = 0;
+			while (pos + CEN_SIZE <= cen.length) {
+				if (getInt(cen, pos) != CEN_SIGNATURE)
+					throw new IOException("Invalid central directory");
+
+				int nameLength = getShort(cen, pos + 28);
+				int extraLength = getShort(cen, pos + 30);
+				int commentLength = getShort(cen, pos + 32);
+				if (nameLength == nameBytes.length && regionMatches(cen, pos + CEN_SIZE, nameBytes)) {
+					int method = getShort(cen, pos + 10);
+					long compressedSize = getInt(cen, pos + 20) & 0xFFFFFFFFL;
+					long size = getInt(cen, pos + 24) & 0xFFFFFFFFL;
+					long locOffset = getInt(cen, pos + 42) & 0xFFFFFFFFL;
+					return readData(raf, locOffset, method, compressedSize, size);
+				}
+				pos += CEN_SIZE + nameLength + extraLength + commentLength;
+			}
+			return null;
+		} finally {
+			raf.close();
+		}
+	}
+
+	private static byte[] readData(RandomAccessFile raf, long locOffset, int method, long compressedSize, long size) throws IOException {
+		if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE)
+			throw new IOException("Unsupported entry size");
+
+		byte[] loc = new byte[LOC_SIZE];
+		raf.seek(locOffset);
+		raf.readFully(loc);
+		if (getInt(loc, 0) != LOC_SIGNATURE)
+			throw new IOException("Invalid local header");
+
+		raf.seek(locOffset + LOC_SIZE + getShort(loc, 26) + getShort(loc, 28));
+		byte[] data = new byte[(int) compressedSize];
+		raf.readFully(data);
+		if (method == ZipEntry.STORED)
+			return data;
+		if (method != ZipEntry.DEFLATED)
+			throw new IOException("Unsupported compression method " + method);
+
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			byte[] b = new byte[(int) size];
+			int n = 0;
+			while (n < b.length && !inflater.finished()) {
+				int count = inflater.inflate(b, n, b.length - n);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					throw new IOException("Truncated entry");
+				n += count;
+			}
+			return b;
+		} catch (DataFormatException e) {
+			throw new IOException("Invalid compressed data", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static byte[] readEntryFromZip(File jar, String name) throws IOException {
+		ZipFile zip = new ZipFile(jar);
+		try {
+			ZipEntry entry = zip.getEntry(name);
+			if (entry == null)
+				return null;
+			InputStream in = zip.getInputStream(entry);
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buf = new byte[4096];
+				int n = in.read(buf);
+				while (n >= 0) {
+					out.write(buf, 0, n);
+					n = in.read(buf);
+				}
+				return out.toByteArray();
+			} finally {
+				in.close();
+			}
+		} finally {
+			zip.close();
+		}
+	}
+
+	private static int getShort(byte[] b, int off) {
+		return (b[off] & 0xFF) | ((b[off + 1] & 0xFF) << 8);
+	}
+
+	private static int getInt(byte[] b, int off) {
+		return getShort(b, off) | (getShort(b, off + 2) << 16);
+	}
+
+	private static boolean regionMatches(byte[] b, int off, byte[] s) {
+		for (int i = 0; i < s.length; i++) {
+			if (b[off + i] != s[i])
+				return false;
+		}
+		return true;
+	}
+
+	private void load() {
+		if (file == null || !file.exists())
+			return;
+
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			Properties props = new Properties();
+			props.load(in);
+			for (String path : props.stringPropertyNames()) {
+				// size,lastModified,version
+				String value = props.getProperty(path);
+				int index = value.indexOf(',');
+				int index2 = value.indexOf(',', index + 1);
+				if (index > 0 && index2 > index && new File(path).isFile()) {
+					long size = Long.parseLong(value.substring(0, index));
+					long lastModified = Long.parseLong(value.substring(index + 1, index2));
+					versions.put(path, new Version(size, lastModified, value.substring(index2 + 1)));
+				}
+			}
+		} catch (Exception e) {
+			Trace.trace(Trace.WARNING, "Could not load catalina version cache", e);
+			versions.clear();
+		} finally {
+			try {
+				if (in != null)
+					in.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private synchronized void save() {
+		if (file == null)
+			return;
+
+		Properties props = new Properties();
+		Iterator<Map.Entry<String, Version>> iterator = versions.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, Version> entry = iterator.next();
+			if (!new File(entry.getKey()).isFile()) {
+				iterator.remove();
+				continue;
+			}
+			Version v = entry.getValue();
+			props.setProperty(entry.getKey(), v.size + "," + v.lastModified + "," + v.version);
+		}
+
+		OutputStream out = null;
+		try {
+			file.getParentFile().mkdirs();
+			out = new FileOutputStream(file);
+			props.store(out, "catalina.jar versions");
+		} catch (IOException e) {
+			Trace.trace(Trace.WARNING, "Could not save catalina version cache", e);
+		} finally {
+			try {
+				if (out != null)
+					out.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	public String toString() {
+		return "CatalinaVersionCache[" + file + "]";
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -76,6 +76,7 @@ public class Messages extends NLS {
 	public static String detectingRemovedProjects;
 	public static String deletingContextFilesTask;
 	public static String deletingContextFile;
+	public static String cleanupWorkDirectoriesJob;
 	public static String deletedContextFile;
 	public static String errorCouldNotDeleteContextFile;
 	public static String errorCleanupServer;
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.wst.server.core.model.IModuleFile;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+/**
+ * Classifies the changed files of a web module by how a running Tomcat picks
+ * them up.
+ * <p>
+ * Static resources and JSPs are served from the deployed files, and Tomcat
+ * notices when they change, so they can be updated in place while the context
+ * is running. Classes, jars, and descriptors are only read when the context
+ * starts, so changing them requires a reload. Adding a class or jar does not,
+ * since nothing has loaded it yet.
+ * </p>
+ */
+public class ModuleDeltaClassifier {
+	/**
+	 * A static resource, such as an HTML, CSS, JavaScript, or image file.
+	 */
+	public static final int STATIC = 1;
+
+	/**
+	 * A JSP, JSP fragment, or tag file, which Tomcat recompiles when it changes.
+	 */
+	public static final int JSP = 2;
+
+	/**
+	 * A changed or removed class or jar in WEB-INF/classes or WEB-INF/lib.
+	 */
+	public static final int CLASS = 4;
+
+	/**
+	 * A deployment descriptor or other configuration file in WEB-INF, a tag
+	 * library descriptor, or META-INF/context.xml.
+	 */
+	public static final int DESCRIPTOR = 8;
+
+	/**
+	 * The kinds of change that require the context to be reloaded.
+	 */
+	public static final int RELOAD = CLASS | DESCRIPTOR;
+
+	private static final String WEB_INF = "WEB-INF";
+	private static final String META_INF = "META-INF";
+
+	private static final String[] JSP_EXTENSIONS = new String[] {
+		"jsp", "jspx", "jspf", "tag", "tagx"
+	};
+
+	private ModuleDeltaClassifier() {
+		// cannot create
+	}
+
+	/**
+	 * Returns the kind of a file with the given module relative path.
+	 *
+	 * @param path the module relative path of the file, including its name
+	 * @param kind the kind of delta, one of the constants in
+	 *    {@link IModuleResourceDelta}
+	 * @return the kind of change, or 0 if the change can be ignored
+	 */
+	public static int classify(IPath path, int kind) {
+		int count = path.segmentCount();
+		if (count == 0)
+			return 0;
+
+		String first = path.segment(0);
+		if (count > 1 && WEB_INF.equals(first)) {
+			String second = path.segment(1);
+			if (count > 2 && ("classes".equals(second) || "lib".equals(second)))
+				return kind == IModuleResourceDelta.ADDED ? 0 : CLASS;
+			if (isJsp(path))
+				return JSP;
+			return DESCRIPTOR;
+		}
+		if (count == 2 && META_INF.equals(first) && "context.xml".equals(path.segment(1)))
+			return DESCRIPTOR;
+		if (isJsp(path))
+			return JSP;
+		if ("tld".equals(path.getFileExtension()))
+			return DESCRIPTOR;
+		return STATIC;
+	}
+
+	/**
+	 * Classifies the changed files in the given deltas.
+	 *
+	 * @param delta an array of module resource deltas
+	 * @param hotUpdates a list to receive the deltas of the static resources
+	 *    and JSPs that can be updated while the context is running, or
+	 *    <code>null</code>
+	 * @return the kinds of change found, a combination of the constants in
+	 *    this class
+	 */
+	public static int classify(IModuleResourceDelta[] delta, List<IModuleResourceDelta> hotUpdates) {
+		if (delta == null)
+			return 0;
+
+		int kinds = 0;
+		for (IModuleResourceDelta d : delta) {
+			IModuleResource resource = d.getModuleResource();
+			if (resource instanceof IModuleFile) {
+				int kind = classify(resource.getModuleRelativePath().append(resource.getName()), d.getKind());
+				if (hotUpdates != null && (kind == STATIC || kind == JSP))
+					hotUpdates.add(d);
+				kinds |= kind;
+			} else
+				kinds |= classify(d.getAffectedChildren(), hotUpdates);
+		}
+		return kinds;
+	}
+
+	private static boolean isJsp(IPath path) {
+		String extension = path.getFileExtension();
+		if (extension == null)
+			return false;
+		for (String s : JSP_EXTENSIONS) {
+			if (s.equalsIgnoreCase(extension))
+				return true;
+		}
+		return false;
+	}
+}
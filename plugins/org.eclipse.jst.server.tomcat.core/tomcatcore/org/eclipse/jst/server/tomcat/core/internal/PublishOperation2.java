@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -120,10 +120,14 @@ public class PublishOperation2 extends PublishOperation {
 				|| server.getTomcatServer().isServeModulesWithoutPublish()) {
 			File f = path.toFile();
 			if (f.exists()) {
-				IStatus[] stat = PublishHelper.deleteDirectory(f, monitor);
+				IStatus[] stat = WorkDirectoryCleaner.remove(f, WorkDirectoryCleaner.getTrashDirectory(server.getRuntimeBaseDirectory()), monitor);
 				addArrayToList(status, stat);
 			}
 			
+			// Invalidate the compiled JSPs of this context only
+			if (kind == IServer.PUBLISH_CLEAN && deltaKind != ServerBehaviourDelegate.REMOVED)
+				server.removeContextWorkDir(module2, monitor);
+			
 			if (deltaKind == ServerBehaviourDelegate.REMOVED
 					|| server.getTomcatServer().isServeModulesWithoutPublish())
 				return;
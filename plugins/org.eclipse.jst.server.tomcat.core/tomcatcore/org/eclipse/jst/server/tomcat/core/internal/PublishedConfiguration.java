@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+/**
+ * The state of a published server configuration, used to skip publishing the
+ * server configuration when nothing has changed since the last publish.
+ * <p>
+ * The fingerprint covers the files in the configuration folder (server.xml
+ * with its contexts and ports, and the other configuration files), the
+ * server and runtime locations, and the server attributes that affect the
+ * published configuration. After the configuration is published, the
+ * published files are kept, since publishFinish() updates some of them in
+ * place. If the fingerprint has not changed and the published files have not
+ * been touched since the last publish finished, the files that publishFinish()
+ * updated are restored and the rest of the server publish is skipped, so
+ * publishFinish() always starts from the same files.
+ * </p>
+ */
+public class PublishedConfiguration {
+	private final String fingerprint;
+
+	// contents of the published configuration files, by name
+	private final Map<String, byte[]> published = new HashMap<String, byte[]>();
+
+	// stamps of the published files after publishFinish()
+	private Map<String, String> finishedStamps;
+
+	/**
+	 * Create the published state after the configuration has been published.
+	 *
+	 * @param fingerprint the configuration fingerprint
+	 * @param confDir the published conf directory
+	 * @param folder the configuration folder
+	 * @throws IOException if the published files cannot be read
+	 * @throws CoreException if the configuration folder cannot be read
+	 */
+	public PublishedConfiguration(String fingerprint, IPath confDir, IFolder folder) throws IOException, CoreException {
+		this.fingerprint = fingerprint;
+		IResource[] children = folder.members();
+		for (IResource child : children) {
+			if (child instanceof IFile) {
+				String name = child.getName();
+				File file = confDir.append(name).toFile();
+				published.put(name, Files.readAllBytes(file.toPath()));
+			}
+		}
+	}
+
+	/**
+	 * Returns the fingerprint of a server configuration.
+	 *
+	 * @param server the Tomcat server
+	 * @param folder the configuration folder
+	 * @param installDir the runtime location
+	 * @param confDir the directory the configuration is published to
+	 * @param deployDir the deploy directory
+	 * @return the fingerprint
+	 * @throws CoreException if the configuration folder cannot be read
+	 */
+	public static String getFingerprint(TomcatServer server, IFolder folder, IPath installDir, IPath confDir, IPath deployDir) throws CoreException {
+		StringBuilder sb = new StringBuilder();
+		sb.append(server.getServer().getServerType().getId()).append('|');
+		sb.append(installDir).append('|').append(confDir).append('|').append(deployDir).append('|');
+		sb.append(server.isTestEnvironment()).append(server.isSecure()).append(server.isDebug());
+		sb.append(server.isServeModulesWithoutPublish()).append(server.isSaveSeparateContextFiles());
+		sb.append(server.isModulesReloadableByDefault()).append('|');
+		sb.append(server.getInstanceDirectory()).append('|').append(server.getDeployDirectory());
+
+		IResource[] children = folder.members();
+		for (IResource child : children) {
+			if (child instanceof IFile)
+				sb.append('|').append(child.getName()).append(':').append(child.getModificationStamp());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Record the published files after publishFinish() has updated them.
+	 *
+	 * @param confDir the published conf directory
+	 */
+	public void finished(IPath confDir) {
+		finishedStamps = new HashMap<String, String>();
+		Iterator<String> iterator = published.keySet().iterator();
+		while (iterator.hasNext()) {
+			String name = iterator.next();
+			finishedStamps.put(name, getStamp(confDir.append(name).toFile()));
+		}
+	}
+
+	/**
+	 * Prepare the published configuration for another publishFinish(), if it is
+	 * still up to date: the fingerprint has not changed, and the published files
+	 * are as the last publish left them. The files that publishFinish() changed
+	 * are restored to their published contents.
+	 *
+	 * @param fingerprint2 the current configuration fingerprint
+	 * @param confDir the published conf directory
+	 * @return <code>true</code> if the configuration is up to date, and
+	 *    <code>false</code> if it must be published again
+	 */
+	public boolean restore(String fingerprint2, IPath confDir) {
+		if (finishedStamps == null || !fingerprint.equals(fingerprint2))
+			return false;
+
+		Iterator<String> iterator = finishedStamps.keySet().iterator();
+		while (iterator.hasNext()) {
+			String name = iterator.next();
+			if (!finishedStamps.get(name).equals(getStamp(confDir.append(name).toFile())))
+				return false;
+		}
+
+		iterator = published.keySet().iterator();
+		while (iterator.hasNext()) {
+			String name = iterator.next();
+			File file = confDir.append(name).toFile();
+			byte[] b = published.get(name);
+			OutputStream out = null;
+			try {
+				// the files are small, compare rather than trust time stamps
+				if (Arrays.equals(b, Files.readAllBytes(file.toPath())))
+					continue;
+				
+				out = new FileOutputStream(file);
+				out.write(b);
+			} catch (IOException e) {
+				Trace.trace(Trace.WARNING, "Could not restore published configuration file " + name, e);
+				return false;
+			} finally {
+				try {
+					if (out != null)
+						out.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+		finishedStamps = null;
+		return true;
+	}
+
+	private static String getStamp(File file) {
+		if (!file.exists())
+			return "-";
+		return file.lastModified() + ":" + file.length();
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+/**
+ * A persisted cache of the Tomcat installations found by the runtime locator.
+ * <p>
+ * For each installation directory the cache holds the runtime type that
+ * matched and the time stamp of the directory. A cached location is only
+ * offered again if its time stamp has not changed, and the runtime is always
+ * validated again before it is reported.
+ * </p>
+ */
+public class RuntimeLocationCache {
+	private final File file;
+	private final Properties locations = new Properties();
+	private boolean dirty;
+
+	/**
+	 * A cached installation directory.
+	 */
+	public static class Location {
+		public final File dir;
+		public final String runtimeTypeId;
+
+		protected Location(File dir, String runtimeTypeId) {
+			this.dir = dir;
+			this.runtimeTypeId = runtimeTypeId;
+		}
+	}
+
+	/**
+	 * Create a cache that is stored in the given file, and load it.
+	 *
+	 * @param file the cache file, or <code>null</code> to not persist the cache
+	 */
+	public RuntimeLocationCache(File file) {
+		this.file = file;
+		load();
+	}
+
+	private void load() {
+		if (file == null || !file.exists())
+			return;
+
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			locations.load(in);
+		} catch (IOException e) {
+			Trace.trace(Trace.WARNING, "Could not load runtime location cache", e);
+			locations.clear();
+		} finally {
+			try {
+				if (in != null)
+					in.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Save the cache, if it has changed.
+	 */
+	public synchronized void save() {
+		if (file == null || !dirty)
+			return;
+
+		OutputStream out = null;
+		try {
+			file.getParentFile().mkdirs();
+			out = new FileOutputStream(file);
+			locations.store(out, "Tomcat runtime locations");
+			dirty = false;
+		} catch (IOException e) {
+			Trace.trace(Trace.WARNING, "Could not save runtime location cache", e);
+		} finally {
+			try {
+				if (out != null)
+					out.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached locations within the given directory whose time stamps
+	 * have not changed. Locations that no longer exist or have changed are
+	 * removed from the cache.
+	 *
+	 * @param root a directory, or <code>null</code> for all locations
+	 * @return the unchanged cached locations
+	 */
+	public synchronized List<Location> getLocations(File root) {
+		String prefix = null;
+		if (root != null) {
+			prefix = root.getAbsolutePath();
+			if (!prefix.endsWith(File.separator))
+				prefix += File.separator;
+		}
+
+		List<Location> list = new ArrayList<Location>();
+		Iterator<Map.Entry<Object, Object>> iterator = locations.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Object, Object> entry = iterator.next();
+			String path = (String) entry.getKey();
+			if (prefix != null && !path.startsWith(prefix))
+				continue;
+
+			String value = (String) entry.getValue();
+			int index = value.lastIndexOf(',');
+			File dir = new File(path);
+			if (index > 0 && Long.toString(dir.lastModified()).equals(value.substring(index + 1))
+					&& new File(dir, "conf").isDirectory())
+				list.add(new Location(dir, value.substring(0, index)));
+			else {
+				iterator.remove();
+				dirty = true;
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Record an installation directory.
+	 *
+	 * @param dir the installation directory
+	 * @param runtimeTypeId the id of the runtime type that matched
+	 */
+	public synchronized void put(File dir, String runtimeTypeId) {
+		String value = runtimeTypeId + "," + dir.lastModified();
+		Object old = locations.setProperty(dir.getAbsolutePath(), value);
+		if (!value.equals(old))
+			dirty = true;
+	}
+
+	/**
+	 * Remove an installation directory.
+	 *
+	 * @param dir the installation directory
+	 */
+	public synchronized void remove(File dir) {
+		if (locations.remove(dir.getAbsolutePath()) != null)
+			dirty = true;
+	}
+
+	public String toString() {
+		return "RuntimeLocationCache[" + file + "]";
+	}
+}
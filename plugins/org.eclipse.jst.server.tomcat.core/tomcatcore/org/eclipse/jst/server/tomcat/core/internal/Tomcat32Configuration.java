@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -32,7 +32,6 @@ import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 import org.eclipse.wst.server.core.ServerPort;
-import org.eclipse.wst.server.core.util.PublishHelper;
 /**
  * Tomcat v3.2 server configuration.
  */
@@ -732,7 +731,7 @@ public class Tomcat32Configuration extends TomcatConfiguration {
 						if (confDir.isPrefixOf(ctxWorkPath)) {
 							File ctxWorkDir = ctxWorkPath.toFile();
 							if (ctxWorkDir.exists() && ctxWorkDir.isDirectory()) {
-								IStatus [] results = PublishHelper.deleteDirectory(ctxWorkDir, ProgressUtil.getSubMonitorFor(monitor, 100));
+								IStatus [] results = WorkDirectoryCleaner.remove(ctxWorkDir, WorkDirectoryCleaner.getTrashDirectory(confDir), ProgressUtil.getSubMonitorFor(monitor, 100));
 								if (results.length > 0) {
 									Trace.trace(Trace.SEVERE, "Could not delete work directory " + ctxWorkDir.getPath() + " for removed context " + oldPath);
 									for (int i = 0; i < results.length; i++) {
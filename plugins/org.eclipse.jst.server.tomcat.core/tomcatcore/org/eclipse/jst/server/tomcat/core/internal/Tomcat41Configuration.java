@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -585,11 +586,13 @@ public class Tomcat41Configuration extends TomcatConfiguration {
 	 * 
 	 * @param baseDir path to catalina instance directory
 	 * @param deployDir path to deployment directory
+	 * @param changedContexts a set to receive the paths of the changed
+	 * contexts, or null
 	 * @param monitor a progress monitor or null
 	 * @return result of operation
 	 */
-	protected IStatus publishContextConfig(IPath baseDir, IPath deployDir, IProgressMonitor monitor) {
-		return TomcatVersionHelper.publishCatalinaContextConfig(baseDir, deployDir, monitor);
+	protected IStatus publishContextConfig(IPath baseDir, IPath deployDir, Set<String> changedContexts, IProgressMonitor monitor) {
+		return TomcatVersionHelper.publishCatalinaContextConfig(baseDir, deployDir, changedContexts, monitor);
 	}
 	
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2020 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -27,6 +27,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jst.server.tomcat.core.internal.wst.ModuleTraversalCache;
 import org.osgi.framework.BundleContext;
 /**
  * The Tomcat plugin.
@@ -81,6 +82,7 @@ public class TomcatPlugin extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		ModuleTraversalCache.getInstance().stop();
 		ResourcesPlugin.getWorkspace().removeResourceChangeListener(configurationListener);
 		super.stop(context);
 	}
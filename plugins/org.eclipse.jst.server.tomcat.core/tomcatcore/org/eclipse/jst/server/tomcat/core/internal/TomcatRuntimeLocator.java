@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2020 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -14,6 +14,15 @@ package org.eclipse.jst.server.tomcat.core.internal;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
 import org.eclipse.core.runtime.*;
 import org.eclipse.jdt.launching.JavaRuntime;
@@ -23,7 +32,14 @@ import org.eclipse.wst.server.core.IRuntimeWorkingCopy;
 import org.eclipse.wst.server.core.ServerCore;
 import org.eclipse.wst.server.core.model.RuntimeLocatorDelegate;
 /**
- * 
+ * Searches the file system for Tomcat installations.
+ * <p>
+ * Directories are searched concurrently on a bounded pool, skipping
+ * directories that are known never to contain an installation, and runtimes
+ * are reported to the listener as soon as they are found. Installations found
+ * by earlier searches are cached, and are reported first if they have not
+ * changed.
+ * </p>
  */
 public class TomcatRuntimeLocator extends RuntimeLocatorDelegate {
 	protected static final String[] runtimeTypes = new String[] {
@@ -39,6 +55,129 @@ public class TomcatRuntimeLocator extends RuntimeLocatorDelegate {
 		"org.eclipse.jst.server.tomcat.runtime.90",
 		"org.eclipse.jst.server.tomcat.runtime.100"};
 
+	// directories that are never searched
+	private static final Set<String> SKIP_DIRS = new HashSet<String>(Arrays.asList(new String[] {
+		".git", ".svn", ".hg", "CVS", ".metadata", "node_modules"
+	}));
+
+	// system directories that are not searched when they are directly under a file system root
+	private static final Set<String> SKIP_ROOT_DIRS = new HashSet<String>(Arrays.asList(new String[] {
+		"proc", "sys", "dev", "$Recycle.Bin", "System Volume Information"
+	}));
+
+	// maximum depth to search
+	private static final int DEPTH = 4;
+
+	private static final int PARALLELISM = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private static final String CACHE_FILE = "runtime-locations.properties";
+
+	private static RuntimeLocationCache cache;
+
+	private static final FileFilter DIR_FILTER = new FileFilter() {
+		public boolean accept(File file) {
+			String name = file.getName();
+			if (SKIP_DIRS.contains(name))
+				return false;
+			if (SKIP_ROOT_DIRS.contains(name)) {
+				File parent = file.getAbsoluteFile().getParentFile();
+				if (parent != null && parent.getParentFile() == null)
+					return false;
+			}
+			return file.isDirectory();
+		}
+	};
+
+	/**
+	 * The state of one search, shared by all of its tasks.
+	 */
+	private static class Search {
+		private final IRuntimeSearchListener listener;
+		private final IProgressMonitor monitor;
+
+		// directories that have been checked, and whether they are installations
+		private final Map<String, Boolean> checked = new ConcurrentHashMap<String, Boolean>();
+
+		protected Search(IRuntimeSearchListener listener, IProgressMonitor monitor) {
+			this.listener = listener;
+			this.monitor = monitor;
+		}
+
+		protected boolean isCanceled() {
+			return monitor.isCanceled();
+		}
+
+		/**
+		 * Check whether the given directory is a Tomcat installation, and report
+		 * it if it is.
+		 *
+		 * @param dir a directory that contains a conf directory
+		 * @param runtimeTypeId the runtime type to try first, or <code>null</code>
+		 * @return <code>true</code> if the directory is an installation
+		 */
+		protected boolean check(File dir, String runtimeTypeId) {
+			String path = dir.getAbsolutePath();
+			Boolean b = checked.get(path);
+			if (b != null)
+				return b.booleanValue();
+
+			IRuntimeWorkingCopy runtime = getRuntimeFromDir(dir, runtimeTypeId, null);
+			checked.put(path, Boolean.valueOf(runtime != null));
+			if (runtime == null) {
+				getCache().remove(dir);
+				return false;
+			}
+
+			getCache().put(dir, runtime.getRuntimeType().getId());
+			synchronized (this) {
+				listener.runtimeFound(runtime);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Searches one directory and, in parallel, its subdirectories.
+	 */
+	private static class SearchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Search search;
+		private final File dir;
+		private final int depth;
+
+		protected SearchTask(Search search, File dir, int depth) {
+			this.search = search;
+			this.dir = dir;
+			this.depth = depth;
+		}
+
+		protected void compute() {
+			if (search.isCanceled())
+				return;
+
+			File[] files = dir.listFiles(DIR_FILTER);
+			if (files == null)
+				return;
+
+			for (File file : files) {
+				if ("conf".equals(file.getName())) {
+					if (search.check(dir, null))
+						return;
+					break;
+				}
+			}
+
+			if (depth <= 1)
+				return;
+
+			SearchTask[] tasks = new SearchTask[files.length];
+			for (int i = 0; i < files.length; i++)
+				tasks[i] = new SearchTask(search, files[i], depth - 1);
+			invokeAll(tasks);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.wst.server.core.model.IRuntimeFactoryDelegate#getKnownRuntimes()
 	 */
@@ -46,64 +185,101 @@ public class TomcatRuntimeLocator extends RuntimeLocatorDelegate {
 		searchForRuntimes2(path, listener, monitor);
 	}
 
+	private static synchronized RuntimeLocationCache getCache() {
+		if (cache == null) {
+			String state = TomcatPlugin.getTomcatStateLocation();
+			cache = new RuntimeLocationCache(state == null ? null : new File(state, CACHE_FILE));
+		}
+		return cache;
+	}
+
 	protected static void searchForRuntimes2(IPath path, IRuntimeSearchListener listener, IProgressMonitor monitor) {
+		monitor = ProgressUtil.getMonitorFor(monitor);
+		File root = null;
 		File[] files = null;
 		if (path != null) {
-			File f = path.toFile();
-			if (f.exists())
-				files = f.listFiles();
+			root = path.toFile();
+			if (root.exists())
+				files = root.listFiles(DIR_FILTER);
 			else
 				return;
 		} else
 			files = File.listRoots();
 
-		if (files != null) {
-			int size = files.length;
-			int work = 100 / size;
-			int workLeft = 100 - (work * size);
-			for (int i = 0; i < size; i++) {
-				if (monitor.isCanceled())
-					return;
-				if (files[i] != null && files[i].isDirectory())
-					searchDir(listener, files[i], 4, monitor);
-				monitor.worked(work);
-			}
-			monitor.worked(workLeft);
-		} else
-			monitor.worked(100);
-	}
+		Search search = new Search(listener, monitor);
 
-	protected static void searchDir(IRuntimeSearchListener listener, File dir, int depth, IProgressMonitor monitor) {
-		if ("conf".equals(dir.getName())) {
-			IRuntimeWorkingCopy runtime = getRuntimeFromDir(dir.getParentFile(), monitor);
-			if (runtime != null) {
-				listener.runtimeFound(runtime);
+		// report the unchanged installations from earlier searches first
+		List<RuntimeLocationCache.Location> locations = getCache().getLocations(root);
+		for (RuntimeLocationCache.Location location : locations) {
+			if (monitor.isCanceled())
+				break;
+			search.check(location.dir, location.runtimeTypeId);
+		}
+
+		try {
+			if (files == null || files.length == 0) {
+				monitor.worked(100);
 				return;
 			}
-		}
-		
-		if (depth == 0)
-			return;
-		
-		File[] files = dir.listFiles(new FileFilter() {
-			public boolean accept(File file) {
-				return file.isDirectory();
+
+			if (root != null) {
+				for (File file : files) {
+					if ("conf".equals(file.getName())) {
+						if (search.check(root, null)) {
+							monitor.worked(100);
+							return;
+						}
+						break;
+					}
+				}
 			}
-		});
-		if (files != null) {
+
 			int size = files.length;
-			for (int i = 0; i < size; i++) {
-				if (monitor.isCanceled())
-					return;
-				searchDir(listener, files[i], depth - 1, monitor);
+			int work = 100 / size;
+			int workLeft = 100 - (work * size);
+			ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+			try {
+				ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[size];
+				for (int i = 0; i < size; i++) {
+					if (files[i] != null && files[i].isDirectory())
+						tasks[i] = pool.submit(new SearchTask(search, files[i], DEPTH));
+				}
+				for (int i = 0; i < size; i++) {
+					if (tasks[i] != null) {
+						try {
+							tasks[i].join();
+						} catch (RuntimeException e) {
+							Trace.trace(Trace.SEVERE, "Error searching for runtimes in " + files[i], e);
+						}
+					}
+					monitor.worked(work);
+				}
+			} finally {
+				pool.shutdownNow();
 			}
+			monitor.worked(workLeft);
+		} finally {
+			getCache().save();
 		}
 	}
 
 	protected static IRuntimeWorkingCopy getRuntimeFromDir(File dir, IProgressMonitor monitor) {
-		for (int i = 0; i < runtimeTypes.length; i++) {
+		return getRuntimeFromDir(dir, null, monitor);
+	}
+
+	private static IRuntimeWorkingCopy getRuntimeFromDir(File dir, String preferredTypeId, IProgressMonitor monitor) {
+		String[] types = runtimeTypes;
+		if (preferredTypeId != null) {
+			// try the runtime type that matched last time first
+			types = new String[runtimeTypes.length + 1];
+			types[0] = preferredTypeId;
+			System.arraycopy(runtimeTypes, 0, types, 1, runtimeTypes.length);
+		}
+		for (int i = 0; i < types.length; i++) {
+			if (i > 0 && types[i].equals(preferredTypeId))
+				continue;
 			try {
-				IRuntimeType runtimeType = ServerCore.findRuntimeType(runtimeTypes[i]);
+				IRuntimeType runtimeType = ServerCore.findRuntimeType(types[i]);
 				String absolutePath = dir.getAbsolutePath();
 				String id = absolutePath.replace(File.separatorChar,'_').replace(':','-');
 				IRuntimeWorkingCopy runtime = runtimeType.createRuntime(id, monitor);
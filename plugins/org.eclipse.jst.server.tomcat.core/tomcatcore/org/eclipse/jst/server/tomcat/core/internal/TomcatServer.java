@@ -103,32 +103,7 @@ public class TomcatServer extends ServerDelegate implements ITomcatServer, ITomc
 			// If not yet loaded
 			if (tcConfig == null) {
 				
-				String id = getServer().getServerType().getId();
-				if (id.indexOf("32") > 0)
-					tcConfig = new Tomcat32Configuration(folder);
-				else if (id.indexOf("40") > 0)
-					tcConfig = new Tomcat40Configuration(folder);
-				else if (id.indexOf("41") > 0)
-					tcConfig = new Tomcat41Configuration(folder);
-				else if (id.indexOf("50") > 0)
-					tcConfig = new Tomcat50Configuration(folder);
-				else if (id.indexOf("55") > 0)
-					tcConfig = new Tomcat55Configuration(folder);
-				else if (id.indexOf("60") > 0)
-					tcConfig = new Tomcat60Configuration(folder);
-				else if (id.indexOf("70") > 0)
-					tcConfig = new Tomcat70Configuration(folder);
-				else if (id.indexOf("80") > 0)
-					tcConfig = new Tomcat80Configuration(folder);
-				else if (id.indexOf("85") > 0)
-					tcConfig = new Tomcat85Configuration(folder);
-				else if (id.indexOf("90") > 0)
-					tcConfig = new Tomcat90Configuration(folder);
-				else if (id.indexOf("100") > 0)
-					tcConfig = new Tomcat100Configuration(folder);
-				else {
-					throw new CoreException(new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, Messages.errorUnknownVersion, null));
-				}
+				tcConfig = createConfiguration(folder);
 			}
 			try {
 				tcConfig.load(folder, null);
@@ -148,46 +123,55 @@ public class TomcatServer extends ServerDelegate implements ITomcatServer, ITomc
 		return tcConfig;
 	}
 
-	public void importRuntimeConfiguration(IRuntime runtime, IProgressMonitor monitor) throws CoreException {
-		// Initialize state
-		synchronized (versionLock) {
-			configuration = null;
-			currentVersion = 0;
-			loadedVersion = 0;
-		}
-		if (runtime == null) {
-			return;
-		}
-		IPath path = runtime.getLocation().append("conf");
-		
+	/**
+	 * Create an empty configuration for this server's version of Tomcat.
+	 * 
+	 * @param folder the configuration folder
+	 * @return the configuration
+	 * @throws CoreException if the version is not known
+	 */
+	protected TomcatConfiguration createConfiguration(IFolder folder) throws CoreException {
 		String id = getServer().getServerType().getId();
-		IFolder folder = getServer().getServerConfiguration();
-		TomcatConfiguration tcConfig;
 		if (id.indexOf("32") > 0)
-			tcConfig = new Tomcat32Configuration(folder);
+			return new Tomcat32Configuration(folder);
 		else if (id.indexOf("40") > 0)
-			tcConfig = new Tomcat40Configuration(folder);
+			return new Tomcat40Configuration(folder);
 		else if (id.indexOf("41") > 0)
-			tcConfig = new Tomcat41Configuration(folder);
+			return new Tomcat41Configuration(folder);
 		else if (id.indexOf("50") > 0)
-			tcConfig = new Tomcat50Configuration(folder);
+			return new Tomcat50Configuration(folder);
 		else if (id.indexOf("55") > 0)
-			tcConfig = new Tomcat55Configuration(folder);
+			return new Tomcat55Configuration(folder);
 		else if (id.indexOf("60") > 0)
-			tcConfig = new Tomcat60Configuration(folder);
+			return new Tomcat60Configuration(folder);
 		else if (id.indexOf("70") > 0)
-			tcConfig = new Tomcat70Configuration(folder);
+			return new Tomcat70Configuration(folder);
 		else if (id.indexOf("80") > 0)
-			tcConfig = new Tomcat80Configuration(folder);
+			return new Tomcat80Configuration(folder);
 		else if (id.indexOf("85") > 0)
-			tcConfig = new Tomcat85Configuration(folder);
+			return new Tomcat85Configuration(folder);
 		else if (id.indexOf("90") > 0)
-			tcConfig = new Tomcat90Configuration(folder);
+			return new Tomcat90Configuration(folder);
 		else if (id.indexOf("100") > 0)
-			tcConfig = new Tomcat100Configuration(folder);
-		else {
-			throw new CoreException(new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, Messages.errorUnknownVersion, null));
+			return new Tomcat100Configuration(folder);
+		
+		throw new CoreException(new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, Messages.errorUnknownVersion, null));
+	}
+
+	public void importRuntimeConfiguration(IRuntime runtime, IProgressMonitor monitor) throws CoreException {
+		// Initialize state
+		synchronized (versionLock) {
+			configuration = null;
+			currentVersion = 0;
+			loadedVersion = 0;
+		}
+		if (runtime == null) {
+			return;
 		}
+		IPath path = runtime.getLocation().append("conf");
+		
+		IFolder folder = getServer().getServerConfiguration();
+		TomcatConfiguration tcConfig = createConfiguration(folder);
 
 		try {
 			tcConfig.importFromPath(path, isTestEnvironment(), monitor);
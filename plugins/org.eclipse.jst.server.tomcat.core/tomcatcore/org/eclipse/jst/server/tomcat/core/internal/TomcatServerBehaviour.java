@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2021 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -19,10 +19,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.debug.core.*;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.jdt.launching.IJavaLaunchConfigurationConstants;
@@ -39,12 +45,16 @@ import org.eclipse.wst.server.core.internal.IModulePublishHelper;
 import org.eclipse.wst.server.core.internal.Server;
 import org.eclipse.wst.server.core.model.*;
 import org.eclipse.wst.server.core.util.PublishHelper;
+import org.eclipse.wst.server.core.util.ServerReadinessProbe;
 import org.eclipse.wst.server.core.util.SocketUtil;
 /**
  * Generic Tomcat server.
  */
 public class TomcatServerBehaviour extends ServerBehaviourDelegate implements ITomcatServerBehaviour, IModulePublishHelper {
 	private static final String ATTR_STOP = "stop-server";
+
+	// time to wait for ports in use to be released before starting, in ms
+	private static final long PORT_IN_USE_TIMEOUT = 2500;
 	
 	private static final String[] JMX_EXCLUDE_ARGS = new String [] {
 		"-Dcom.sun.management.jmxremote",
@@ -59,10 +69,13 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 				"--add-opens=java.base/java.util.concurrent=ALL-UNNAMED",
 				"--add-opens=java.rmi/sun.rmi.transport=ALL-UNNAMED"};
 
-	// the thread used to ping the server to check for startup
-	protected transient PingThread ping = null;
+	// the probe used to ping the server to check for startup
+	protected transient ServerReadinessProbe ping = null;
 	protected transient IDebugEventSetListener processListener;
 
+	// the last published server configuration, if it is still valid
+	protected transient PublishedConfiguration publishedConfig;
+
 	/**
 	 * TomcatServerBehaviour.
 	 */
@@ -236,6 +249,21 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 		if (status != null && !status.isOK())
 			throw new CoreException(status);
 
+		// skip the configuration if nothing has changed since the last publish
+		IFolder folder = getTomcatConfiguration().getFolder();
+		String fingerprint = PublishedConfiguration.getFingerprint(getTomcatServer(), folder,
+				installDir, confDir, getServerDeployDirectory());
+		PublishedConfiguration published = publishedConfig;
+		publishedConfig = null;
+		if (published != null && (kind == IServer.PUBLISH_INCREMENTAL || kind == IServer.PUBLISH_AUTO)
+				&& published.restore(fingerprint, confDir.append("conf"))) {
+			if (Trace.isTraceEnabled())
+				Trace.trace(Trace.FINER, "Server configuration unchanged, skipping publish");
+			publishedConfig = published;
+			setServerPublishState(IServer.PUBLISH_STATE_NONE);
+			return;
+		}
+
 		monitor = ProgressUtil.getMonitorFor(monitor);
 		monitor.beginTask(Messages.publishServerTask, 600);
 		
@@ -253,6 +281,12 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 		if (status != null && !status.isOK())
 			throw new CoreException(status);
 		
+		try {
+			publishedConfig = new PublishedConfiguration(fingerprint, confDir.append("conf"), folder);
+		} catch (IOException e) {
+			Trace.trace(Trace.WARNING, "Could not read published configuration", e);
+		}
+		
 		monitor.done();
 		
 		setServerPublishState(IServer.PUBLISH_STATE_NONE);
@@ -322,7 +356,7 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 				try {
 					File f = new File(publishPath);
 					if (f.exists()) {
-						IStatus[] stat = PublishHelper.deleteDirectory(f, monitor);
+						IStatus[] stat = WorkDirectoryCleaner.remove(f, WorkDirectoryCleaner.getTrashDirectory(getRuntimeBaseDirectory()), monitor);
 						PublishOperation2.addArrayToList(status, stat);
 					}
 				} catch (Exception e) {
@@ -451,36 +485,51 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 	}
 
 	protected void publishFinish(IProgressMonitor monitor) throws CoreException {
+		// publishFinish() changes the published configuration, keep it until it succeeds
+		PublishedConfiguration published = publishedConfig;
+		publishedConfig = null;
+		
 		IStatus status;
 		IPath baseDir = getRuntimeBaseDirectory();
 		TomcatServer ts = getTomcatServer();
 		ITomcatVersionHandler tvh = getTomcatVersionHandler();
 		String serverTypeID = getServer().getServerType().getId();
 		String tomcatVersion = TomcatVersionHelper.getCatalinaVersion(getServer().getRuntime().getLocation(), serverTypeID);
+		// paths of the contexts whose configuration is written by this publish
+		Set<String> changedContexts = new TreeSet<String>();
 		// Include or remove loader jar depending on state of serving directly 
 		status = tvh.prepareForServingDirectly(baseDir, getTomcatServer(), tomcatVersion);
 		if (status.isOK()) {
 			// If serving modules directly, update server.xml accordingly (includes project context.xmls)
 			if (ts.isServeModulesWithoutPublish()) {
 				status = getTomcatConfiguration().updateContextsToServeDirectly(
-						baseDir, tomcatVersion, tvh.getSharedLoader(baseDir), monitor);
+						baseDir, tomcatVersion, tvh.getSharedLoader(baseDir), changedContexts, monitor);
 			}
 			// Else serving normally. Add project context.xmls to server.xml
 			else {
 				// Publish context configuration for servers that support META-INF/context.xml
 				status = getTomcatConfiguration().publishContextConfig(
-						baseDir, getServerDeployDirectory(), monitor);
+						baseDir, getServerDeployDirectory(), changedContexts, monitor);
 			}
 			if (status.isOK() && ts.isSaveSeparateContextFiles()) {
 				// Determine if context's path attribute should be removed
 				boolean noPath = serverTypeID.indexOf("55") > 0 || serverTypeID.indexOf("60") > 0;
-				boolean serverStopped = getServer().getServerState() == IServer.STATE_STOPPED;
+				// The contexts move out of server.xml, only the context files written count
+				changedContexts.clear();
 				// TODO Add a monitor
-				TomcatVersionHelper.moveContextsToSeparateFiles(baseDir, noPath, serverStopped, null);
+				TomcatVersionHelper.moveContextsToSeparateFiles(baseDir, noPath, changedContexts, null);
 			}
 		}
 		if (!status.isOK())
 			throw new CoreException(status);
+		if (Trace.isTraceEnabled())
+			Trace.trace(Trace.FINER, "Contexts changed by publish: " + changedContexts);
+		
+		if (published != null) {
+			IPath confDir = ts.isTestEnvironment() ? baseDir : getServer().getRuntime().getLocation();
+			published.finished(confDir.append("conf"));
+			publishedConfig = published;
+		}
 	}
 
 	/**
@@ -504,23 +553,26 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 		//setRestartNeeded(false);
 		TomcatConfiguration configuration = getTomcatConfiguration();
 		
-		// check that ports are free
-		Iterator iterator = configuration.getServerPorts().iterator();
-		List<ServerPort> usedPorts = new ArrayList<ServerPort>();
-		while (iterator.hasNext()) {
-			ServerPort sp = (ServerPort) iterator.next();
-			if (sp.getPort() < 0)
+		// check that ports are free, probing all of them at once
+		List<ServerPort> serverPorts = configuration.getServerPorts();
+		int[] ports = new int[serverPorts.size()];
+		for (int i = 0; i < ports.length; i++) {
+			ports[i] = serverPorts.get(i).getPort();
+			if (ports[i] < 0)
 				throw new CoreException(new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, Messages.errorPortInvalid, null));
-			if (SocketUtil.isPortInUse(sp.getPort(), 5)) {
+		}
+		Map<Integer, Boolean> portsInUse = SocketUtil.getPortsInUse(null, ports, PORT_IN_USE_TIMEOUT);
+		List<ServerPort> usedPorts = new ArrayList<ServerPort>();
+		for (ServerPort sp : serverPorts) {
+			if (portsInUse.get(Integer.valueOf(sp.getPort())).booleanValue())
 				usedPorts.add(sp);
-			}
 		}
 		if (usedPorts.size() == 1) {
 			ServerPort port = usedPorts.get(0);
 			throw new CoreException(new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, NLS.bind(Messages.errorPortInUse, new String[] {port.getPort() + "", getServer().getName()}), null));
 		} else if (usedPorts.size() > 1) {
 			String portStr = "";
-			iterator = usedPorts.iterator();
+			Iterator iterator = usedPorts.iterator();
 			boolean first = true;
 			while (iterator.hasNext()) {
 				if (!first)
@@ -533,7 +585,7 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 		}
 		
 		// check that there is only one app for each context root
-		iterator = configuration.getWebModules().iterator();
+		Iterator iterator = configuration.getWebModules().iterator();
 		List<String> contextRoots = new ArrayList<String>();
 		while (iterator.hasNext()) {
 			WebModule module = (WebModule) iterator.next();
@@ -554,7 +606,12 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 			int port = configuration.getMainPort().getPort();
 			if (port != 80)
 				url += ":" + port;
-			ping = new PingThread(getServer(), url, -1, this);
+			ping = new ServerReadinessProbe(getServer(), url, -1) {
+				protected void serverReady() {
+					setServerStarted();
+				}
+			};
+			ping.start();
 		} catch (Exception e) {
 			Trace.trace(Trace.SEVERE, "Can't ping for Tomcat startup.");
 		}
@@ -995,41 +1052,103 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 	 * @see ServerBehaviourDelegate#handleResourceChange()
 	 */
 	public void handleResourceChange() {
-		if (getServer().getServerRestartState())
+		handleResourceChange(getAllModules());
+	}
+
+	/**
+	 * Classify the changes of the given modules. Static resources and JSPs
+	 * are copied to the deployed module right away, if the server is running
+	 * and modules are published, so that they can be seen without waiting for
+	 * the next publish. Class and descriptor changes mark the server as
+	 * needing a restart.
+	 * 
+	 * @see ServerBehaviourDelegate#handleResourceChange(List)
+	 */
+	public void handleResourceChange(List<IModule[]> modules) {
+		boolean restart = getServer().getServerRestartState();
+		boolean hotUpdate = getServer().getServerState() == IServer.STATE_STARTED
+				&& !getTomcatServer().isServeModulesWithoutPublish();
+		if (restart && !hotUpdate)
 			return;
 		
-		Iterator iterator = getAllModules().iterator();
+		Iterator<IModule[]> iterator = modules.iterator();
 		while (iterator.hasNext()) {
-			IModule[] module = (IModule[]) iterator.next();
+			IModule[] module = iterator.next();
 			IModuleResourceDelta[] delta = getPublishedResourceDelta(module);
 			if (delta == null || delta.length == 0)
 				continue;
 			
-			if (containsNonResourceChange(delta)) {
+			// only the files of web modules are published as they are
+			List<IModuleResourceDelta> hotUpdates = null;
+			if (hotUpdate && module.length == 1)
+				hotUpdates = new ArrayList<IModuleResourceDelta>();
+			int kinds = ModuleDeltaClassifier.classify(delta, hotUpdates);
+			if (!restart && (kinds & ModuleDeltaClassifier.RELOAD) != 0) {
 				setServerRestartState(true);
-				return;
+				restart = true;
 			}
+			if (hotUpdates != null && !hotUpdates.isEmpty())
+				hotUpdate(module[0], hotUpdates);
 		}
 	}
 
-	protected boolean containsNonResourceChange(IModuleResourceDelta[] delta) {
-		int size = delta.length;
-		for (int i = 0; i < size; i++) {
-			IModuleResourceDelta d = delta[i];
-			if (d.getModuleRelativePath().segmentCount() == 0) {
-				if ("WEB-INF".equals(d.getModuleResource().getName())) {
-					return containsNonResourceChange(d.getAffectedChildren());
-				}
-				continue;
-			}
-			if (d.getModuleResource() instanceof IModuleFile)
-				return true;
-			
-			boolean b = containsNonAddChange(d.getAffectedChildren());
-			if (b)
-				return true;
+	/**
+	 * Copy changed static resources and JSPs of a web module to its deploy
+	 * directory, and remove deleted ones. The module stays marked for
+	 * publishing, so the next publish still brings the whole deploy directory
+	 * up to date.
+	 * <p>
+	 * The copy runs under the server's scheduling rule, which publishing also
+	 * holds, so that it never writes to the deploy directory while a publish
+	 * is in progress. The server's resource change job already holds the
+	 * rule; other callers acquire it here, and callers that hold an unrelated
+	 * rule skip the update and leave it to the next publish.
+	 * </p>
+	 * 
+	 * @param module a web module
+	 * @param delta the deltas of the changed files
+	 */
+	private void hotUpdate(IModule module, List<IModuleResourceDelta> delta) {
+		IServer server = getServer();
+		ISchedulingRule rule = Job.getJobManager().currentRule();
+		if (rule != null && rule.contains(server) && rule.isConflicting(server)) {
+			copyHotUpdates(module, delta);
+			return;
+		}
+		if (rule != null) {
+			if (Trace.isTraceEnabled())
+				Trace.trace(Trace.FINER, "Skipped hot update of " + module.getName() + ", the server rule is not available");
+			return;
+		}
+		
+		Job.getJobManager().beginRule(server, null);
+		try {
+			copyHotUpdates(module, delta);
+		} finally {
+			Job.getJobManager().endRule(server);
 		}
-		return false;
+	}
+
+	private void copyHotUpdates(IModule module, List<IModuleResourceDelta> delta) {
+		IPath baseDir = getRuntimeBaseDirectory();
+		IPath path = getModuleDeployDirectory(module);
+		// not published yet
+		if (baseDir == null || path == null || !path.toFile().isDirectory())
+			return;
+		
+		PublishHelper helper = new PublishHelper(baseDir.append("temp").toFile());
+		Iterator<IModuleResourceDelta> iterator = delta.iterator();
+		while (iterator.hasNext()) {
+			IStatus[] status = helper.publishDelta(iterator.next(), path, null);
+			for (int i = 0; i < status.length; i++)
+				Trace.trace(Trace.WARNING, "Could not update " + module.getName() + ": " + status[i].getMessage());
+		}
+		if (Trace.isTraceEnabled())
+			Trace.trace(Trace.FINER, "Updated " + delta.size() + " resources of " + module.getName() + " in " + path);
+	}
+
+	protected boolean containsNonResourceChange(IModuleResourceDelta[] delta) {
+		return (ModuleDeltaClassifier.classify(delta, null) & ModuleDeltaClassifier.RELOAD) != 0;
 	}
 
 	protected boolean containsNonAddChange(IModuleResourceDelta[] delta) {
@@ -1052,7 +1171,9 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 	
 	/**
 	 * Cleans the entire work directory for this server.  This involves
-	 * deleting all subdirectories of the server's work directory.
+	 * deleting all subdirectories of the server's work directory.  The
+	 * subdirectories are moved out of the way right away and deleted in
+	 * the background.
 	 * 
 	 * @param monitor a progress monitor
 	 * @return results of the clean operation
@@ -1061,6 +1182,7 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 	public IStatus cleanServerWorkDir(IProgressMonitor monitor) throws CoreException {
 		IStatus result;
 		IPath basePath = getRuntimeBaseDirectory();
+		File trashDir = WorkDirectoryCleaner.getTrashDirectory(basePath);
 		IPath workPath = getTomcatConfiguration().getServerWorkDirectory(basePath);
 		if (workPath != null) {
 			File workDir = workPath.toFile();
@@ -1077,7 +1199,7 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 					for (int i = 0; i < size; i++) {
 						File current = files[i];
 						if (current.isDirectory()) {
-							IStatus [] results = PublishHelper.deleteDirectory(current, ProgressUtil.getSubMonitorFor(monitor, 10));
+							IStatus [] results = WorkDirectoryCleaner.remove(current, trashDir, ProgressUtil.getSubMonitorFor(monitor, 10));
 							if (results != null && results.length > 0) {
 								for (int j = 0; j < results.length; j++) {
 									ms.add(results[j]);
@@ -1113,7 +1235,7 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 			File workDir = workPath.toFile();
 			result = Status.OK_STATUS;
 			if (workDir.exists() && workDir.isDirectory()) {
-				IStatus [] results = PublishHelper.deleteDirectory(workDir, monitor);
+				IStatus [] results = WorkDirectoryCleaner.remove(workDir, WorkDirectoryCleaner.getTrashDirectory(basePath), monitor);
 				MultiStatus ms = new MultiStatus(TomcatPlugin.PLUGIN_ID, 0, "Problem occurred deleting work directory for module.", null);
 				if (results != null && results.length > 0) {
 					for (int i = 0; i < results.length; i++) {
@@ -1129,6 +1251,32 @@ public class TomcatServerBehaviour extends ServerBehaviourDelegate implements IT
 		return result;
 	}
 	
+	/**
+	 * Removes the work directory of the context of the specified module, so
+	 * that its JSPs are compiled again, while the work directories of the other
+	 * contexts are kept. Nothing is removed while the server is running, since
+	 * Tomcat may be using the directory.
+	 * 
+	 * @param module a web module
+	 * @param monitor a progress monitor
+	 */
+	protected void removeContextWorkDir(IModule module, IProgressMonitor monitor) {
+		if (getServer().getServerState() != IServer.STATE_STOPPED)
+			return;
+		
+		try {
+			WebModule webModule = getTomcatConfiguration().getWebModule(module);
+			if (webModule == null)
+				return;
+			
+			IStatus result = cleanContextWorkDir(webModule, monitor);
+			if (!result.isOK())
+				Trace.trace(Trace.WARNING, "Could not remove work directory for " + module.getName() + ": " + result.getMessage());
+		} catch (CoreException e) {
+			Trace.trace(Trace.WARNING, "Could not remove work directory for " + module.getName(), e);
+		}
+	}
+	
 	/**
 	 * Gets the directory to which modules should be deployed for
 	 * this server.
@@ -1,5 +1,5 @@
 /**********************************************************************
- * Copyright (c) 2007, 2020 SAS Institute, Inc and others.
+ * Copyright (c) 2007, 2026 SAS Institute, Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -29,9 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
 
@@ -53,8 +51,8 @@ import org.eclipse.jst.server.tomcat.core.internal.xml.server40.ServerInstance;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.ServerUtil;
-import org.eclipse.wst.server.core.util.PublishHelper;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 /**
@@ -345,7 +343,7 @@ public class TomcatVersionHelper {
 						if (baseDir.isPrefixOf(ctxWorkPath)) {
 							File ctxWorkDir = ctxWorkPath.toFile();
 							if (ctxWorkDir.exists() && ctxWorkDir.isDirectory()) {
-								IStatus [] results = PublishHelper.deleteDirectory(ctxWorkDir, ProgressUtil.getSubMonitorFor(monitor, 100));
+								IStatus [] results = WorkDirectoryCleaner.remove(ctxWorkDir, WorkDirectoryCleaner.getTrashDirectory(baseDir), ProgressUtil.getSubMonitorFor(monitor, 100));
 								if (results.length > 0) {
 									Trace.trace(Trace.SEVERE, "Could not delete work directory " + ctxWorkDir.getPath() + " for removed context " + oldPath);
 									for (int i = 0; i < results.length; i++) {
@@ -489,14 +487,17 @@ public class TomcatVersionHelper {
 	 * Add context configuration found in META-INF/context.xml files
 	 * present in projects to published server.xml.  Used by
 	 * Tomcat 4.1, 5.0, and 5.5 which support use of META-INF/context.xml
-	 * in some form.
+	 * in some form.  Only contexts whose configuration actually changes
+	 * are reported, and server.xml is only written if one of them did.
 	 * 
 	 * @param baseDir absolute path to catalina instance directory
 	 * @param webappsDir absolute path to deployment directory
+	 * @param changedContexts a set to receive the paths of the changed
+	 * contexts, or null
 	 * @param monitor a progress monitor or null
 	 * @return result of operation
 	 */
-	public static IStatus publishCatalinaContextConfig(IPath baseDir, IPath webappsDir, IProgressMonitor monitor) {
+	public static IStatus publishCatalinaContextConfig(IPath baseDir, IPath webappsDir, Set<String> changedContexts, IProgressMonitor monitor) {
 		if (Trace.isTraceEnabled())
 			Trace.trace(Trace.FINER, "Apply context configurations");
 		IPath confDir = baseDir.append("conf");
@@ -520,7 +521,10 @@ public class TomcatVersionHelper {
 					Context context = contexts[i];
 					monitor.subTask(NLS.bind(Messages.checkingContextTask,
 							new String[] {context.getPath()}));
-					if (addCatalinaContextConfig(webappsDir, context, ms)) {
+					Element original = (Element) context.getElementNode().cloneNode(true);
+					if (addCatalinaContextConfig(webappsDir, context, ms)
+							&& !XMLUtil.isEquivalent(original, context.getElementNode())) {
+						addChangedContext(changedContexts, context);
 						modified = true;
 					}
 				}
@@ -536,7 +540,8 @@ public class TomcatVersionHelper {
 				return ms;
 			}
 			if (Trace.isTraceEnabled())
-				Trace.trace(Trace.FINER, "Server.xml updated with context.xml configurations");
+				Trace.trace(Trace.FINER, modified ? "Server.xml updated with context.xml configurations"
+						: "Server.xml already up to date with context.xml configurations");
 			return Status.OK_STATUS;
 		} catch (Exception e) {
 			Trace.trace(Trace.WARNING, "Could not apply context configurations to published Tomcat configuration from " + confDir.toOSString() + ": " + e.getMessage());
@@ -901,10 +906,12 @@ public class TomcatVersionHelper {
 	 * @param baseDir directory where the Catalina instance is found
 	 * @param loader name of the catalina.properties loader to use for global
 	 * classpath entries
+	 * @param changedContexts a set to receive the paths of the contexts whose
+	 * configuration changed, or null
 	 * @param monitor a progress monitor
 	 * @return result of update operation
 	 */
-	public static IStatus updateContextsToServeDirectly(IPath baseDir, String tomcatVersion, String loader, boolean enableMetaInfResources, IProgressMonitor monitor) {
+	public static IStatus updateContextsToServeDirectly(IPath baseDir, String tomcatVersion, String loader, boolean enableMetaInfResources, Set<String> changedContexts, IProgressMonitor monitor) {
 
 		IPath confDir = baseDir.append("conf");
 		IPath serverXml = confDir.append("server.xml");
@@ -948,11 +955,19 @@ public class TomcatVersionHelper {
 						baseDir, tomcatVersion, publishedInstance, loader, enableMetaInfResources);
 			}
 			Context [] contexts = publishedInstance.getContexts();
+			// keep the original contexts, to only save what has changed
+			Element[] originals = new Element[contexts.length];
 			for (int i = 0; i < contexts.length; i++) {
 				String moduleId = contexts[i].getSource();
 				if (moduleId != null && moduleId.length() > 0) {
+					originals[i] = (Element) contexts[i].getElementNode().cloneNode(true);
 					IModule module = ServerUtil.getModule(moduleId);
 					ModuleTraverser.traverse(module, visitor, monitor);
+				}
+			}
+			for (int i = 0; i < contexts.length; i++) {
+				if (originals[i] != null && !XMLUtil.isEquivalent(originals[i], contexts[i].getElementNode())) {
+					addChangedContext(changedContexts, contexts[i]);
 					modified = true;
 				}
 			}
@@ -963,7 +978,8 @@ public class TomcatVersionHelper {
 			}
 			monitor.worked(100);
 			if (Trace.isTraceEnabled())
-				Trace.trace(Trace.FINER, "Context docBase settings updated in server.xml.");
+				Trace.trace(Trace.FINER, modified ? "Context docBase settings updated in server.xml."
+						: "Context docBase settings in server.xml already up to date.");
 		} catch (Exception e) {
 			Trace.trace(Trace.SEVERE, "Could not modify context configurations to serve directly for Tomcat configuration " + confDir.toOSString() + ": " + e.getMessage());
 			return new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID, 0, NLS.bind(Messages.errorPublishConfiguration, new String[] {e.getLocalizedMessage()}), e);
@@ -976,15 +992,17 @@ public class TomcatVersionHelper {
 	
 	/**
 	 * Moves contexts out of current published server.xml and into individual
-	 * context XML files.
+	 * context XML files.  A context file is only written if its contents
+	 * change, so that Tomcat does not redeploy unchanged contexts.
 	 * 
 	 * @param baseDir directory where the Catalina instance is found
 	 * @param noPath true if path attribute should be removed from the context
-	 * @param serverStopped true if the server is stopped
+	 * @param changedContexts a set to receive the paths of the contexts whose
+	 * files were written, or null
 	 * @param monitor a progress monitor
 	 * @return result of operation
 	 */
-	public static IStatus moveContextsToSeparateFiles(IPath baseDir, boolean noPath, boolean serverStopped, IProgressMonitor monitor) {
+	public static IStatus moveContextsToSeparateFiles(IPath baseDir, boolean noPath, Set<String> changedContexts, IProgressMonitor monitor) {
 		IPath confDir = baseDir.append("conf");
 		IPath serverXml = confDir.append("server.xml");
 		try {
@@ -1034,18 +1052,17 @@ public class TomcatVersionHelper {
 						context.setAttributeValue("antiResourceLocking", "false");
 					
 					File contextFile = new File(contextDir, name + ".xml");
-					Context existingContext = loadContextFile(contextFile);
-					// If server is stopped or if contexts are not the equivalent, write the context file
-					if (serverStopped || !context.isEquivalent(existingContext)) {
-						// If requested, remove path attribute
-						if (noPath)
-							context.removeAttribute("path");
-						
-						DocumentBuilder builder = XMLUtil.getDocumentBuilder();
-						Document contextDoc = builder.newDocument();
-						contextDoc.appendChild(contextDoc.importNode(context.getElementNode(), true));
-						XMLUtil.save(contextFile.getAbsolutePath(), contextDoc);
-					}
+					String path = context.getPath();
+					// If requested, remove path attribute
+					if (noPath)
+						context.removeAttribute("path");
+
+					// Only write the context file if it is not equivalent
+					DocumentBuilder builder = XMLUtil.getDocumentBuilder();
+					Document contextDoc = builder.newDocument();
+					contextDoc.appendChild(contextDoc.importNode(context.getElementNode(), true));
+					if (XMLUtil.saveIfChanged(contextFile.getAbsolutePath(), contextDoc) && changedContexts != null)
+						changedContexts.add(path);
 
 					host.removeElement("Context", i);
 					modified = true;
@@ -1069,6 +1086,11 @@ public class TomcatVersionHelper {
 		return Status.OK_STATUS;
 	}
 	
+	private static void addChangedContext(Set<String> changedContexts, Context context) {
+		if (changedContexts != null)
+			changedContexts.add(context.getPath());
+	}
+
 	private static void loadSeparateContextFiles(File contextDir, Factory factory, Map<File, Context> projectContexts) {
 		File[] contextFiles = contextDir.listFiles(new FilenameFilter() {
 			public boolean accept(File dir, String name) {
@@ -1127,22 +1149,44 @@ public class TomcatVersionHelper {
 		return context;
 	}
 
-	private static Map<IPath, String> catalinaJarVersion = new ConcurrentHashMap<IPath, String>();
-	private static Map<IPath, Long> catalinaJarLastModified = new ConcurrentHashMap<IPath, Long>();
-	private static volatile long lastCheck = 0;
+	/**
+	 * Returns the catalina.jar of the Tomcat installed at the specified location,
+	 * looking first where the specified server type normally keeps it.
+	 * 
+	 * @param installPath Path to Tomcat installation
+	 * @param serverType The server type ID for the desired version of Tomcat
+	 * @return the catalina.jar file, or <code>null</code> if the server type
+	 * is not supported or the jar doesn't exist
+	 */
+	private static File getCatalinaJar(IPath installPath, String serverType) {
+		String[] locations;
+		if (TomcatPlugin.TOMCAT_60.equals(serverType) || TomcatPlugin.TOMCAT_70.equals(serverType) || TomcatPlugin.TOMCAT_80.equals(serverType)
+				|| TomcatPlugin.TOMCAT_85.equals(serverType) || TomcatPlugin.TOMCAT_90.equals(serverType) || TomcatPlugin.TOMCAT_100.equals(serverType)) {
+			locations = new String[] { "lib", "server/lib" };
+		}
+		else if (TomcatPlugin.TOMCAT_50.equals(serverType) || TomcatPlugin.TOMCAT_55.equals(serverType)
+				 || TomcatPlugin.TOMCAT_41.equals(serverType)) {
+			locations = new String[] { "server/lib", "lib" };
+		}
+		else
+			return null;
+
+		for (String location : locations) {
+			File jarFile = installPath.append(location).append("catalina.jar").toFile();
+			if (jarFile.exists())
+				return jarFile;
+		}
+		return null;
+	}
 
 	/**
 	 * Checks if the version of Tomcat installed at the specified location matches
 	 * the specified server type.  The return status indicates if the version matches
 	 * or not, or can't be determined.
 	 * 
-	 * Because this can get called repeatedly for certain operations, some caching
-	 * is provided.  The first check for an installPath in the current Eclipse
-	 * session will query the catalina.jar for its version.  Any additional
-	 * checks will compare the catalina.jar's time stamp and will use the previously
-	 * cached version if it didn't change.  Additional checks that occur within
-	 * 2 seconds of the last check, regardless of Tomcat version, don't bother with
-	 * checking the jar time stamp and just use the cached values.
+	 * Because this can get called repeatedly for certain operations, the version
+	 * is cached by {@link CatalinaVersionCache}.  The catalina.jar is only read
+	 * again if its size or time stamp changes, including across Eclipse sessions.
 	 * 
 	 * @param installPath Path to Tomcat installation
 	 * @param serverType The server type ID for the desired version of Tomcat
@@ -1151,146 +1195,38 @@ public class TomcatVersionHelper {
 	 * Status.CANCEL_STATUS is returned.
 	 */
 	public static IStatus checkCatalinaVersion(IPath installPath, String serverType) {
-		String versionSubString = null;
-		IPath catalinaJarPath = null;
-		File jarFile = null;
-		
-		if (TomcatPlugin.TOMCAT_60.equals(serverType) || TomcatPlugin.TOMCAT_70.equals(serverType) || TomcatPlugin.TOMCAT_80.equals(serverType)
-				|| TomcatPlugin.TOMCAT_85.equals(serverType) || TomcatPlugin.TOMCAT_90.equals(serverType) || TomcatPlugin.TOMCAT_100.equals(serverType)) {
-			catalinaJarPath = installPath.append("lib").append("catalina.jar");
-			jarFile = catalinaJarPath.toFile();
-			// If jar is not at expected location, try alternate location
-			if (!jarFile.exists()) {
-				catalinaJarPath = installPath.append("server/lib").append("catalina.jar");
-				jarFile = catalinaJarPath.toFile();
-				// If not here either, discard path
-				if (!jarFile.exists()) {
-					catalinaJarPath = null;
-				}
-			}
-		}
-		else if (TomcatPlugin.TOMCAT_50.equals(serverType) || TomcatPlugin.TOMCAT_55.equals(serverType)
-				 || TomcatPlugin.TOMCAT_41.equals(serverType)) {
-			catalinaJarPath = installPath.append("server/lib").append("catalina.jar");
-			jarFile = catalinaJarPath.toFile();
-			// If jar is not at expected location, try alternate location
-			if (!jarFile.exists()) {
-				catalinaJarPath = installPath.append("lib").append("catalina.jar");
-				jarFile = catalinaJarPath.toFile();
-				// If not here either, discard path
-				if (!jarFile.exists()) {
-					catalinaJarPath = null;
-				}
-			}
-		}
-		if (catalinaJarPath != null) {
-			versionSubString = catalinaJarVersion.get(catalinaJarPath);
-			long checkTime = System.currentTimeMillis();
-			// Use some logic to try to determine if a cached value is stale
-			// If last check was more than a couple of seconds ago, check the jar time stamp 
-			if (versionSubString != null && (checkTime - lastCheck > 2000)) {
-				long curLastModified = jarFile.lastModified();
-				Long oldLastModified = catalinaJarLastModified.get(catalinaJarPath);
-				// If jar time stamps differ, discard the cached version string
-				if (oldLastModified == null || curLastModified != oldLastModified.longValue()) {
-					versionSubString = null;
-				}
-			}
-			lastCheck = checkTime;
-			// If a version string needs to be acquired
-			if (versionSubString == null) {
-				InputStream is = null;
-				JarFile jar = null;
-				try {
-					// Read version string from catalina.jar
-					jar = new JarFile(jarFile);
-					JarEntry entry = jar.getJarEntry("org/apache/catalina/util/ServerInfo.properties");
-					if (entry != null) {
-						is = jar.getInputStream(entry);
-						if (is != null) {
-							Properties props = new Properties();
-							props.load(is);
-							String serverVersion = props.getProperty("server.info");
-							if (serverVersion != null) {
-								int index = serverVersion.indexOf("/");
-								if (index > 0) {
-									versionSubString = serverVersion.substring(index + 1);
-									catalinaJarVersion.put(catalinaJarPath, versionSubString);
-									catalinaJarLastModified.put(catalinaJarPath, new Long(jarFile.lastModified()));
-								}
-							}
-						}
-					}
-				} catch (IOException e) {
-					// Ignore and handle as unknown version
-				}
-				finally {
-					if (is != null) {
-						try {
-							is.close();
-						}
-						catch (IOException e) {
-							// Ignore
-						}
-					}
-					if (jar != null) {
-						try {
-							jar.close();
-						} catch (IOException e) {
-							// Ignore
-						}
-					}
-				}
-			}
-			if (versionSubString != null) {
-				// If we have an actual version, test the version
-				if (versionSubString.length() > 0) {
-					String versionTest = versionStringMap.get(serverType);
-					if (versionTest != null && !versionSubString.startsWith(versionTest)) {
-						return new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID,
-								NLS.bind(Messages.errorInstallDirWrongVersion2,
-										versionSubString, versionTest.substring(0, versionTest.length() -1)));
-					}
-				}
-				// Else we have an unknown version
-				else {
-					return Status.CANCEL_STATUS;
-				}
-			}
-			else {
-				// Cache blank version string for unknown version
-				catalinaJarVersion.put(catalinaJarPath, "");
-				catalinaJarLastModified.put(catalinaJarPath, new Long(jarFile.lastModified()));
-				return Status.CANCEL_STATUS;
-			}
-		}
-		// Else server type is not supported or jar doesn't exist
-		else {
+		File jarFile = getCatalinaJar(installPath, serverType);
+		// If server type is not supported or jar doesn't exist
+		if (jarFile == null)
 			return Status.CANCEL_STATUS;
+
+		String versionSubString = CatalinaVersionCache.getInstance().getVersion(jarFile);
+		// If we have an unknown version
+		if (versionSubString.length() == 0)
+			return Status.CANCEL_STATUS;
+
+		// Test the version
+		String versionTest = versionStringMap.get(serverType);
+		if (versionTest != null && !versionSubString.startsWith(versionTest)) {
+			return new Status(IStatus.ERROR, TomcatPlugin.PLUGIN_ID,
+					NLS.bind(Messages.errorInstallDirWrongVersion2,
+							versionSubString, versionTest.substring(0, versionTest.length() -1)));
 		}
-		
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Returns the version of Tomcat installed at the specified location, e.g.
+	 * "9.0.50".
+	 * 
+	 * @param installPath Path to Tomcat installation
+	 * @param serverType The server type ID for the desired version of Tomcat
+	 * @return the version, or an empty string if the version is not known
+	 */
 	public static String getCatalinaVersion(IPath installPath, String serverType) {
-		for (Map.Entry<IPath, String> entry : catalinaJarVersion.entrySet()) {
-			IPath jarPath = entry.getKey();
-			if (installPath.isPrefixOf(jarPath)) {
-				return entry.getValue();
-			}
-		}
-		// If not found, we need to initialize the data for this server
-		IStatus result = checkCatalinaVersion(installPath, serverType);
-		// If successful, search again
-		if (result.isOK()) {
-			for (Map.Entry<IPath, String> entry : catalinaJarVersion.entrySet()) {
-				IPath jarPath = entry.getKey();
-				if (installPath.isPrefixOf(jarPath)) {
-					return entry.getValue();
-				}
-			}
-		}
-		// Return unknown version
-		return "";
+		File jarFile = getCatalinaJar(installPath, serverType);
+		if (jarFile == null)
+			return "";
+		return CatalinaVersionCache.getInstance().getVersion(jarFile);
 	}
 }
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.wst.server.core.util.PublishHelper;
+/**
+ * Removes work and deploy directories without blocking the caller.
+ * <p>
+ * A directory is removed by renaming it to a tombstone in the temp directory
+ * of the server, which is quick and leaves the original location free to be
+ * recreated immediately. The tombstones are deleted by a low priority
+ * background job. Tombstones left behind by an earlier session are deleted
+ * the next time a directory is moved to the same temp directory. If a
+ * directory cannot be renamed, e.g. because the temp directory is on another
+ * file system, it is deleted synchronously instead.
+ * </p>
+ */
+public class WorkDirectoryCleaner {
+	private static final String TOMBSTONE_PREFIX = ".";
+	private static final String TOMBSTONE_SUFFIX = ".deleted";
+
+	private static final AtomicLong counter = new AtomicLong(System.currentTimeMillis());
+
+	// tombstones waiting to be deleted
+	private static final ConcurrentLinkedQueue<File> tombstones = new ConcurrentLinkedQueue<File>();
+
+	// directories that have been searched for leftover tombstones
+	private static final Set<String> swept = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private static final Job job = new Job(Messages.cleanupWorkDirectoriesJob) {
+		protected IStatus run(IProgressMonitor monitor) {
+			File dir = tombstones.poll();
+			while (dir != null) {
+				if (monitor.isCanceled()) {
+					// try again later
+					tombstones.add(dir);
+					return Status.CANCEL_STATUS;
+				}
+				IStatus[] results = PublishHelper.deleteDirectory(dir, null);
+				if (results.length > 0)
+					Trace.trace(Trace.WARNING, "Could not delete " + dir + ": " + results[0].getMessage());
+				else if (Trace.isTraceEnabled())
+					Trace.trace(Trace.FINER, "Deleted " + dir);
+				dir = tombstones.poll();
+			}
+			return Status.OK_STATUS;
+		}
+	};
+
+	static {
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+	}
+
+	private WorkDirectoryCleaner() {
+		// cannot create
+	}
+
+	/**
+	 * Removes a directory. The directory is renamed to a tombstone in the given
+	 * trash directory right away, and deleted in the background.
+	 *
+	 * @param dir a directory
+	 * @param trashDir the directory to put the tombstone in, normally the
+	 *    temp directory of the server, or <code>null</code> to put it next to
+	 *    the directory
+	 * @param monitor a progress monitor used if the directory has to be
+	 *    deleted synchronously, or <code>null</code>
+	 * @return a possibly-empty array of error and warning status
+	 */
+	public static IStatus[] remove(File dir, File trashDir, IProgressMonitor monitor) {
+		if (!dir.exists())
+			return new IStatus[0];
+
+		if (trashDir == null)
+			trashDir = dir.getAbsoluteFile().getParentFile();
+		if (trashDir != null && (trashDir.isDirectory() || trashDir.mkdirs())) {
+			File tombstone = new File(trashDir, TOMBSTONE_PREFIX + dir.getName() + "." + counter.incrementAndGet() + TOMBSTONE_SUFFIX);
+			if (dir.renameTo(tombstone)) {
+				if (Trace.isTraceEnabled())
+					Trace.trace(Trace.FINER, "Renamed " + dir + " to " + tombstone);
+				tombstones.add(tombstone);
+				sweep(trashDir);
+				job.schedule();
+				return new IStatus[0];
+			}
+		}
+
+		if (Trace.isTraceEnabled())
+			Trace.trace(Trace.FINER, "Could not rename " + dir + ", deleting it");
+		return PublishHelper.deleteDirectory(dir, monitor);
+	}
+
+	/**
+	 * Returns the trash directory of a server.
+	 *
+	 * @param baseDir the server instance directory, i.e. catalina.base, or
+	 *    <code>null</code>
+	 * @return the trash directory, or <code>null</code> if there is no base
+	 *    directory
+	 */
+	public static File getTrashDirectory(IPath baseDir) {
+		if (baseDir == null)
+			return null;
+		return baseDir.append("temp").toFile();
+	}
+
+	/**
+	 * Queue the tombstones left in the given directory by an earlier session.
+	 *
+	 * @param dir a directory
+	 */
+	private static void sweep(File dir) {
+		if (!swept.add(dir.getAbsolutePath()))
+			return;
+
+		File[] files = dir.listFiles();
+		if (files == null)
+			return;
+
+		for (File f : files) {
+			if (isTombstone(f) && !tombstones.contains(f))
+				tombstones.add(f);
+		}
+	}
+
+	/**
+	 * Returns true if the given file is a tombstone of a removed directory.
+	 *
+	 * @param file a file
+	 * @return <code>true</code> if the file is a tombstone
+	 */
+	public static boolean isTombstone(File file) {
+		String name = file.getName();
+		return name.startsWith(TOMBSTONE_PREFIX) && name.endsWith(TOMBSTONE_SUFFIX);
+	}
+}
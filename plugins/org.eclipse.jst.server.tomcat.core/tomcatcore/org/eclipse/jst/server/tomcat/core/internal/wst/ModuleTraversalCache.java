@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.internal.wst;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jst.server.tomcat.core.internal.Trace;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+import org.eclipse.wst.server.core.IModule;
+/**
+ * Caches the result of traversing modules with the {@link ModuleTraverser}.
+ * <p>
+ * A traversal resolves the component structure and the Java classpath of a
+ * module and its dependencies, which is expensive, but its result only
+ * depends on the classpath, the component files, the manifests, and the
+ * projects that exist. The cache records the calls a traversal makes to its
+ * visitor, and replays them to later visitors of the same module. All
+ * recorded traversals are discarded when the classpath of a Java project
+ * changes, when a .classpath, component, facet, or manifest file changes,
+ * when a META-INF/resources folder is added or removed, or when a project is
+ * added, removed, opened, or closed. Source and content changes keep the
+ * cache.
+ * </p>
+ * <p>
+ * The cache starts listening for changes when the first traversal is
+ * recorded, so that JDT and the workspace are not involved until a module is
+ * traversed, and stops for good in {@link #stop()}.
+ * </p>
+ */
+public class ModuleTraversalCache implements IResourceChangeListener, IElementChangedListener {
+	private static final int VISIT_WEB_COMPONENT = 0;
+	private static final int END_VISIT_WEB_COMPONENT = 1;
+	private static final int VISIT_ARCHIVE_COMPONENT = 2;
+	private static final int VISIT_DEPENDENT_JAVA_PROJECT = 3;
+	private static final int VISIT_DEPENDENT_COMPONENT = 4;
+	private static final int VISIT_WEB_RESOURCE = 5;
+	private static final int VISIT_DEPENDENT_CONTENT_RESOURCE = 6;
+	private static final int VISIT_EAR_RESOURCE = 7;
+	private static final int END_VISIT_EAR_COMPONENT = 8;
+
+	private static final int CLASSPATH_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+			| IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_OPENED
+			| IJavaElementDelta.F_CLOSED;
+
+	// files that the traversal of a module depends on
+	private static final String[] FILE_NAMES = new String[] {
+		".classpath", ".project", "org.eclipse.wst.common.component",
+		"org.eclipse.wst.common.project.facet.core.xml", "MANIFEST.MF"
+	};
+
+	private static final ModuleTraversalCache instance = new ModuleTraversalCache();
+
+	// recorded traversals, by module id
+	private final Map<String, Traversal> traversals = new HashMap<String, Traversal>();
+
+	// incremented whenever the cache is cleared
+	private long generation;
+
+	// true while the listeners are registered and the cache is used
+	private boolean started;
+
+	// guards registering and removing the listeners
+	private final Object listenerLock = new Object();
+	private boolean listening;
+	private boolean stopped;
+
+	/**
+	 * A call to a visitor.
+	 */
+	private static class Visit {
+		protected final int kind;
+		protected final Object arg;
+		protected final IPath path;
+
+		protected Visit(int kind, Object arg, IPath path) {
+			this.kind = kind;
+			this.arg = arg;
+			this.path = path;
+		}
+	}
+
+	/**
+	 * The recorded calls of a traversal.
+	 */
+	protected static class Traversal {
+		private final long generation;
+		private final List<Visit> visits = new ArrayList<Visit>();
+
+		protected Traversal(long generation) {
+			this.generation = generation;
+		}
+
+		/**
+		 * Make the recorded calls to the given visitor.
+		 *
+		 * @param visitor a visitor
+		 * @throws CoreException if the visitor fails
+		 */
+		protected void replay(IModuleVisitor visitor) throws CoreException {
+			for (Visit visit : visits) {
+				switch (visit.kind) {
+					case VISIT_WEB_COMPONENT:
+						visitor.visitWebComponent((IVirtualComponent) visit.arg);
+						break;
+					case END_VISIT_WEB_COMPONENT:
+						visitor.endVisitWebComponent((IVirtualComponent) visit.arg);
+						break;
+					case VISIT_ARCHIVE_COMPONENT:
+						visitor.visitArchiveComponent((IPath) visit.arg, visit.path);
+						break;
+					case VISIT_DEPENDENT_JAVA_PROJECT:
+						visitor.visitDependentJavaProject((IJavaProject) visit.arg);
+						break;
+					case VISIT_DEPENDENT_COMPONENT:
+						visitor.visitDependentComponent((IPath) visit.arg, visit.path);
+						break;
+					case VISIT_WEB_RESOURCE:
+						visitor.visitWebResource((IPath) visit.arg, visit.path);
+						break;
+					case VISIT_DEPENDENT_CONTENT_RESOURCE:
+						visitor.visitDependentContentResource((IPath) visit.arg, visit.path);
+						break;
+					case VISIT_EAR_RESOURCE:
+						visitor.visitEarResource((IPath) visit.arg, visit.path);
+						break;
+					case END_VISIT_EAR_COMPONENT:
+						visitor.endVisitEarComponent((IVirtualComponent) visit.arg);
+						break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * A visitor that passes the calls on to another visitor, and records them.
+	 */
+	protected static class Recorder implements IModuleVisitor {
+		private final IModuleVisitor visitor;
+		private final Traversal traversal;
+
+		protected Recorder(IModuleVisitor visitor, long generation) {
+			this.visitor = visitor;
+			traversal = new Traversal(generation);
+		}
+
+		protected Traversal getTraversal() {
+			return traversal;
+		}
+
+		private void record(int kind, Object arg, IPath path) {
+			traversal.visits.add(new Visit(kind, arg, path));
+		}
+
+		public void visitWebComponent(IVirtualComponent component) throws CoreException {
+			visitor.visitWebComponent(component);
+			record(VISIT_WEB_COMPONENT, component, null);
+		}
+
+		public void endVisitWebComponent(IVirtualComponent component) throws CoreException {
+			visitor.endVisitWebComponent(component);
+			record(END_VISIT_WEB_COMPONENT, component, null);
+		}
+
+		public void visitArchiveComponent(IPath runtimePath, IPath workspacePath) {
+			visitor.visitArchiveComponent(runtimePath, workspacePath);
+			record(VISIT_ARCHIVE_COMPONENT, runtimePath, workspacePath);
+		}
+
+		public void visitDependentJavaProject(IJavaProject javaProject) {
+			visitor.visitDependentJavaProject(javaProject);
+			record(VISIT_DEPENDENT_JAVA_PROJECT, javaProject, null);
+		}
+
+		public void visitDependentComponent(IPath runtimePath, IPath workspacePath) {
+			visitor.visitDependentComponent(runtimePath, workspacePath);
+			record(VISIT_DEPENDENT_COMPONENT, runtimePath, workspacePath);
+		}
+
+		public void visitWebResource(IPath runtimePath, IPath workspacePath) {
+			visitor.visitWebResource(runtimePath, workspacePath);
+			record(VISIT_WEB_RESOURCE, runtimePath, workspacePath);
+		}
+
+		public void visitDependentContentResource(IPath runtimePath, IPath workspacePath) {
+			visitor.visitDependentContentResource(runtimePath, workspacePath);
+			record(VISIT_DEPENDENT_CONTENT_RESOURCE, runtimePath, workspacePath);
+		}
+
+		public void visitEarResource(IPath runtimePath, IPath workspacePath) {
+			visitor.visitEarResource(runtimePath, workspacePath);
+			record(VISIT_EAR_RESOURCE, runtimePath, workspacePath);
+		}
+
+		public void endVisitEarComponent(IVirtualComponent component) throws CoreException {
+			visitor.endVisitEarComponent(component);
+			record(END_VISIT_EAR_COMPONENT, component, null);
+		}
+	}
+
+	private ModuleTraversalCache() {
+		// use getInstance()
+	}
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the cache
+	 */
+	public static ModuleTraversalCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Start listening for changes, unless the cache is already listening or
+	 * has been stopped.
+	 */
+	private void listen() {
+		synchronized (listenerLock) {
+			if (listening || stopped)
+				return;
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+			JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE);
+			listening = true;
+			synchronized (this) {
+				started = true;
+			}
+		}
+	}
+
+	/**
+	 * Stop listening for changes and discard the cached traversals. The
+	 * cache is not used again.
+	 */
+	public void stop() {
+		synchronized (listenerLock) {
+			stopped = true;
+			synchronized (this) {
+				started = false;
+			}
+			if (listening) {
+				JavaCore.removeElementChangedListener(this);
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+				listening = false;
+			}
+		}
+		clear(null);
+	}
+
+	/**
+	 * Returns the recorded traversal of a module.
+	 *
+	 * @param module a module
+	 * @return the traversal, or <code>null</code> if it is not cached
+	 */
+	protected synchronized Traversal get(IModule module) {
+		return traversals.get(module.getId());
+	}
+
+	/**
+	 * Returns true if a traversal of the given module is cached.
+	 *
+	 * @param module a module
+	 * @return <code>true</code> if the next traversal of the module is
+	 *    replayed, and <code>false</code> otherwise
+	 */
+	public synchronized boolean isCached(IModule module) {
+		return traversals.containsKey(module.getId());
+	}
+
+	/**
+	 * Create a recorder for a new traversal of a module. The first call
+	 * starts listening for changes.
+	 *
+	 * @param visitor the visitor of the traversal
+	 * @return a recorder, or <code>null</code> if the cache has been stopped
+	 */
+	protected Recorder createRecorder(IModuleVisitor visitor) {
+		listen();
+		synchronized (this) {
+			if (!started)
+				return null;
+			return new Recorder(visitor, generation);
+		}
+	}
+
+	/**
+	 * Cache a traversal of a module, unless the cache has been cleared since
+	 * the traversal started.
+	 *
+	 * @param module a module
+	 * @param traversal the traversal
+	 */
+	protected synchronized void put(IModule module, Traversal traversal) {
+		if (started && traversal.generation == generation)
+			traversals.put(module.getId(), traversal);
+	}
+
+	private synchronized void clear(String reason) {
+		generation++;
+		if (traversals.isEmpty())
+			return;
+		traversals.clear();
+		if (reason != null && Trace.isTraceEnabled())
+			Trace.trace(Trace.FINER, "Module traversals discarded: " + reason);
+	}
+
+	/**
+	 * @see IElementChangedListener#elementChanged(ElementChangedEvent)
+	 */
+	public void elementChanged(ElementChangedEvent event) {
+		if (isClasspathChange(event.getDelta()))
+			clear("classpath changed");
+	}
+
+	private static boolean isClasspathChange(IJavaElementDelta delta) {
+		if ((delta.getFlags() & CLASSPATH_FLAGS) != 0)
+			return true;
+
+		int type = delta.getElement().getElementType();
+		if (type == IJavaElement.JAVA_PROJECT && delta.getKind() != IJavaElementDelta.CHANGED)
+			return true;
+
+		// classpath changes are reported on projects and their roots
+		if (type == IJavaElement.JAVA_MODEL || type == IJavaElement.JAVA_PROJECT) {
+			IJavaElementDelta[] children = delta.getAffectedChildren();
+			for (int i = 0; i < children.length; i++) {
+				if (isClasspathChange(children[i]))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @see IResourceChangeListener#resourceChanged(IResourceChangeEvent)
+	 */
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null)
+			return;
+
+		final String[] reason = new String[1];
+		try {
+			delta.accept(new IResourceDeltaVisitor() {
+				public boolean visit(IResourceDelta d) {
+					if (reason[0] != null)
+						return false;
+					IResource resource = d.getResource();
+					int kind = d.getKind();
+					switch (resource.getType()) {
+						case IResource.PROJECT:
+							if (kind != IResourceDelta.CHANGED || (d.getFlags() & IResourceDelta.OPEN) != 0) {
+								reason[0] = "project " + resource.getName() + " changed";
+								return false;
+							}
+							return true;
+						case IResource.FOLDER:
+							if (kind != IResourceDelta.CHANGED && "resources".equals(resource.getName())
+									&& "META-INF".equals(resource.getParent().getName()))
+								reason[0] = resource.getFullPath() + " changed";
+							return true;
+						case IResource.FILE:
+							if (isTraversalFile(resource.getName()))
+								reason[0] = resource.getFullPath() + " changed";
+							return false;
+						default:
+							return true;
+					}
+				}
+			});
+		} catch (CoreException e) {
+			reason[0] = "could not check changes";
+		}
+		if (reason[0] != null)
+			clear(reason[0]);
+	}
+
+	private static boolean isTraversalFile(String name) {
+		for (int i = 0; i < FILE_NAMES.length; i++) {
+			if (FILE_NAMES[i].equals(name))
+				return true;
+		}
+		return false;
+	}
+}
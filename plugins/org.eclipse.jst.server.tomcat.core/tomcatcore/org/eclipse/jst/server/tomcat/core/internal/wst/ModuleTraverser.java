@@ -1,5 +1,5 @@
 /**********************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -92,7 +92,9 @@ public class ModuleTraverser {
 	private static final int DEPENDECYATTRIBUTETYPE_CLASSPATH_COMPONENT_NONDEPENDENCY = 2;
 
 	/**
-     * Scans the module using the specified visitor.
+     * Scans the module using the specified visitor.  The result of the
+     * scan is cached, and replayed to the visitor until the classpath or
+     * the component structure of a project changes.
      * 
      * @param module module to traverse
      * @param visitor visitor to handle resources
@@ -104,6 +106,31 @@ public class ModuleTraverser {
         if (module == null || module.getModuleType() == null)
             return;
 
+        ModuleTraversalCache cache = ModuleTraversalCache.getInstance();
+        ModuleTraversalCache.Traversal traversal = cache.get(module);
+        if (traversal != null) {
+            traversal.replay(visitor);
+            return;
+        }
+
+        ModuleTraversalCache.Recorder recorder = cache.createRecorder(visitor);
+        if (recorder == null) {
+            traverseModule(module, visitor, monitor);
+            return;
+        }
+        // a traversal that stopped early is not cached, so that it is retried
+        if (traverseModule(module, recorder, monitor))
+            cache.put(module, recorder.getTraversal());
+    }
+
+    /**
+     * Scans the module using the specified visitor.
+     * 
+     * @return <code>true</code> if the module was traversed completely, and
+     *    <code>false</code> if the traversal stopped because of an error
+     */
+    private static boolean traverseModule(IModule module, IModuleVisitor visitor,
+            IProgressMonitor monitor) throws CoreException {
         String typeId = module.getModuleType().getId();
         IVirtualComponent component = ComponentCore.createComponent(module.getProject());
 
@@ -111,14 +138,15 @@ public class ModuleTraverser {
             // can happen if project has been closed
             Trace.trace(Trace.WARNING, "Unable to create component for module "
                     + module.getName());
-            return;
+            return false;
         }
 
         if (EAR_MODULE.equals(typeId)) {
             traverseEarComponent(component, visitor, monitor);
         } else if (WEB_MODULE.equals(typeId)) {
-            traverseWebComponent(component, visitor, monitor);
+            return traverseWebComponent(component, visitor, monitor);
         }
+        return true;
     }
 
     private static void traverseEarComponent(IVirtualComponent component,
@@ -152,7 +180,7 @@ public class ModuleTraverser {
         visitor.endVisitEarComponent(component);
     }
 
-    private static void traverseWebComponent(IVirtualComponent component,
+    private static boolean traverseWebComponent(IVirtualComponent component,
             IModuleVisitor visitor, IProgressMonitor monitor)
             throws CoreException {
 
@@ -167,7 +195,7 @@ public class ModuleTraverser {
                         "Error getting WorkbenchComponent from war project. IProject=\""
                                 + proj + "\" StructureEdit=\"" + warStruct
                                 + "\" WorkbenchComponent=\"" + comp + "\"");
-                return;
+                return false;
             }
             traverseWebComponentLocalEntries(comp, visitor, monitor);
 
@@ -221,6 +249,7 @@ public class ModuleTraverser {
         }
 
         visitor.endVisitWebComponent(component);
+        return true;
     }
 
     private static void traverseWebComponentLocalEntries(
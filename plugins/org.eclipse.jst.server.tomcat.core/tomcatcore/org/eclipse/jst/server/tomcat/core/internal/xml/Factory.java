@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2007 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,9 @@
 package org.eclipse.jst.server.tomcat.core.internal.xml;
 
 import java.io.*;
+import java.lang.reflect.Constructor;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.w3c.dom.*;
 import org.xml.sax.InputSource;
@@ -21,11 +24,34 @@ import org.xml.sax.SAXException;
 import org.eclipse.jst.server.tomcat.core.internal.Trace;
 /**
  * Factory for reading and writing from XML files.
+ * <p>
+ * The XMLElement class of each element name is resolved once and kept in a
+ * registry that is shared by all factories. The child elements of each node
+ * are indexed by name the first time they are looked up; the index is
+ * updated by the structural changes that go through the factory and its
+ * elements, so the DOM must not be changed directly.
+ * </p>
  */
 public class Factory {
+	// element type registry, by package and element name
+	private static final Map<String, ElementType> types = new ConcurrentHashMap<String, ElementType>();
+
+	private static final ElementType NO_TYPE = new ElementType(null);
+
 	protected String packageName;
 	protected Document document;
 
+	// child elements of each node, by name
+	private final Map<Node, Map<String, List<Element>>> index = new IdentityHashMap<Node, Map<String, List<Element>>>();
+
+	private static class ElementType {
+		protected final Constructor<? extends XMLElement> constructor;
+
+		protected ElementType(Constructor<? extends XMLElement> constructor) {
+			this.constructor = constructor;
+		}
+	}
+
 	public Factory() {
 		// do nothing
 	}
@@ -42,33 +68,90 @@ public class Factory {
 	
 		Element element = document.createElement(s);
 		try {
-			Node child = node.getFirstChild();
-			while (child != null && !s.equals(child.getNodeName())) {
-				child = child.getNextSibling();
-			}
-			for (int i = 0; child != null && i < index; i++) {
-				child = child.getNextSibling();
-				while (child != null && !s.equals(child.getNodeName())) {
-					child = child.getNextSibling();
-				}
-			}
+			List<Element> list = getChildren(node, s);
 			// TODO Try to improve formating, maybe dup an appropriate text node
-			if (child != null)
-				node.insertBefore(element, child);
+			if (index < list.size())
+				node.insertBefore(element, list.get(index));
 			else
 				node.appendChild(element);
 		} catch (Exception e) {
 			node.appendChild(element);
 		}
+		childrenChanged(node);
 		return newInstance(element);
 	}
 	
 	protected XMLElement createElement(String s, Node node) {
 		Element element = document.createElement(s);
 		node.appendChild(element);
+		List<Element> list = getIndex(node).get(s);
+		if (list != null)
+			list.add(element);
 		return newInstance(element);
 	}
 	
+	/**
+	 * Returns the child elements of the given node with the given name, in
+	 * document order. The returned list must not be modified.
+	 * 
+	 * @param node a node
+	 * @param s an element name
+	 * @return the child elements
+	 */
+	protected List<Element> getChildren(Node node, String s) {
+		Map<String, List<Element>> map = getIndex(node);
+		List<Element> list = map.get(s);
+		if (list != null)
+			return list;
+		
+		list = new ArrayList<Element>(2);
+		Node child = node.getFirstChild();
+		while (child != null) {
+			if (child.getNodeType() == Node.ELEMENT_NODE && s.equals(child.getNodeName()))
+				list.add((Element) child);
+			child = child.getNextSibling();
+		}
+		map.put(s, list);
+		return list;
+	}
+	
+	private Map<String, List<Element>> getIndex(Node node) {
+		Map<String, List<Element>> map = index.get(node);
+		if (map == null) {
+			map = new HashMap<String, List<Element>>(4);
+			index.put(node, map);
+		}
+		return map;
+	}
+	
+	/**
+	 * Notify the factory that children have been added to or removed from the
+	 * given node.
+	 * 
+	 * @param node a node
+	 */
+	protected void childrenChanged(Node node) {
+		index.remove(node);
+	}
+	
+	/**
+	 * Notify the factory that a node has been removed from the document.
+	 * 
+	 * @param node a node
+	 */
+	protected void nodeRemoved(Node node) {
+		// drop the removed node and its descendants
+		if (node.hasChildNodes()) {
+			Iterator<Node> iterator = index.keySet().iterator();
+			while (iterator.hasNext()) {
+				Node n = iterator.next();
+				if (n == node || (node.compareDocumentPosition(n) & Node.DOCUMENT_POSITION_CONTAINED_BY) != 0)
+					iterator.remove();
+			}
+		} else
+			index.remove(node);
+	}
+	
 	public byte[] getContents() throws IOException {
 		return XMLUtil.getContents(document);
 	}
@@ -88,6 +171,7 @@ public class Factory {
 	public XMLElement loadDocument(InputStream in) throws IOException, SAXException {
 		try {
 			document = XMLUtil.getDocumentBuilder().parse(new InputSource(in));
+			index.clear();
 			Element element = document.getDocumentElement();
 			return newInstance(element);
 		} catch (IllegalArgumentException exception) {
@@ -97,7 +181,28 @@ public class Factory {
 	}
 
 	protected XMLElement newInstance(Element element) {
-		String s = element.getNodeName();
+		ElementType type = getType(packageName, element.getNodeName());
+		if (type.constructor == null)
+			return null;
+		
+		try {
+			XMLElement xmlElement = type.constructor.newInstance();
+			xmlElement.setElement(element);
+			xmlElement.setFactory(this);
+			return xmlElement;
+		} catch (Exception exception) {
+			// ignore
+		}
+		return null;
+	}
+	
+	private static ElementType getType(String packageName, String name) {
+		String key = packageName + "/" + name;
+		ElementType type = types.get(key);
+		if (type != null)
+			return type;
+		
+		String s = name;
 		try {
 			// change "web-app:test" to "WebAppTest"
 			s = s.substring(0, 1).toUpperCase() + s.substring(1);
@@ -115,16 +220,13 @@ public class Factory {
 			// add package name
 			if (packageName != null)
 				s = packageName + "." + s;
-			Class class1 = Class.forName(s);
-	
-			XMLElement xmlElement = (XMLElement) class1.newInstance();
-			xmlElement.setElement(element);
-			xmlElement.setFactory(this);
-			return xmlElement;
+			Class<? extends XMLElement> class1 = Class.forName(s).asSubclass(XMLElement.class);
+			type = new ElementType(class1.getConstructor());
 		} catch (Exception exception) {
-			// ignore
+			type = NO_TYPE;
 		}
-		return null;
+		types.put(key, type);
+		return type;
 	}
 	
 	public void save(String filename) throws IOException {
@@ -133,6 +235,7 @@ public class Factory {
 	
 	public void setDocument(Document d) {
 		document = d;
+		index.clear();
 	}
 	
 	public void setPackageName(String s) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,11 +13,16 @@
 package org.eclipse.jst.server.tomcat.core.internal.xml;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.w3c.dom.*;
 /**
  * An XML element.
+ * <p>
+ * Child elements are looked up among the direct children of the element,
+ * using the index kept by the factory.
+ * </p>
  */
 public class XMLElement {
 	private Element xmlElement;
@@ -46,27 +51,17 @@ public class XMLElement {
 	}
 
 	public XMLElement findElement(String s) {
-		NodeList nodelist = xmlElement.getElementsByTagName(s);
-		int i = nodelist == null ? 0 : nodelist.getLength();
-		for (int j = 0; j < i; j++) {
-			Node node = nodelist.item(j);
-			String s1 = node.getNodeName().trim();
-			if (s1.equals(s))
-				return factory.newInstance((Element) node);
-		}
+		List<Element> list = factory.getChildren(xmlElement, s);
+		if (!list.isEmpty())
+			return factory.newInstance(list.get(0));
 	
 		return createElement(s);
 	}
 
 	public XMLElement findElement(String s, int i) {
-		NodeList nodelist = xmlElement.getElementsByTagName(s);
-		int j = nodelist == null ? 0 : nodelist.getLength();
-		for (int k = 0; k < j; k++) {
-			Node node = nodelist.item(k);
-			String s1 = node.getNodeName().trim();
-			if (s1.equals(s) && k == i)
-				return factory.newInstance((Element) node);
-		}
+		List<Element> list = factory.getChildren(xmlElement, s);
+		if (i >= 0 && i < list.size())
+			return factory.newInstance(list.get(i));
 	
 		return createElement(s);
 	}
@@ -114,14 +109,9 @@ public class XMLElement {
 	}
 	
 	public Element getSubElement(String s) {
-		NodeList nodelist = xmlElement.getElementsByTagName(s);
-		int i = nodelist == null ? 0 : nodelist.getLength();
-		for (int j = 0; j < i; j++) {
-			Node node = nodelist.item(j);
-			String s1 = node.getNodeName().trim();
-			if (s1.equals(s))
-				return (Element) node;
-		}
+		List<Element> list = factory.getChildren(xmlElement, s);
+		if (!list.isEmpty())
+			return list.get(0);
 	
 		return null;
 	}
@@ -148,18 +138,15 @@ public class XMLElement {
 	}
 
 	public boolean removeElement(String s, int i) {
-		NodeList nodelist = xmlElement.getElementsByTagName(s);
-		int j = nodelist == null ? 0 : nodelist.getLength();
-		for (int k = 0; k < j; k++) {
-			Node node = nodelist.item(k);
-			String s1 = node.getNodeName().trim();
-			if (s1.equals(s) && k == i) {
-				xmlElement.removeChild(node);
-				return true;
-			}
-		}
+		List<Element> list = factory.getChildren(xmlElement, s);
+		if (i < 0 || i >= list.size())
+			return false;
 	
-		return false;
+		Element element = list.get(i);
+		factory.nodeRemoved(element);
+		xmlElement.removeChild(element);
+		factory.childrenChanged(xmlElement);
+		return true;
 	}
 
 	public void setAttributeValue(String s, String s1) {
@@ -201,14 +188,13 @@ public class XMLElement {
 			element = factory.document.createElement(s);
 			element.appendChild(factory.document.createTextNode("temp"));
 			xmlElement.appendChild(element);
+			factory.childrenChanged(xmlElement);
 		}
 		setElementValue(element, value);
 	}
 
 	public int sizeOfElement(String s) {
-		NodeList nodelist = xmlElement.getElementsByTagName(s);
-		int i = nodelist == null ? 0 : nodelist.getLength();
-		return i;
+		return factory.getChildren(xmlElement, s).size();
 	}
 
 	public void updateElementValue(String s) {
@@ -236,8 +222,11 @@ public class XMLElement {
 	public void removeChildren()
 	{
 		while (xmlElement.hasChildNodes()) {
-			xmlElement.removeChild(xmlElement.getFirstChild());
+			Node child = xmlElement.getFirstChild();
+			factory.nodeRemoved(child);
+			xmlElement.removeChild(child);
 		}
+		factory.childrenChanged(xmlElement);
 	}
 	
 	public void copyChildrenTo(XMLElement destination) {
@@ -251,6 +240,7 @@ public class XMLElement {
 	
 	public void importNode(Node node, boolean deep) {
 		xmlElement.appendChild(xmlElement.getOwnerDocument().importNode(node, deep));
+		factory.childrenChanged(xmlElement);
 	}
 
 	/**
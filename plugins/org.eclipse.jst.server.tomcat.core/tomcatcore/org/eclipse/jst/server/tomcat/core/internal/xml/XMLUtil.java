@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2011 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,8 @@ import org.xml.sax.SAXException;
  * Utility class to create and read XML documents.
  */
 public class XMLUtil {
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
 	private static DocumentBuilder documentBuilder;
 
 	/**
@@ -119,20 +121,9 @@ public class XMLUtil {
 	}
 
 	public static byte[] getContents(Document document) throws IOException {
-		ByteArrayOutputStream out = new ByteArrayOutputStream();
-		try {
-			print(new PrintStream(out, true, "UTF-8"), document);
-			return out.toByteArray();
-		} catch (Exception ex) {
-			throw new IOException(ex.getLocalizedMessage());
-		} finally {
-			if (out != null)
-				try {
-					out.close();
-				} catch (Exception e) {
-					// ignore
-				}
-		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+		write(out, document);
+		return out.toByteArray();
 	}
 
 	protected static String getDocumentTypeData(DocumentType doctype) {
@@ -203,148 +194,200 @@ public class XMLUtil {
 	}
 
 	protected static String normalize(String s) {
-		StringBuffer stringbuffer = new StringBuffer();
+		StringWriter w = new StringWriter();
+		try {
+			normalize(w, s);
+		} catch (IOException e) {
+			// ignore, can't happen
+		}
+		return w.toString();
+	}
+
+	private static void normalize(Writer out, String s) throws IOException {
 		int i = s == null ? 0 : s.length();
+		int start = 0;
 		for (int j = 0; j < i; j++) {
-			char c = s.charAt(j);
-			switch (c) {
+			String rep;
+			switch (s.charAt(j)) {
 				case 60 : /* '<' */
-					stringbuffer.append("&lt;");
+					rep = "&lt;";
 					break;
 	
 				case 62 : /* '>' */
-					stringbuffer.append("&gt;");
+					rep = "&gt;";
 					break;
 	
 				case 38 : /* '&' */
-					stringbuffer.append("&amp;");
+					rep = "&amp;";
 					break;
 	
 				case 34 : /* '"' */
-					stringbuffer.append("&quot;");
+					rep = "&quot;";
 					break;
 	
-				case 10 : /* '\n' */
-				case 13 : /* '\r' */
 				default :
-					stringbuffer.append(c);
-					break;
-	
+					continue;
 			}
+			// write runs of plain characters at once
+			out.write(s, start, j - start);
+			out.write(rep);
+			start = j + 1;
 		}
-	
-		return stringbuffer.toString();
+		if (start < i)
+			out.write(s, start, i - start);
 	}
 
-	protected static void print(PrintStream out, Node node) {
+	/**
+	 * Write the given node to a stream, in UTF-8. All nodes, including the
+	 * whitespace between elements, are written as they are, so the formatting
+	 * of a loaded document is preserved.
+	 * 
+	 * @param out an output stream
+	 * @param node a node
+	 * @throws IOException if the node cannot be written
+	 */
+	public static void write(OutputStream out, Node node) throws IOException {
+		Writer w = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), 8192);
+		print(w, node);
+		w.flush();
+	}
+
+	protected static void print(Writer out, Node node) throws IOException {
 		if (node == null)
 			return;
 		short type = node.getNodeType();
 		switch (type) {
 			case Node.DOCUMENT_NODE: {
-				out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-				//out.println("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n");
-				NodeList nodelist = node.getChildNodes();
-				int size = nodelist.getLength();
-				for (int i = 0; i < size; i++)
-					print(out, nodelist.item(i));
+				out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+				out.write(LINE_SEPARATOR);
+				Node child = node.getFirstChild();
+				while (child != null) {
+					print(out, child);
+					child = child.getNextSibling();
+				}
 				break;
 			}
 	
 			case Node.DOCUMENT_TYPE_NODE: {
 				DocumentType docType = (DocumentType) node;
-				out.print("<!DOCTYPE " + getDocumentTypeData(docType) + ">\n");
+				out.write("<!DOCTYPE ");
+				out.write(getDocumentTypeData(docType));
+				out.write(">\n");
 				break;
 			}
 	
 			case Node.ELEMENT_NODE: {
-				out.print('<');
-				out.print(node.getNodeName());
+				out.write('<');
+				out.write(node.getNodeName());
 				NamedNodeMap map = node.getAttributes();
 				if (map != null) {
 					int size = map.getLength();
 					for (int i = 0; i < size; i++) {
 						Attr attr = (Attr) map.item(i);
-						out.print(' ');
-						out.print(attr.getNodeName());
-						out.print("=\"");
-						out.print(normalize(attr.getNodeValue()));
-						out.print('"');
+						out.write(' ');
+						out.write(attr.getNodeName());
+						out.write("=\"");
+						normalize(out, attr.getNodeValue());
+						out.write('"');
 					}
 				}
 	
-				if (!node.hasChildNodes())
-					out.print("/>");
+				Node child = node.getFirstChild();
+				if (child == null)
+					out.write("/>");
 				else {
-					out.print('>');
-					NodeList nodelist = node.getChildNodes();
-					int numChildren = nodelist.getLength();
-					for (int i = 0; i < numChildren; i++)
-						print(out, nodelist.item(i));
+					out.write('>');
+					while (child != null) {
+						print(out, child);
+						child = child.getNextSibling();
+					}
 	
-					out.print("</");
-					out.print(node.getNodeName());
-					out.print('>');
+					out.write("</");
+					out.write(node.getNodeName());
+					out.write('>');
 				}
 				break;
 			}
 	
 			case Node.ENTITY_REFERENCE_NODE: {
-				NodeList nodelist = node.getChildNodes();
-				if (nodelist != null) {
-					int size = nodelist.getLength();
-					for (int i = 0; i < size; i++)
-						print(out, nodelist.item(i));
-	
+				Node child = node.getFirstChild();
+				while (child != null) {
+					print(out, child);
+					child = child.getNextSibling();
 				}
 				break;
 			}
 	
-			case Node.CDATA_SECTION_NODE: {
-				out.print(normalize(node.getNodeValue()));
-				break;
-			}
-	
-			case Node.TEXT_NODE: {
-				out.print(normalize(node.getNodeValue()));
-				break;
-			}
-	
 			case Node.PROCESSING_INSTRUCTION_NODE: {
-				out.print("<?");
-				out.print(node.getNodeName());
+				out.write("<?");
+				out.write(node.getNodeName());
 				String s = node.getNodeValue();
 				if (s != null && s.length() > 0) {
-					out.print(' ');
-					out.print(s);
+					out.write(' ');
+					out.write(s);
 				}
-				out.print("?>");
+				out.write("?>");
 				break;
 			}
 	
 			case Node.COMMENT_NODE: {
-				out.print("<!--");
-				out.print(node.getNodeValue());
-				out.print("-->");
+				out.write("<!--");
+				out.write(node.getNodeValue());
+				out.write("-->");
 				break;
 			}
 	
 			default: {
-				out.print(normalize(node.getNodeValue()));
+				// text and CDATA sections
+				normalize(out, node.getNodeValue());
 				break;
 			}
 		}
-		out.flush();
 	}
 
 	public static void save(String filename, Document document) throws IOException {
-		PrintStream out = null;
+		save(filename, (Node) document);
+	}
+
+	/**
+	 * Save a document, unless the file already contains an equivalent
+	 * document. Documents are equivalent if their elements have the same
+	 * names, attributes, and children, ignoring formatting whitespace. This
+	 * keeps the time stamp of unchanged files, which Tomcat watches for
+	 * changes.
+	 *
+	 * @param filename the file name
+	 * @param document the document to save
+	 * @return <code>true</code> if the file was written, and
+	 *    <code>false</code> if it was already up to date
+	 * @throws IOException if the file cannot be written
+	 */
+	public static boolean saveIfChanged(String filename, Document document) throws IOException {
+		byte[] b = getContents(document);
+		File file = new File(filename);
+		if (file.exists()) {
+			try {
+				byte[] existing = readContents(file);
+				if (Arrays.equals(b, existing))
+					return false;
+				if (existing.length == 0)
+					return writeContents(file, b);
+				Document existingDocument = getDocumentBuilder().parse(new ByteArrayInputStream(existing));
+				if (isEquivalent(document.getDocumentElement(), existingDocument.getDocumentElement()))
+					return false;
+			} catch (Exception e) {
+				// write the file if the existing one cannot be read
+				Trace.trace(Trace.FINER, "Could not compare with " + filename + ": " + e.getMessage());
+			}
+		}
+		return writeContents(file, b);
+	}
+
+	private static boolean writeContents(File file, byte[] b) throws IOException {
+		OutputStream out = null;
 		try {
-			out = new PrintStream(new BufferedOutputStream(new FileOutputStream(filename)), true, "UTF-8");
-			//traceNode(document, "");
-			print(out, document);
-		} catch (Exception ex) {
-			throw new IOException(ex.getLocalizedMessage());
+			out = new FileOutputStream(file);
+			out.write(b);
 		} finally {
 			if (out != null)
 				try {
@@ -353,15 +396,87 @@ public class XMLUtil {
 					// ignore
 				}
 		}
+		return true;
+	}
+
+	private static byte[] readContents(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+			byte[] buf = new byte[8192];
+			int n = in.read(buf);
+			while (n >= 0) {
+				out.write(buf, 0, n);
+				n = in.read(buf);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns true if the given elements have the same name, attributes, and
+	 * children. Text that is only whitespace is ignored, and other text is
+	 * compared without leading and trailing whitespace.
+	 *
+	 * @param element an element, or <code>null</code>
+	 * @param otherElement an element, or <code>null</code>
+	 * @return <code>true</code> if the elements are equivalent
+	 */
+	public static boolean isEquivalent(Element element, Element otherElement) {
+		if (element == null || otherElement == null)
+			return element == otherElement;
+		if (!element.getNodeName().equals(otherElement.getNodeName()))
+			return false;
+
+		NamedNodeMap attrs = element.getAttributes();
+		NamedNodeMap otherAttrs = otherElement.getAttributes();
+		if (attrs.getLength() != otherAttrs.getLength())
+			return false;
+		for (int i = 0; i < attrs.getLength(); i++) {
+			Node attr = attrs.item(i);
+			Node otherAttr = otherAttrs.getNamedItem(attr.getNodeName());
+			if (otherAttr == null || !attr.getNodeValue().equals(otherAttr.getNodeValue()))
+				return false;
+		}
+
+		Node node = nextSignificantNode(element.getFirstChild());
+		Node otherNode = nextSignificantNode(otherElement.getFirstChild());
+		while (node != null && otherNode != null) {
+			short type = node.getNodeType();
+			if (type == Node.CDATA_SECTION_NODE)
+				type = Node.TEXT_NODE;
+			short otherType = otherNode.getNodeType();
+			if (otherType == Node.CDATA_SECTION_NODE)
+				otherType = Node.TEXT_NODE;
+			if (type != otherType)
+				return false;
+			if (type == Node.ELEMENT_NODE) {
+				if (!isEquivalent((Element) node, (Element) otherNode))
+					return false;
+			} else if (type == Node.TEXT_NODE) {
+				if (!node.getNodeValue().trim().equals(otherNode.getNodeValue().trim()))
+					return false;
+			} else if (!String.valueOf(node.getNodeValue()).equals(String.valueOf(otherNode.getNodeValue())))
+				return false;
+			node = nextSignificantNode(node.getNextSibling());
+			otherNode = nextSignificantNode(otherNode.getNextSibling());
+		}
+		return node == null && otherNode == null;
+	}
+
+	private static Node nextSignificantNode(Node node) {
+		while (node != null && node.getNodeType() == Node.TEXT_NODE && node.getNodeValue().trim().length() == 0)
+			node = node.getNextSibling();
+		return node;
 	}
 
 	public static void save(String filename, Node node) throws IOException {
-		PrintStream out = null;
+		OutputStream out = null;
 		try {
-			out = new PrintStream(new BufferedOutputStream(new FileOutputStream(filename)), true, "UTF-8");
-			print(out, node);
-		} catch (Exception ex) {
-			throw new IOException(ex.getLocalizedMessage());
+			out = new FileOutputStream(filename);
+			write(out, node);
 		} finally {
 			if (out != null)
 				try {
@@ -396,21 +511,12 @@ public class XMLUtil {
 	}
 
 	public static String toString(Document document) {
-		PrintStream out = null;
 		try {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream(2048);
-			out = new PrintStream(baos);
+			StringWriter out = new StringWriter(2048);
 			print(out, document);
-			return new String(baos.toByteArray(), "UTF-8");
+			return out.toString();
 		} catch (Exception ex) {
 			// ignore
-		} finally {
-			if (out != null)
-				try {
-					out.close();
-				} catch (Exception e) {
-					// ignore
-				}
 		}
 		return null;
 	}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core;
+
+import org.eclipse.core.runtime.IStatus;
+/**
+ * The measurements taken during a single publish to a server.
+ * <p>
+ * A publish is divided into phases, which are run in the order of the PHASE_XX
+ * constants. Phases that were not run (for instance because the publish was
+ * canceled, or because the server's behaviour delegate overrides the default
+ * publishing) have no time. The time of each module publish is also recorded,
+ * together with the number of files and bytes that were copied by
+ * {@link org.eclipse.wst.server.core.util.PublishHelper} while publishing the
+ * module.
+ * </p>
+ * <p>
+ * All times are in milliseconds. Publish metrics are passed to publish metrics
+ * listeners after the publish has finished, and do not change afterwards.
+ * </p>
+ * <p>
+ * This interface is not intended to be implemented by clients.
+ * </p>
+ *
+ * @see IPublishMetricsListener
+ * @since 1.11
+ */
+public interface IPublishMetrics {
+	/**
+	 * Publish phase constant (value "delta") for computing which modules have
+	 * been added, changed, or removed since the last publish.
+	 */
+	public static final String PHASE_DELTA = "delta";
+
+	/**
+	 * Publish phase constant (value "publishStart") for the server's
+	 * publishStart() call.
+	 */
+	public static final String PHASE_START = "publishStart";
+
+	/**
+	 * Publish phase constant (value "tasks") for running the publish tasks.
+	 */
+	public static final String PHASE_TASKS = "tasks";
+
+	/**
+	 * Publish phase constant (value "publishers") for running the publishers.
+	 */
+	public static final String PHASE_PUBLISHERS = "publishers";
+
+	/**
+	 * Publish phase constant (value "publishServer") for the server's
+	 * publishServer() call.
+	 */
+	public static final String PHASE_SERVER = "publishServer";
+
+	/**
+	 * Publish phase constant (value "publishModules") for publishing all of
+	 * the modules.
+	 */
+	public static final String PHASE_MODULES = "publishModules";
+
+	/**
+	 * Publish phase constant (value "publishFinish") for the server's
+	 * publishFinish() call.
+	 */
+	public static final String PHASE_FINISH = "publishFinish";
+
+	/**
+	 * Publish phase constant (value "save") for recording and saving the
+	 * published resources after the publish.
+	 */
+	public static final String PHASE_SAVE = "save";
+
+	/**
+	 * Returns the server that was published to.
+	 *
+	 * @return the server
+	 */
+	public IServer getServer();
+
+	/**
+	 * Returns the kind of publish.
+	 *
+	 * @return one of the IServer.PUBLISH_XX constants
+	 */
+	public int getKind();
+
+	/**
+	 * Returns the result of the publish.
+	 *
+	 * @return the publish status
+	 */
+	public IStatus getStatus();
+
+	/**
+	 * Returns the total time of the publish.
+	 *
+	 * @return the time in milliseconds
+	 */
+	public long getTotalTime();
+
+	/**
+	 * Returns the phases that were run, in the order they were run.
+	 *
+	 * @return a possibly empty array of PHASE_XX constants
+	 */
+	public String[] getPhases();
+
+	/**
+	 * Returns the time of the given phase.
+	 *
+	 * @param phase one of the PHASE_XX constants
+	 * @return the time in milliseconds, or -1 if the phase was not run
+	 */
+	public long getPhaseTime(String phase);
+
+	/**
+	 * Returns the modules that were published, in the order they were
+	 * published.
+	 *
+	 * @return a possibly empty array of modules
+	 */
+	public IModule[][] getModules();
+
+	/**
+	 * Returns the time to publish the given module.
+	 *
+	 * @param module a module
+	 * @return the time in milliseconds, or -1 if the module was not published
+	 */
+	public long getModuleTime(IModule[] module);
+
+	/**
+	 * Returns the number of files that were copied while publishing the given
+	 * module.
+	 *
+	 * @param module a module
+	 * @return the number of files
+	 */
+	public int getModuleFilesCopied(IModule[] module);
+
+	/**
+	 * Returns the number of bytes that were copied while publishing the given
+	 * module.
+	 *
+	 * @param module a module
+	 * @return the number of bytes
+	 */
+	public long getModuleBytesCopied(IModule[] module);
+
+	/**
+	 * Returns the total number of files that were copied during the publish.
+	 *
+	 * @return the number of files
+	 */
+	public int getFilesCopied();
+
+	/**
+	 * Returns the total number of bytes that were copied during the publish.
+	 *
+	 * @return the number of bytes
+	 */
+	public long getBytesCopied();
+}
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core;
+/**
+ * A publish metrics listener is notified with the measurements of each
+ * publish, to any server.
+ * <p>
+ * Publish metrics listeners are added via
+ * {@link ServerCore#addPublishMetricsListener(IPublishMetricsListener)}.
+ * The event is fired on the publishing thread after the publish has finished,
+ * so listeners should return quickly.
+ * </p>
+ *
+ * @see IPublishMetrics
+ * @see ServerCore
+ * @since 1.11
+ */
+public interface IPublishMetricsListener {
+	/**
+	 * Fired when a publish has finished.
+	 *
+	 * @param metrics the measurements of the publish
+	 */
+	public void publishMeasured(IPublishMetrics metrics);
+}
@@ -450,6 +450,31 @@ public final class ServerCore {
 		getResourceManager().removeServerLifecycleListener(listener);
 	}
 
+	/**
+	 * Adds a new publish metrics listener, which is notified with the
+	 * measurements of every publish to any server.
+	 * Has no effect if an identical listener is already registered.
+	 *
+	 * @param listener a publish metrics listener
+	 * @see #removePublishMetricsListener(IPublishMetricsListener)
+	 * @since 1.11
+	 */
+	public static void addPublishMetricsListener(IPublishMetricsListener listener) {
+		PublishMetrics.addListener(listener);
+	}
+
+	/**
+	 * Removes a publish metrics listener.
+	 * Has no effect if the listener is not registered.
+	 *
+	 * @param listener a publish metrics listener
+	 * @see #addPublishMetricsListener(IPublishMetricsListener)
+	 * @since 1.11
+	 */
+	public static void removePublishMetricsListener(IPublishMetricsListener listener) {
+		PublishMetrics.removeListener(listener);
+	}
+
 	/**
 	 * Returns the preferred runtime server for the given module. This method
 	 * returns null if the server was never chosen or does not currently exist. (if the
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.Platform;
+/**
+ * A lazily loaded cache of the descriptors contributed to one extension point
+ * of this plugin.
+ * <p>
+ * The extension point is read on first use. Only descriptor objects are
+ * created from the configuration elements; the descriptors are expected to
+ * defer loading their delegate classes until they are needed. Each extension
+ * point has its own cache, and reading a loaded cache does not lock. If two
+ * threads load the same extension point at the same time, both read the
+ * registry and one of the results is kept.
+ * </p>
+ *
+ * @param <T> the descriptor type
+ */
+public abstract class ExtensionCache<T> {
+	private final String extensionPoint;
+	private final String elementName;
+
+	private final AtomicReference<List<T>> extensions = new AtomicReference<List<T>>();
+
+	// incremented on each clear, so that a load that raced with a clear is discarded
+	private final AtomicInteger generation = new AtomicInteger();
+
+	/**
+	 * Create a new cache.
+	 *
+	 * @param extensionPoint the simple id of the extension point
+	 * @param elementName a name for the descriptors, used for tracing
+	 */
+	public ExtensionCache(String extensionPoint, String elementName) {
+		this.extensionPoint = extensionPoint;
+		this.elementName = elementName;
+	}
+
+	/**
+	 * Returns the simple id of the extension point.
+	 *
+	 * @return the extension point id
+	 */
+	public String getExtensionPoint() {
+		return extensionPoint;
+	}
+
+	/**
+	 * Returns the descriptors, loading the extension point if necessary.
+	 *
+	 * @return an unmodifiable, possibly empty list of descriptors
+	 */
+	public List<T> get() {
+		List<T> list = extensions.get();
+		while (list == null) {
+			int gen = generation.get();
+			List<T> loaded = load();
+			if (extensions.compareAndSet(null, loaded) && gen != generation.get())
+				extensions.compareAndSet(loaded, null);
+			list = extensions.get();
+		}
+		return list;
+	}
+
+	/**
+	 * Discards the loaded descriptors, e.g. after the extension point has
+	 * changed. The next call to {@link #get()} will read the registry again.
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		extensions.set(null);
+	}
+
+	/**
+	 * Returns <code>true</code> if the extension point has been loaded.
+	 *
+	 * @return <code>true</code> if the descriptors are loaded
+	 */
+	public boolean isLoaded() {
+		return extensions.get() != null;
+	}
+
+	/**
+	 * Create the descriptor for the given configuration element.
+	 *
+	 * @param element a configuration element
+	 * @return the descriptor, or <code>null</code> to skip the element
+	 * @throws Exception if the descriptor could not be created
+	 */
+	protected abstract T create(IConfigurationElement element) throws Exception;
+
+	/**
+	 * Sort the loaded descriptors. The default implementation keeps the
+	 * registry order.
+	 *
+	 * @param list the descriptors
+	 */
+	protected void sort(List<T> list) {
+		// do nothing
+	}
+
+	private List<T> load() {
+		if (Trace.EXTENSION_POINT) {
+			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading ." + extensionPoint + " extension point ->-");
+		}
+		IExtensionRegistry registry = Platform.getExtensionRegistry();
+		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, extensionPoint);
+
+		int size = cf.length;
+		List<T> list = new ArrayList<T>(size);
+		for (int i = 0; i < size; i++) {
+			try {
+				T t = create(cf[i]);
+				if (t != null) {
+					list.add(t);
+					if (Trace.EXTENSION_POINT) {
+						Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded " + elementName + ": " + cf[i].getAttribute("id"));
+					}
+				}
+			} catch (Throwable t) {
+				if (Trace.SEVERE) {
+					Trace.trace(Trace.STRING_SEVERE, "  Could not load " + elementName + ": " + cf[i].getAttribute("id"), t);
+				}
+			}
+		}
+		sort(list);
+
+		if (Trace.EXTENSION_POINT) {
+			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading ." + extensionPoint + " extension point -<-");
+		}
+		return Collections.unmodifiableList(list);
+	}
+}
@@ -15,9 +15,24 @@ package org.eclipse.wst.server.core.internal;
 import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
@@ -28,8 +43,18 @@ import org.eclipse.wst.server.core.internal.tar.TarInputStream;
  * 
  */
 public class InstallableRuntime2 implements IInstallableRuntime {
+	// size of the copy buffers
+	private static final int BUFFER_SIZE = 65536;
+
+	// maximum number of threads used to extract a zip archive
+	private static final int MAX_EXTRACT_THREADS = 4;
+
+	// interval at which the extraction progress is reported
+	private static final long PROGRESS_INTERVAL = 100;
+
+	private static final String DEFAULT_CHECKSUM_ALGORITHM = "SHA-256";
+
 	private IConfigurationElement element;
-	private byte[] BUFFER = null;
 
 	// Default sizes (infinite logarithmic progress will be used when default is employed)
 	private int DEFAULT_DOWNLOAD_SIZE = 10000000;
@@ -94,6 +119,21 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 		return -1;
 	}
 
+	/**
+	 * Returns the expected checksum of the archive, in the form
+	 * <code>algorithm:hex-digest</code>, or <code>null</code> if none is specified.
+	 * 
+	 * @return the archive checksum, or <code>null</code>
+	 */
+	public String getArchiveChecksum() {
+		try {
+			return element.getAttribute("archiveChecksum");
+		} catch (Exception e) {
+			// ignore
+		}
+		return null;
+	}
+
 	public String getLicenseURL() {
 		try {
 			return element.getAttribute("licenseUrl");
@@ -123,7 +163,7 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 			}
 			InputStream in = connection.getInputStream();
 			out = new ByteArrayOutputStream();
-			copyWithSize(in, out, null, 0);
+			copyWithSize(in, out, new byte[BUFFER_SIZE], null, 0);
 			return new String(out.toByteArray());
 		} catch (Exception e) {
 			if (Trace.WARNING) {
@@ -164,31 +204,34 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 		installRuntimeJob.schedule();
 	}
 
-	private void copyWithSize(InputStream in, OutputStream out, IProgressMonitor monitor, int size) throws IOException {
-		if (BUFFER == null)
-			BUFFER = new byte[8192];
+	private static void copyWithSize(InputStream in, OutputStream out, byte[] buffer, IProgressMonitor monitor, int size) throws IOException {
 		SubMonitor progress = SubMonitor.convert(monitor, size);
-		int r = in.read(BUFFER);
+		int r = in.read(buffer);
 		while (r >= 0) {
-			out.write(BUFFER, 0, r);
+			out.write(buffer, 0, r);
 			progress.worked(r);
-			r = in.read(BUFFER);
+			r = in.read(buffer);
 		}
 	}
 
+	/**
+	 * Copy the input stream to the output stream, reporting the download progress.
+	 * The output stream may be <code>null</code> if the content only needs to be
+	 * read, e.g. to compute its checksum.
+	 */
 	private void download(InputStream in, OutputStream out, IProgressMonitor monitor, String name, int size) throws IOException {
-		if (BUFFER == null)
-			BUFFER = new byte[8192];
+		byte[] buffer = new byte[BUFFER_SIZE];
 		
 		String msg = NLS.bind((size > 0) ? Messages.taskDownloadSizeKnown : Messages.taskDownloadSizeUnknown,
 				new Object [] { name, "{0}", Integer.toString(size / 1024) });
 		SubMonitor progress = SubMonitor.convert(monitor, NLS.bind(msg, "0"), (size > 0) ? size : DEFAULT_DOWNLOAD_SIZE);
 		
-		int r = in.read(BUFFER);
+		int r = in.read(buffer);
 		int total = 0;
 		int lastTotal = 0;
 		while (r >= 0) {
-			out.write(BUFFER, 0, r);
+			if (out != null)
+				out.write(buffer, 0, r);
 			total += r;
 			if (total >= lastTotal + 8192) {
 				lastTotal = total;
@@ -201,7 +244,7 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 			
 			if (progress.isCanceled())
 				break;
-			r = in.read(BUFFER);
+			r = in.read(buffer);
 		}
 	}
 
@@ -211,16 +254,13 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 	public void install(IPath path, IProgressMonitor monitor) throws CoreException {
 		SubMonitor progress = SubMonitor.convert(monitor, 1000);
 		URL url = null;
-		File temp = null;
 		try {
 			url = new URL(getArchiveUrl());
-			temp = File.createTempFile("runtime", "");
-			temp.deleteOnExit();
 		} catch (IOException e) {
 			if (monitor != null)
 				monitor.done();
 			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Error creating url and temp file", e);
+				Trace.trace(Trace.STRING_WARNING, "Error creating url", e);
 			}
 			throw new CoreException(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0,
 				NLS.bind(Messages.errorInstallingServer, e.getLocalizedMessage()), e));
@@ -232,110 +272,254 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 		
 		int archiveSize = getArchiveSize();
 		
-		// download
-		FileOutputStream fout = null;
+		File temp = null;
+		InputStream in = null;
 		try {
-			InputStream in = url.openStream();
-			fout = new FileOutputStream(temp);
-			download(in, fout, progress.newChild(500), name, archiveSize);
-			progress.setWorkRemaining(500);
+			MessageDigest digest = createDigest();
+			boolean zip = name.endsWith("zip");
+			boolean tar = name.endsWith("tar") || name.endsWith("tar.gz");
+			if (zip || (tar && digest != null)) {
+				// zip entries are extracted in parallel, which needs random access to a local
+				// file, and an archive with a checksum must be verified before it is extracted
+				File file = getLocalFile(url);
+				if (file == null) {
+					temp = ScratchSpace.getInstance().createTempFile();
+					temp.deleteOnExit();
+					file = temp;
+					in = openStream(url, digest);
+					FileOutputStream fout = new FileOutputStream(temp);
+					try {
+						download(in, fout, progress.newChild(500), name, archiveSize);
+					} finally {
+						fout.close();
+					}
+				} else if (digest != null) {
+					in = openStream(url, digest);
+					download(in, null, progress.newChild(500), name, archiveSize);
+				}
+				progress.setWorkRemaining(500);
+				if (progress.isCanceled())
+					throw new CoreException(Status.CANCEL_STATUS);
+				
+				verifyChecksum(digest, name);
+				if (zip)
+					unzip(file, path, progress.newChild(500));
+				else
+					untar(openTar(new FileInputStream(file), name), path, progress.newChild(500));
+			} else if (tar) {
+				// nothing to verify, so inflate and untar in a single pass while downloading
+				in = openStream(url, null);
+				untar(openTar(in, name), path, progress.newChild(1000));
+			}
+			if (progress.isCanceled())
+				throw new CoreException(Status.CANCEL_STATUS);
+		} catch (CoreException ce) {
+			throw ce;
 		} catch (Exception e) {
-			if (monitor != null)
-				monitor.done();
-			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Error downloading runtime", e);
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Error installing runtime", e);
 			}
 			throw new CoreException(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0,
 				NLS.bind(Messages.errorInstallingServer, e.getLocalizedMessage()), e));
 		} finally {
 			try {
-				if (fout != null)
-					fout.close();
+				if (in != null)
+					in.close();
 			} catch (IOException e) {
 				// ignore
 			}
+			if (temp != null && !temp.delete() && Trace.FINER) {
+				Trace.trace(Trace.STRING_FINER, "Could not delete temp file " + temp);
+			}
+			progress.done();
 		}
-		if (progress.isCanceled())
-			throw new CoreException(Status.CANCEL_STATUS);
+	}
+
+	/**
+	 * Returns the file that the given URL points to, or <code>null</code> if it is
+	 * not a local file.
+	 */
+	private static File getLocalFile(URL url) {
+		if (!"file".equals(url.getProtocol()))
+			return null;
 		
-		FileInputStream in = null;
 		try {
-			in = new FileInputStream(temp);
-			if (name.endsWith("zip"))
-				unzip(in, path, progress.newChild(500));
-			else if (name.endsWith("tar"))
-				untar(in, path, progress.newChild(500));
-			else if (name.endsWith("tar.gz")) {
-				File tarFile = File.createTempFile("runtime", ".tar");
-				tarFile.deleteOnExit();
-				String tarName = name;
-				if (slashIdx >= 0)
-					tarName = name.substring(0, name.length() - 3);
-				
-				progress.subTask(NLS.bind(Messages.taskUncompressing, tarName));
-				int tempSize = Integer.MAX_VALUE;
-				if (temp.length() < Integer.MAX_VALUE)
-					tempSize = (int)temp.length();
-				
-				ungzip(in, tarFile, progress.newChild(250), tempSize);
-				progress.setWorkRemaining(250);
-				if (!progress.isCanceled()) {
-					in = new FileInputStream(tarFile);
-					untar(in, path, progress.newChild(250));
-				}
-			}
+			return new File(url.toURI());
 		} catch (Exception e) {
+			// URL is not properly encoded
+			return new File(url.getPath());
+		}
+	}
+
+	/**
+	 * Returns a stream of the tar archive in the given stream, inflating it if it
+	 * is compressed.
+	 */
+	private static InputStream openTar(InputStream in, String name) throws IOException {
+		if (!name.endsWith("tar.gz"))
+			return in;
+		
+		try {
+			return new GZIPInputStream(new BufferedInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	private static InputStream openStream(URL url, MessageDigest digest) throws IOException {
+		InputStream in = new BufferedInputStream(url.openStream(), BUFFER_SIZE);
+		if (digest != null)
+			in = new DigestInputStream(in, digest);
+		return in;
+	}
+
+	/**
+	 * Returns a digest for the algorithm of the archive checksum, or <code>null</code>
+	 * if no checksum is specified.
+	 */
+	private MessageDigest createDigest() throws NoSuchAlgorithmException {
+		String checksum = getArchiveChecksum();
+		if (checksum == null || checksum.length() == 0)
+			return null;
+		
+		int ind = checksum.indexOf(':');
+		String algorithm = (ind > 0) ? checksum.substring(0, ind).trim() : DEFAULT_CHECKSUM_ALGORITHM;
+		return MessageDigest.getInstance(algorithm);
+	}
+
+	private void verifyChecksum(MessageDigest digest, String name) throws CoreException {
+		if (digest == null)
+			return;
+		
+		String checksum = getArchiveChecksum();
+		String expected = checksum.substring(checksum.indexOf(':') + 1).trim();
+		byte[] b = digest.digest();
+		StringBuffer sb = new StringBuffer(b.length * 2);
+		for (int i = 0; i < b.length; i++) {
+			sb.append(Character.forDigit((b[i] >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b[i] & 0xF, 16));
+		}
+		if (!sb.toString().equalsIgnoreCase(expected)) {
 			if (Trace.SEVERE) {
-				Trace.trace(Trace.STRING_SEVERE, "Error uncompressing runtime", e);
+				Trace.trace(Trace.STRING_SEVERE, "Checksum mismatch for " + name + ": expected " + expected + ", was " + sb);
 			}
 			throw new CoreException(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0,
-				NLS.bind(Messages.errorInstallingServer, e.getLocalizedMessage()), e));
-		} finally {
-			try {
-				if (in != null)
-					in.close();
-			} catch (IOException e) {
-				// ignore
-			}
-			progress.done();
+				NLS.bind(Messages.errorInstallingServerChecksum, name), null));
 		}
 	}
 
 	/**
-	 * Unzip the input stream into the given path.
+	 * Unzip the given file into the given path. Directories are created first,
+	 * then the file entries are extracted in parallel.
 	 * 
-	 * @param in
+	 * @param file
 	 * @param path
 	 * @param monitor
 	 * @throws IOException
 	 */
-	private void unzip(InputStream in, IPath path, IProgressMonitor monitor) throws IOException {
-		int fileCnt = getFileCount();
-		SubMonitor progress = SubMonitor.convert(monitor, (fileCnt > 0) ? fileCnt : DEFAULT_FILE_COUNT);
-		String archivePath = getArchivePath();
-		BufferedInputStream bin = new BufferedInputStream(in);
-		ZipInputStream zin = new ZipInputStream(bin);
-		ZipEntry entry = zin.getNextEntry();
-		while (entry != null) {
-			String name = entry.getName();
-			progress.subTask(NLS.bind(Messages.taskUncompressing, name));
-			
-			if (name != null && name.length() > 0) {
+	private void unzip(File file, final IPath path, IProgressMonitor monitor) throws IOException {
+		final ZipFile zipFile = new ZipFile(file);
+		try {
+			// create all directories up front so that the workers do not race on them
+			final List<ZipEntry> files = new ArrayList<ZipEntry>();
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (name == null || name.length() == 0)
+					continue;
+				
+				File target = path.append(name).toFile();
 				if (entry.isDirectory())
-					path.append(name).toFile().mkdirs();
+					target.mkdirs();
 				else {
-					FileOutputStream fout = new FileOutputStream(path.append(name).toFile());
-					copyWithSize(zin, fout, progress.newChild(1), (int)entry.getSize());
-					fout.close();
-					// if count is not known, use infinite logarithmic progress
-					if (fileCnt <= 0)
-						progress.setWorkRemaining(DEFAULT_FILE_COUNT);
+					File dir = target.getParentFile();
+					if (dir != null && !dir.exists())
+						dir.mkdirs();
+					files.add(entry);
+				}
+			}
+			
+			final int size = files.size();
+			SubMonitor progress = SubMonitor.convert(monitor, size);
+			if (size == 0)
+				return;
+			
+			final AtomicInteger next = new AtomicInteger();
+			final AtomicInteger done = new AtomicInteger();
+			final AtomicBoolean stop = new AtomicBoolean();
+			int threads = Math.min(size, Math.min(Runtime.getRuntime().availableProcessors(), MAX_EXTRACT_THREADS));
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Runtime extraction");
+					thread.setDaemon(true);
+					return thread;
 				}
+			});
+			List<Future<Object>> futures = new ArrayList<Future<Object>>(threads);
+			for (int i = 0; i < threads; i++) {
+				futures.add(executor.submit(new Callable<Object>() {
+					public Object call() throws IOException {
+						byte[] buffer = new byte[BUFFER_SIZE];
+						try {
+							int j = next.getAndIncrement();
+							while (j < size && !stop.get()) {
+								ZipEntry entry = files.get(j);
+								InputStream in = zipFile.getInputStream(entry);
+								try {
+									FileOutputStream fout = new FileOutputStream(path.append(entry.getName()).toFile());
+									try {
+										copyWithSize(in, fout, buffer, null, 0);
+									} finally {
+										fout.close();
+									}
+								} finally {
+									in.close();
+								}
+								done.incrementAndGet();
+								j = next.getAndIncrement();
+							}
+						} catch (IOException e) {
+							stop.set(true);
+							throw e;
+						}
+						return null;
+					}
+				}));
 			}
-			zin.closeEntry();
-			entry = zin.getNextEntry();
+			executor.shutdown();
+			
+			// report progress from the calling thread, which owns the monitor
+			try {
+				int reported = 0;
+				while (!executor.awaitTermination(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS)) {
+					int count = done.get();
+					if (count > reported) {
+						progress.subTask(NLS.bind(Messages.taskUncompressing, files.get(count - 1).getName()));
+						progress.worked(count - reported);
+						reported = count;
+					}
+					if (progress.isCanceled())
+						stop.set(true);
+				}
+				progress.worked(done.get() - reported);
+				
+				for (Future<Object> f : futures)
+					f.get();
+			} catch (InterruptedException e) {
+				stop.set(true);
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable t = e.getCause();
+				if (t instanceof IOException)
+					throw (IOException) t;
+				throw new IOException(t);
+			}
+		} finally {
+			zipFile.close();
 		}
-		zin.close();
 	}
 
 	/**
@@ -349,56 +533,37 @@ public class InstallableRuntime2 implements IInstallableRuntime {
 	protected void untar(InputStream in, IPath path, IProgressMonitor monitor) throws IOException {
 		int fileCnt = getFileCount();
 		SubMonitor progress = SubMonitor.convert(monitor, (fileCnt > 0) ? fileCnt : 500);
-		String archivePath = getArchivePath();
-		BufferedInputStream bin = new BufferedInputStream(in);
+		byte[] buffer = new byte[BUFFER_SIZE];
+		BufferedInputStream bin = new BufferedInputStream(in, BUFFER_SIZE);
 		TarInputStream zin = new TarInputStream(bin);
-		TarEntry entry = zin.getNextEntry();
-		while (entry != null) {
-			String name = entry.getName();
-			progress.subTask(NLS.bind(Messages.taskUncompressing, name));
-			
-			if (name != null && name.length() > 0) {
-				if (entry.getFileType() == TarEntry.DIRECTORY)
-					path.append(name).toFile().mkdirs();
-				else {
-					File dir = path.append(name).removeLastSegments(1).toFile();
-					if (!dir.exists())
-						dir.mkdirs();
-					
-					FileOutputStream fout = new FileOutputStream(path.append(name).toFile());
-					copyWithSize(zin, fout, progress.newChild(1), (int)entry.getSize());
-					fout.close();
-					if (fileCnt <= 0)
-						progress.setWorkRemaining(500);
-				}
-			}
-			entry = zin.getNextEntry();
-		}
-		zin.close();
-	}
-
-	protected void ungzip(InputStream in, File tarFile, IProgressMonitor monitor, int size) throws IOException {
-		GZIPInputStream gzin = null;
-		FileOutputStream fout = null;
 		try {
-			gzin = new GZIPInputStream(in);
-			fout = new FileOutputStream(tarFile);
-			copyWithSize(gzin, fout, monitor, size);
-		} finally {
-			if (gzin != null) {
-				try {
-					gzin.close();
-				} catch (IOException e) {
-					// ignore
-				}
-				if (fout != null) {
-					try {
-						fout.close();
-					} catch (IOException e) {
-						// ignore
+			TarEntry entry = zin.getNextEntry();
+			while (entry != null && !progress.isCanceled()) {
+				String name = entry.getName();
+				progress.subTask(NLS.bind(Messages.taskUncompressing, name));
+				
+				if (name != null && name.length() > 0) {
+					if (entry.getFileType() == TarEntry.DIRECTORY)
+						path.append(name).toFile().mkdirs();
+					else {
+						File dir = path.append(name).removeLastSegments(1).toFile();
+						if (!dir.exists())
+							dir.mkdirs();
+						
+						FileOutputStream fout = new FileOutputStream(path.append(name).toFile());
+						try {
+							copyWithSize(zin, fout, buffer, progress.newChild(1), (int)entry.getSize());
+						} finally {
+							fout.close();
+						}
+						if (fileCnt <= 0)
+							progress.setWorkRemaining(500);
 					}
 				}
+				entry = zin.getNextEntry();
 			}
+		} finally {
+			zin.close();
 		}
 	}
 
@@ -0,0 +1,348 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+/**
+ * Answers whether a host refers to the local machine without blocking on
+ * name resolution.
+ * <p>
+ * The addresses of the local network interfaces are kept in an immutable
+ * snapshot. The snapshot is created on startup and refreshed in the background,
+ * together with the host names of those addresses. Other host names are
+ * resolved by a background job and the results are kept in positive and
+ * negative caches that expire. A lookup of a host name that has not been
+ * resolved yet returns <code>false</code> and queues the name for resolution.
+ * </p>
+ */
+public class LocalhostResolver {
+	// age after which the interface snapshot is refreshed in the background
+	private static final long SNAPSHOT_TTL = 5 * 60 * 1000;
+
+	// time that resolved host names are cached
+	private static final long POSITIVE_TTL = 30 * 60 * 1000;
+	private static final long NEGATIVE_TTL = 60 * 1000;
+
+	private static LocalhostResolver instance;
+
+	/**
+	 * An immutable set of local addresses and host names.
+	 */
+	private static class Snapshot {
+		protected final Set<String> hosts;
+		protected final long time;
+
+		protected Snapshot(Set<String> hosts) {
+			this.hosts = Collections.unmodifiableSet(hosts);
+			this.time = System.currentTimeMillis();
+		}
+	}
+
+	private class RefreshJob extends Job {
+		public RefreshJob() {
+			super("Caching localhost information");
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			Set<InetAddress> addresses = getInterfaceAddresses();
+			Set<String> hosts = new HashSet<String>(addresses.size() * 3);
+			addAddresses(hosts, addresses);
+
+			// publish the addresses first, the host names may take a while
+			snapshot = new Snapshot(new HashSet<String>(hosts));
+
+			try {
+				InetAddress localHost = InetAddress.getLocalHost();
+				hosts.add(localHost.getHostAddress().toLowerCase());
+				hosts.add(localHost.getHostName().toLowerCase());
+				hosts.add(localHost.getCanonicalHostName().toLowerCase());
+			} catch (Exception e) {
+				if (Trace.WARNING) {
+					Trace.trace(Trace.STRING_WARNING, "Localhost caching failure", e);
+				}
+			}
+
+			Iterator<InetAddress> iterator = addresses.iterator();
+			while (iterator.hasNext() && !monitor.isCanceled()) {
+				InetAddress addr = iterator.next();
+				hosts.add(addr.getHostName().toLowerCase());
+				hosts.add(addr.getCanonicalHostName().toLowerCase());
+			}
+
+			snapshot = new Snapshot(hosts);
+			localCache.clear();
+			notLocalCache.clear();
+			return Status.OK_STATUS;
+		}
+	}
+
+	private class LookupJob extends Job {
+		public LookupJob() {
+			super("Resolving host names");
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			Iterator<String> iterator = pending.iterator();
+			while (iterator.hasNext() && !monitor.isCanceled()) {
+				String host = iterator.next();
+				iterator.remove();
+				resolve(host);
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	private volatile Snapshot snapshot;
+
+	// host names that were resolved, mapped to the time the entry expires
+	protected final Map<String, Long> localCache = new ConcurrentHashMap<String, Long>();
+	protected final Map<String, Long> notLocalCache = new ConcurrentHashMap<String, Long>();
+
+	// host names waiting to be resolved by the lookup job
+	protected final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private final Job refreshJob;
+	private final Job lookupJob;
+
+	private LocalhostResolver() {
+		refreshJob = new RefreshJob();
+		refreshJob.setSystem(true);
+		refreshJob.setPriority(Job.DECORATE);
+
+		lookupJob = new LookupJob();
+		lookupJob.setSystem(true);
+		lookupJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Returns the singleton instance.
+	 *
+	 * @return the localhost resolver
+	 */
+	public static synchronized LocalhostResolver getInstance() {
+		if (instance == null)
+			instance = new LocalhostResolver();
+		return instance;
+	}
+
+	/**
+	 * Discards the cached information and recomputes the local addresses and
+	 * host names in the background, e.g. after the network configuration has
+	 * changed.
+	 */
+	public void refresh() {
+		refreshJob.schedule();
+	}
+
+	/**
+	 * Stops any background resolution.
+	 */
+	public void shutdown() {
+		refreshJob.cancel();
+		lookupJob.cancel();
+		pending.clear();
+	}
+
+	/**
+	 * Returns <code>true</code> if the given host name or address is known to
+	 * refer to the local machine. This method never blocks on name resolution.
+	 *
+	 * @param host a lower case host name or IP address
+	 * @return <code>true</code> if the host is known to be local, and
+	 *    <code>false</code> otherwise
+	 */
+	public boolean isLocalhost(String host) {
+		Snapshot s = getSnapshot();
+		if (s.hosts.contains(host))
+			return true;
+
+		long now = System.currentTimeMillis();
+		if (s.time + SNAPSHOT_TTL < now)
+			refresh();
+
+		Long expiry = localCache.get(host);
+		if (expiry != null && expiry.longValue() > now)
+			return true;
+		expiry = notLocalCache.get(host);
+		if (expiry != null && expiry.longValue() > now)
+			return false;
+
+		// an address literal that isn't in the snapshot is not local
+		if (isAddressLiteral(host)) {
+			resolve(host);
+			return localCache.containsKey(host);
+		}
+
+		if (pending.add(host))
+			lookupJob.schedule();
+		return false;
+	}
+
+	/**
+	 * Returns the current snapshot. If the background job has not published
+	 * one yet, the interface addresses (which do not need name resolution) are
+	 * read directly.
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot s = snapshot;
+		if (s != null)
+			return s;
+
+		Set<String> hosts = new HashSet<String>();
+		addAddresses(hosts, getInterfaceAddresses());
+		s = new Snapshot(hosts);
+		snapshot = s;
+		refresh();
+		return s;
+	}
+
+	protected void resolve(String host) {
+		Snapshot s = getSnapshot();
+		boolean local = false;
+		try {
+			InetAddress[] addrs = InetAddress.getAllByName(host);
+			for (InetAddress addr : addrs) {
+				if (addr.isLoopbackAddress() || s.hosts.contains(addr.getHostAddress().toLowerCase()))
+					local = true;
+			}
+		} catch (Exception e) {
+			// unknown host
+		}
+
+		long now = System.currentTimeMillis();
+		if (local) {
+			localCache.put(host, Long.valueOf(now + POSITIVE_TTL));
+			notLocalCache.remove(host);
+		} else {
+			notLocalCache.put(host, Long.valueOf(now + NEGATIVE_TTL));
+			localCache.remove(host);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given host is a valid IPv4 or IPv6
+	 * address literal, which can be resolved without a name lookup.
+	 */
+	public static boolean isAddressLiteral(String host) {
+		if (host.indexOf(':') >= 0)
+			return isIPv6Literal(host);
+		return isIPv4Literal(host);
+	}
+
+	private static boolean isIPv4Literal(String host) {
+		String[] parts = host.split("\\.", -1);
+		if (parts.length != 4)
+			return false;
+		for (String part : parts) {
+			if (!isNumber(part, 3, 10) || Integer.parseInt(part) > 255)
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean isIPv6Literal(String host) {
+		if (host.startsWith("[") && host.endsWith("]"))
+			host = host.substring(1, host.length() - 1);
+
+		// scope, e.g. fe80::1%1 or fe80::1%eth0
+		int ind = host.indexOf('%');
+		if (ind >= 0) {
+			String scope = host.substring(ind + 1);
+			if (scope.length() == 0)
+				return false;
+			for (int i = 0; i < scope.length(); i++) {
+				if (!Character.isLetterOrDigit(scope.charAt(i)))
+					return false;
+			}
+			host = host.substring(0, ind);
+		}
+
+		int compressed = host.indexOf("::");
+		if (compressed >= 0 && host.indexOf("::", compressed + 1) >= 0)
+			return false;
+		if ((host.startsWith(":") && compressed != 0) || (host.endsWith(":") && !host.endsWith("::")))
+			return false;
+
+		String[] parts = host.split(":", -1);
+		int groups = 0;
+		for (int i = 0; i < parts.length; i++) {
+			String part = parts[i];
+			if (part.length() == 0) {
+				// only allowed as part of the single "::"
+				if (compressed < 0)
+					return false;
+				continue;
+			}
+			if (i == parts.length - 1 && part.indexOf('.') >= 0) {
+				// embedded IPv4 address, e.g. ::ffff:127.0.0.1
+				if (!isIPv4Literal(part))
+					return false;
+				groups += 2;
+			} else if (isNumber(part, 4, 16))
+				groups++;
+			else
+				return false;
+		}
+		if (compressed >= 0)
+			return groups < 8;
+		return groups == 8;
+	}
+
+	private static boolean isNumber(String s, int maxLength, int radix) {
+		int size = s.length();
+		if (size == 0 || size > maxLength)
+			return false;
+		for (int i = 0; i < size; i++) {
+			char c = s.charAt(i);
+			if (c > 'f' || Character.digit(c, radix) < 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static void addAddresses(Set<String> hosts, Set<InetAddress> addresses) {
+		Iterator<InetAddress> iterator = addresses.iterator();
+		while (iterator.hasNext())
+			hosts.add(iterator.next().getHostAddress().toLowerCase());
+	}
+
+	private static Set<InetAddress> getInterfaceAddresses() {
+		Set<InetAddress> addresses = new HashSet<InetAddress>();
+		try {
+			Enumeration<NetworkInterface> nis = NetworkInterface.getNetworkInterfaces();
+			while (nis != null && nis.hasMoreElements()) {
+				Enumeration<InetAddress> ias = nis.nextElement().getInetAddresses();
+				while (ias.hasMoreElements())
+					addresses.add(ias.nextElement());
+			}
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not read network interfaces", e);
+			}
+		}
+		return addresses;
+	}
+}
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+/**
+ * A directory of mementos, one file per record, with a manifest that lists
+ * the records in order.
+ * <p>
+ * Each record is identified by an id and stored in its own file, so that
+ * changing one record only rewrites that file. A record is only written if its
+ * content differs from what is on disk, and the manifest is only written when
+ * records are added or removed. All files are written to a temporary file
+ * first and then moved into place, so that a crash never leaves a partially
+ * written file behind.
+ * </p>
+ */
+public class MementoStore {
+	private static final String MANIFEST_FILE = "manifest.xml";
+	private static final String RECORD_PREFIX = "r";
+	private static final String RECORD_SUFFIX = ".xml";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final File dir;
+
+	// record id to file name, in manifest order
+	private final Map<String, String> records = new LinkedHashMap<String, String>();
+
+	// record id to the content last read or written
+	private final Map<String, byte[]> contents = new HashMap<String, byte[]>();
+
+	// ids of the records that could not be read, kept until they are saved again
+	private final Set<String> failed = new HashSet<String>();
+
+	private int next;
+	private boolean loaded;
+
+	/**
+	 * Create a store in the given directory. The directory is created when the
+	 * first record is written.
+	 *
+	 * @param dir the directory
+	 */
+	public MementoStore(File dir) {
+		this.dir = dir;
+	}
+
+	/**
+	 * Returns <code>true</code> if the store has been written before.
+	 *
+	 * @return <code>true</code> if the manifest exists
+	 */
+	public boolean exists() {
+		return new File(dir, MANIFEST_FILE).exists();
+	}
+
+	/**
+	 * Load all records, in manifest order. Records that are missing or cannot
+	 * be read are skipped, but stay in the manifest and keep their file. Temporary
+	 * files left behind by an interrupted write are deleted.
+	 *
+	 * @return the record mementos
+	 */
+	public synchronized List<IMemento> load() {
+		records.clear();
+		contents.clear();
+		failed.clear();
+		next = 0;
+		loaded = true;
+
+		List<IMemento> list = new ArrayList<IMemento>();
+		File manifestFile = new File(dir, MANIFEST_FILE);
+		if (!manifestFile.exists())
+			return list;
+
+		boolean parsed = false;
+		try {
+			IMemento manifest = XMLMemento.loadMemento(manifestFile.getAbsolutePath());
+			Integer n = manifest.getInteger("next");
+			if (n != null)
+				next = n.intValue();
+
+			IMemento[] children = manifest.getChildren("record");
+			for (IMemento child : children) {
+				String id = child.getString("id");
+				String name = child.getString("file");
+				if (id == null || name == null)
+					continue;
+
+				records.put(id, name);
+				try {
+					byte[] b = Files.readAllBytes(new File(dir, name).toPath());
+					IMemento memento = XMLMemento.loadMemento(new ByteArrayInputStream(b));
+					if (memento == null)
+						throw new IOException("Could not parse " + name);
+					contents.put(id, b);
+					list.add(memento);
+				} catch (IOException e) {
+					failed.add(id);
+					if (Trace.WARNING) {
+						Trace.trace(Trace.STRING_WARNING, "Could not load record " + id + " from " + name, e);
+					}
+				}
+			}
+			parsed = true;
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not load " + manifestFile, e);
+			}
+		}
+
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files) {
+				String name = f.getName();
+				if (parsed && name.endsWith(TEMP_SUFFIX)) {
+					// left behind by an interrupted write
+					f.delete();
+				} else if (name.startsWith(RECORD_PREFIX) && name.endsWith(RECORD_SUFFIX)) {
+					// never reuse the name of a file that is still on disk
+					try {
+						int i = Integer.parseInt(name.substring(RECORD_PREFIX.length(), name.length() - RECORD_SUFFIX.length()));
+						if (i >= next)
+							next = i + 1;
+					} catch (NumberFormatException e) {
+						// ignore
+					}
+				}
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Save a record. The record is only written if its content has changed,
+	 * and the manifest is only written if the record is new.
+	 *
+	 * @param id the record id
+	 * @param memento the record content
+	 * @throws IOException if the record could not be written
+	 */
+	public synchronized void save(String id, XMLMemento memento) throws IOException {
+		if (!loaded)
+			load();
+
+		byte[] b = memento.getContents();
+		if (Arrays.equals(b, contents.get(id)))
+			return;
+
+		String name = records.get(id);
+		boolean added = name == null;
+		if (added)
+			name = RECORD_PREFIX + (next++) + RECORD_SUFFIX;
+
+		if (Trace.FINEST) {
+			Trace.trace(Trace.STRING_FINEST, "Writing record " + id + " to " + name);
+		}
+
+		// write the record before the manifest refers to it
+		write(name, b);
+		contents.put(id, b);
+		failed.remove(id);
+		if (added) {
+			records.put(id, name);
+			saveManifest();
+		}
+	}
+
+	/**
+	 * Remove a record.
+	 *
+	 * @param id the record id
+	 * @throws IOException if the manifest could not be written
+	 */
+	public synchronized void remove(String id) throws IOException {
+		if (!loaded)
+			load();
+
+		String name = records.remove(id);
+		if (name == null)
+			return;
+
+		contents.remove(id);
+		failed.remove(id);
+
+		// write the manifest before the record disappears
+		saveManifest();
+		new File(dir, name).delete();
+	}
+
+	/**
+	 * Remove all records except the given ones. Records that could not be read
+	 * are kept.
+	 *
+	 * @param ids the ids of the records to keep
+	 * @throws IOException if the manifest could not be written
+	 */
+	public synchronized void retain(Collection<String> ids) throws IOException {
+		if (!loaded)
+			load();
+
+		List<String> remove = new ArrayList<String>();
+		for (String id : records.keySet()) {
+			if (!ids.contains(id) && !failed.contains(id))
+				remove.add(id);
+		}
+		for (String id : remove)
+			remove(id);
+	}
+
+	private void saveManifest() throws IOException {
+		XMLMemento manifest = XMLMemento.createWriteRoot("manifest");
+		manifest.putInteger("next", next);
+		for (Map.Entry<String, String> entry : records.entrySet()) {
+			IMemento child = manifest.createChild("record");
+			child.putString("id", entry.getKey());
+			child.putString("file", entry.getValue());
+		}
+		write(MANIFEST_FILE, manifest.getContents());
+	}
+
+	/**
+	 * Write the given content to a temporary file and move it into place.
+	 */
+	private void write(String name, byte[] b) throws IOException {
+		if (!dir.exists() && !dir.mkdirs())
+			throw new IOException("Could not create " + dir);
+
+		File temp = new File(dir, name + TEMP_SUFFIX);
+		File file = new File(dir, name);
+		OutputStream out = new FileOutputStream(temp);
+		try {
+			out.write(b);
+		} finally {
+			out.close();
+		}
+
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	public String toString() {
+		return "MementoStore[" + dir + "]";
+	}
+}
@@ -49,11 +49,16 @@ public class Messages extends NLS {
 	public static String errorStartTimeout;
 	public static String errorStartFailed;
 	public static String errorStopFailed;
+	public static String errorGroupCycle;
+	public static String errorGroupDependency;
+	public static String errorGroupStartFailed;
+	public static String errorGroupStopFailed;
 	public static String errorRestartTimeout;
 	public static String errorRestartFailed;
 	public static String errorModuleRestartFailed;
 	public static String errorInstallingServer;
 	public static String errorInstallingServerFeature;
+	public static String errorInstallingServerChecksum;
 	public static String errorRestartModule;
 	public static String errorPublishModule;
 	public static String canStartErrorState;
@@ -68,6 +73,8 @@ public class Messages extends NLS {
 	public static String jobUpdatingServers;
 	public static String jobUpdateServer;
 	public static String jobInstallingRuntime;
+	public static String jobStartingGroup;
+	public static String jobStoppingGroup;
 	public static String errorMissingAdapter;
 	
 	public static String errorCopyingFile;
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.wst.server.core.IModule;
+/**
+ * An immutable key for a module path (a root module followed by its child
+ * modules), used to store module state on a server. The hash code is computed
+ * once from the module ids, and the "#"-joined string form is only built on
+ * demand.
+ * <p>
+ * Instances should be obtained from a {@link ModulePath.Table}, which interns
+ * them so that repeated lookups with the same module array do not create new
+ * instances.
+ * </p>
+ */
+public final class ModulePath {
+	private static final String SEPARATOR = "#";
+	private static final String NULL_ID = "null";
+
+	private final String[] ids;
+	private final int hash;
+	private String key;
+
+	private ModulePath(String[] ids, int hash) {
+		this.ids = ids;
+		this.hash = hash;
+	}
+
+	/**
+	 * Create a new (non-interned) module path for the given module array.
+	 *
+	 * @param module a module array
+	 * @return the module path
+	 */
+	public static ModulePath create(IModule[] module) {
+		int size = module == null ? 0 : module.length;
+		String[] ids = new String[size];
+		for (int i = 0; i < size; i++)
+			ids[i] = getId(module[i]);
+		return new ModulePath(ids, hashCode(ids));
+	}
+
+	/**
+	 * Create a new (non-interned) module path from a "#"-joined module id string,
+	 * as returned by {@link #toString()}.
+	 *
+	 * @param key a combined module id string
+	 * @return the module path
+	 */
+	public static ModulePath parse(String key) {
+		List<String> list = new ArrayList<String>(2);
+		if (key != null) {
+			StringTokenizer st = new StringTokenizer(key, SEPARATOR);
+			while (st.hasMoreTokens())
+				list.add(st.nextToken());
+		}
+		String[] ids = new String[list.size()];
+		list.toArray(ids);
+		ModulePath path = new ModulePath(ids, hashCode(ids));
+		if (key != null && key.length() > 0 && key.equals(path.toString()))
+			path.key = key;
+		return path;
+	}
+
+	private static String getId(IModule module) {
+		if (module == null)
+			return NULL_ID;
+		return module.getId();
+	}
+
+	private static int hashCode(String[] ids) {
+		int h = 1;
+		int size = ids.length;
+		for (int i = 0; i < size; i++)
+			h = 31 * h + (ids[i] == null ? 0 : ids[i].hashCode());
+		return h;
+	}
+
+	private static int hashCode(IModule[] module) {
+		int h = 1;
+		int size = module == null ? 0 : module.length;
+		for (int i = 0; i < size; i++) {
+			String id = getId(module[i]);
+			h = 31 * h + (id == null ? 0 : id.hashCode());
+		}
+		return h;
+	}
+
+	private boolean matches(IModule[] module) {
+		int size = module == null ? 0 : module.length;
+		if (size != ids.length)
+			return false;
+		for (int i = 0; i < size; i++) {
+			String id = getId(module[i]);
+			if (id == null ? ids[i] != null : !id.equals(ids[i]))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of modules in this path.
+	 *
+	 * @return the number of modules
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the individual module ids, starting with the root module.
+	 *
+	 * @return the module ids
+	 */
+	public String[] getModuleIds() {
+		String[] s = new String[ids.length];
+		System.arraycopy(ids, 0, s, 0, ids.length);
+		return s;
+	}
+
+	/**
+	 * Returns a module path containing the first <code>count</code> modules of
+	 * this path.
+	 *
+	 * @param count the number of modules
+	 * @return the module path
+	 */
+	public ModulePath subPath(int count) {
+		if (count == ids.length)
+			return this;
+		String[] s = new String[count];
+		System.arraycopy(ids, 0, s, 0, count);
+		return new ModulePath(s, hashCode(s));
+	}
+
+	public int hashCode() {
+		return hash;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == this)
+			return true;
+		if (!(obj instanceof ModulePath))
+			return false;
+
+		ModulePath path = (ModulePath) obj;
+		if (hash != path.hash || ids.length != path.ids.length)
+			return false;
+
+		int size = ids.length;
+		for (int i = 0; i < size; i++) {
+			if (ids[i] == null ? path.ids[i] != null : !ids[i].equals(path.ids[i]))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the "#"-joined module ids, which is the persisted form of this key.
+	 */
+	public String toString() {
+		if (key == null) {
+			StringBuffer sb = new StringBuffer();
+			int size = ids.length;
+			for (int i = 0; i < size; i++) {
+				if (i != 0)
+					sb.append(SEPARATOR);
+				sb.append(ids[i]);
+			}
+			key = sb.toString();
+		}
+		return key;
+	}
+
+	/**
+	 * A key that finds the module path for a module array in a hash map
+	 * without creating the module path first. Maps compare keys by calling
+	 * equals() on the key that is looked up.
+	 */
+	private static final class Lookup {
+		private final IModule[] module;
+		private final int hash;
+
+		protected Lookup(IModule[] module) {
+			this.module = module;
+			this.hash = ModulePath.hashCode(module);
+		}
+
+		public int hashCode() {
+			return hash;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ModulePath))
+				return false;
+			ModulePath path = (ModulePath) obj;
+			return path.hash == hash && path.matches(module);
+		}
+	}
+
+	/**
+	 * An intern table of module paths. Looking up a module array that is
+	 * already in the table does not create a module path, and lookups do not
+	 * block each other.
+	 */
+	public static final class Table {
+		private final Map<ModulePath, ModulePath> paths = new ConcurrentHashMap<ModulePath, ModulePath>();
+
+		/**
+		 * Returns the interned module path for the given module array, adding it
+		 * to the table if necessary.
+		 *
+		 * @param module a module array
+		 * @return the interned module path
+		 */
+		public ModulePath intern(IModule[] module) {
+			ModulePath path = paths.get(new Lookup(module));
+			if (path != null)
+				return path;
+			return intern(create(module));
+		}
+
+		/**
+		 * Returns the interned module path equal to the given path, adding it to
+		 * the table if necessary.
+		 *
+		 * @param modulePath a module path
+		 * @return the interned module path
+		 */
+		public ModulePath intern(ModulePath modulePath) {
+			ModulePath path = paths.putIfAbsent(modulePath, modulePath);
+			return path == null ? modulePath : path;
+		}
+
+		/**
+		 * Returns the interned module path for the given "#"-joined module id string.
+		 *
+		 * @param key a combined module id string
+		 * @return the interned module path
+		 */
+		public ModulePath intern(String key) {
+			return intern(parse(key));
+		}
+
+		/**
+		 * Remove all module paths from the table except the given ones, e.g.
+		 * after modules have been removed from the server.
+		 *
+		 * @param keep the module paths that are still in use
+		 */
+		public void retain(Collection<ModulePath> keep) {
+			paths.keySet().retainAll(keep);
+		}
+
+		/**
+		 * Returns the number of module paths in the table.
+		 *
+		 * @return the number of module paths
+		 */
+		public int size() {
+			return paths.size();
+		}
+	}
+}
@@ -12,8 +12,12 @@
  *******************************************************************************/
 package org.eclipse.wst.server.core.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.*;
 import org.eclipse.core.runtime.*;
@@ -47,6 +51,14 @@ public class ModulePublishInfo {
 	private IModuleType moduleType;
 	private boolean isExternal;
 
+	// the publish info file that holds the resources, if they have not been read yet
+	private ServerPublishInfo resourceFile;
+	private long resourceOffset;
+	private int resourceLength;
+
+	// guards the resources and their location in the publish info file
+	private Object lock = this;
+
 	private boolean useCache;
 	private IModuleResource[] currentResources = null;
 	private IModuleResourceDelta[] delta = null;
@@ -106,6 +118,26 @@ public class ModulePublishInfo {
 		load(in);
 	}
 
+	/**
+	 * ModulePublishInfo constructor. Only the module information and the
+	 * location of the resources are read; the resources are read from the given
+	 * publish info file when they are first needed.
+	 * 
+	 * @param in an input stream
+	 * @param resourceFile the publish info file that holds the resources
+	 * @throws IOException if the load fails
+	 */
+	protected ModulePublishInfo(DataInput in, ServerPublishInfo resourceFile) throws IOException {
+		super();
+		
+		loadHeader(in);
+		this.resourceFile = resourceFile;
+		this.resourceOffset = in.readLong();
+		this.resourceLength = in.readInt();
+		this.lock = resourceFile.fileLock;
+		resources = null;
+	}
+
 	public String getModuleId() {
 		return moduleId;
 	}
@@ -119,11 +151,42 @@ public class ModulePublishInfo {
 	}
 
 	public IModuleResource[] getResources() {
-		return resources;
+		synchronized (lock) {
+			loadResources();
+			return resources;
+		}
 	}
 
 	public void setResources(IModuleResource[] res) {
-		resources = res;
+		synchronized (lock) {
+			resources = res;
+			resourceFile = null;
+		}
+	}
+
+	/**
+	 * Read the resources from the publish info file, if they haven't been read
+	 * yet. The caller must hold the lock.
+	 */
+	private void loadResources() {
+		if (resourceFile == null)
+			return;
+		
+		if (Trace.FINEST) {
+			Trace.trace(Trace.STRING_FINEST, "Loading module publish resources for: " + moduleId);
+		}
+		
+		try {
+			byte[] b = resourceFile.readResources(resourceOffset, resourceLength);
+			resources = loadResource(new DataInputStream(new ByteArrayInputStream(b)), new Path(""));
+		} catch (IOException e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not load module publish resources for: " + moduleId, e);
+			}
+			// treat the module as if it had never been published
+			resources = EMPTY_MODULE_RESOURCE;
+		}
+		resourceFile = null;
 	}
 
 	/**
@@ -191,7 +254,11 @@ public class ModulePublishInfo {
 	}
 
 	protected void load(DataInput in) throws IOException {
+		loadHeader(in);
+		resources = loadResource(in, new Path(""));
+	}
 
+	private void loadHeader(DataInput in) throws IOException {
 		if (Trace.FINEST) {
 			Trace.trace(Trace.STRING_FINEST, "Loading module publish info");
 		}
@@ -211,8 +278,6 @@ public class ModulePublishInfo {
 				moduleType = ModuleType.getModuleType(mt, mv);
 		} else
 			moduleType = null;
-		
-		resources = loadResource(in, new Path(""));
 	}
 
 	private IModuleResource[] loadResource(DataInput in, IPath path) throws IOException {
@@ -240,22 +305,8 @@ public class ModulePublishInfo {
 
 	protected void save(DataOutput out) {
 		try {
-			out.writeUTF(moduleId);
-			byte b = 0;
-			if (name != null)
-				b |= 1;
-			if (moduleType != null)
-				b |= 2;
-			out.writeByte(b);
-			
-			if (name != null)
-				out.writeUTF(name);
-			
-			if (moduleType != null) {
-				out.writeUTF(moduleType.getId());
-				out.writeUTF(moduleType.getVersion());
-			}
-			saveResource(out, resources);
+			saveHeader(out);
+			saveResource(out, getResources());
 		} catch (Exception e) {
 			if (Trace.SEVERE) {
 				Trace.trace(Trace.STRING_SEVERE, "Could not save module publish info", e);
@@ -263,6 +314,67 @@ public class ModulePublishInfo {
 		}
 	}
 
+	protected void saveHeader(DataOutput out) throws IOException {
+		out.writeUTF(moduleId);
+		byte b = 0;
+		if (name != null)
+			b |= 1;
+		if (moduleType != null)
+			b |= 2;
+		out.writeByte(b);
+		
+		if (name != null)
+			out.writeUTF(name);
+		
+		if (moduleType != null) {
+			out.writeUTF(moduleType.getId());
+			out.writeUTF(moduleType.getVersion());
+		}
+	}
+
+	/**
+	 * Returns the serialized resources, or <code>null</code> if the resources
+	 * have not been read and are still in the publish info file. The caller
+	 * must hold the lock of the publish info file.
+	 * 
+	 * @return the serialized resources, or <code>null</code>
+	 * @throws IOException if the resources could not be serialized
+	 */
+	protected byte[] saveResources() throws IOException {
+		synchronized (lock) {
+			if (resourceFile != null)
+				return null;
+			
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bout);
+			if (resources == null)
+				out.writeInt(0);
+			else
+				saveResource(out, resources);
+			out.flush();
+			return bout.toByteArray();
+		}
+	}
+
+	protected long getResourceOffset() {
+		return resourceOffset;
+	}
+
+	protected int getResourceLength() {
+		return resourceLength;
+	}
+
+	/**
+	 * Update the location of resources that have not been read yet, after the
+	 * publish info file has been rewritten. The caller must hold the lock of the
+	 * publish info file.
+	 * 
+	 * @param offset the new offset of the resources in the file
+	 */
+	protected void setResourceOffset(long offset) {
+		resourceOffset = offset;
+	}
+
 	protected void saveResource(DataOutput out, IModuleResource[] resources2) throws IOException {
 		if (resources2 == null)
 			return;
@@ -315,7 +427,7 @@ public class ModulePublishInfo {
 			else
 				currentResources = pm.members();
 			
-			delta = ServerPublishInfo.getDelta(resources, currentResources);
+			delta = ServerPublishInfo.getDelta(getResources(), currentResources);
 			hasDelta = (delta != null && delta.length > 0);
 			if (Trace.PERFORMANCE) {
 				Trace.trace(Trace.STRING_PERFORMANCE,
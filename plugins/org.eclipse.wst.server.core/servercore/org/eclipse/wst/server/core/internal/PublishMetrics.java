@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IPublishMetrics;
+import org.eclipse.wst.server.core.IPublishMetricsListener;
+import org.eclipse.wst.server.core.IServer;
+/**
+ * Records the measurements of a single publish.
+ * <p>
+ * A publish is measured on the thread that runs it. The metrics of the
+ * running publish are available from {@link #getCurrent()}, so that code
+ * further down the stack (e.g. PublishHelper) can add to them without having
+ * a reference to the server.
+ * </p>
+ */
+public class PublishMetrics implements IPublishMetrics {
+	private static final long NANOS_PER_MILLI = 1000000;
+
+	private static final ThreadLocal<PublishMetrics> current = new ThreadLocal<PublishMetrics>();
+
+	private static final List<IPublishMetricsListener> listeners = new ArrayList<IPublishMetricsListener>(2);
+
+	// returned when no publish is being measured; ignores everything recorded on it
+	private static final PublishMetrics NONE = new PublishMetrics(null, IServer.PUBLISH_INCREMENTAL, null);
+
+	private static class ModuleMetrics {
+		protected final IModule[] module;
+		protected long time = -1;
+		protected int files;
+		protected long bytes;
+
+		protected ModuleMetrics(IModule[] module) {
+			this.module = module;
+		}
+	}
+
+	private final IServer server;
+	private final int kind;
+	private final long startTime;
+	private final PublishMetrics previous;
+
+	// phase to time in nanoseconds, in the order the phases were run
+	private final Map<String, Long> phases = new LinkedHashMap<String, Long>();
+
+	private final Map<ModulePath, ModuleMetrics> modules = new LinkedHashMap<ModulePath, ModuleMetrics>();
+	private ModuleMetrics currentModule;
+
+	private int files;
+	private long bytes;
+	private long totalTime = -1;
+	private IStatus status;
+
+	private PublishMetrics(IServer server, int kind, PublishMetrics previous) {
+		this.server = server;
+		this.kind = kind;
+		this.previous = previous;
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Start measuring a publish on the current thread.
+	 *
+	 * @param server the server being published to
+	 * @param kind the publish kind
+	 * @return the publish metrics
+	 */
+	public static PublishMetrics start(IServer server, int kind) {
+		PublishMetrics metrics = new PublishMetrics(server, kind, current.get());
+		current.set(metrics);
+		return metrics;
+	}
+
+	/**
+	 * Returns the metrics of the publish that is running on the current thread.
+	 * If no publish is being measured, shared metrics that ignore everything
+	 * recorded on them are returned, so that callers don't have to check.
+	 *
+	 * @return the publish metrics
+	 */
+	public static PublishMetrics getCurrent() {
+		PublishMetrics metrics = current.get();
+		if (metrics == null)
+			return NONE;
+		return metrics;
+	}
+
+	/**
+	 * Record that a file was copied by the publish that is running on the
+	 * current thread, if any.
+	 *
+	 * @param size the number of bytes copied
+	 */
+	public static void fileCopied(long size) {
+		PublishMetrics metrics = current.get();
+		if (metrics == null)
+			return;
+
+		metrics.files++;
+		metrics.bytes += size;
+		if (metrics.currentModule != null) {
+			metrics.currentModule.files++;
+			metrics.currentModule.bytes += size;
+		}
+	}
+
+	/**
+	 * Record the end of a publish phase.
+	 *
+	 * @param phase one of the PHASE_XX constants
+	 * @param start the value of {@link System#nanoTime()} when the phase started
+	 * @return the current value of {@link System#nanoTime()}, i.e. the start of
+	 *    the next phase
+	 */
+	public long phaseFinished(String phase, long start) {
+		long now = System.nanoTime();
+		if (this == NONE)
+			return now;
+		Long time = phases.get(phase);
+		phases.put(phase, Long.valueOf((time == null ? 0 : time.longValue()) + now - start));
+		return now;
+	}
+
+	/**
+	 * Record the start of a module publish. Files that are copied until the
+	 * module is finished are attributed to the module.
+	 *
+	 * @param module a module
+	 */
+	public void moduleStarted(IModule[] module) {
+		if (this == NONE)
+			return;
+		ModulePath key = ModulePath.create(module);
+		currentModule = modules.get(key);
+		if (currentModule == null) {
+			currentModule = new ModuleMetrics(module);
+			modules.put(key, currentModule);
+		}
+	}
+
+	/**
+	 * Record the end of a module publish.
+	 *
+	 * @param module a module
+	 * @param start the value of {@link System#nanoTime()} when the module
+	 *    publish started
+	 */
+	public void moduleFinished(IModule[] module, long start) {
+		if (this == NONE)
+			return;
+		long time = System.nanoTime() - start;
+		ModuleMetrics mm = modules.get(ModulePath.create(module));
+		if (mm != null)
+			mm.time = Math.max(mm.time, 0) + time;
+		currentModule = null;
+	}
+
+	/**
+	 * Stop measuring the publish and notify the listeners.
+	 *
+	 * @param status2 the publish status
+	 */
+	public void finish(IStatus status2) {
+		if (this == NONE)
+			return;
+		totalTime = System.nanoTime() - startTime;
+		status = status2;
+		if (current.get() == this) {
+			if (previous == null)
+				current.remove();
+			else
+				current.set(previous);
+		}
+
+		if (Trace.PERFORMANCE) {
+			String id = null;
+			if (server != null)
+				id = server.getServerType() == null ? server.getId() : server.getServerType().getId();
+			Iterator<Map.Entry<String, Long>> iterator = phases.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<String, Long> entry = iterator.next();
+				Trace.trace(Trace.STRING_PERFORMANCE, "Publish " + entry.getKey() + ": <"
+						+ toMillis(entry.getValue().longValue()) + "> " + id);
+			}
+			Trace.trace(Trace.STRING_PERFORMANCE, "Server.publishImpl(): <" + getTotalTime() + "> " + id + " files="
+					+ files + " bytes=" + bytes);
+		}
+
+		IPublishMetricsListener[] pml;
+		synchronized (listeners) {
+			if (listeners.isEmpty())
+				return;
+			pml = listeners.toArray(new IPublishMetricsListener[listeners.size()]);
+		}
+
+		int size = pml.length;
+		for (int i = 0; i < size; i++) {
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, "  Firing publish metrics event to " + pml[i]);
+			}
+			try {
+				pml[i].publishMeasured(this);
+			} catch (Exception e) {
+				if (Trace.SEVERE) {
+					Trace.trace(Trace.STRING_SEVERE, "  Error firing publish metrics event to " + pml[i], e);
+				}
+			}
+		}
+	}
+
+	public static void addListener(IPublishMetricsListener listener) {
+		if (listener == null)
+			throw new IllegalArgumentException("Listener cannot be null");
+		if (Trace.LISTENERS) {
+			Trace.trace(Trace.STRING_LISTENERS, "Adding publish metrics listener " + listener);
+		}
+
+		synchronized (listeners) {
+			if (!listeners.contains(listener))
+				listeners.add(listener);
+		}
+	}
+
+	public static void removeListener(IPublishMetricsListener listener) {
+		if (listener == null)
+			throw new IllegalArgumentException("Listener cannot be null");
+		if (Trace.LISTENERS) {
+			Trace.trace(Trace.STRING_LISTENERS, "Removing publish metrics listener " + listener);
+		}
+
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / NANOS_PER_MILLI;
+	}
+
+	public IServer getServer() {
+		return server;
+	}
+
+	public int getKind() {
+		return kind;
+	}
+
+	public IStatus getStatus() {
+		return status;
+	}
+
+	public long getTotalTime() {
+		if (totalTime < 0)
+			return -1;
+		return toMillis(totalTime);
+	}
+
+	public String[] getPhases() {
+		return phases.keySet().toArray(new String[phases.size()]);
+	}
+
+	public long getPhaseTime(String phase) {
+		Long time = phases.get(phase);
+		if (time == null)
+			return -1;
+		return toMillis(time.longValue());
+	}
+
+	public IModule[][] getModules() {
+		IModule[][] m = new IModule[modules.size()][];
+		int i = 0;
+		Iterator<ModuleMetrics> iterator = modules.values().iterator();
+		while (iterator.hasNext())
+			m[i++] = iterator.next().module;
+		return m;
+	}
+
+	public long getModuleTime(IModule[] module) {
+		ModuleMetrics mm = modules.get(ModulePath.create(module));
+		if (mm == null || mm.time < 0)
+			return -1;
+		return toMillis(mm.time);
+	}
+
+	public int getModuleFilesCopied(IModule[] module) {
+		ModuleMetrics mm = modules.get(ModulePath.create(module));
+		if (mm == null)
+			return 0;
+		return mm.files;
+	}
+
+	public long getModuleBytesCopied(IModule[] module) {
+		ModuleMetrics mm = modules.get(ModulePath.create(module));
+		if (mm == null)
+			return 0;
+		return mm.bytes;
+	}
+
+	public int getFilesCopied() {
+		return files;
+	}
+
+	public long getBytesCopied() {
+		return bytes;
+	}
+
+	public String toString() {
+		return "PublishMetrics [" + server + ", " + getTotalTime() + "ms]";
+	}
+}
@@ -13,7 +13,15 @@
 package org.eclipse.wst.server.core.internal;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.resources.*;
@@ -34,6 +42,13 @@ import org.eclipse.wst.server.core.util.ProjectModuleFactoryDelegate;
  */
 public class ResourceManager {
 	private static final String SERVER_DATA_FILE = "servers.xml";
+	private static final String RUNTIME_DATA_DIR = "runtimes";
+	private static final String SERVER_DATA_DIR = "servers";
+	private static final String RUNTIMES_PREFERENCE = "runtimes";
+	private static final String SERVER_PROJECT_INDEX_FILE = "serverProjects.xml";
+
+	// maximum number of threads used to search server projects on startup
+	private static final int MAX_SCAN_THREADS = 4;
 
 	private static final byte EVENT_ADDED = 0;
 	private static final byte EVENT_CHANGED = 1;
@@ -57,6 +72,13 @@ public class ResourceManager {
 	private Preferences.IPropertyChangeListener pcl;
 	protected boolean ignorePreferenceChanges = false;
 
+	// per-runtime and per-server records in the state location
+	private MementoStore runtimeStore;
+	private MementoStore serverStore;
+
+	// server files in each server project
+	private ServerProjectIndex serverProjectIndex;
+
 	protected List moduleServerEventHandlers;
 	protected List moduleServerEventHandlerIndexes;
 
@@ -251,9 +273,10 @@ public class ResourceManager {
 				if (ignorePreferenceChanges)
 					return;
 				String property = event.getProperty();
-				if (property.equals("runtimes")) {
-					loadRuntimesList();
-					saveRuntimesList();
+				if (property.equals(RUNTIMES_PREFERENCE)) {
+					// runtimes imported through the preferences
+					if (loadRuntimesFromPreferences())
+						saveRuntimesList();
 				}
 			}
 		};
@@ -269,46 +292,161 @@ public class ResourceManager {
 		if (Trace.FINER) {
 			Trace.trace(Trace.STRING_FINER, "Loading workspace servers and server configurations");
 		}
+		loadServerProjects();
+		
+		addServerLifecycleListener(ServerListener.getInstance());
+		
+		initialized = true;
+	}
+
+	/**
+	 * The server files found in a server project, and their content.
+	 */
+	private static class ServerProjectScan {
+		protected final IProject project;
+		protected final IFile[] files;
+		protected final IMemento[] mementos;
+
+		protected ServerProjectScan(IProject project, IFile[] files, IMemento[] mementos) {
+			this.project = project;
+			this.files = files;
+			this.mementos = mementos;
+		}
+	}
+
+	/**
+	 * Load the servers from all server projects in the workspace. The projects
+	 * are searched and the server files are read in parallel, using the server
+	 * project index to avoid searching projects that have not changed. The
+	 * servers are then created and registered on the calling thread, in project
+	 * order.
+	 */
+	private void loadServerProjects() {
 		IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
-		if (projects != null) {
-			int size = projects.length;
+		if (projects == null || projects.length == 0)
+			return;
+		
+		final ServerProjectIndex index = getServerProjectIndex();
+		int size = projects.length;
+		List<Future<ServerProjectScan>> futures = new ArrayList<Future<ServerProjectScan>>(size);
+		int threads = Math.min(size, MAX_SCAN_THREADS);
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "Server project scan");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		try {
+			for (int i = 0; i < size; i++) {
+				final IProject project = projects[i];
+				futures.add(executor.submit(new Callable<ServerProjectScan>() {
+					public ServerProjectScan call() {
+						return scanProject(project, index);
+					}
+				}));
+			}
+			
+			List<String> names = new ArrayList<String>();
 			for (int i = 0; i < size; i++) {
-				if (ServerPlugin.getProjectProperties(projects[i]).isServerProject()) {
-					String projectName = projects[i].getName();
-					if (!serverProjects.contains(projectName))
-						serverProjects.add(projectName);
-					loadFromProject(projects[i]);
+				ServerProjectScan scan;
+				try {
+					scan = futures.get(i).get();
+				} catch (ExecutionException e) {
+					if (Trace.SEVERE) {
+						Trace.trace(Trace.STRING_SEVERE, "Could not load server project " + projects[i].getName(), e.getCause());
+					}
+					continue;
 				}
+				if (scan == null)
+					continue;
+				
+				String projectName = scan.project.getName();
+				names.add(projectName);
+				if (!serverProjects.contains(projectName))
+					serverProjects.add(projectName);
+				
+				int size2 = scan.files.length;
+				for (int j = 0; j < size2; j++)
+					loadServer(scan.files[j], scan.mementos[j]);
+			}
+			index.retainProjects(names);
+		} catch (InterruptedException e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Interrupted loading server projects", e);
 			}
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
 		}
+		index.save();
+	}
+
+	/**
+	 * Find and read the server files in the given project, if it is a server
+	 * project. Called on a scan thread.
+	 *
+	 * @param project a project
+	 * @param index the server project index
+	 * @return the server files and their content, or <code>null</code> if the
+	 *    project is not a server project
+	 */
+	private static ServerProjectScan scanProject(IProject project, ServerProjectIndex index) {
+		if (!ServerPlugin.getProjectProperties(project).isServerProject())
+			return null;
 		
-		addServerLifecycleListener(ServerListener.getInstance());
+		IFile[] files = index.getServerFiles(project);
+		if (files == null) {
+			List<IContainer> folders = new ArrayList<IContainer>();
+			files = findServerFiles(project, folders);
+			index.setServerFiles(project, files, folders);
+		} else if (Trace.FINER) {
+			Trace.trace(Trace.STRING_FINER, "Using server project index for " + project.getName());
+		}
 		
-		initialized = true;
+		int size = files.length;
+		IMemento[] mementos = new IMemento[size];
+		for (int i = 0; i < size; i++) {
+			InputStream in = null;
+			try {
+				in = files[i].getContents();
+				mementos[i] = XMLMemento.loadMemento(in);
+			} catch (Exception e) {
+				if (Trace.SEVERE) {
+					Trace.trace(Trace.STRING_SEVERE, "Error during initial server resource load", e);
+				}
+			} finally {
+				try {
+					if (in != null)
+						in.close();
+				} catch (Exception e) {
+					// ignore
+				}
+			}
+		}
+		return new ServerProjectScan(project, files, mementos);
 	}
 
 	/**
-	 * Load all of the servers and server configurations from the given project.
+	 * Search all of the server files in the given project.
+	 *
+	 * @param project a project
+	 * @param folders a list to receive the folders that were searched
+	 * @return the server files
 	 */
-	protected static void loadFromProject(IProject project) {
+	private static IFile[] findServerFiles(IProject project, final List<IContainer> folders) {
 		if (Trace.FINER) {
 			Trace.trace(Trace.STRING_FINER, "Initial server resource load for " + project.getName(), null);
 		}
-		final ResourceManager rm = ResourceManager.getInstance();
-		
+		final List<IFile> list = new ArrayList<IFile>();
 		try {
 			project.accept(new IResourceProxyVisitor() {
 				public boolean visit(IResourceProxy proxy) {
-					if (proxy.getType() == IResource.FILE &&
+					if (proxy.getType() == IResource.FOLDER)
+						folders.add((IContainer) proxy.requestResource());
+					else if (proxy.getType() == IResource.FILE &&
 						Server.FILE_EXTENSION.equals(getFileExtension(proxy.getName()))) {
-							IFile file = (IFile) proxy.requestResource();
-							try {
-								rm.handleNewFile(file, null);
-							} catch (Exception e) {
-								if (Trace.SEVERE) {
-									Trace.trace(Trace.STRING_SEVERE, "Error during initial server resource load", e);
-								}
-							}
+							list.add((IFile) proxy.requestResource());
 							return false;
 						}
 					return true;
@@ -319,8 +457,36 @@ public class ResourceManager {
 				Trace.trace(Trace.STRING_SEVERE, "Could not load server project " + project.getName(), e);
 			}
 		}
+		return list.toArray(new IFile[list.size()]);
 	}
+
+	/**
+	 * Create and register a server from the content of a server file.
+	 */
+	private void loadServer(IFile file, IMemento memento) {
+		if (memento == null)
+			return;
 		
+		try {
+			Server server = new Server(file);
+			server.loadFromMemento(memento, null);
+			if (getServer(server.getId()) == null)
+				addServer(server);
+		} catch (Exception e) {
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Error during initial server resource load", e);
+			}
+		}
+	}
+
+	private synchronized ServerProjectIndex getServerProjectIndex() {
+		if (serverProjectIndex == null) {
+			serverProjectIndex = new ServerProjectIndex(ServerPlugin.getInstance().getStateLocation().append(SERVER_PROJECT_INDEX_FILE).toFile());
+			serverProjectIndex.load();
+		}
+		return serverProjectIndex;
+	}
+
 	protected static String getFileExtension(String name) {
 		int index = name.lastIndexOf('.');
 		if (index == -1)
@@ -411,6 +577,11 @@ public class ResourceManager {
 		}
 		
 		removeServerLifecycleListener(ServerListener.getInstance());
+		
+		synchronized (this) {
+			if (serverProjectIndex != null)
+				serverProjectIndex.save();
+		}
 	}
 
 	/*
@@ -573,51 +744,128 @@ public class ResourceManager {
 		}
 	}
 
+	private synchronized MementoStore getRuntimeStore() {
+		if (runtimeStore == null)
+			runtimeStore = new MementoStore(ServerPlugin.getInstance().getStateLocation().append(RUNTIME_DATA_DIR).toFile());
+		return runtimeStore;
+	}
+
+	private synchronized MementoStore getServerStore() {
+		if (serverStore == null)
+			serverStore = new MementoStore(ServerPlugin.getInstance().getStateLocation().append(SERVER_DATA_DIR).toFile());
+		return serverStore;
+	}
+
+	/**
+	 * Save all runtimes. Only the records that changed are written.
+	 */
 	protected void saveRuntimesList() {
+		List<String> ids = new ArrayList<String>(runtimes.size());
+		Iterator iterator = runtimes.iterator();
+		while (iterator.hasNext()) {
+			IRuntime runtime = (IRuntime) iterator.next();
+			ids.add(runtime.getId());
+			saveRuntime(runtime);
+		}
+		
 		try {
-			ignorePreferenceChanges = true;
-			XMLMemento memento = XMLMemento.createWriteRoot("runtimes");
-			
-			Iterator iterator = runtimes.iterator();
-			while (iterator.hasNext()) {
-				Runtime runtime = (Runtime) iterator.next();
-				
-				IMemento child = memento.createChild("runtime");
-				runtime.save(child);
-			}
-			
-			String xmlString = memento.saveToString();
-			Preferences prefs = ServerPlugin.getInstance().getPluginPreferences();
-			prefs.setValue("runtimes", xmlString);
-			ServerPlugin.getInstance().savePluginPreferences();
+			getRuntimeStore().retain(ids);
 		} catch (Exception e) {
 			if (Trace.SEVERE) {
 				Trace.trace(Trace.STRING_SEVERE, "Could not save runtimes", e);
 			}
 		}
-		ignorePreferenceChanges = false;
+		
+		// the runtimes used to be stored in the preferences, remove the stale copy
+		Preferences prefs = ServerPlugin.getInstance().getPluginPreferences();
+		if (prefs.contains(RUNTIMES_PREFERENCE)) {
+			try {
+				ignorePreferenceChanges = true;
+				prefs.setToDefault(RUNTIMES_PREFERENCE);
+				ServerPlugin.getInstance().savePluginPreferences();
+			} finally {
+				ignorePreferenceChanges = false;
+			}
+		}
+	}
+
+	private void saveRuntime(IRuntime runtime) {
+		try {
+			XMLMemento memento = XMLMemento.createWriteRoot("runtime");
+			((Runtime) runtime).save(memento);
+			getRuntimeStore().save(runtime.getId(), memento);
+		} catch (Exception e) {
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Could not save runtime " + runtime.getId(), e);
+			}
+		}
+	}
+
+	private void removeRuntimeRecord(IRuntime runtime) {
+		try {
+			getRuntimeStore().remove(runtime.getId());
+		} catch (Exception e) {
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Could not remove runtime " + runtime.getId(), e);
+			}
+		}
 	}
 
-	private void saveServersList() {
-		String filename = ServerPlugin.getInstance().getStateLocation().append(SERVER_DATA_FILE).toOSString();
+	/**
+	 * Save all metadata servers (servers that are not stored in the workspace).
+	 * Only the records that changed are written.
+	 * 
+	 * @return <code>true</code> if the servers were saved
+	 */
+	private boolean saveServersList() {
+		boolean saved = true;
+		List<String> ids = new ArrayList<String>(servers.size());
+		Iterator iterator = servers.iterator();
+		while (iterator.hasNext()) {
+			Server server = (Server) iterator.next();
+			if (server.getFile() == null) {
+				ids.add(server.getId());
+				saved &= saveServer(server);
+			}
+		}
 		
 		try {
-			XMLMemento memento = XMLMemento.createWriteRoot("servers");
-			
-			Iterator iterator = servers.iterator();
-			while (iterator.hasNext()) {
-				Server server = (Server) iterator.next();
-				
-				if (server.getFile() == null) {
-					IMemento child = memento.createChild("server");
-					server.save(child);
-				}
+			getServerStore().retain(ids);
+		} catch (Exception e) {
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Could not save servers", e);
+			}
+			saved = false;
+		}
+		return saved;
+	}
+
+	private boolean saveServer(IServer server) {
+		try {
+			Server server2 = (Server) server;
+			if (server2.getFile() != null) {
+				getServerStore().remove(server.getId());
+				return true;
 			}
 			
-			memento.saveToFile(filename);
+			XMLMemento memento = XMLMemento.createWriteRoot("server");
+			server2.save(memento);
+			getServerStore().save(server.getId(), memento);
+			return true;
 		} catch (Exception e) {
 			if (Trace.SEVERE) {
-				Trace.trace(Trace.STRING_SEVERE, "Could not save servers", e);
+				Trace.trace(Trace.STRING_SEVERE, "Could not save server " + server.getId(), e);
+			}
+			return false;
+		}
+	}
+
+	private void removeServerRecord(IServer server) {
+		try {
+			getServerStore().remove(server.getId());
+		} catch (Exception e) {
+			if (Trace.SEVERE) {
+				Trace.trace(Trace.STRING_SEVERE, "Could not remove server " + server.getId(), e);
 			}
 		}
 	}
@@ -626,39 +874,97 @@ public class ResourceManager {
 		if (Trace.FINEST) {
 			Trace.trace(Trace.STRING_FINEST, "Loading runtime info");
 		}
-		Preferences prefs = ServerPlugin.getInstance().getPluginPreferences();
-		String xmlString = prefs.getString("runtimes");
 		
-		runtimes = new ArrayList<IRuntime>();
-		if (xmlString != null && xmlString.length() > 0) {
+		MementoStore store = getRuntimeStore();
+		if (!store.exists()) {
+			// migrate the runtimes from the preferences used by earlier versions
+			runtimes = new ArrayList<IRuntime>();
+			if (loadRuntimesFromPreferences())
+				saveRuntimesList();
+			return;
+		}
+		
+		List<IMemento> list = store.load();
+		runtimes = new ArrayList<IRuntime>(list.size());
+		for (IMemento memento : list) {
 			try {
-				ByteArrayInputStream in = new ByteArrayInputStream(xmlString.getBytes("UTF-8"));
-				IMemento memento = XMLMemento.loadMemento(in);
-				
-				IMemento[] children = memento.getChildren("runtime");
-				int size = children.length;
-				
-				for (int i = 0; i < size; i++) {
-					Runtime runtime = new Runtime(null);
-					runtime.loadFromMemento(children[i], null);
-					runtimes.add(runtime);
-				}
+				Runtime runtime = new Runtime(null);
+				runtime.loadFromMemento(memento, null);
+				runtimes.add(runtime);
 			} catch (Exception e) {
 				if (Trace.WARNING) {
-					Trace.trace(Trace.STRING_WARNING, "Could not load runtimes", e);
+					Trace.trace(Trace.STRING_WARNING, "Could not load runtime", e);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Load the runtimes from the preferences, where earlier versions stored them
+	 * and from where they may be imported.
+	 * 
+	 * @return <code>true</code> if runtimes were found in the preferences
+	 */
+	protected boolean loadRuntimesFromPreferences() {
+		Preferences prefs = ServerPlugin.getInstance().getPluginPreferences();
+		String xmlString = prefs.getString(RUNTIMES_PREFERENCE);
+		if (xmlString == null || xmlString.length() == 0)
+			return false;
+		
+		runtimes = new ArrayList<IRuntime>();
+		try {
+			ByteArrayInputStream in = new ByteArrayInputStream(xmlString.getBytes("UTF-8"));
+			IMemento memento = XMLMemento.loadMemento(in);
+			
+			IMemento[] children = memento.getChildren("runtime");
+			int size = children.length;
+			
+			for (int i = 0; i < size; i++) {
+				Runtime runtime = new Runtime(null);
+				runtime.loadFromMemento(children[i], null);
+				runtimes.add(runtime);
+			}
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not load runtimes", e);
+			}
+		}
+		return true;
+	}
+
 	protected void loadServersList() {
 		if (Trace.FINEST) {
 			Trace.trace(Trace.STRING_FINEST, "Loading server info");
 		}
-		String filename = ServerPlugin.getInstance().getStateLocation().append(SERVER_DATA_FILE).toOSString();
 		
+		MementoStore store = getServerStore();
+		if (!store.exists()) {
+			// migrate the servers from the single file used by earlier versions
+			File file = ServerPlugin.getInstance().getStateLocation().append(SERVER_DATA_FILE).toFile();
+			if (file.exists()) {
+				loadServersFromFile(file);
+				if (saveServersList())
+					file.delete();
+			}
+			return;
+		}
+		
+		for (IMemento memento : store.load()) {
+			try {
+				Server server = new Server(null);
+				server.loadFromMemento(memento, null);
+				servers.add(server);
+			} catch (Exception e) {
+				if (Trace.WARNING) {
+					Trace.trace(Trace.STRING_WARNING, "Could not load server", e);
+				}
+			}
+		}
+	}
+
+	private void loadServersFromFile(File file) {
 		try {
-			IMemento memento = XMLMemento.loadMemento(filename);
+			IMemento memento = XMLMemento.loadMemento(file.getAbsolutePath());
 			
 			IMemento[] children = memento.getChildren("server");
 			int size = children.length;
@@ -686,7 +992,7 @@ public class ResourceManager {
 			registerRuntime(runtime);
 		else
 			fireRuntimeEvent(runtime, EVENT_CHANGED);
-		saveRuntimesList();
+		saveRuntime(runtime);
 		resolveServers();
 	}
 
@@ -696,7 +1002,7 @@ public class ResourceManager {
 		
 		if (runtimes.contains(runtime)) {
 			deregisterRuntime(runtime);
-			saveRuntimesList();
+			removeRuntimeRecord(runtime);
 			resolveServers();
 		}
 	}
@@ -712,7 +1018,7 @@ public class ResourceManager {
 			registerServer(server);
 		else
 			fireServerEvent(server, EVENT_CHANGED);
-		saveServersList();
+		saveServer(server);
 		resolveServers();
 	}
 
@@ -722,7 +1028,7 @@ public class ResourceManager {
 		
 		if (servers.contains(server)) {
 			deregisterServer(server);
-			saveServersList();
+			removeServerRecord(server);
 			resolveServers();
 		}
 	}
@@ -846,6 +1152,8 @@ public class ResourceManager {
 		if (resource2 instanceof IFile) {
 			IFile file = (IFile) resource2;
 			if (Server.FILE_EXTENSION.equals(file.getFileExtension())) {
+				updateServerProjectIndex(file, kind);
+				
 				IProgressMonitor monitor = null;
 				if ((flags & IResourceDelta.MOVED_FROM) != 0 || (flags & IResourceDelta.MOVED_TO) != 0)
 					handleMovedFile(file, delta, monitor);
@@ -876,6 +1184,25 @@ public class ResourceManager {
 		return true;
 	}
 
+	/**
+	 * Update the server project index after a server file has changed. The index
+	 * is saved on shutdown.
+	 */
+	private void updateServerProjectIndex(IFile file, int kind) {
+		ServerProjectIndex index = getServerProjectIndex();
+		if (kind == IResourceDelta.CHANGED && index.updateServerFile(file))
+			return;
+		
+		// a server file was added or removed, search the project again
+		IProject project = file.getProject();
+		if (project.isAccessible() && ServerPlugin.getProjectProperties(project).isServerProject()) {
+			List<IContainer> folders = new ArrayList<IContainer>();
+			IFile[] files = findServerFiles(project, folders);
+			index.setServerFiles(project, files, folders);
+		} else
+			index.removeProject(project.getName());
+	}
+
 	protected IServer loadServer(IFile file, IProgressMonitor monitor) throws CoreException {
 		Server server = new Server(file);
 		server.loadFromFile(monitor);
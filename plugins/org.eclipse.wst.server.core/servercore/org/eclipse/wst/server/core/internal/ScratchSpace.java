@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+/**
+ * Managed scratch space for temporary files.
+ * <p>
+ * Temporary files that will be renamed to a destination are created on the
+ * same file system as the destination, so that the rename is atomic and does
+ * not have to copy the file. They are created in the preferred directory or
+ * the scratch directory in the plugin state location if that is on the same
+ * file system, and otherwise in a single scratch directory per file system
+ * that is created at the top of the destination's writable tree.
+ * </p>
+ * <p>
+ * The scratch directories on other file systems are remembered, so that
+ * files left behind by a crash can be reclaimed on the next startup. At the
+ * same time, the temporary directories of the plugin are trimmed to the size
+ * limit in the preferences, deleting the least recently used ones first.
+ * </p>
+ */
+public class ScratchSpace {
+	private static final String DATA_FILE = "scratch-data.xml";
+	private static final String SCRATCH_DIR = "scratch";
+	private static final String STORE_DIR = ".wst-server-scratch";
+	private static final String PREFIX = ".scratch";
+	private static final String SUFFIX = ".tmp";
+
+	// temp files that used to be created directly in the state location
+	private static final String LEGACY_PATTERN = "tmp\\d{5,}\\..*";
+
+	// maximum number of directories to cache the file store of
+	private static final int STORE_CACHE_SIZE = 256;
+
+	private static ScratchSpace instance;
+
+	private final File stateDir;
+	private final File dir;
+	private final File dataFile;
+
+	// start of this session; scratch files older than this are orphans
+	private final long start = System.currentTimeMillis();
+
+	// scratch directories on other file stores, persisted across sessions
+	private final Set<String> dirs = new HashSet<String>();
+
+	// scratch directory of each file store used in this session
+	private final Map<FileStore, File> storeDirs = new HashMap<FileStore, File>();
+
+	// file store of each directory
+	private final Map<String, FileStore> stores = new ConcurrentHashMap<String, FileStore>();
+
+	private class ReclaimJob extends Job {
+		public ReclaimJob() {
+			super("Reclaiming temporary files");
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			reclaim();
+			return Status.OK_STATUS;
+		}
+	}
+
+	protected ScratchSpace(File stateDir) {
+		this.stateDir = stateDir;
+		dir = new File(stateDir, SCRATCH_DIR);
+		dataFile = new File(stateDir, DATA_FILE);
+		load();
+	}
+
+	/**
+	 * Returns the singleton instance.
+	 *
+	 * @return the scratch space
+	 */
+	public static synchronized ScratchSpace getInstance() {
+		if (instance == null) {
+			ServerPlugin plugin = ServerPlugin.getInstance();
+			File stateDir;
+			if (plugin != null)
+				stateDir = plugin.getStateLocation().toFile();
+			else // not running in a framework, e.g. in the benchmarks
+				stateDir = new File(System.getProperty("java.io.tmpdir"), ServerPlugin.PLUGIN_ID);
+			instance = new ScratchSpace(stateDir);
+		}
+		return instance;
+	}
+
+	/**
+	 * Create a new temporary file in the scratch directory.
+	 *
+	 * @return the new, empty file
+	 * @throws IOException if the file could not be created
+	 */
+	public File createTempFile() throws IOException {
+		dir.mkdirs();
+		return File.createTempFile(PREFIX, SUFFIX, dir);
+	}
+
+	/**
+	 * Create a new temporary file that will be renamed to the given file. The
+	 * temporary file is on the same file system as the destination.
+	 *
+	 * @param target the file that the temporary file will be renamed to
+	 * @param preferred the directory to use if it is on the same file system as
+	 *    the destination, or <code>null</code>
+	 * @return the new, empty file
+	 * @throws IOException if the file could not be created
+	 */
+	public File createTempFile(File target, File preferred) throws IOException {
+		File parent = target.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists())
+			parent.mkdirs();
+
+		// the preferred directory is owned and cleaned up by the caller
+		if (preferred != null && isSameStore(preferred, parent))
+			return File.createTempFile(PREFIX, SUFFIX, preferred);
+
+		if (parent == null || isSameStore(stateDir, parent))
+			return createTempFile();
+
+		File d = getStoreDirectory(parent);
+		if (d == null)
+			d = parent.isDirectory() ? parent : preferred;
+		if (d == null)
+			return createTempFile();
+		return File.createTempFile(PREFIX, SUFFIX, d);
+	}
+
+	private boolean isSameStore(File a, File b) {
+		if (a == null || b == null)
+			return false;
+		FileStore store = getStore(a);
+		return store != null && store.equals(getStore(b));
+	}
+
+	private FileStore getStore(File file) {
+		String key = file.getAbsolutePath();
+		FileStore store = stores.get(key);
+		if (store != null)
+			return store;
+
+		// use the closest existing parent
+		File f = file.getAbsoluteFile();
+		while (f != null && !f.exists())
+			f = f.getParentFile();
+		if (f == null)
+			return null;
+
+		try {
+			store = Files.getFileStore(f.toPath());
+			if (stores.size() >= STORE_CACHE_SIZE)
+				stores.clear();
+			stores.put(key, store);
+			return store;
+		} catch (IOException e) {
+			if (Trace.FINER) {
+				Trace.trace(Trace.STRING_FINER, "Could not determine file store of " + file, e);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the scratch directory for the file store of the given directory,
+	 * reusing the one from an earlier session if possible, and creating it in
+	 * the topmost writable directory on the same file store otherwise.
+	 *
+	 * @param parent an existing directory
+	 * @return the scratch directory, or <code>null</code> if it could not be
+	 *    created
+	 */
+	private File getStoreDirectory(File parent) {
+		FileStore store = getStore(parent);
+		if (store == null)
+			return null;
+
+		File d;
+		synchronized (dirs) {
+			d = storeDirs.get(store);
+			if (d != null && d.isDirectory())
+				return d;
+
+			d = null;
+			for (String path : dirs) {
+				File f = new File(path);
+				if (f.isDirectory() && store.equals(getStore(f))) {
+					d = f;
+					break;
+				}
+			}
+			if (d != null) {
+				storeDirs.put(store, d);
+				return d;
+			}
+
+			File root = parent;
+			File f = root.getParentFile();
+			while (f != null && f.canWrite() && store.equals(getStore(f))) {
+				root = f;
+				f = f.getParentFile();
+			}
+			d = new File(root, STORE_DIR);
+			if (!d.mkdir() && !d.isDirectory())
+				return null;
+
+			storeDirs.put(store, d);
+			dirs.add(d.getAbsolutePath());
+		}
+		save();
+		return d;
+	}
+
+	/**
+	 * Reclaim the temporary space left behind by earlier sessions in the
+	 * background.
+	 */
+	public void scheduleReclaim() {
+		Job job = new ReclaimJob();
+		job.setSystem(true);
+		job.setPriority(Job.DECORATE);
+		job.schedule();
+	}
+
+	/**
+	 * Reclaim the temporary space left behind by earlier sessions: delete
+	 * orphaned scratch files, and trim the temporary directories to the size
+	 * limit.
+	 */
+	protected void reclaim() {
+		deleteOrphans(dir, false);
+		deleteOrphans(stateDir, true);
+
+		String[] paths;
+		synchronized (dirs) {
+			paths = dirs.toArray(new String[dirs.size()]);
+		}
+		boolean changed = false;
+		for (String path : paths) {
+			File d = new File(path);
+			if (!d.isDirectory()) {
+				synchronized (dirs) {
+					dirs.remove(path);
+					storeDirs.values().remove(d);
+				}
+				changed = true;
+			} else
+				deleteOrphans(d, false);
+		}
+		if (changed)
+			save();
+
+		long limit = ServerPreferences.getInstance().getTempDirectoryLimit() * 1024L * 1024L;
+		ServerPlugin.getInstance().trimTempDirectories(limit, start);
+	}
+
+	private void deleteOrphans(File d, boolean legacy) {
+		File[] files = d.listFiles();
+		if (files == null)
+			return;
+
+		for (File f : files) {
+			String name = f.getName();
+			boolean scratch = legacy ? name.matches(LEGACY_PATTERN) : (name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+			if (scratch && f.isFile() && f.lastModified() < start) {
+				if (!f.delete() && Trace.FINER) {
+					Trace.trace(Trace.STRING_FINER, "Could not delete temp file " + f);
+				}
+			}
+		}
+	}
+
+	private void load() {
+		if (!dataFile.exists())
+			return;
+
+		try {
+			IMemento memento = XMLMemento.loadMemento(dataFile.getAbsolutePath());
+			IMemento[] children = memento.getChildren("directory");
+			synchronized (dirs) {
+				for (IMemento child : children) {
+					String path = child.getString("path");
+					if (path != null)
+						dirs.add(path);
+				}
+			}
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not load scratch space information", e);
+			}
+		}
+	}
+
+	private synchronized void save() {
+		try {
+			XMLMemento memento = XMLMemento.createWriteRoot("scratch-directories");
+			synchronized (dirs) {
+				for (String path : dirs)
+					memento.createChild("directory").putString("path", path);
+			}
+			memento.saveToFile(dataFile.getAbsolutePath());
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not save scratch space information", e);
+			}
+		}
+	}
+
+	public String toString() {
+		return "ScratchSpace[" + dir + "]";
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2018 IBM Corporation and others.
+ * Copyright (c) 2003, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,6 +13,7 @@
 package org.eclipse.wst.server.core.internal;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
@@ -98,12 +99,15 @@ public class Server extends Base implements IServer {
 	protected transient int serverSyncState;
 	protected transient boolean serverRestartNeeded;
 
-	protected transient Map<String, Integer> moduleState = new HashMap<String, Integer>();
-	protected transient Map<String, Integer> modulePublishState = new HashMap<String, Integer>();
-	protected transient Map<String, Boolean> moduleRestartState = new HashMap<String, Boolean>();
+	// interned keys for the module state maps, which are concurrent so that the keys can be
+	// read while the module state changes
+	protected final transient ModulePath.Table modulePaths = new ModulePath.Table();
+	protected transient Map<ModulePath, Integer> moduleState = new ConcurrentHashMap<ModulePath, Integer>();
+	protected transient Map<ModulePath, Integer> modulePublishState = new ConcurrentHashMap<ModulePath, Integer>();
+	protected transient Map<ModulePath, Boolean> moduleRestartState = new ConcurrentHashMap<ModulePath, Boolean>();
 
 	protected transient IStatus serverStatus;
-	protected transient Map<String, IStatus> moduleStatus = new HashMap<String, IStatus>();
+	protected transient Map<ModulePath, IStatus> moduleStatus = new ConcurrentHashMap<ModulePath, IStatus>();
 
 	protected transient ServerPublishInfo publishInfo;
 	protected transient AutoPublishThread autoPublishThread;
@@ -124,6 +128,18 @@ public class Server extends Base implements IServer {
 	// server listeners
 	protected transient ServerNotificationManager notificationManager;
 
+	// modules with resource changes that have not been checked yet, drained by the resource change job
+	protected final transient Set<IModule> pendingChangedModules = ConcurrentHashMap.newKeySet();
+	// the kinds of resource change event (CHANGE_*) seen since the last run of the resource change job
+	protected transient int pendingChangeKinds;
+	// guards adding to and draining the pending modules and kinds, so that they stay in the same batch
+	protected final transient Object pendingChangeLock = new Object();
+	private transient ResourceChangeJob resourceChangeJob;
+
+	// kinds of resource change event
+	private static final int CHANGE_BUILD = 1;
+	private static final int CHANGE_CLOSE_OR_DELETE = 2;
+
 	public class AutoPublishThread extends Thread {
 		public boolean stop;
 		public int time = 0;
@@ -174,36 +190,38 @@ public class Server extends Base implements IServer {
 	}
 
 	public class ResourceChangeJob extends ServerJob {
-		private IModule module;
-		private IResourceChangeEvent event;
-
-		public ResourceChangeJob(IModule module) {
-			this(module, null);
-		}
-		
-		public ResourceChangeJob(IModule module, IResourceChangeEvent event) {
+		public ResourceChangeJob() {
 			super(NLS.bind(Messages.jobUpdateServer, Server.this.getName()));
-			this.module = module;
-			this.event = event;
-			
-			if (module.getProject() == null)
-				setRule(Server.this);
-			else {
-				ISchedulingRule[] rules = new ISchedulingRule[2];
-				IResourceRuleFactory ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
-				rules[0] = ruleFactory.createRule(module.getProject());
-				rules[1] = Server.this;
-				setRule(MultiRule.combine(rules));
-			}
 		}
 
-		protected IModule getModule() {
-			return module;
+		protected IStatus run(IProgressMonitor monitor) {
+			// drain the modules that changed since the last run. Modules added after this point
+			// will be picked up by the next run, since schedule() on a running job reschedules it
+			// the events of all drained modules decide whether to publish automatically
+			final Set<IModule> changedModules;
+			int changeKinds;
+			synchronized (pendingChangeLock) {
+				changedModules = new HashSet<IModule>(pendingChangedModules);
+				pendingChangedModules.clear();
+				changeKinds = pendingChangeKinds;
+				pendingChangeKinds = 0;
+			}
+			if (changedModules.isEmpty())
+				return Status.OK_STATUS;
+			
+			ISchedulingRule rule = getResourceChangeRule(changedModules);
+			Job.getJobManager().beginRule(rule, monitor);
+			try {
+				return handleResourceChange(changedModules, changeKinds);
+			} finally {
+				Job.getJobManager().endRule(rule);
+			}
 		}
 
-		protected IStatus run(IProgressMonitor monitor) {
+		private IStatus handleResourceChange(final Set<IModule> changedModules, int changeKinds) {
 			final boolean[] changed = new boolean[1];
 			final List<IModule[]> modules2 = new ArrayList<IModule[]>();
+			final List<IModule[]> changedModules2 = new ArrayList<IModule[]>();
 			
 			// create the visitor that will reset the module publish state flag
 			IModuleVisitor visitor = new IModuleVisitor() {
@@ -215,9 +233,10 @@ public class Server extends Base implements IServer {
 					if (m.getProject() == null)
 						return true;
 					
-					if (getModule().equals(m)) {
+					if (changedModules.contains(m)) {
 						if (hasPublishedResourceDelta(module2)) {
 							changed[0] = true;
+							changedModules2.add(module2);
 							int oldState = getModulePublishState(module2);
 							// if the old state is unknown, we have no basis to decide between full or incremental, so leave at unknown
 							if( oldState != IServer.PUBLISH_STATE_UNKNOWN) {
@@ -249,10 +268,10 @@ public class Server extends Base implements IServer {
 				return Status.OK_STATUS;
 			
 			if (getServerState() != IServer.STATE_STOPPED && behaviourDelegate != null)
-				behaviourDelegate.handleResourceChange();
+				behaviourDelegate.handleResourceChange(changedModules2);
 			
 			if (getServerState() == IServer.STATE_STARTED)
-				autoPublish(event);
+				autoPublish(changeKinds);
 			
 			return Status.OK_STATUS;
 		}
@@ -873,9 +892,10 @@ public class Server extends Base implements IServer {
 			return;
 		
 		Integer in = new Integer(state);
+		ModulePath key = getKey(module);
 		if (state == -1)
-			modulePublishState.remove(getKey(module));
-		modulePublishState.put(getKey(module), in);
+			modulePublishState.remove(key);
+		modulePublishState.put(key, in);
 		fireModulePublishStateChangeEvent(module);
 	}
 
@@ -913,32 +933,56 @@ public class Server extends Base implements IServer {
 			Trace.trace(Trace.STRING_FINEST, "> handleDeployableProjectChange() " + this + " " + module);
 		}
 		
-		if (!isModuleDeployed(module)){
+		// a module that is already waiting to be checked by the resource change job is known to be deployed
+		if (!pendingChangedModules.contains(module) && !isModuleDeployed(module)){
 			return;
 		}
 		
-		// check for duplicate jobs already waiting and don't create a new one
-		Job[] jobs = Job.getJobManager().find(ServerUtil.SERVER_JOB_FAMILY);
-		if (jobs != null) {
-			int size = jobs.length;
-			for (int i = 0; i < size; i++) {
-				if (jobs[i] instanceof ResourceChangeJob) {
-					ResourceChangeJob rcj = (ResourceChangeJob) jobs[i];
-					if (rcj.getServer().equals(this) && rcj.getModule().equals(module) && rcj.getState() == Job.WAITING)
-						return;
-				}
-			}
+		// add to the kinds of the earlier events, so that a build or a close or delete is not lost
+		int kinds = (buildEvent == null) ? 0 : getChangeKinds(buildEvent);
+		boolean added;
+		synchronized (pendingChangeLock) {
+			added = pendingChangedModules.add(module);
+			pendingChangeKinds |= kinds;
 		}
 		
-		ResourceChangeJob job = new ResourceChangeJob(module, buildEvent);
-		job.setSystem(true);
-		job.setPriority(Job.BUILD);
-		job.schedule();
+		// scheduling is a no-op while the job is waiting, and reschedules it once if it is running
+		if (added)
+			getResourceChangeJob().schedule();
 		
 		if (Trace.FINEST) {
 			Trace.trace(Trace.STRING_FINEST, "< handleDeployableProjectChange()");
 		}
 	}
+
+	private synchronized ResourceChangeJob getResourceChangeJob() {
+		if (resourceChangeJob == null) {
+			resourceChangeJob = new ResourceChangeJob();
+			resourceChangeJob.setSystem(true);
+			resourceChangeJob.setPriority(Job.BUILD);
+		}
+		return resourceChangeJob;
+	}
+
+	/**
+	 * Returns the scheduling rule used to check the given changed modules: the
+	 * server and each of the module projects.
+	 * 
+	 * @param changedModules the changed modules
+	 * @return the scheduling rule
+	 */
+	protected ISchedulingRule getResourceChangeRule(Set<IModule> changedModules) {
+		List<ISchedulingRule> rules = new ArrayList<ISchedulingRule>();
+		rules.add(this);
+		IResourceRuleFactory ruleFactory = ResourcesPlugin.getWorkspace().getRuleFactory();
+		Iterator<IModule> iterator = changedModules.iterator();
+		while (iterator.hasNext()) {
+			IProject project = iterator.next().getProject();
+			if (project != null)
+				rules.add(ruleFactory.createRule(project));
+		}
+		return MultiRule.combine(rules.toArray(new ISchedulingRule[rules.size()]));
+	}
 	
 	protected boolean isModuleDeployed(final IModule requestedModule){
 		if (Trace.FINEST) {
@@ -998,9 +1042,13 @@ public class Server extends Base implements IServer {
 	}
 	
 	protected void autoPublish(IResourceChangeEvent event) {
+		autoPublish(event == null ? 0 : getChangeKinds(event));
+	}
+	
+	private void autoPublish(int changeKinds) {
 		stopAutoPublish();
-		boolean buildOccurred = event != null && didBuildOccur(event);
-		boolean projectClosedOrDeleted = event != null && isProjectCloseOrDeleteEvent(event);
+		boolean buildOccurred = (changeKinds & CHANGE_BUILD) != 0;
+		boolean projectClosedOrDeleted = (changeKinds & CHANGE_CLOSE_OR_DELETE) != 0;
 		
 		if (getAutoPublishSetting() == AUTO_PUBLISH_DISABLE)
 			return;
@@ -1019,6 +1067,15 @@ public class Server extends Base implements IServer {
 		}
 	}
 	
+	private int getChangeKinds(IResourceChangeEvent event) {
+		int kinds = 0;
+		if (didBuildOccur(event))
+			kinds |= CHANGE_BUILD;
+		if (isProjectCloseOrDeleteEvent(event))
+			kinds |= CHANGE_CLOSE_OR_DELETE;
+		return kinds;
+	}
+	
 	private boolean isProjectCloseOrDeleteEvent(IResourceChangeEvent event) {
 		int kind = event.getType();
 		if( (kind & IResourceChangeEvent.PRE_CLOSE) > 0 || 
@@ -3083,25 +3140,35 @@ public class Server extends Base implements IServer {
 		return true;
 	}
 
-	protected String getKey(IModule[] module) {
-		StringBuffer sb = new StringBuffer();
-		
-		if (module != null) {
-			int size = module.length;
-			for (int i = 0; i < size; i++) {
-				if (i != 0)
-					sb.append("#");
-				sb.append(module[i].getId());
-			}
-		}
+	protected ModulePath getKey(IModule[] module) {
+		return modulePaths.intern(module);
+	}
+
+	/**
+	 * Remove the interned module paths of modules that have been removed from
+	 * the server and have no module state left.
+	 * 
+	 * @param modules the modules currently on the server
+	 */
+	private void pruneModulePaths(List<IModule[]> modules) {
+		Set<ModulePath> keep = new HashSet<ModulePath>();
+		for (IModule[] module : modules)
+			keep.add(getKey(module));
 		
-		return sb.toString();
+		keep.addAll(moduleState.keySet());
+		keep.addAll(modulePublishState.keySet());
+		keep.addAll(moduleRestartState.keySet());
+		keep.addAll(moduleStatus.keySet());
+		modulePaths.retain(keep);
 	}
 
 	public void setModuleStatus(IModule[] module, IStatus status) {
 		if (module == null || module.length == 0)
 			throw new IllegalArgumentException("Module cannot be null or empty");
-		moduleStatus.put(getKey(module), status);
+		if (status == null)
+			moduleStatus.remove(getKey(module));
+		else
+			moduleStatus.put(getKey(module), status);
 		fireModuleStatusChangeEvent(module);
 	}
 
@@ -3174,12 +3241,12 @@ public class Server extends Base implements IServer {
 		
 		stopAutoPublish();
 		
+		PublishMetrics metrics = PublishMetrics.start(this, kind);
+		IStatus status = Status.OK_STATUS;
 		try {
-			long time = System.currentTimeMillis();
 			firePublishStarted();
 			
 			getServerPublishInfo().startCaching();
-			IStatus status = Status.OK_STATUS;
 			try {
 				getBehaviourDelegate(monitor).publish(kind, modules4, monitor, info);
 			} catch (CoreException ce) {
@@ -3189,6 +3256,7 @@ public class Server extends Base implements IServer {
 				status = ce.getStatus();
 			}
 			
+			long time = System.nanoTime();
 			final List<IModule[]> modules2 = new ArrayList<IModule[]>();
 			visit(new IModuleVisitor() {
 				public boolean visit(IModule[] module) {
@@ -3201,20 +3269,21 @@ public class Server extends Base implements IServer {
 			}, monitor);
 			
 			getServerPublishInfo().removeDeletedModulePublishInfo(Server.this, modules2);
+			pruneModulePaths(modules2);
 			getServerPublishInfo().clearCache();
 			getServerPublishInfo().save();
+			metrics.phaseFinished(IPublishMetrics.PHASE_SAVE, time);
 			
 			firePublishFinished(Status.OK_STATUS);
-			if (Trace.PERFORMANCE) {
-				Trace.trace(Trace.STRING_PERFORMANCE, "Server.publishImpl(): <" + (System.currentTimeMillis() - time)
-						+ "> " + getServerType().getId());
-			}
 			return status;
 		} catch (Exception e) {
 			if (Trace.SEVERE) {
 				Trace.trace(Trace.STRING_SEVERE, "Error calling delegate publish() " + Server.this.toString(), e);
 			}
-			return new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0, Messages.errorPublishing, e);
+			status = new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0, Messages.errorPublishing, e);
+			return status;
+		} finally {
+			metrics.finish(status);
 		}
 	}
 
@@ -0,0 +1,473 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.util.*;
+
+import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.ServerUtil;
+/**
+ * A group of servers that are started and stopped together.
+ * <p>
+ * Each server in the group may depend on other servers in the group. When the
+ * group is started, a server is started as soon as all of the servers it
+ * depends on have started, so independent servers start in parallel and the
+ * group is up after its longest dependency chain. If a server fails to start,
+ * the servers that depend on it are not started. The group is stopped in the
+ * reverse order: a server is stopped once all servers that depend on it have
+ * stopped.
+ * </p>
+ * <p>
+ * Groups are not persisted; clients build the group and its dependencies
+ * each time they are needed.
+ * </p>
+ */
+public class ServerGroup {
+	private final String name;
+
+	// servers in the order they were added, and the servers each one depends on
+	private final Map<IServer, List<IServer>> servers = new LinkedHashMap<IServer, List<IServer>>();
+
+	/**
+	 * Create a new, empty server group.
+	 *
+	 * @param name the name of the group
+	 */
+	public ServerGroup(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Returns the name of the group.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Add a server to the group. Servers that it depends on are added to the
+	 * group if they are not already in it. If the server is already in the
+	 * group, the given dependencies are added to its existing ones.
+	 *
+	 * @param server a server
+	 * @param dependsOn the servers that must be started before this one, or
+	 *    <code>null</code> if there are none
+	 */
+	public synchronized void addServer(IServer server, IServer[] dependsOn) {
+		if (server == null)
+			throw new IllegalArgumentException();
+
+		List<IServer> list = getList(server);
+		if (dependsOn != null) {
+			for (IServer s : dependsOn) {
+				if (s == null || s.equals(server))
+					throw new IllegalArgumentException();
+				getList(s);
+				if (!list.contains(s))
+					list.add(s);
+			}
+		}
+	}
+
+	private List<IServer> getList(IServer server) {
+		List<IServer> list = servers.get(server);
+		if (list == null) {
+			list = new ArrayList<IServer>(2);
+			servers.put(server, list);
+		}
+		return list;
+	}
+
+	/**
+	 * Remove a server from the group, and any dependencies on it.
+	 *
+	 * @param server a server
+	 */
+	public synchronized void removeServer(IServer server) {
+		if (servers.remove(server) == null)
+			return;
+
+		for (List<IServer> list : servers.values())
+			list.remove(server);
+	}
+
+	/**
+	 * Returns the servers in the group, in the order they were added.
+	 *
+	 * @return the servers
+	 */
+	public synchronized IServer[] getServers() {
+		return servers.keySet().toArray(new IServer[servers.size()]);
+	}
+
+	/**
+	 * Returns the servers that the given server depends on.
+	 *
+	 * @param server a server in the group
+	 * @return the servers that must be started before it
+	 */
+	public synchronized IServer[] getDependencies(IServer server) {
+		List<IServer> list = servers.get(server);
+		if (list == null)
+			return new IServer[0];
+		return list.toArray(new IServer[list.size()]);
+	}
+
+	/**
+	 * Returns the servers in start order, grouped into levels. The servers in a
+	 * level only depend on servers in earlier levels.
+	 *
+	 * @return the levels of servers
+	 * @throws CoreException if the dependencies are circular
+	 */
+	public IServer[][] getStartOrder() throws CoreException {
+		Map<IServer, List<IServer>> map = copyServers();
+		List<IServer[]> levels = new ArrayList<IServer[]>();
+		Set<IServer> done = new HashSet<IServer>();
+		while (done.size() < map.size()) {
+			List<IServer> level = new ArrayList<IServer>();
+			for (Map.Entry<IServer, List<IServer>> entry : map.entrySet()) {
+				if (!done.contains(entry.getKey()) && done.containsAll(entry.getValue()))
+					level.add(entry.getKey());
+			}
+			if (level.isEmpty())
+				throw new CoreException(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0,
+						NLS.bind(Messages.errorGroupCycle, name), null));
+
+			done.addAll(level);
+			levels.add(level.toArray(new IServer[level.size()]));
+		}
+		return levels.toArray(new IServer[levels.size()][]);
+	}
+
+	private synchronized Map<IServer, List<IServer>> copyServers() {
+		Map<IServer, List<IServer>> map = new LinkedHashMap<IServer, List<IServer>>();
+		for (Map.Entry<IServer, List<IServer>> entry : servers.entrySet())
+			map.put(entry.getKey(), new ArrayList<IServer>(entry.getValue()));
+		return map;
+	}
+
+	/**
+	 * Start all servers in the group and wait for them to finish starting.
+	 * Servers that are already started are left alone.
+	 *
+	 * @param launchMode a mode in which to start the servers
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return the combined status of starting the servers
+	 */
+	public IStatus start(String launchMode, IProgressMonitor monitor) {
+		return new Operation(true, launchMode, false).run(monitor);
+	}
+
+	/**
+	 * Stop all servers in the group, in reverse start order, and wait for them
+	 * to finish stopping.
+	 *
+	 * @param force <code>true</code> to kill the servers, or <code>false</code>
+	 *    to stop normally
+	 * @param monitor a progress monitor, or <code>null</code> if progress
+	 *    reporting and cancellation are not desired
+	 * @return the combined status of stopping the servers
+	 */
+	public IStatus stop(boolean force, IProgressMonitor monitor) {
+		return new Operation(false, null, force).run(monitor);
+	}
+
+	/**
+	 * Returns a job that starts the group.
+	 *
+	 * @param launchMode a mode in which to start the servers
+	 * @return the job
+	 */
+	public Job createStartJob(final String launchMode) {
+		return new GroupJob(NLS.bind(Messages.jobStartingGroup, name)) {
+			protected IStatus run(IProgressMonitor monitor) {
+				return start(launchMode, monitor);
+			}
+		};
+	}
+
+	/**
+	 * Returns a job that stops the group.
+	 *
+	 * @param force <code>true</code> to kill the servers, or <code>false</code>
+	 *    to stop normally
+	 * @return the job
+	 */
+	public Job createStopJob(final boolean force) {
+		return new GroupJob(NLS.bind(Messages.jobStoppingGroup, name)) {
+			protected IStatus run(IProgressMonitor monitor) {
+				return stop(force, monitor);
+			}
+		};
+	}
+
+	private abstract static class GroupJob extends Job {
+		public GroupJob(String name) {
+			super(name);
+		}
+
+		public boolean belongsTo(Object family) {
+			return ServerUtil.SERVER_JOB_FAMILY.equals(family);
+		}
+	}
+
+	/**
+	 * Start a single server of the group and wait for it to finish starting.
+	 * Called in a separate job for each server.
+	 *
+	 * @param server a server in the group
+	 * @param launchMode a mode in which to start the server
+	 * @param monitor a progress monitor
+	 * @return the status of starting the server
+	 */
+	protected IStatus startServer(IServer server, String launchMode, IProgressMonitor monitor) {
+		if (server.getServerState() == IServer.STATE_STARTED)
+			return Status.OK_STATUS;
+
+		OperationListener listener = new OperationListener();
+		server.start(launchMode, listener);
+		return listener.waitFor(monitor);
+	}
+
+	/**
+	 * Stop a single server of the group and wait for it to finish stopping.
+	 * Called in a separate job for each server.
+	 *
+	 * @param server a server in the group
+	 * @param force <code>true</code> to kill the server, or <code>false</code>
+	 *    to stop normally
+	 * @param monitor a progress monitor
+	 * @return the status of stopping the server
+	 */
+	protected IStatus stopServer(IServer server, boolean force, IProgressMonitor monitor) {
+		if (server.getServerState() == IServer.STATE_STOPPED)
+			return Status.OK_STATUS;
+
+		OperationListener listener = new OperationListener();
+		server.stop(force, listener);
+		return listener.waitFor(monitor);
+	}
+
+	private static class OperationListener implements IServer.IOperationListener {
+		private IStatus status;
+
+		public synchronized void done(IStatus result) {
+			status = (result == null) ? Status.OK_STATUS : result;
+			notifyAll();
+		}
+
+		public synchronized IStatus waitFor(IProgressMonitor monitor) {
+			while (status == null) {
+				if (monitor.isCanceled())
+					return Status.CANCEL_STATUS;
+				try {
+					wait(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return Status.CANCEL_STATUS;
+				}
+			}
+			return status;
+		}
+	}
+
+	/**
+	 * A single start or stop of the group. Each server is started or stopped
+	 * in its own job; when a job finishes, the servers that were waiting only
+	 * for it are scheduled.
+	 */
+	private class Operation {
+		private final boolean start;
+		private final String launchMode;
+		private final boolean force;
+
+		private Map<IServer, List<IServer>> next = new HashMap<IServer, List<IServer>>();
+		private Map<IServer, Integer> waiting = new HashMap<IServer, Integer>();
+		private List<IServer> order;
+		private Map<IServer, IStatus> results = new HashMap<IServer, IStatus>();
+		private Map<IServer, Job> running = new LinkedHashMap<IServer, Job>();
+		private boolean canceled;
+
+		protected Operation(boolean start, String launchMode, boolean force) {
+			this.start = start;
+			this.launchMode = launchMode;
+			this.force = force;
+		}
+
+		/**
+		 * Build the graph to run. Starting runs each server after the servers
+		 * it depends on; stopping runs it after the servers that depend on it.
+		 */
+		private void init(Map<IServer, List<IServer>> map) {
+			order = new ArrayList<IServer>(map.keySet());
+			for (IServer server : order) {
+				next.put(server, new ArrayList<IServer>(2));
+				waiting.put(server, Integer.valueOf(0));
+			}
+			for (Map.Entry<IServer, List<IServer>> entry : map.entrySet()) {
+				for (IServer dep : entry.getValue()) {
+					IServer first = start ? dep : entry.getKey();
+					IServer second = start ? entry.getKey() : dep;
+					next.get(first).add(second);
+					waiting.put(second, Integer.valueOf(waiting.get(second).intValue() + 1));
+				}
+			}
+		}
+
+		protected IStatus run(IProgressMonitor monitor) {
+			if (monitor == null)
+				monitor = new NullProgressMonitor();
+
+			try {
+				getStartOrder();
+			} catch (CoreException ce) {
+				return ce.getStatus();
+			}
+			init(copyServers());
+
+			int total = order.size();
+			monitor.beginTask(NLS.bind(start ? Messages.jobStartingGroup : Messages.jobStoppingGroup, name), total);
+			try {
+				synchronized (this) {
+					for (IServer server : order) {
+						if (waiting.get(server).intValue() == 0)
+							schedule(server);
+					}
+
+					int worked = 0;
+					Set<IServer> shown = Collections.emptySet();
+					while (results.size() < total) {
+						if (monitor.isCanceled())
+							return cancel();
+
+						if (!shown.equals(running.keySet())) {
+							shown = new HashSet<IServer>(running.keySet());
+							monitor.subTask(NLS.bind(start ? Messages.jobStarting : Messages.jobStopping, getNames(running.keySet())));
+						}
+
+						try {
+							wait(200);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return cancel();
+						}
+
+						monitor.worked(results.size() - worked);
+						worked = results.size();
+					}
+				}
+			} finally {
+				monitor.done();
+			}
+			return getResult();
+		}
+
+		private IStatus cancel() {
+			canceled = true;
+			for (Job job : running.values())
+				job.cancel();
+			return Status.CANCEL_STATUS;
+		}
+
+		private void schedule(final IServer server) {
+			Job job = new GroupJob(NLS.bind(start ? Messages.jobStarting : Messages.jobStopping, server.getName())) {
+				protected IStatus run(IProgressMonitor monitor) {
+					if (start)
+						return startServer(server, launchMode, monitor);
+					return stopServer(server, force, monitor);
+				}
+			};
+			job.setSystem(true);
+			job.addJobChangeListener(new JobChangeAdapter() {
+				public void done(IJobChangeEvent event) {
+					serverDone(server, event.getResult());
+				}
+			});
+			running.put(server, job);
+			job.schedule();
+		}
+
+		protected synchronized void serverDone(IServer server, IStatus status) {
+			running.remove(server);
+			if (status == null)
+				status = Status.OK_STATUS;
+			results.put(server, status);
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, (start ? "Group started server: " : "Group stopped server: ") + server + " " + status);
+			}
+
+			// servers that depend on a server that did not start are not started,
+			// but stopping continues regardless of failures
+			boolean failed = start && (status.getSeverity() == IStatus.ERROR || status.getSeverity() == IStatus.CANCEL);
+			for (IServer s : next.get(server)) {
+				if (results.containsKey(s))
+					continue;
+
+				if (failed)
+					skip(s, server);
+				else {
+					int count = waiting.get(s).intValue() - 1;
+					waiting.put(s, Integer.valueOf(count));
+					if (count == 0 && !canceled)
+						schedule(s);
+				}
+			}
+			notifyAll();
+		}
+
+		private void skip(IServer server, IServer failed) {
+			results.put(server, new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0,
+					NLS.bind(Messages.errorGroupDependency, server.getName(), failed.getName()), null));
+			for (IServer s : next.get(server)) {
+				if (!results.containsKey(s))
+					skip(s, server);
+			}
+		}
+
+		private IStatus getResult() {
+			MultiStatus ms = new MultiStatus(ServerPlugin.PLUGIN_ID, 0,
+					NLS.bind(start ? Messages.errorGroupStartFailed : Messages.errorGroupStopFailed, name), null);
+			for (IServer server : order) {
+				IStatus status = results.get(server);
+				if (!status.isOK())
+					ms.add(status);
+			}
+			if (ms.getChildren().length == 0)
+				return Status.OK_STATUS;
+			return ms;
+		}
+	}
+
+	private static String getNames(Collection<IServer> list) {
+		StringBuffer sb = new StringBuffer();
+		for (IServer server : list) {
+			if (sb.length() > 0)
+				sb.append(", ");
+			sb.append(server.getName());
+		}
+		return sb.toString();
+	}
+
+	public String toString() {
+		return "ServerGroup[" + name + "]";
+	}
+}
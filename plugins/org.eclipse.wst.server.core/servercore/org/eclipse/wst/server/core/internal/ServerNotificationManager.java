@@ -13,16 +13,25 @@
 package org.eclipse.wst.server.core.internal;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.wst.server.core.IServerListener;
 import org.eclipse.wst.server.core.ServerEvent;
 /**
  * Notification manager for server.
+ * <p>
+ * Listeners are stored in copy-on-write arrays that are indexed by event type
+ * (server or module change) and kind of change, so that broadcasting an event
+ * does not lock and only visits the listeners that are interested in it.
+ * </p>
  */
 public class ServerNotificationManager {
-	private List<ListenerEntry> listenerList = new ArrayList<ListenerEntry>();
+	private static final ListenerEntry[] NO_LISTENERS = new ListenerEntry[0];
+
+	// the number of distinct kind bits in an event mask
+	private static final int KIND_BITS = 16;
+
+	private static final int TYPE_MASK = ServerEvent.SERVER_CHANGE | ServerEvent.MODULE_CHANGE;
 
 	/**
 	 * For masking event on all changes.
@@ -47,6 +56,57 @@ public class ServerNotificationManager {
 		}
 	}
 
+	/**
+	 * An immutable snapshot of the registered listeners, together with the
+	 * listeners for each single kind of server and module change.
+	 */
+	private static class Listeners {
+		protected final ListenerEntry[] all;
+		protected final ListenerEntry[][] server = new ListenerEntry[KIND_BITS][];
+		protected final ListenerEntry[][] module = new ListenerEntry[KIND_BITS][];
+
+		protected Listeners(ListenerEntry[] all) {
+			this.all = all;
+			for (int i = 0; i < KIND_BITS; i++) {
+				int kind = 1 << i;
+				if ((kind & TYPE_MASK) != 0)
+					continue;
+				server[i] = filter(all, ServerEvent.SERVER_CHANGE | kind);
+				module[i] = filter(all, ServerEvent.MODULE_CHANGE | kind);
+			}
+		}
+
+		/**
+		 * Returns the listeners that are interested in the given event kind.
+		 */
+		protected ListenerEntry[] get(int eventKind) {
+			int kindOnly = eventKind & ~TYPE_MASK & ALL_EVENTS;
+			int type = eventKind & TYPE_MASK;
+			if (Integer.bitCount(kindOnly) == 1) {
+				int index = Integer.numberOfTrailingZeros(kindOnly);
+				if (type == ServerEvent.SERVER_CHANGE)
+					return server[index];
+				if (type == ServerEvent.MODULE_CHANGE)
+					return module[index];
+			}
+			return filter(all, eventKind);
+		}
+
+		private static ListenerEntry[] filter(ListenerEntry[] entries, int eventKind) {
+			List<ListenerEntry> list = new ArrayList<ListenerEntry>(entries.length);
+			for (ListenerEntry entry : entries) {
+				if (matches(entry.getEventMask(), eventKind))
+					list.add(entry);
+			}
+			if (list.isEmpty())
+				return NO_LISTENERS;
+			return list.toArray(new ListenerEntry[list.size()]);
+		}
+	}
+
+	// replaced while holding the lock on this manager whenever a listener is added or removed
+	private volatile Listeners listeners = new Listeners(NO_LISTENERS);
+
 	/**
 	 * Create a new notification manager.
 	 */
@@ -54,6 +114,21 @@ public class ServerNotificationManager {
 		super();
 	}
 
+	/**
+	 * Returns true if a listener with the given mask is interested in the given
+	 * event kind.
+	 */
+	private static boolean matches(int mask, int eventKind) {
+		// check if the type of the event matches the mask, e.g. server or module change
+		boolean isTypeMatch = ((mask & eventKind & ServerEvent.SERVER_CHANGE) != 0) 
+				|| ((mask & eventKind & ServerEvent.MODULE_CHANGE) != 0);
+		// check the kind of change
+		// take out the ServerEvent.SERVER_CHANGE bit and ServerEvent.MODULE_CHANGE bit
+		int kindOnly = (eventKind | ServerEvent.SERVER_CHANGE | ServerEvent.MODULE_CHANGE) ^ ServerEvent.SERVER_CHANGE ^ ServerEvent.MODULE_CHANGE;
+		boolean isKindMatch = (mask & kindOnly) != 0;
+		return isTypeMatch && isKindMatch;
+	}
+
 	/**
 	 * Add listener for all events.
 	 * 
@@ -78,8 +153,13 @@ public class ServerNotificationManager {
 			return;
 		}
 		
-		synchronized (listenerList) {
-			listenerList.add(new ListenerEntry(curListener, eventMask));
+		synchronized (this) {
+			ListenerEntry[] all = listeners.all;
+			int size = all.length;
+			ListenerEntry[] all2 = new ListenerEntry[size + 1];
+			System.arraycopy(all, 0, all2, 0, size);
+			all2[size] = new ListenerEntry(curListener, eventMask);
+			listeners = new Listeners(all2);
 		}
 	}
 
@@ -95,45 +175,29 @@ public class ServerNotificationManager {
 			Trace.trace(Trace.STRING_FINEST, "  Server event kind: " + eventKind + " ->-");
 		}
 		
-		// only notify listeners that listen to module event
-		int size;
-		ListenerEntry[] listeners;
-		synchronized (listenerList) {
-			size = listenerList.size();
-			listeners = listenerList.toArray(new ListenerEntry[size]);
-		}
+		// only notify listeners that listen to this kind of event
+		ListenerEntry[] entries = listeners.get(eventKind);
+		int size = entries.length;
 		for (int i = 0; i < size; i++) {
-			ListenerEntry curEntry = listeners[i];
-			int mask = curEntry.getEventMask();
-			
-			// check if the type of the event matches the mask, e.g. server or module change
-			boolean isTypeMatch = ((mask & eventKind & ServerEvent.SERVER_CHANGE) != 0) 
-					|| ((mask & eventKind & ServerEvent.MODULE_CHANGE) != 0);
-			// check the kind of change
-			// take out the ServerEvent.SERVER_CHANGE bit and ServerEvent.MODULE_CHANGE bit
-			int kindOnly = (eventKind | ServerEvent.SERVER_CHANGE | ServerEvent.MODULE_CHANGE) ^ ServerEvent.SERVER_CHANGE ^ ServerEvent.MODULE_CHANGE;
-			boolean isKindMatch = (mask & kindOnly) != 0;
-			
-			if (isTypeMatch && isKindMatch) {
-				if (Trace.FINEST) {
-					Trace.trace(Trace.STRING_FINEST, "->- Firing server event to listener: " + curEntry.getListener()
-							+ " ->-");
-				}
-				try {
-					if (Trace.LISTENERS) {
-						Trace.trace(Trace.STRING_LISTENERS,
-								"  Firing server event to listener: " + curEntry.getListener());
-					}
-					curEntry.getListener().serverChanged(event);
-				} catch (Exception e) {
-					if (Trace.SEVERE) {
-						Trace.trace(Trace.STRING_SEVERE, "  Error firing server event: " + curEntry.getListener(), e);
-					}
-				}
+			ListenerEntry curEntry = entries[i];
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, "->- Firing server event to listener: " + curEntry.getListener()
+						+ " ->-");
+			}
+			try {
 				if (Trace.LISTENERS) {
-					Trace.trace(Trace.STRING_LISTENERS, "-<- Done firing server event -<-");
+					Trace.trace(Trace.STRING_LISTENERS,
+							"  Firing server event to listener: " + curEntry.getListener());
+				}
+				curEntry.getListener().serverChanged(event);
+			} catch (Exception e) {
+				if (Trace.SEVERE) {
+					Trace.trace(Trace.STRING_SEVERE, "  Error firing server event: " + curEntry.getListener(), e);
 				}
 			}
+			if (Trace.LISTENERS) {
+				Trace.trace(Trace.STRING_LISTENERS, "-<- Done firing server event -<-");
+			}
 		}
 		if (Trace.FINEST) {
 			Trace.trace(Trace.STRING_FINEST, "-<- Done broadcasting server event -<-");
@@ -146,7 +210,7 @@ public class ServerNotificationManager {
 	 * @return true if the listener list is empty, or false otherwise
 	 */
 	protected boolean hasNoListeners() {
-		return listenerList.isEmpty();
+		return listeners.all.length == 0;
 	}
 
 	/**
@@ -162,17 +226,18 @@ public class ServerNotificationManager {
 		if (curListener == null)
 			return;
 		
-		synchronized (listenerList) {
-			ListenerEntry matchedListenerEntry = null;
-			Iterator listenerIter = listenerList.iterator();
-			while (matchedListenerEntry == null && listenerIter.hasNext()) {
-				ListenerEntry curEntry = (ListenerEntry)listenerIter.next();
-				if (curListener.equals(curEntry.getListener())) {
-					matchedListenerEntry = curEntry;
+		synchronized (this) {
+			ListenerEntry[] all = listeners.all;
+			int size = all.length;
+			for (int i = 0; i < size; i++) {
+				if (curListener.equals(all[i].getListener())) {
+					ListenerEntry[] all2 = new ListenerEntry[size - 1];
+					System.arraycopy(all, 0, all2, 0, i);
+					System.arraycopy(all, i + 1, all2, i, size - i - 1);
+					listeners = new Listeners(all2);
+					return;
 				}
 			}
-			if (matchedListenerEntry != null)
-				listenerList.remove(matchedListenerEntry);
 		}
 	}
 }
\ No newline at end of file
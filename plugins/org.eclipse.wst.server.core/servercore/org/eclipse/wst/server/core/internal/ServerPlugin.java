@@ -41,37 +41,124 @@ public class ServerPlugin extends Plugin {
 	protected static int num = 0;
 
 	// cached copy of all launchable adapters
-	private static List<LaunchableAdapter> launchableAdapters;
+	private static final ExtensionCache<LaunchableAdapter> launchableAdapters = new ExtensionCache<LaunchableAdapter>("launchableAdapters", "launchableAdapter") {
+		protected LaunchableAdapter create(IConfigurationElement element) {
+			return new LaunchableAdapter(element);
+		}
+
+		protected void sort(List<LaunchableAdapter> list) {
+			// sort by priority to put higher numbers first
+			Collections.sort(list, new Comparator<LaunchableAdapter>() {
+				public int compare(LaunchableAdapter a, LaunchableAdapter b) {
+					return Integer.compare(b.getPriority(), a.getPriority());
+				}
+			});
+		}
+	};
 
 	// cached copy of all launchable clients
-	private static List<IClient> clients;
+	private static final ExtensionCache<Client> clients = new ExtensionCache<Client>("clients", "clients") {
+		protected Client create(IConfigurationElement element) {
+			return new Client(element);
+		}
+
+		protected void sort(List<Client> list) {
+			// sort by priority to put higher numbers first
+			Collections.sort(list, new Comparator<Client>() {
+				public int compare(Client a, Client b) {
+					return Integer.compare(b.getPriority(), a.getPriority());
+				}
+			});
+		}
+	};
 
 	// cached copy of all module factories
-	private static List<ModuleFactory> moduleFactories;
+	private static final ExtensionCache<ModuleFactory> moduleFactories = new ExtensionCache<ModuleFactory>("moduleFactories", "moduleFactories") {
+		protected ModuleFactory create(IConfigurationElement element) {
+			return new ModuleFactory(element);
+		}
+
+		protected void sort(List<ModuleFactory> list) {
+			// sort by order to put lower numbers first
+			Collections.sort(list, new Comparator<ModuleFactory>() {
+				public int compare(ModuleFactory a, ModuleFactory b) {
+					return Integer.compare(a.getOrder(), b.getOrder());
+				}
+			});
+		}
+	};
 
 	// singleton instance of this class
 	private static ServerPlugin singleton;
 
 	// cached copy of all publish tasks
-	private static List<IPublishTask> publishTasks;
-	
-	// cached copy of all publish tasks
-	private static List<PublishController> publishControllers;
+	private static final ExtensionCache<PublishTask> publishTasks = new ExtensionCache<PublishTask>("publishTasks", "publishTask") {
+		protected PublishTask create(IConfigurationElement element) {
+			return new PublishTask(element);
+		}
+	};
+
+	// cached copy of all publish controllers
+	private static final ExtensionCache<PublishController> publishControllers = new ExtensionCache<PublishController>("publishController", ".publishController") {
+		protected PublishController create(IConfigurationElement element) {
+			return new PublishController(element);
+		}
+	};
 
 	// cached copy of all publishers
-	private static List<Publisher> publishers;
+	private static final ExtensionCache<Publisher> publishers = new ExtensionCache<Publisher>("publishers", "publisher") {
+		protected Publisher create(IConfigurationElement element) {
+			return new Publisher(element);
+		}
+	};
 
 	//	cached copy of all server monitors
-	private static List<IServerMonitor> monitors;
+	private static final ExtensionCache<ServerMonitor> monitors = new ExtensionCache<ServerMonitor>("internalServerMonitors", "serverMonitor") {
+		protected ServerMonitor create(IConfigurationElement element) {
+			return new ServerMonitor(element);
+		}
+	};
 
 	//	cached copy of all runtime locators
-	private static List<IRuntimeLocator> runtimeLocators;
+	private static final ExtensionCache<RuntimeLocator> runtimeLocators = new ExtensionCache<RuntimeLocator>("runtimeLocators", "runtimeLocator") {
+		protected RuntimeLocator create(IConfigurationElement element) {
+			return new RuntimeLocator(element);
+		}
+	};
 
 	// cached copy of all module artifact adapters
-	private static List<ModuleArtifactAdapter> moduleArtifactAdapters;
+	private static final ExtensionCache<ModuleArtifactAdapter> moduleArtifactAdapters = new ExtensionCache<ModuleArtifactAdapter>("moduleArtifactAdapters", "moduleArtifactAdapter") {
+		protected ModuleArtifactAdapter create(IConfigurationElement element) {
+			return new ModuleArtifactAdapter(element);
+		}
+
+		protected void sort(List<ModuleArtifactAdapter> list) {
+			// sort by priority to put higher numbers first
+			Collections.sort(list, new Comparator<ModuleArtifactAdapter>() {
+				public int compare(ModuleArtifactAdapter a, ModuleArtifactAdapter b) {
+					return Integer.compare(b.getPriority(), a.getPriority());
+				}
+			});
+		}
+	};
 
 	//	cached copy of all installable runtimes
-	private static List<IInstallableRuntime> installableRuntimes;
+	private static final ExtensionCache<IInstallableRuntime> installableRuntimes = new ExtensionCache<IInstallableRuntime>("installableRuntimes", "installableRuntime") {
+		protected IInstallableRuntime create(IConfigurationElement element) {
+			if ("runtime".equals(element.getName())) {
+				String os = element.getAttribute("os");
+				if (os == null || os.contains(Platform.getOS()))
+					return new InstallableRuntime2(element);
+				return null;
+			}
+			return new InstallableRuntime(element);
+		}
+	};
+
+	private static final ExtensionCache<?>[] extensionCaches = new ExtensionCache<?>[] {
+		launchableAdapters, clients, moduleFactories, publishTasks, publishControllers, publishers,
+		monitors, runtimeLocators, moduleArtifactAdapters, installableRuntimes
+	};
 
 	// cached copy of SaveEditorPrompter
 	private static SaveEditorPrompter saveEditorPrompter;
@@ -81,6 +168,9 @@ public class ServerPlugin extends Plugin {
 
 	// registry listener
 	private static IRegistryChangeListener registryListener;
+
+	// registry listener that discards the cached extensions when they change
+	private static IRegistryChangeListener extensionListener;
 	
 	public static BundleContext bundleContext;
 
@@ -93,6 +183,8 @@ public class ServerPlugin extends Plugin {
 		String path;
 		int age;
 		boolean recycle = true;
+		// last time the directory was requested
+		long used;
 	}
 
 	// temp directories - String key to TempDir
@@ -161,7 +253,7 @@ public class ServerPlugin extends Plugin {
 	 * over a period of time
 	 * @return java.io.File
 	 */
-	public IPath getTempDirectory(String key, boolean recycle) {
+	public synchronized IPath getTempDirectory(String key, boolean recycle) {
 		if (key == null)
 			return null;
 	
@@ -171,6 +263,7 @@ public class ServerPlugin extends Plugin {
 			TempDir dir = getTempDirs().get(key);
 			if (dir != null) {
 				dir.age = 0;
+				dir.used = System.currentTimeMillis();
 				// If recycle status needs changing, update
 				if (dir.recycle != recycle) {
 					dir.recycle = recycle;
@@ -199,6 +292,7 @@ public class ServerPlugin extends Plugin {
 		TempDir d = new TempDir();
 		d.path = path;
 		d.recycle = recycle;
+		d.used = System.currentTimeMillis();
 		getTempDirs().put(key, d);
 		saveTempDirInfo();
 		return statePath.append(path);
@@ -208,7 +302,7 @@ public class ServerPlugin extends Plugin {
 	 * Remove a temp directory.
 	 * @param key
 	 */
-	public void removeTempDirectory(String key) {
+	public synchronized void removeTempDirectory(String key) {
 		if (key == null)
 			return;
 		
@@ -259,6 +353,10 @@ public class ServerPlugin extends Plugin {
 				if (recycle != null) {
 					d.recycle = recycle.booleanValue();
 				}
+				String used = children[i].getString("used");
+				if (used != null) {
+					d.used = Long.parseLong(used);
+				}
 				// Age only if recycling is enabled
 				if (d.recycle) {
 					d.age++;
@@ -273,6 +371,90 @@ public class ServerPlugin extends Plugin {
 		}
 	}
 
+	/**
+	 * Trim the temporary directories to the given total size. Recyclable
+	 * directories that have not been requested since the given time are deleted,
+	 * least recently used first, until the total size is below the limit.
+	 * Directories in the state location that are no longer in use are always
+	 * deleted.
+	 *
+	 * @param limit the size limit, in bytes
+	 * @param since the time before which directories are unused, typically
+	 *    the start of this session
+	 */
+	protected void trimTempDirectories(long limit, long since) {
+		IPath statePath = getStateLocation();
+		List<String> orphans = new ArrayList<String>();
+		final Map<TempDir, Long> sizes = new HashMap<TempDir, Long>();
+		List<TempDir> unused = new ArrayList<TempDir>();
+		synchronized (this) {
+			Set<String> paths = new HashSet<String>();
+			for (TempDir d : getTempDirs().values()) {
+				paths.add(d.path);
+				if (d.recycle && d.used < since)
+					unused.add(d);
+			}
+			
+			File[] files = statePath.toFile().listFiles();
+			if (files != null) {
+				for (File f : files) {
+					String name = f.getName();
+					if (f.isDirectory() && name.matches("tmp\\d+") && !paths.contains(name))
+						orphans.add(name);
+				}
+			}
+		}
+		
+		// measure outside the lock, directories may be large
+		long total = 0;
+		for (TempDir d : unused) {
+			long size = getSize(statePath.append(d.path).toFile());
+			sizes.put(d, Long.valueOf(size));
+			total += size;
+		}
+		
+		Collections.sort(unused, new Comparator<TempDir>() {
+			public int compare(TempDir a, TempDir b) {
+				return Long.compare(a.used, b.used);
+			}
+		});
+		
+		List<String> delete = new ArrayList<String>(orphans);
+		synchronized (this) {
+			Iterator<TempDir> iterator = unused.iterator();
+			boolean changed = false;
+			while (total > limit && iterator.hasNext()) {
+				TempDir d = iterator.next();
+				// skip directories that have been requested while measuring
+				if (d.used >= since || !getTempDirs().values().remove(d))
+					continue;
+				total -= sizes.get(d).longValue();
+				delete.add(d.path);
+				changed = true;
+			}
+			if (changed)
+				saveTempDirInfo();
+		}
+		
+		for (String path : delete) {
+			if (Trace.FINER) {
+				Trace.trace(Trace.STRING_FINER, "Deleting temporary directory " + path);
+			}
+			deleteDirectory(statePath.append(path).toFile(), null);
+		}
+	}
+
+	private static long getSize(File file) {
+		File[] files = file.listFiles();
+		if (files == null)
+			return file.length();
+		
+		long size = 0;
+		for (File f : files)
+			size += getSize(f);
+		return size;
+	}
+
 	/**
 	 * Convenience method for logging.
 	 *
@@ -305,6 +487,7 @@ public class ServerPlugin extends Plugin {
 					child.putString("path", d.path);
 					child.putInteger("age", d.age);
 					child.putBoolean("recycle", d.recycle);
+					child.putString("used", Long.toString(d.used));
 				} else
 					deleteDirectory(statePath.append(d.path).toFile(), null);
 			}
@@ -337,10 +520,23 @@ public class ServerPlugin extends Plugin {
 		};
 		context.addBundleListener(bundleListener);
 
+		extensionListener = new IRegistryChangeListener() {
+			public void registryChanged(IRegistryChangeEvent event) {
+				handleRegistryChange(event);
+			}
+		};
+		Platform.getExtensionRegistry().addRegistryChangeListener(extensionListener, PLUGIN_ID);
+
 		// Load the PublishController during plugin startup since this will be used
 		// during the a workspace delta (changes to the workspace)
 		getPublishController();
 
+		// cache the local addresses and host names in the background
+		LocalhostResolver.getInstance().refresh();
+
+		// reclaim temporary files left behind by earlier sessions
+		ScratchSpace.getInstance().scheduleReclaim();
+
 		// register the debug options listener
 		final Hashtable<String, String> props = new Hashtable<String, String>(4);
 		props.put(DebugOptions.LISTENER_SYMBOLICNAME, ServerPlugin.PLUGIN_ID);
@@ -383,9 +579,12 @@ public class ServerPlugin extends Plugin {
 		
 		if (registryListener != null)
 			Platform.getExtensionRegistry().removeRegistryChangeListener(registryListener);
+		if (extensionListener != null)
+			Platform.getExtensionRegistry().removeRegistryChangeListener(extensionListener);
 		
 		ResourceManager.shutdown();
 		ServerMonitorManager.shutdown();
+		LocalhostResolver.getInstance().shutdown();
 		
 		try {
 			Job.getJobManager().join(SHUTDOWN_JOB_FAMILY, null);
@@ -682,10 +881,9 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of launchable adapters {@link ILaunchableAdapter}
 	 */
 	public static ILaunchableAdapter[] getLaunchableAdapters() {
-		if (launchableAdapters == null)
-			loadLaunchableAdapters();
-		ILaunchableAdapter[] la = new ILaunchableAdapter[launchableAdapters.size()];
-		launchableAdapters.toArray(la);
+		List<LaunchableAdapter> list = launchableAdapters.get();
+		ILaunchableAdapter[] la = new ILaunchableAdapter[list.size()];
+		list.toArray(la);
 		return la;
 	}
 
@@ -698,104 +896,11 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of client instances {@link IClient}
 	 */
 	public static IClient[] getClients() {
-		if (clients == null)
-			loadClients();
-		IClient[] c = new IClient[clients.size()];
-		clients.toArray(c);
+		List<Client> list = clients.get();
+		IClient[] c = new IClient[list.size()];
+		list.toArray(c);
 		return c;
 	}
-	
-	/**
-	 * Load the launchable adapters extension point.
-	 */
-	private static synchronized void loadLaunchableAdapters() {
-		if (launchableAdapters != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .launchableAdapters extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "launchableAdapters");
-
-		int size = cf.length;
-		List<LaunchableAdapter> list = new ArrayList<LaunchableAdapter>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new LaunchableAdapter(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded launchableAdapter: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load launchableAdapter: " + cf[i].getAttribute("id"),
-							t);
-				}
-			}
-		}
-		
-		// sort by priority to put higher numbers first
-		size = list.size();
-		for (int i = 0; i < size-1; i++) {
-			for (int j = i+1; j < size; j++) {
-				LaunchableAdapter a = list.get(i);
-				LaunchableAdapter b = list.get(j);
-				if (a.getPriority() < b.getPriority()) {
-					list.set(i, b);
-					list.set(j, a);
-				}
-			}
-		}
-		launchableAdapters = list;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .launchableAdapters extension point -<-");
-		}
-	}
-
-	/**
-	 * Load the client extension point.
-	 */
-	private static synchronized void loadClients() {
-		if (clients != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .clients extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "clients");
-		
-		int size = cf.length;
-		List<IClient> list = new ArrayList<IClient>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new Client(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded clients: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load clients: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		
-		// sort by priority to put higher numbers first
-		size = list.size();
-		for (int i = 0; i < size-1; i++) {
-			for (int j = i+1; j < size; j++) {
-				Client a = (Client) list.get(i);
-				Client b = (Client) list.get(j);
-				if (a.getPriority() < b.getPriority()) {
-					list.set(i, b);
-					list.set(j, a);
-				}
-			}
-		}
-		clients = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .clients extension point -<-");
-		}
-	}
 
 	/**
 	 * Returns an array of all known publish tasks.
@@ -806,46 +911,12 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of publish tasks instances {@link IPublishTask}
 	 */
 	public static IPublishTask[] getPublishTasks() {
-		if (publishTasks == null)
-			loadPublishTasks();
-		IPublishTask[] st = new IPublishTask[publishTasks.size()];
-		publishTasks.toArray(st);
+		List<PublishTask> list = publishTasks.get();
+		IPublishTask[] st = new IPublishTask[list.size()];
+		list.toArray(st);
 		return st;
 	}
 
-	/**
-	 * Load the publish task extension point.
-	 */
-	private static synchronized void loadPublishTasks() {
-		if (publishTasks != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .publishTasks extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "publishTasks");
-		
-		int size = cf.length;
-		List<IPublishTask> list = new ArrayList<IPublishTask>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new PublishTask(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded publishTask: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load publishTask: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		publishTasks = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .publishTasks extension point -<-");
-		}
-	}
-
 	/**
 	 * Returns an array of all known publishers.
 	 * <p>
@@ -855,10 +926,9 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of publisher instances {@link Publisher}
 	 */
 	public static Publisher[] getPublishers() {
-		if (publishers == null)
-			loadPublishers();
-		Publisher[] pub = new Publisher[publishers.size()];
-		publishers.toArray(pub);
+		List<Publisher> list = publishers.get();
+		Publisher[] pub = new Publisher[list.size()];
+		list.toArray(pub);
 		return pub;
 	}
 
@@ -876,51 +946,13 @@ public class ServerPlugin extends Plugin {
 		if (id == null)
 			throw new IllegalArgumentException();
 		
-		if (publishers == null)
-			loadPublishers();
-		
-		Iterator iterator = publishers.iterator();
-		while (iterator.hasNext()) {
-			Publisher pub = (Publisher) iterator.next();
+		for (Publisher pub : publishers.get()) {
 			if (id.equals(pub.getId()))
 				return pub;
 		}
 		return null;
 	}
 
-	/**
-	 * Load the publisher extension point.
-	 */
-	private static synchronized void loadPublishers() {
-		if (publishers != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .publishers extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "publishers");
-		
-		int size = cf.length;
-		List<Publisher> list = new ArrayList<Publisher>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new Publisher(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded publisher: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load publisher: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		publishers = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .publishers extension point -<-");
-		}
-	}
-	
 	/**
 	 * Returns an array of all known publishers.
 	 * <p>
@@ -930,48 +962,11 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of publisher instances {@link Publisher}
 	 */
 	public static PublishController[] getPublishController() {
-		if (publishers == null)
-			loadPublishControllers();
-		PublishController[] controllers = new PublishController[publishControllers.size()];
-		publishControllers.toArray(controllers);
+		List<PublishController> list = publishControllers.get();
+		PublishController[] controllers = new PublishController[list.size()];
+		list.toArray(controllers);
 		return controllers;
 	}
-	
-	/**
-	 * Load the publishController extension point.
-	 */
-	private static synchronized void loadPublishControllers() {
-		if (publishControllers != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .publishController extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "publishController");
-		
-		int size = cf.length;
-		List<PublishController> list = new ArrayList<PublishController>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new PublishController(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT,
-							"  Loaded .publishController: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE,
-							"  Could not load .publishController: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		publishControllers = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .publishController extension point -<-");
-		}
-	}
-	
 
 	/**
 	 * Returns an array of all known module module factories.
@@ -982,11 +977,9 @@ public class ServerPlugin extends Plugin {
 	 * @return the array of module factories {@link ModuleFactory}
 	 */
 	public static ModuleFactory[] getModuleFactories() {
-		if (moduleFactories == null)
-			loadModuleFactories();
-		
-		ModuleFactory[] mf = new ModuleFactory[moduleFactories.size()];
-		moduleFactories.toArray(mf);
+		List<ModuleFactory> list = moduleFactories.get();
+		ModuleFactory[] mf = new ModuleFactory[list.size()];
+		list.toArray(mf);
 		return mf;
 	}
 
@@ -1004,12 +997,7 @@ public class ServerPlugin extends Plugin {
 		if (id == null)
 			throw new IllegalArgumentException();
 		
-		if (moduleFactories == null)
-			loadModuleFactories();
-		
-		Iterator iterator = moduleFactories.iterator();
-		while (iterator.hasNext()) {
-			ModuleFactory factory = (ModuleFactory) iterator.next();
+		for (ModuleFactory factory : moduleFactories.get()) {
 			if (id.equals(factory.getId()))
 				return factory;
 		}
@@ -1030,12 +1018,7 @@ public class ServerPlugin extends Plugin {
 		if (id == null)
 			throw new IllegalArgumentException();
 		
-		if (launchableAdapters == null)
-			loadLaunchableAdapters();
-		
-		Iterator iterator = launchableAdapters.iterator();
-		while (iterator.hasNext()) {
-			ILaunchableAdapter la = (ILaunchableAdapter) iterator.next();
+		for (ILaunchableAdapter la : launchableAdapters.get()) {
 			if (id.equals(la.getId()))
 				return la;
 		}
@@ -1056,63 +1039,13 @@ public class ServerPlugin extends Plugin {
 		if (id == null)
 			throw new IllegalArgumentException();
 		
-		if (clients == null)
-			loadClients();
-		
-		Iterator iterator = clients.iterator();
-		while (iterator.hasNext()) {
-			IClient client = (IClient) iterator.next();
+		for (IClient client : clients.get()) {
 			if (id.equals(client.getId()))
 				return client;
 		}
 		return null;
 	}
 
-	/**
-	 * Load the module factories extension point.
-	 */
-	private static synchronized void loadModuleFactories() {
-		if (moduleFactories != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .moduleFactories extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "moduleFactories");
-		
-		int size = cf.length;
-		List<ModuleFactory> list = new ArrayList<ModuleFactory>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new ModuleFactory(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded moduleFactories: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load moduleFactories: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		
-		size = list.size();
-		for (int i = 0; i < size - 1; i++) {
-			for (int j = i + 1; j < size; j++) {
-				ModuleFactory a = list.get(i);
-				ModuleFactory b = list.get(j);
-				if (a.getOrder() > b.getOrder()) {
-					list.set(i, b);
-					list.set(j, a);
-				}
-			}
-		}
-		moduleFactories = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .moduleFactories extension point -<-");
-		}
-	}
-
 	/**
 	 * Returns an array of all known server monitor instances.
 	 * <p>
@@ -1122,46 +1055,12 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of server monitor instances {@link IServerMonitor}
 	 */
 	public static IServerMonitor[] getServerMonitors() {
-		if (monitors == null)
-			loadServerMonitors();
-		IServerMonitor[] sm = new IServerMonitor[monitors.size()];
-		monitors.toArray(sm);
+		List<ServerMonitor> list = monitors.get();
+		IServerMonitor[] sm = new IServerMonitor[list.size()];
+		list.toArray(sm);
 		return sm;
 	}
 
-	/**
-	 * Load the server monitor extension point.
-	 */
-	private static synchronized void loadServerMonitors() {
-		if (monitors != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .serverMonitors extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "internalServerMonitors");
-
-		int size = cf.length;
-		List<IServerMonitor> list = new ArrayList<IServerMonitor>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new ServerMonitor(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded serverMonitor: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load serverMonitor: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		monitors = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .serverMonitors extension point -<-");
-		}
-	}
-
 	/**
 	 * Returns an array of all known runtime locator instances.
 	 * <p>
@@ -1171,108 +1070,24 @@ public class ServerPlugin extends Plugin {
 	 * @return a possibly-empty array of runtime locator instances {@link IRuntimeLocator}
 	 */
 	public static IRuntimeLocator[] getRuntimeLocators() {
-		if (runtimeLocators == null)
-			loadRuntimeLocators();
-		IRuntimeLocator[] rl = new IRuntimeLocator[runtimeLocators.size()];
-		runtimeLocators.toArray(rl);
+		List<RuntimeLocator> list = runtimeLocators.get();
+		IRuntimeLocator[] rl = new IRuntimeLocator[list.size()];
+		list.toArray(rl);
 		return rl;
 	}
 
-	/**
-	 * Load the runtime locators.
-	 */
-	private static synchronized void loadRuntimeLocators() {
-		if (runtimeLocators != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .runtimeLocators extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "runtimeLocators");
-
-		int size = cf.length;
-		List<IRuntimeLocator> list = new ArrayList<IRuntimeLocator>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new RuntimeLocator(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT, "  Loaded runtimeLocator: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE, "  Could not load runtimeLocator: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		runtimeLocators = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .runtimeLocators extension point -<-");
-		}
-	}
-
 	/**
 	 * Returns an array of all module artifact adapters.
 	 *
 	 * @return a possibly empty array of module artifact adapters
 	 */
 	protected static ModuleArtifactAdapter[] getModuleArtifactAdapters() {
-		if (moduleArtifactAdapters == null)
-			loadModuleArtifactAdapters();
-		
-		ModuleArtifactAdapter[] moa = new ModuleArtifactAdapter[moduleArtifactAdapters.size()];
-		moduleArtifactAdapters.toArray(moa);
+		List<ModuleArtifactAdapter> list = moduleArtifactAdapters.get();
+		ModuleArtifactAdapter[] moa = new ModuleArtifactAdapter[list.size()];
+		list.toArray(moa);
 		return moa;
 	}
 
-	/**
-	 * Load the module artifact adapters extension point.
-	 */
-	private static synchronized void loadModuleArtifactAdapters() {
-		if (moduleArtifactAdapters != null)
-			return;
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .moduleArtifactAdapters extension point ->-");
-		}
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "moduleArtifactAdapters");
-
-		int size = cf.length;
-		List<ModuleArtifactAdapter> list = new ArrayList<ModuleArtifactAdapter>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				list.add(new ModuleArtifactAdapter(cf[i]));
-				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT,
-							"  Loaded moduleArtifactAdapter: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE,
-							"  Could not load moduleArtifactAdapter: " + cf[i].getAttribute("id"), t);
-				}
-			}
-		}
-		
-		// sort by index to put lower numbers first in order
-		size = list.size();
-		for (int i = 0; i < size-1; i++) {
-			for (int j = i+1; j < size; j++) {
-				ModuleArtifactAdapter a = list.get(i);
-				ModuleArtifactAdapter b = list.get(j);
-				if (a.getPriority() < b.getPriority()) {
-					list.set(i, b);
-					list.set(j, a);
-				}
-			}
-		}
-		moduleArtifactAdapters = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .moduleArtifactAdapters extension point -<-");
-		}
-	}
-
 	/**
 	 * Returns <code>true</code> if a module artifact may be available for the given object,
 	 * and <code>false</code> otherwise.
@@ -1374,11 +1189,9 @@ public class ServerPlugin extends Plugin {
 	 * @return the array of installable runtimes {@link IInstallableRuntime}
 	 */
 	public static IInstallableRuntime[] getInstallableRuntimes() {
-		//if (installableRuntimes == null)
-			loadInstallableRuntimes();
-		
-		IInstallableRuntime[] ir = new IInstallableRuntime[installableRuntimes.size()];
-		installableRuntimes.toArray(ir);
+		List<IInstallableRuntime> list = installableRuntimes.get();
+		IInstallableRuntime[] ir = new IInstallableRuntime[list.size()];
+		list.toArray(ir);
 		return ir;
 	}
 
@@ -1398,63 +1211,38 @@ public class ServerPlugin extends Plugin {
 		if (runtimeTypeId == null)
 			throw new IllegalArgumentException();
 		
-		//if (installableRuntimes == null)
-			loadInstallableRuntimes();
-		
-		Iterator iterator = installableRuntimes.iterator();
-		//IRuntimeType[] runtimeTypes = ServerCore.getRuntimeTypes();
-		//int size = runtimeTypes.length;
-		while (iterator.hasNext()) {
-			IInstallableRuntime runtime = (IInstallableRuntime) iterator.next();
-			//for (int i = 0; i < size; i++) {
-				if (runtime.getId().equals(runtimeTypeId))
-					return runtime;
-			//}
+		for (IInstallableRuntime runtime : installableRuntimes.get()) {
+			if (runtime.getId().equals(runtimeTypeId))
+				return runtime;
 		}
-		
 		return null;
 	}
 
 	/**
-	 * Load the installable runtimes.
-	 * @deprecated (since 3.3) 
-	 * The support for InstallableRuntime has been moved to org.eclipse.wst.server.discovery
-	 * and is now supported through the p2 repository lookup APIs
+	 * Discards the cached extensions of each extension point that changed.
+	 * 
+	 * @param event a registry change event
 	 */
-	private static synchronized void loadInstallableRuntimes() {
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "->- Loading .installableRuntimes extension point ->-");
-		}
-		
-		IExtensionRegistry registry = Platform.getExtensionRegistry();
-		IConfigurationElement[] cf = registry.getConfigurationElementsFor(ServerPlugin.PLUGIN_ID, "installableRuntimes");
-		
-		int size = cf.length;
-		List<IInstallableRuntime> list = new ArrayList<IInstallableRuntime>(size);
-		for (int i = 0; i < size; i++) {
-			try {
-				if ("runtime".equals(cf[i].getName())) {
-					String os = cf[i].getAttribute("os");
-					if (os == null || os.contains(Platform.getOS()))
-						list.add(new InstallableRuntime2(cf[i]));
-				} else
-					list.add(new InstallableRuntime(cf[i]));
+	protected static void handleRegistryChange(IRegistryChangeEvent event) {
+		for (ExtensionCache<?> cache : extensionCaches) {
+			IExtensionDelta[] deltas = event.getExtensionDeltas(PLUGIN_ID, cache.getExtensionPoint());
+			if (deltas != null && deltas.length > 0) {
 				if (Trace.EXTENSION_POINT) {
-					Trace.trace(Trace.STRING_EXTENSION_POINT,
-							"  Loaded installableRuntime: " + cf[i].getAttribute("id"));
-				}
-			} catch (Throwable t) {
-				if (Trace.SEVERE) {
-					Trace.trace(Trace.STRING_SEVERE,
-							"  Could not load installableRuntime: " + cf[i].getAttribute("id"), t);
+					Trace.trace(Trace.STRING_EXTENSION_POINT, "Extension point changed: " + cache.getExtensionPoint());
 				}
+				cache.clear();
 			}
 		}
-		installableRuntimes = list;
-		
-		if (Trace.EXTENSION_POINT) {
-			Trace.trace(Trace.STRING_EXTENSION_POINT, "-<- Done loading .installableRuntimes extension point -<-");
-		}
+	}
+
+	/**
+	 * Discards the cached extensions of all extension points, so that they are
+	 * loaded again on next use. Used by the performance tests to measure the
+	 * cold path.
+	 */
+	public static void clearExtensionCaches() {
+		for (ExtensionCache<?> cache : extensionCaches)
+			cache.clear();
 	}
 
 	public static void setRegistryListener(IRegistryChangeListener listener) {
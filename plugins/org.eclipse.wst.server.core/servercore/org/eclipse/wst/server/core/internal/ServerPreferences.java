@@ -19,6 +19,7 @@ import org.eclipse.core.runtime.*;
 public class ServerPreferences {
 	private static final String PREF_AUTO_PUBLISH = "auto-publish";
 	private static final String PREF_MODULE_START_TIMEOUT = "module-start-timeout";
+	private static final String PREF_TEMP_DIRECTORY_LIMIT = "temp-directory-limit";
 		
 	private Preferences preferences;
 
@@ -93,12 +94,23 @@ public class ServerPreferences {
 		return preferences.getInt(PREF_MODULE_START_TIMEOUT);
 	}
 
+	/**
+	 * Returns the size limit of the temporary directories, in megabytes.
+	 * Unused directories are deleted when the limit is exceeded.
+	 * 
+	 * @return the temporary directory size limit
+	 */
+	public int getTempDirectoryLimit() {
+		return preferences.getInt(PREF_TEMP_DIRECTORY_LIMIT);
+	}
+
 	/**
 	 * Set the default values.
 	 */
 	private void setDefaults() {
 		preferences.setDefault(PREF_AUTO_PUBLISH, isDefaultAutoPublishing());
 			
+		preferences.setDefault(PREF_TEMP_DIRECTORY_LIMIT, 1024);
 		preferences.setDefault(PREF_MODULE_START_TIMEOUT, 300001);
 		boolean save = false;
 		if (preferences.isDefault(PREF_MODULE_START_TIMEOUT)) {
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.internal;
+
+import java.io.File;
+import java.util.*;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+/**
+ * A persisted index of the server files in each server project, so that the
+ * projects do not have to be searched on every startup.
+ * <p>
+ * For each project, the index holds the server files with their modification
+ * stamps, and the time stamps of the project directory and of every directory
+ * that was visited when the project was searched. An entry is only used if all
+ * of these still match; adding, removing, or changing a server file, or adding
+ * a directory that could contain one, changes one of them, and the project is
+ * searched again.
+ * </p>
+ */
+public class ServerProjectIndex {
+	private static final String ROOT = "server-projects";
+	private static final String PROJECT = "project";
+	private static final String FILE = "file";
+	private static final String FOLDER = "folder";
+	private static final String NAME = "name";
+	private static final String PATH = "path";
+	private static final String STAMP = "stamp";
+
+	private static class Entry {
+		// workspace paths of the server files and their modification stamps
+		protected final String[] files;
+		protected final long[] fileStamps;
+
+		// workspace paths of the searched folders and their local time stamps
+		protected final String[] folders;
+		protected final long[] folderStamps;
+
+		protected Entry(String[] files, long[] fileStamps, String[] folders, long[] folderStamps) {
+			this.files = files;
+			this.fileStamps = fileStamps;
+			this.folders = folders;
+			this.folderStamps = folderStamps;
+		}
+	}
+
+	private final File file;
+	private final Map<String, Entry> projects = new HashMap<String, Entry>();
+	private boolean dirty;
+
+	/**
+	 * Create an index that is stored in the given file.
+	 *
+	 * @param file the index file
+	 */
+	public ServerProjectIndex(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Load the index. A missing or unreadable index is treated as empty.
+	 */
+	public synchronized void load() {
+		projects.clear();
+		dirty = false;
+		if (!file.exists())
+			return;
+
+		try {
+			IMemento memento = XMLMemento.loadMemento(file.getAbsolutePath());
+			IMemento[] children = memento.getChildren(PROJECT);
+			for (IMemento child : children) {
+				String name = child.getString(NAME);
+				if (name == null)
+					continue;
+
+				IMemento[] files = child.getChildren(FILE);
+				IMemento[] folders = child.getChildren(FOLDER);
+				Entry entry = new Entry(new String[files.length], new long[files.length],
+						new String[folders.length], new long[folders.length]);
+				for (int i = 0; i < files.length; i++) {
+					entry.files[i] = files[i].getString(PATH);
+					entry.fileStamps[i] = Long.parseLong(files[i].getString(STAMP));
+				}
+				for (int i = 0; i < folders.length; i++) {
+					entry.folders[i] = folders[i].getString(PATH);
+					entry.folderStamps[i] = Long.parseLong(folders[i].getString(STAMP));
+				}
+				projects.put(name, entry);
+			}
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not load server project index", e);
+			}
+			projects.clear();
+		}
+	}
+
+	/**
+	 * Save the index, if it has changed since it was loaded or saved.
+	 */
+	public synchronized void save() {
+		if (!dirty)
+			return;
+
+		try {
+			XMLMemento memento = XMLMemento.createWriteRoot(ROOT);
+			Iterator<Map.Entry<String, Entry>> iterator = projects.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<String, Entry> me = iterator.next();
+				Entry entry = me.getValue();
+				IMemento child = memento.createChild(PROJECT);
+				child.putString(NAME, me.getKey());
+				for (int i = 0; i < entry.files.length; i++) {
+					IMemento f = child.createChild(FILE);
+					f.putString(PATH, entry.files[i]);
+					f.putString(STAMP, Long.toString(entry.fileStamps[i]));
+				}
+				for (int i = 0; i < entry.folders.length; i++) {
+					IMemento f = child.createChild(FOLDER);
+					f.putString(PATH, entry.folders[i]);
+					f.putString(STAMP, Long.toString(entry.folderStamps[i]));
+				}
+			}
+			memento.saveToFile(file.getAbsolutePath());
+			dirty = false;
+		} catch (Exception e) {
+			if (Trace.WARNING) {
+				Trace.trace(Trace.STRING_WARNING, "Could not save server project index", e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the server files of the given project, if the project is in the
+	 * index and has not changed since.
+	 *
+	 * @param project a project
+	 * @return the server files, or <code>null</code> if the project must be
+	 *    searched
+	 */
+	public IFile[] getServerFiles(IProject project) {
+		Entry entry;
+		synchronized (this) {
+			entry = projects.get(project.getName());
+		}
+		if (entry == null)
+			return null;
+
+		IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		int size = entry.folders.length;
+		for (int i = 0; i < size; i++) {
+			if (getLocalTimeStamp(getContainer(root, entry.folders[i])) != entry.folderStamps[i])
+				return null;
+		}
+
+		size = entry.files.length;
+		IFile[] files = new IFile[size];
+		for (int i = 0; i < size; i++) {
+			files[i] = root.getFile(new Path(entry.files[i]));
+			if (!files[i].exists() || files[i].getModificationStamp() != entry.fileStamps[i])
+				return null;
+		}
+		return files;
+	}
+
+	/**
+	 * Record the server files of the given project, after it has been searched.
+	 *
+	 * @param project a project
+	 * @param files the server files in the project
+	 * @param folders all of the folders that were visited by the search
+	 */
+	public void setServerFiles(IProject project, IFile[] files, Collection<IContainer> folders) {
+		// folders whose time stamps change when a server file or a folder is added or removed
+		Set<IContainer> containers = new LinkedHashSet<IContainer>();
+		containers.add(project);
+		containers.addAll(folders);
+
+		Entry entry = new Entry(new String[files.length], new long[files.length],
+				new String[containers.size()], new long[containers.size()]);
+		for (int i = 0; i < files.length; i++) {
+			entry.files[i] = files[i].getFullPath().toString();
+			entry.fileStamps[i] = files[i].getModificationStamp();
+		}
+		int i = 0;
+		for (IContainer container : containers) {
+			long stamp = getLocalTimeStamp(container);
+			if (stamp == 0) {
+				// not on the local file system, can't be verified
+				removeProject(project.getName());
+				return;
+			}
+			entry.folders[i] = container.getFullPath().toString();
+			entry.folderStamps[i++] = stamp;
+		}
+
+		synchronized (this) {
+			projects.put(project.getName(), entry);
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Update the modification stamp of a server file whose content has changed.
+	 * Adding or removing a server file changes the folders of the project, so
+	 * the project has to be searched again instead.
+	 *
+	 * @param file a server file
+	 * @return <code>true</code> if the file was updated, or <code>false</code>
+	 *    if the project or the file is not in the index
+	 */
+	public synchronized boolean updateServerFile(IFile file) {
+		Entry entry = projects.get(file.getProject().getName());
+		if (entry == null || !file.exists())
+			return false;
+
+		String path = file.getFullPath().toString();
+		for (int i = 0; i < entry.files.length; i++) {
+			if (path.equals(entry.files[i])) {
+				long stamp = file.getModificationStamp();
+				if (entry.fileStamps[i] != stamp) {
+					// replace the entry, it may be in use by getServerFiles()
+					long[] fileStamps = entry.fileStamps.clone();
+					fileStamps[i] = stamp;
+					projects.put(file.getProject().getName(), new Entry(entry.files, fileStamps, entry.folders, entry.folderStamps));
+					dirty = true;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Remove a project from the index.
+	 *
+	 * @param name the project name
+	 */
+	public synchronized void removeProject(String name) {
+		if (projects.remove(name) != null)
+			dirty = true;
+	}
+
+	/**
+	 * Remove all projects from the index except the given ones.
+	 *
+	 * @param names the names of the projects to keep
+	 */
+	public synchronized void retainProjects(Collection<String> names) {
+		if (projects.keySet().retainAll(names))
+			dirty = true;
+	}
+
+	private static IContainer getContainer(IWorkspaceRoot root, String path) {
+		IPath p = new Path(path);
+		if (p.segmentCount() == 1)
+			return root.getProject(p.segment(0));
+		return root.getFolder(p);
+	}
+
+	private static long getLocalTimeStamp(IContainer container) {
+		IPath location = container.getLocation();
+		if (location == null)
+			return 0;
+		return location.toFile().lastModified();
+	}
+
+	public String toString() {
+		return "ServerProjectIndex[" + file + "]";
+	}
+}
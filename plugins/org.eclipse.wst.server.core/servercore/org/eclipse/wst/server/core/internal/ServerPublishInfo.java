@@ -13,6 +13,9 @@
 package org.eclipse.wst.server.core.internal;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 import org.eclipse.core.runtime.IPath;
@@ -23,14 +26,34 @@ import org.eclipse.wst.server.core.model.*;
 /**
  * Helper to obtain and store the publishing information (what files
  * were published and when) for a single server.
+ * <p>
+ * The publish info file starts with a table of contents that lists each module
+ * and the location of its resources in the file. Only the table of contents is
+ * read when the file is loaded; the resources of a module are read when they
+ * are first needed.
+ * </p>
  */
 public class ServerPublishInfo {
 	private static final String VERSION = "version";
 
+	// length of the file header that precedes the table of contents
+	private static final int HEADER_LENGTH = 11;
+
+	private static final int COPY_BUFFER_SIZE = 8192;
+
 	protected IPath path;
 
-	// map of module ids to ModulePublishInfo
-	protected Map<String, ModulePublishInfo> modulePublishInfo;
+	// guards the publish info file and the resources that have not been read from it
+	protected final Object fileLock = new Object();
+
+	// offset of the first module's resources in the publish info file
+	private long resourceStart;
+
+	// interned keys for the module publish info map
+	protected final ModulePath.Table modulePaths = new ModulePath.Table();
+
+	// map of module paths to ModulePublishInfo
+	protected Map<ModulePath, ModulePublishInfo> modulePublishInfo;
 
 	/**
 	 * ServerPublishInfo constructor comment.
@@ -39,62 +62,39 @@ public class ServerPublishInfo {
 		super();
 		
 		this.path = path;
-		modulePublishInfo = new HashMap<String, ModulePublishInfo>();
+		modulePublishInfo = new HashMap<ModulePath, ModulePublishInfo>();
 		load();
 	}
 
-	private String getKey(IModule[] module) {
-		StringBuffer sb = new StringBuffer();
-		
-		if (module != null) {
-			int size = module.length;
-			for (int i = 0; i < size; i++) {
-				if (i != 0)
-					sb.append("#");
-				if (module[i] != null)
-					sb.append(module[i].getId());
-				else
-					sb.append("null");
-			}
-		}
-		
-		return sb.toString();
+	private ModulePath getKey(IModule[] module) {
+		return modulePaths.intern(module);
 	}
 
-	private String getKey(String moduleId) {
-		return moduleId;
+	private ModulePath getKey(String moduleId) {
+		return modulePaths.intern(moduleId);
 	}
 
-	private IModule[] getModule(String moduleId) {
-		if (moduleId == null || moduleId.length() == 0)
-			return new IModule[0];
-		
-		List<IModule> list = new ArrayList<IModule>();
-		StringTokenizer st = new StringTokenizer(moduleId, "#");
-		while (st.hasMoreTokens()) {
-			String mid = st.nextToken();
-			if (mid != null && mid.length() > 0) {
-				IModule m = ServerUtil.getModule(mid);
-				if (m == null)
-					return null;
-				list.add(m);
-			}
+	private IModule[] getModule(ModulePath key) {
+		String[] ids = key.getModuleIds();
+		int size = ids.length;
+		IModule[] modules = new IModule[size];
+		for (int i = 0; i < size; i++) {
+			modules[i] = ServerUtil.getModule(ids[i]);
+			if (modules[i] == null)
+				return null;
 		}
-		
-		IModule[] modules = new IModule[list.size()];
-		list.toArray(modules);
 		return modules;
 	}
 
 	public boolean hasModulePublishInfo(IModule[] module) {
-		String key = getKey(module);
+		ModulePath key = getKey(module);
 		synchronized (modulePublishInfo) {
 			return modulePublishInfo.containsKey(key);
 		}
 	}
 
 	/*public void removeModulePublishInfo(IModule[] module) {
-		String key = getKey(module);
+		ModulePath key = getKey(module);
 		modulePublishInfo.remove(key);
 		
 		save();
@@ -120,20 +120,18 @@ public class ServerPublishInfo {
 	 */
 	public void removeDeletedModulePublishInfo(Server server, List moduleList) {
 		int size = moduleList.size();
-		List<String> removed = new ArrayList<String>();
+		Set<ModulePath> current = new HashSet<ModulePath>(size);
+		for (int i = 0; i < size; i++)
+			current.add(getKey((IModule[]) moduleList.get(i)));
+		
+		List<ModulePath> removed = new ArrayList<ModulePath>();
 		
 		synchronized (modulePublishInfo) {
-			Iterator iterator = modulePublishInfo.keySet().iterator();
+			Iterator<ModulePath> iterator = modulePublishInfo.keySet().iterator();
 			while (iterator.hasNext()) {
-				String key = (String) iterator.next();
+				ModulePath key = iterator.next();
 				
-				boolean found = false;
-				for (int i = 0; i < size; i++) {
-					IModule[] module = (IModule[]) moduleList.get(i);
-					String key2 = getKey(module);
-					if (key != null && key.equals(key2))
-						found = true;
-				}
+				boolean found = current.contains(key);
 				
 				if (server != null) {
 					try {
@@ -151,9 +149,13 @@ public class ServerPublishInfo {
 			
 			iterator = removed.iterator();
 			while (iterator.hasNext()) {
-				String key = (String) iterator.next();
+				ModulePath key = iterator.next();
 				modulePublishInfo.remove(key);
 			}
+			
+			// forget the module paths of the removed modules
+			current.addAll(modulePublishInfo.keySet());
+			modulePaths.retain(current);
 		}
 	}
 
@@ -161,16 +163,17 @@ public class ServerPublishInfo {
 	 * Return the publish state.
 	 */
 	protected ModulePublishInfo getModulePublishInfo(IModule[] module) {
-		String key = getKey(module);
+		ModulePath key = getKey(module);
 		
 		// check if it now exists
 		synchronized (modulePublishInfo) {
-			if (modulePublishInfo.containsKey(key))
-				return modulePublishInfo.get(key);
+			ModulePublishInfo mpi = modulePublishInfo.get(key);
+			if (mpi != null)
+				return mpi;
 			
 			// have to create a new one
 			IModule mod = module[module.length - 1];
-			ModulePublishInfo mpi = new ModulePublishInfo(getKey(module), mod.getName(), mod.getModuleType(), mod.isExternal());
+			mpi = new ModulePublishInfo(key.toString(), mod.getName(), mod.getModuleType(), mod.isExternal());
 			modulePublishInfo.put(key, mpi);
 			return mpi;
 		}
@@ -178,47 +181,34 @@ public class ServerPublishInfo {
 
 	public void addRemovedModules(List<IModule[]> moduleList) {
 		int size = moduleList.size();
-		List<ModulePublishInfo> removed = new ArrayList<ModulePublishInfo>();
+		Set<ModulePath> current = new HashSet<ModulePath>(size);
+		for (int i = 0; i < size; i++)
+			current.add(getKey(moduleList.get(i)));
+		
+		List<ModulePath> removed = new ArrayList<ModulePath>();
 		synchronized (modulePublishInfo) {
-			Iterator iterator = modulePublishInfo.keySet().iterator();
+			Iterator<ModulePath> iterator = modulePublishInfo.keySet().iterator();
 			while (iterator.hasNext()) {
-				String key = (String) iterator.next();
-			
-				boolean found = false;
-				for (int i = 0; i < size; i++) {
-					IModule[] module = moduleList.get(i);
-					String key2 = getKey(module);
-					if (key != null && key.equals(key2))
-						found = true;
-				}
-				if (!found) {
-					ModulePublishInfo mpi = modulePublishInfo.get(key);
-					removed.add(mpi);
-				}
+				ModulePath key = iterator.next();
+				if (!current.contains(key))
+					removed.add(key);
 			}
 			
 			iterator = removed.iterator();
 			while (iterator.hasNext()) {
-				ModulePublishInfo mpi = (ModulePublishInfo) iterator.next();
-				IModule[] module2 = getModule(mpi.getModuleId());
+				ModulePath key = iterator.next();
+				ModulePublishInfo mpi = modulePublishInfo.get(key);
+				IModule[] module2 = getModule(key);
 				if (module2 == null || module2.length == 0) {
-					String moduleId = mpi.getModuleId();
-					if (moduleId != null) {
-						String[] ids = getModuleIds(moduleId);
-						int depth = ids.length;
-						
-						module2 = new IModule[depth];
-						String s = "";
-						for (int i = 0; i < depth; i++) {
-							s += ids[i];
-							if (i == depth - 1)
-								module2[i] = mpi.getDeletedModule();
-							else {
-								ModulePublishInfo mpi2 = modulePublishInfo.get(s);
-								if (mpi2 != null)
-									module2[i] = mpi2.getDeletedModule();
-							}
-							s += "#";
+					int depth = key.size();
+					module2 = new IModule[depth];
+					for (int i = 0; i < depth; i++) {
+						if (i == depth - 1)
+							module2[i] = mpi.getDeletedModule();
+						else {
+							ModulePublishInfo mpi2 = modulePublishInfo.get(key.subPath(i + 1));
+							if (mpi2 != null)
+								module2[i] = mpi2.getDeletedModule();
 						}
 					}
 				}
@@ -228,23 +218,6 @@ public class ServerPublishInfo {
 		}
 	}
 
-	/**
-	 * Parse a combined module id string into the individual module ids
-	 * @param moduleId
-	 * @return an array of module ids
-	 */
-	private String[] getModuleIds(String moduleId) {
-		StringTokenizer st = new StringTokenizer(moduleId, "#");
-		List<String> list = new ArrayList<String>(2);
-		while (st.hasMoreTokens()) {
-			list.add(st.nextToken());
-		}
-		
-		String[] s = new String[list.size()];
-		list.toArray(s);
-		return s;
-	}
-
 	/**
 	 * 
 	 */
@@ -263,7 +236,15 @@ public class ServerPublishInfo {
 				in.readByte();
 				// version
 				int ver = in.readByte();
-				if (ver <= 1) {
+				if (ver == 2) {
+					int size = in.readInt();
+					resourceStart = HEADER_LENGTH + in.readInt();
+					for (int i = 0; i < size; i++) {
+						ModulePublishInfo mpi = new ModulePublishInfo(in, this);
+						modulePublishInfo.put(getKey(mpi.getModuleId()), mpi);
+					}
+					return;
+				} else if (ver <= 1) {
 					int size = in.readInt();	
 					for (int i = 0; i < size; i++) {
 						ModulePublishInfo mpi = new ModulePublishInfo(in);
@@ -275,6 +256,13 @@ public class ServerPublishInfo {
 				if (Trace.WARNING) {
 					Trace.trace(Trace.STRING_WARNING, "Could not load publish information", e);
 				}
+			} finally {
+				try {
+					if (in != null)
+						in.close();
+				} catch (Exception e) {
+					// ignore
+				}
 			}
 		}
 		
@@ -305,6 +293,28 @@ public class ServerPublishInfo {
 		}
 	}
 
+	/**
+	 * Read the resources of a module from the publish info file.
+	 * 
+	 * @param offset the offset of the resources
+	 * @param length the length of the resources
+	 * @return the serialized resources
+	 * @throws IOException if the resources could not be read
+	 */
+	protected byte[] readResources(long offset, int length) throws IOException {
+		synchronized (fileLock) {
+			RandomAccessFile file = new RandomAccessFile(path.toFile(), "r");
+			try {
+				byte[] b = new byte[length];
+				file.seek(resourceStart + offset);
+				file.readFully(b);
+				return b;
+			} finally {
+				file.close();
+			}
+		}
+	}
+
 	/**
 	 * 
 	 */
@@ -314,34 +324,86 @@ public class ServerPublishInfo {
 			Trace.trace(Trace.STRING_FINEST, "Saving publish info to " + filename);
 		}
 		
-		DataOutputStream out = null;
-		try {
-			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
-			out.writeByte(14);
-			out.writeByte(14);
-			// version
-			out.writeByte(1);
-			
-			synchronized (modulePublishInfo) {
-				out.writeInt(modulePublishInfo.keySet().size());
-				Iterator iterator = modulePublishInfo.keySet().iterator();
-				while (iterator.hasNext()) {
-					String controlRef = (String) iterator.next();
-					ModulePublishInfo mpi = modulePublishInfo.get(controlRef);
-					mpi.save(out);
+		File file = new File(filename);
+		File temp = new File(filename + ".tmp");
+		synchronized (modulePublishInfo) {
+			synchronized (fileLock) {
+				try {
+					int size = modulePublishInfo.size();
+					ModulePublishInfo[] mpis = modulePublishInfo.values().toArray(new ModulePublishInfo[size]);
+					
+					// serialize the modules whose resources have been read; the others are copied from the current file
+					byte[][] resources = new byte[size][];
+					long[] offsets = new long[size];
+					ByteArrayOutputStream bout = new ByteArrayOutputStream();
+					DataOutputStream toc = new DataOutputStream(bout);
+					long offset = 0;
+					for (int i = 0; i < size; i++) {
+						resources[i] = mpis[i].saveResources();
+						int length = resources[i] != null ? resources[i].length : mpis[i].getResourceLength();
+						offsets[i] = offset;
+						mpis[i].saveHeader(toc);
+						toc.writeLong(offset);
+						toc.writeInt(length);
+						offset += length;
+					}
+					toc.flush();
+					
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+					RandomAccessFile in = null;
+					try {
+						out.writeByte(14);
+						out.writeByte(14);
+						// version
+						out.writeByte(2);
+						out.writeInt(size);
+						out.writeInt(bout.size());
+						bout.writeTo(out);
+						
+						byte[] buf = null;
+						for (int i = 0; i < size; i++) {
+							if (resources[i] != null) {
+								out.write(resources[i]);
+								continue;
+							}
+							if (in == null) {
+								in = new RandomAccessFile(file, "r");
+								buf = new byte[COPY_BUFFER_SIZE];
+							}
+							in.seek(resourceStart + mpis[i].getResourceOffset());
+							int remaining = mpis[i].getResourceLength();
+							while (remaining > 0) {
+								int n = Math.min(remaining, buf.length);
+								in.readFully(buf, 0, n);
+								out.write(buf, 0, n);
+								remaining -= n;
+							}
+						}
+					} finally {
+						out.close();
+						if (in != null)
+							in.close();
+					}
+					
+					try {
+						Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+					} catch (AtomicMoveNotSupportedException e) {
+						Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					}
+					
+					// the resources that have not been read are now at a new location
+					resourceStart = HEADER_LENGTH + bout.size();
+					for (int i = 0; i < size; i++) {
+						if (resources[i] == null)
+							mpis[i].setResourceOffset(offsets[i]);
+					}
+				} catch (Exception e) {
+					if (Trace.SEVERE) {
+						Trace.trace(Trace.STRING_SEVERE, "Could not save publish information", e);
+					}
+					temp.delete();
 				}
 			}
-		} catch (Exception e) {
-			if (Trace.SEVERE) {
-				Trace.trace(Trace.STRING_SEVERE, "Could not save publish information", e);
-			}
-		} finally {
-			try {
-				if (out != null)
-					out.close();
-			} catch (Exception e) {
-				// ignore
-			}
 		}
 		
 		// remove old file
@@ -519,7 +581,7 @@ public class ServerPublishInfo {
 			final boolean[] changed = new boolean[1];
 			
 			for (IModule[] module:modules){
-				String key = getKey(module);
+				ModulePath key = getKey(module);
 				if (!modulePublishInfo.containsKey(key)){
 					changed[0] = true;
 				}
@@ -563,7 +625,7 @@ public class ServerPublishInfo {
 	public void rebuildCache(IModule[] module) {
 
 		synchronized (modulePublishInfo) {
-			final String publishInfoKey = this.getKey(module);
+			final ModulePath publishInfoKey = this.getKey(module);
 			ModulePublishInfo mpi = modulePublishInfo.get(publishInfoKey);
 			if(mpi != null) {
 				mpi.startCaching(); // clear out the resource list
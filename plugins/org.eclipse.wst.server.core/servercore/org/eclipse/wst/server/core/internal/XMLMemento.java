@@ -14,13 +14,11 @@ package org.eclipse.wst.server.core.internal;
 
 import java.io.*;
 import java.util.*;
-import org.w3c.dom.*;
-import org.xml.sax.*;
 
-import javax.xml.parsers.*;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 /**
  * A Memento is a class independent container for persistence
  * info.  It is a reflection of 3 storage requirements.
@@ -36,43 +34,86 @@ import javax.xml.transform.stream.StreamResult;
  * all of these approaches fail to meet the second requirement.
  *
  * Memento supports binary persistance with a version ID.
+ *
+ * The document is read with a streaming parser into a lightweight tree:
+ * each node keeps its attributes in a flat name/value array, and the
+ * element and attribute names of a document are shared through one string
+ * table. The tree is written back directly, without a DOM or a transformer.
  */
 public final class XMLMemento implements IMemento {
-	private Document factory;
-	private Element element;
+	private static final String[] NO_ATTRIBUTES = new String[0];
+	private static final XMLMemento[] NO_CHILDREN = new XMLMemento[0];
+
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator", "\n");
+	private static final String INDENT = "  ";
+
+	private static XMLInputFactory inputFactory;
+
+	private final String type;
+
+	// attribute names and values, alternating
+	private String[] attributes = NO_ATTRIBUTES;
+	private int attributeCount;
+
+	private XMLMemento[] children = NO_CHILDREN;
+	private int childCount;
+
+	private String text;
 
 	/**
-	 * Answer a memento for the document and element.  For simplicity
-	 * you should use createReadRoot and createWriteRoot to create the initial
-	 * mementos on a document.
+	 * Create a memento node of the given type. For simplicity you should use
+	 * createReadRoot and createWriteRoot to create the initial mementos on a
+	 * document.
 	 */
-	private XMLMemento(Document doc, Element el) {
-		factory = doc;
-		element = el;
+	private XMLMemento(String type) {
+		this.type = type;
 	}
 
 	/*
 	 * @see IMemento
 	 */
 	public IMemento createChild(String type) {
-		Element child = factory.createElement(type);
-		element.appendChild(child);
-		return new XMLMemento(factory, child);
+		XMLMemento child = new XMLMemento(type);
+		addChild(child);
+		return child;
+	}
+
+	private void addChild(XMLMemento child) {
+		if (childCount == children.length) {
+			XMLMemento[] temp = new XMLMemento[Math.max(4, childCount * 2)];
+			System.arraycopy(children, 0, temp, 0, childCount);
+			children = temp;
+		}
+		children[childCount++] = child;
+	}
+
+	private static synchronized XMLInputFactory getInputFactory() {
+		if (inputFactory == null) {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			inputFactory = factory;
+		}
+		return inputFactory;
 	}
 
 	/**
-	 * Create a Document from a Reader and answer a root memento for reading 
-	 * a document.
+	 * Read a document from an input stream and answer a root memento for
+	 * reading it.
 	 */
 	protected static XMLMemento createReadRoot(InputStream in) {
-		Document document = null;
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder parser = factory.newDocumentBuilder();
-			document = parser.parse(new InputSource(in));
-			Node node = document.getFirstChild();
-			if (node instanceof Element)
-				return new XMLMemento(document, (Element) node);
+			XMLStreamReader reader = getInputFactory().createXMLStreamReader(in);
+			try {
+				Map<String, String> names = new HashMap<String, String>();
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT)
+						return read(reader, names);
+				}
+			} finally {
+				reader.close();
+			}
 		} catch (Exception e) {
 			// ignore
 		} finally {
@@ -84,7 +125,63 @@ public final class XMLMemento implements IMemento {
 		}
 		return null;
 	}
-	
+
+	/**
+	 * Read the element at the current position of the reader, including its
+	 * children.
+	 * 
+	 * @param reader a reader positioned on a start element
+	 * @param names the string table for element and attribute names
+	 * @return the memento
+	 * @throws XMLStreamException if the document is not valid
+	 */
+	private static XMLMemento read(XMLStreamReader reader, Map<String, String> names) throws XMLStreamException {
+		XMLMemento memento = new XMLMemento(intern(names, reader.getPrefix(), reader.getLocalName()));
+		int count = reader.getAttributeCount();
+		if (count > 0) {
+			String[] attrs = new String[count * 2];
+			for (int i = 0; i < count; i++) {
+				attrs[i * 2] = intern(names, reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+				attrs[i * 2 + 1] = reader.getAttributeValue(i);
+			}
+			memento.attributes = attrs;
+			memento.attributeCount = count;
+		}
+		
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+				memento.addChild(read(reader, names));
+			else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+				// ignore the whitespace used for indentation
+				if (!reader.isWhiteSpace()) {
+					if (memento.text == null)
+						memento.text = reader.getText();
+					else
+						memento.text += reader.getText();
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT)
+				break;
+		}
+		
+		if (memento.childCount > 0 && memento.childCount < memento.children.length) {
+			XMLMemento[] temp = new XMLMemento[memento.childCount];
+			System.arraycopy(memento.children, 0, temp, 0, memento.childCount);
+			memento.children = temp;
+		}
+		return memento;
+	}
+
+	private static String intern(Map<String, String> names, String prefix, String name) {
+		if (prefix != null && prefix.length() > 0 && name.indexOf(':') < 0)
+			name = prefix + ":" + name;
+		String s = names.get(name);
+		if (s != null)
+			return s;
+		names.put(name, name);
+		return name;
+	}
+
 	/**
 	 * Answer a root memento for writing a document.
 	 * 
@@ -92,35 +189,17 @@ public final class XMLMemento implements IMemento {
 	 * @return a memento
 	 */
 	public static XMLMemento createWriteRoot(String type) {
-		Document document;
-		try {
-			document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-			Element element = document.createElement(type);
-			document.appendChild(element);
-			return new XMLMemento(document, element);            
-		} catch (ParserConfigurationException e) {
-			throw new Error(e);
-		}
+		return new XMLMemento(type);
 	}
-	
+
 	/*
 	 * @see IMemento
 	 */
 	public IMemento getChild(String type) {
-		// Get the nodes.
-		NodeList nodes = element.getChildNodes();
-		int size = nodes.getLength();
-		if (size == 0)
-			return null;
-	
-		// Find the first node which is a child of this node.
-		for (int nX = 0; nX < size; nX ++) {
-			Node node = nodes.item(nX);
-			if (node instanceof Element) {
-				Element element2 = (Element)node;
-				if (element2.getNodeName().equals(type))
-					return new XMLMemento(factory, element2);
-			}
+		// Find the first child with the given type.
+		for (int i = 0; i < childCount; i++) {
+			if (children[i].type.equals(type))
+				return children[i];
 		}
 	
 		// A child was not found.
@@ -131,28 +210,20 @@ public final class XMLMemento implements IMemento {
 	 * @see IMemento
 	 */
 	public IMemento [] getChildren(String type) {
-		// Get the nodes.
-		NodeList nodes = element.getChildNodes();
-		int size = nodes.getLength();
-		if (size == 0)
-			return new IMemento[0];
-	
-		// Extract each node with given type.
-		List<Element> list = new ArrayList<Element>(size);
-		for (int nX = 0; nX < size; nX ++) {
-			Node node = nodes.item(nX);
-			if (node instanceof Element) {
-				Element element2 = (Element)node;
-				if (element2.getNodeName().equals(type))
-					list.add(element2);
-			}
+		int count = 0;
+		for (int i = 0; i < childCount; i++) {
+			if (children[i].type.equals(type))
+				count++;
 		}
-	
-		// Create a memento for each node.
-		size = list.size();
-		IMemento [] results = new IMemento[size];
-		for (int x = 0; x < size; x ++) {
-			results[x] = new XMLMemento(factory, list.get(x));
+		
+		IMemento[] results = new IMemento[count];
+		if (count == 0)
+			return results;
+		
+		int j = 0;
+		for (int i = 0; i < childCount; i++) {
+			if (children[i].type.equals(type))
+				results[j++] = children[i];
 		}
 		return results;
 	}
@@ -181,16 +252,24 @@ public final class XMLMemento implements IMemento {
 		return new ByteArrayInputStream(out.toByteArray());
 	}
 
+	private int indexOf(String key) {
+		int size = attributeCount * 2;
+		for (int i = 0; i < size; i += 2) {
+			if (attributes[i].equals(key))
+				return i;
+		}
+		return -1;
+	}
+
 	/*
 	 * @see IMemento
 	 */
 	public Float getFloat(String key) {
-		Attr attr = element.getAttributeNode(key);
-		if (attr == null)
-			return null; 
-		String strValue = attr.getValue();
+		String strValue = getString(key);
+		if (strValue == null)
+			return null;
 		try {
-			return new Float(strValue);
+			return Float.valueOf(strValue);
 		} catch (NumberFormatException e) {
 			return null;
 		}
@@ -200,12 +279,11 @@ public final class XMLMemento implements IMemento {
 	 * @see IMemento
 	 */
 	public Integer getInteger(String key) {
-		Attr attr = element.getAttributeNode(key);
-		if (attr == null)
-			return null; 
-		String strValue = attr.getValue();
+		String strValue = getString(key);
+		if (strValue == null)
+			return null;
 		try {
-			return new Integer(strValue);
+			return Integer.valueOf(strValue);
 		} catch (NumberFormatException e) {
 			return null;
 		}
@@ -215,24 +293,37 @@ public final class XMLMemento implements IMemento {
 	 * @see IMemento
 	 */
 	public String getString(String key) {
-		Attr attr = element.getAttributeNode(key);
-		if (attr == null)
-			return null; 
-		return attr.getValue();
+		int i = indexOf(key);
+		if (i < 0)
+			return null;
+		return attributes[i + 1];
 	}
 
 	public List<String> getNames() {
-		NamedNodeMap map = element.getAttributes();
-		int size = map.getLength();
-		List<String> list = new ArrayList<String>();
-		for (int i = 0; i < size; i++) {
-			Node node = map.item(i);
-			String name = node.getNodeName();
-			list.add(name);
-		}
+		// in name order, as the DOM did
+		int[] order = getAttributeOrder();
+		List<String> list = new ArrayList<String>(attributeCount);
+		for (int i = 0; i < attributeCount; i++)
+			list.add(attributes[order[i]]);
 		return list;
 	}
 
+	/**
+	 * Returns the indexes of the attribute names in name order.
+	 */
+	private int[] getAttributeOrder() {
+		int[] order = new int[attributeCount];
+		for (int i = 0; i < attributeCount; i++) {
+			int j = i;
+			while (j > 0 && attributes[order[j - 1]].compareTo(attributes[i * 2]) > 0) {
+				order[j] = order[j - 1];
+				j--;
+			}
+			order[j] = i * 2;
+		}
+		return order;
+	}
+
 	/**
 	 * Loads a memento from the given filename.
 	 *
@@ -269,7 +360,7 @@ public final class XMLMemento implements IMemento {
 	 * @see IMemento
 	 */
 	public void putInteger(String key, int n) {
-		element.setAttribute(key, String.valueOf(n));
+		putString(key, String.valueOf(n));
 	}
 
 	/*
@@ -278,7 +369,22 @@ public final class XMLMemento implements IMemento {
 	public void putString(String key, String value) {
 		if (value == null)
 			return;
-		element.setAttribute(key, value);
+		
+		int i = indexOf(key);
+		if (i >= 0) {
+			attributes[i + 1] = value;
+			return;
+		}
+		
+		int size = attributeCount * 2;
+		if (size == attributes.length) {
+			String[] temp = new String[Math.max(8, size * 2)];
+			System.arraycopy(attributes, 0, temp, 0, size);
+			attributes = temp;
+		}
+		attributes[size] = key;
+		attributes[size + 1] = value;
+		attributeCount++;
 	}
 	
 	/**
@@ -287,18 +393,81 @@ public final class XMLMemento implements IMemento {
 	 * @throws IOException if there is a problem saving
 	 */
 	public void save(OutputStream os) throws IOException {
-		Result result = new StreamResult(os);
-		Source source = new DOMSource(factory);
-		try {
-			Transformer transformer = TransformerFactory.newInstance().newTransformer();
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-			transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-			transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "2");
-			transformer.transform(source, result);
-		} catch (Exception e) {
-			throw (IOException) (new IOException().initCause(e));
+		Writer w = new BufferedWriter(new OutputStreamWriter(os, "UTF-8"));
+		w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+		w.write(LINE_SEPARATOR);
+		write(w, 0);
+		w.write(LINE_SEPARATOR);
+		w.flush();
+	}
+
+	private void write(Writer w, int depth) throws IOException {
+		for (int i = 0; i < depth; i++)
+			w.write(INDENT);
+		w.write('<');
+		w.write(type);
+		
+		// write the attributes in name order, as the DOM serializer did
+		int[] order = getAttributeOrder();
+		for (int i = 0; i < attributeCount; i++) {
+			w.write(' ');
+			w.write(attributes[order[i]]);
+			w.write("=\"");
+			escape(w, attributes[order[i] + 1], true);
+			w.write('"');
+		}
+		
+		if (childCount == 0 && text == null) {
+			w.write("/>");
+			return;
+		}
+		
+		w.write('>');
+		if (text != null)
+			escape(w, text, false);
+		if (childCount > 0) {
+			for (int i = 0; i < childCount; i++) {
+				w.write(LINE_SEPARATOR);
+				children[i].write(w, depth + 1);
+			}
+			w.write(LINE_SEPARATOR);
+			for (int i = 0; i < depth; i++)
+				w.write(INDENT);
 		}
+		w.write("</");
+		w.write(type);
+		w.write('>');
+	}
+
+	private static void escape(Writer w, String s, boolean attribute) throws IOException {
+		int size = s.length();
+		int start = 0;
+		for (int i = 0; i < size; i++) {
+			String rep = null;
+			char c = s.charAt(i);
+			if (c == '&')
+				rep = "&amp;";
+			else if (c == '<')
+				rep = "&lt;";
+			else if (c == '>')
+				rep = "&gt;";
+			else if (c == '\r')
+				rep = "&#13;";
+			else if (attribute) {
+				if (c == '"')
+					rep = "&quot;";
+				else if (c == '\n')
+					rep = "&#10;";
+				else if (c == '\t')
+					rep = "&#9;";
+			}
+			if (rep != null) {
+				w.write(s, start, i - start);
+				w.write(rep);
+				start = i + 1;
+			}
+		}
+		w.write(s, start, size - start);
 	}
 
 	/**
@@ -337,56 +506,28 @@ public final class XMLMemento implements IMemento {
 	 * @see IMemento#getBoolean(String)
 	 */
 	public Boolean getBoolean(String key) {
-		Attr attr = element.getAttributeNode(key);
-		if (attr == null)
+		String strValue = getString(key);
+		if (strValue == null)
 			return null;
-		String strValue = attr.getValue();
 		if ("true".equalsIgnoreCase(strValue))
-			return new Boolean(true);
-		return new Boolean(false);
+			return Boolean.TRUE;
+		return Boolean.FALSE;
 	}
 
 	/*
 	 * @see IMemento#putBoolean(String, boolean)
 	 */
 	public void putBoolean(String key, boolean value) {
-		element.setAttribute(key, value ? "true" : "false");
+		putString(key, value ? "true" : "false");
 	}
 
 	/**
-    * Returns the Text node of the memento. Each memento is allowed only 
-    * one Text node.
-    * 
-    * @return the Text node of the memento, or <code>null</code> if
-    * the memento has no Text node.
-    */
-   private Text getTextNode() {
-       // Get the nodes.
-       NodeList nodes = element.getChildNodes();
-       int size = nodes.getLength();
-       if (size == 0) {
-			return null;
-		}
-       for (int nX = 0; nX < size; nX++) {
-           Node node = nodes.item(nX);
-           if (node instanceof Text) {
-               return (Text) node;
-           }
-       }
-       // a Text node was not found
-       return null;
-   }
-  
-	/* (non-Javadoc)
-    */
-   public void putTextData(String data) {
-       Text textNode = getTextNode();
-       if (textNode == null) {
-           textNode = factory.createTextNode(data);
-			// Always add the text node as the first child (fixes bug 93718) 
-			element.insertBefore(textNode, element.getFirstChild());
-       } else {
-           textNode.setData(data);
-       }
-   }
-}
\ No newline at end of file
+	 * Sets the text of the memento. Each memento is allowed only one text
+	 * value, which is written before any child elements.
+	 * 
+	 * @param data the text
+	 */
+	public void putTextData(String data) {
+		text = data;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -907,8 +907,12 @@ public abstract class ServerBehaviourDelegate {
 		if (getServer().getServerType().requiresRuntime() && getServer().getRuntime() == null)
 			return new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0, Messages.errorPublishNoRuntime, null);
 		
+		PublishMetrics metrics = PublishMetrics.getCurrent();
+		long time = System.nanoTime();
+		
 		final List<IModule[]> moduleList = getAllModules();
 		List<Integer> deltaKindList = this.computeDelta(moduleList);
+		time = metrics.phaseFinished(IPublishMetrics.PHASE_DELTA, time);
 		
 		PublishOperation[] tasks = getTasks(kind, moduleList, deltaKindList);
 		int size = 2000 + 3500 * moduleList.size() + 500 * tasks.length;
@@ -922,49 +926,27 @@ public abstract class ServerBehaviourDelegate {
 		if (monitor.isCanceled())
 			return Status.CANCEL_STATUS;
 		
-		/**
-		 * Trace time for when publishing begins.
-		 */
-		long publishStartTime = 0;
-		/**
-		 * Trace time of the previous publishing action.
-		 */
-		long previousPublishActionTime = publishStartTime;
-		if(Trace.PERFORMANCE) {
-			publishStartTime = System.currentTimeMillis();
-			previousPublishActionTime = publishStartTime;
-		}
 		try {
-			if(Trace.PERFORMANCE) {
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): start");
-			}
 			if (Trace.FINEST) {
 				Trace.trace(Trace.STRING_FINEST, "Starting publish");
 			}
+			time = System.nanoTime();
 			publishStart(ProgressUtil.getSubMonitorFor(monitor, 1000));
-			long currentTime = 0;
-			if(Trace.PERFORMANCE) {
-				currentTime = System.currentTimeMillis();
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): publish start <" + (currentTime - previousPublishActionTime) + "> " + getServer().getServerType().getId());
-				previousPublishActionTime = currentTime;
-			}
+			time = metrics.phaseFinished(IPublishMetrics.PHASE_START, time);
 			
 			if (monitor.isCanceled())
 				return Status.CANCEL_STATUS;
 			
 			// execute tasks
 			MultiStatus taskStatus = performTasks(tasks, monitor);
+			time = metrics.phaseFinished(IPublishMetrics.PHASE_TASKS, time);
 			monitor.setTaskName(mainTaskMsg);
 			if (taskStatus != null && !taskStatus.isOK())
 				tempMulti.addAll(taskStatus);
 			
 			// execute publishers
 			taskStatus = executePublishers(kind, moduleList, deltaKindList, monitor, info2);
-			if(Trace.PERFORMANCE) {
-				currentTime = System.currentTimeMillis();
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): run publishers <" + (currentTime - previousPublishActionTime) + "> " + getServer().getServerType().getId());
-				previousPublishActionTime = currentTime;
-			}
+			time = metrics.phaseFinished(IPublishMetrics.PHASE_PUBLISHERS, time);
 			
 			monitor.setTaskName(mainTaskMsg);
 			if (taskStatus != null && !taskStatus.isOK())
@@ -975,23 +957,15 @@ public abstract class ServerBehaviourDelegate {
 			
 			// publish the server
 			publishServer(kind, ProgressUtil.getSubMonitorFor(monitor, 1000));
+			time = metrics.phaseFinished(IPublishMetrics.PHASE_SERVER, time);
 			monitor.setTaskName(mainTaskMsg);
-			if(Trace.PERFORMANCE) {
-				currentTime = System.currentTimeMillis();
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): publisher server <" + (currentTime - previousPublishActionTime) + "> " + getServer().getServerType().getId());
-				previousPublishActionTime = currentTime;
-			}
 			
 			if (monitor.isCanceled())
 				return Status.CANCEL_STATUS;
 			
 			// publish modules
 			publishModules(kind, moduleList, deltaKindList, tempMulti, monitor);
-			if(Trace.PERFORMANCE) {
-				currentTime = System.currentTimeMillis();
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): publish modules <" + (currentTime - previousPublishActionTime) + "> " + getServer().getServerType().getId());
-				previousPublishActionTime = currentTime;
-			}
+			metrics.phaseFinished(IPublishMetrics.PHASE_MODULES, time);
 			
 			if (monitor.isCanceled())
 				return Status.CANCEL_STATUS;
@@ -1009,13 +983,9 @@ public abstract class ServerBehaviourDelegate {
 			tempMulti.add(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0, Messages.errorPublishing, e));
 		} finally {
 			// end the publishing
+			time = System.nanoTime();
 			try {
 				publishFinish(ProgressUtil.getSubMonitorFor(monitor, 500));
-				if(Trace.PERFORMANCE) {
-					long currentTime = System.currentTimeMillis();
-					Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): publish finish <" + (currentTime - previousPublishActionTime) + "> " + getServer().getServerType().getId());
-					previousPublishActionTime = currentTime;
-				}
 			} catch (CoreException ce) {
 				if (Trace.INFO) {
 					Trace.trace(Trace.STRING_INFO, "CoreException publishing to " + toString(), ce);
@@ -1027,9 +997,7 @@ public abstract class ServerBehaviourDelegate {
 				}
 				tempMulti.add(new Status(IStatus.ERROR, ServerPlugin.PLUGIN_ID, 0, Messages.errorPublishing, e));
 			}
-			if(Trace.PERFORMANCE) {
-				Trace.trace(Trace.STRING_PERFORMANCE, "ServerBehaviourDelegate.publish(): <" + (previousPublishActionTime - publishStartTime) + "> " + getServer().getServerType().getId());
-			}
+			metrics.phaseFinished(IPublishMetrics.PHASE_FINISH, time);
 		}
 		
 		if (Trace.FINEST) {
@@ -1160,6 +1128,7 @@ public abstract class ServerBehaviourDelegate {
 			return;
 		
 		// publish modules
+		PublishMetrics metrics = PublishMetrics.getCurrent();
 		for (int i = 0; i < size; i++) {
 			if (monitor.isCanceled())
 				return;
@@ -1182,7 +1151,10 @@ public abstract class ServerBehaviourDelegate {
 					deltaKind = ServerBehaviourDelegate.CHANGED;
 			} // TODO REMOVED*/
 			
+			metrics.moduleStarted(module);
+			long time = System.nanoTime();
 			IStatus status = publishModule(kind2, module, ((Integer)deltaKind2.get(i)).intValue(), ProgressUtil.getSubMonitorFor(monitor, 3000));
+			metrics.moduleFinished(module, time);
 			if (status != null && !status.isOK())
 				multi.add(status);
 		}
@@ -1359,4 +1331,22 @@ public abstract class ServerBehaviourDelegate {
 	public void handleResourceChange() {
 		// do nothing
 	}
+
+	/**
+	 * Called when resources change within the workspace, with the modules
+	 * whose resources have changed since they were last published.
+	 * This gives the server an opportunity to update the server or module
+	 * restart state, or to update the changed resources on the server right
+	 * away, without looking at every module.
+	 * <p>
+	 * The default implementation calls {@link #handleResourceChange()}.
+	 * </p>
+	 * 
+	 * @param modules a list of modules (each an array of IModule, the path
+	 *    to the changed module) that have a published resource delta
+	 * @since 1.11
+	 */
+	public void handleResourceChange(List<IModule[]> modules) {
+		handleResourceChange();
+	}
 }
\ No newline at end of file
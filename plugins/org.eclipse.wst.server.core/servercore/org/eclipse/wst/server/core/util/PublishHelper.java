@@ -24,6 +24,8 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.*;
 import org.eclipse.wst.server.core.internal.Messages;
 import org.eclipse.wst.server.core.internal.ProgressUtil;
+import org.eclipse.wst.server.core.internal.PublishMetrics;
+import org.eclipse.wst.server.core.internal.ScratchSpace;
 import org.eclipse.wst.server.core.internal.ServerPlugin;
 import org.eclipse.wst.server.core.internal.Trace;
 import org.eclipse.osgi.util.NLS;
@@ -45,23 +47,18 @@ public class PublishHelper {
 
 	private static final IStatus[] EMPTY_STATUS = new IStatus[0];
 
-	private static final File defaultTempDir = ServerPlugin.getInstance().getStateLocation().toFile();
-
-	private static final String TEMPFILE_PREFIX = "tmp";
-
 	private File tempDir;
 
 	/**
 	 * Create a new PublishHelper.
 	 * 
 	 * @param tempDirectory a temporary directory to use during publishing, or <code>null</code>
-	 *    to use the default. If it does not exist, the folder will be created
+	 *    to use the default. If it does not exist, the folder will be created. Temporary
+	 *    files are only created in it if it is on the same file system as the publish target
 	 */
 	public PublishHelper(File tempDirectory) {
 		this.tempDir = tempDirectory;
-		if (tempDir == null)
-			tempDir = defaultTempDir;
-		else if (!tempDir.exists())
+		if (tempDir != null && !tempDir.exists())
 			tempDir.mkdirs();
 	}
 
@@ -79,13 +76,15 @@ public class PublishHelper {
 		File tempFile = null;
 		try {
 			File file = to.toFile();
-			tempFile = File.createTempFile(TEMPFILE_PREFIX, "." + to.getFileExtension(), tempDir);
+			tempFile = ScratchSpace.getInstance().createTempFile(file, tempDir);
 			
 			out = new FileOutputStream(tempFile);
 			
+			long size = 0;
 			int avail = in.read(buf);
 			while (avail > 0) {
 				out.write(buf, 0, avail);
+				size += avail;
 				avail = in.read(buf);
 			}
 			
@@ -93,6 +92,7 @@ public class PublishHelper {
 			out = null;
 			
 			moveTempFile(tempFile, file);
+			PublishMetrics.fileCopied(size);
 			
 			if (ts != IResource.NULL_STAMP && ts != 0)
 				file.setLastModified(ts);
@@ -617,14 +617,16 @@ public class PublishHelper {
 		File tempFile = null;
 		try {
 			File file = path.toFile();
-			tempFile = File.createTempFile(TEMPFILE_PREFIX, "." + path.getFileExtension(), tempDir);
+			tempFile = ScratchSpace.getInstance().createTempFile(file, tempDir);
 			
 			BufferedOutputStream bout = new BufferedOutputStream(new FileOutputStream(tempFile));
 			ZipOutputStream zout = new ZipOutputStream(bout);
 			addZipEntries(zout, resources);
 			zout.close();
 			
+			long size = tempFile.length();
 			moveTempFile(tempFile, file);
+			PublishMetrics.fileCopied(size);
 		} catch (CoreException e) {
 			return new IStatus[] { e.getStatus() };
 		} catch (Exception e) {
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerListener;
+import org.eclipse.wst.server.core.ServerEvent;
+import org.eclipse.wst.server.core.internal.Trace;
+/**
+ * Probes a starting server until it answers HTTP requests, and then notifies
+ * the subclass that the server is ready.
+ * <p>
+ * All probes share one small pool of scheduler threads, so that starting many
+ * servers does not create a thread for each of them. Each attempt first opens
+ * a plain TCP connection to the server, which fails fast while the server is
+ * not listening yet, and only sends the HTTP request once the connection
+ * succeeds. Failed attempts are retried with an exponential backoff with
+ * jitter, starting with a short interval so that quick servers are detected
+ * quickly. The probe stops when it succeeds, when it times out, when
+ * {@link #stop()} is called, or when the server is stopped or started by other
+ * means.
+ * </p>
+ * <p>
+ * Subclasses must implement {@link #serverReady()}, typically to set the
+ * server state to started, and may override {@link #timedOut()}.
+ * </p>
+ *
+ * @since 1.11
+ */
+public abstract class ServerReadinessProbe {
+	// delay before the first attempt
+	private static final long INITIAL_DELAY = 100;
+
+	// delay between attempts, increased after each failed attempt
+	private static final long MIN_INTERVAL = 100;
+	private static final long MAX_INTERVAL = 2000;
+	private static final double BACKOFF = 1.5;
+
+	// random variation of the delay between attempts, in percent
+	private static final int JITTER = 20;
+
+	// delay between a successful attempt and the notification
+	private static final long READY_DELAY = 200;
+
+	// timeouts of a single attempt
+	private static final int CONNECT_TIMEOUT = 1000;
+	private static final int READ_TIMEOUT = 5000;
+
+	private static final int THREADS = 2;
+
+	private static ScheduledThreadPoolExecutor executor;
+
+	private final IServer server;
+	private final String url;
+	private final long timeout;
+
+	private IServerListener listener;
+	private ScheduledFuture<?> future;
+	private long deadline;
+	private long interval = MIN_INTERVAL;
+	private int count;
+	private volatile boolean stop;
+
+	/**
+	 * Create a new probe. The probe does nothing until it is started.
+	 *
+	 * @param server the server
+	 * @param url the URL to send HTTP requests to
+	 * @param timeout the maximum time to probe, in milliseconds, or
+	 *    <code>-1</code> to probe until the probe is stopped
+	 */
+	public ServerReadinessProbe(IServer server, String url, long timeout) {
+		if (server == null || url == null)
+			throw new IllegalArgumentException("Server and URL cannot be null");
+		this.server = server;
+		this.url = url;
+		this.timeout = timeout;
+	}
+
+	private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			executor = new ScheduledThreadPoolExecutor(THREADS, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "Server Readiness Probe");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			executor.setKeepAliveTime(30, TimeUnit.SECONDS);
+			executor.allowCoreThreadTimeOut(true);
+			executor.setRemoveOnCancelPolicy(true);
+		}
+		return executor;
+	}
+
+	/**
+	 * Start probing the server.
+	 */
+	public synchronized void start() {
+		if (listener != null || stop)
+			return;
+
+		listener = new IServerListener() {
+			public void serverChanged(ServerEvent event) {
+				int state = event.getState();
+				if (state == IServer.STATE_STOPPED || state == IServer.STATE_STOPPING
+						|| state == IServer.STATE_STARTED) {
+					if (!stop && Trace.FINEST) {
+						Trace.trace(Trace.STRING_FINEST, "Probe: server state changed to " + state);
+					}
+					stop();
+				}
+			}
+		};
+		server.addServerListener(listener, ServerEvent.STATE_CHANGE);
+		if (timeout >= 0)
+			deadline = System.currentTimeMillis() + timeout;
+		schedule(INITIAL_DELAY);
+	}
+
+	private synchronized void schedule(long delay) {
+		if (stop)
+			return;
+		future = getExecutor().schedule(new Runnable() {
+			public void run() {
+				probe();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Make one attempt, and schedule the next one or the notification.
+	 */
+	protected void probe() {
+		if (stop)
+			return;
+
+		count++;
+		if (Trace.FINEST) {
+			Trace.trace(Trace.STRING_FINEST, "Probe: pinging " + count);
+		}
+		if (isReady()) {
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, "Probe: success");
+			}
+			synchronized (this) {
+				if (stop)
+					return;
+				future = getExecutor().schedule(new Runnable() {
+					public void run() {
+						ready();
+					}
+				}, READY_DELAY, TimeUnit.MILLISECONDS);
+			}
+			return;
+		}
+
+		if (timeout >= 0 && System.currentTimeMillis() >= deadline) {
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, "Probe: timed out after " + count + " attempts");
+			}
+			if (dispose()) {
+				try {
+					timedOut();
+				} catch (Exception e) {
+					if (Trace.FINEST) {
+						Trace.trace(Trace.STRING_FINEST, "Probe: could not stop server", e);
+					}
+				}
+			}
+			return;
+		}
+
+		long delay = interval;
+		interval = Math.min(MAX_INTERVAL, (long) (interval * BACKOFF));
+		int jitter = ThreadLocalRandom.current().nextInt(-JITTER, JITTER + 1);
+		schedule(delay + delay * jitter / 100);
+	}
+
+	private void ready() {
+		if (dispose())
+			serverReady();
+	}
+
+	/**
+	 * Returns true if the server answers an HTTP request.
+	 *
+	 * @return <code>true</code> if the server is ready, and <code>false</code>
+	 *    otherwise
+	 */
+	private boolean isReady() {
+		HttpURLConnection conn = null;
+		try {
+			URL pingUrl = new URL(url);
+
+			// fail fast while the server is not listening
+			int port = pingUrl.getPort();
+			if (port == -1)
+				port = pingUrl.getDefaultPort();
+			Socket socket = new Socket();
+			try {
+				socket.connect(new InetSocketAddress(pingUrl.getHost(), port), CONNECT_TIMEOUT);
+			} finally {
+				socket.close();
+			}
+
+			URLConnection uc = pingUrl.openConnection();
+			if (!(uc instanceof HttpURLConnection))
+				return true;
+			conn = (HttpURLConnection) uc;
+			conn.setConnectTimeout(CONNECT_TIMEOUT);
+			conn.setReadTimeout(READ_TIMEOUT);
+			conn.setInstanceFollowRedirects(false);
+			conn.setUseCaches(false);
+			conn.getResponseCode();
+			return true;
+		} catch (FileNotFoundException e) {
+			// the server answered
+			return true;
+		} catch (IOException e) {
+			if (Trace.FINEST) {
+				Trace.trace(Trace.STRING_FINEST, "Probe: failed: " + e);
+			}
+			return false;
+		} finally {
+			if (conn != null)
+				conn.disconnect();
+		}
+	}
+
+	/**
+	 * Stop the probe and release its resources.
+	 *
+	 * @return <code>true</code> if the probe was running, and
+	 *    <code>false</code> if it had already been stopped
+	 */
+	private synchronized boolean dispose() {
+		if (stop)
+			return false;
+		stop = true;
+		if (future != null) {
+			future.cancel(false);
+			future = null;
+		}
+		if (listener != null) {
+			server.removeServerListener(listener);
+			listener = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Tell the probe to stop. The subclass will not be notified.
+	 */
+	public void stop() {
+		if (dispose() && Trace.FINEST) {
+			Trace.trace(Trace.STRING_FINEST, "Probe: stopping");
+		}
+	}
+
+	/**
+	 * Returns true if the probe has been stopped, succeeded, or timed out.
+	 *
+	 * @return <code>true</code> if the probe is no longer running
+	 */
+	public boolean isStopped() {
+		return stop;
+	}
+
+	/**
+	 * Returns the server being probed.
+	 *
+	 * @return the server
+	 */
+	public IServer getServer() {
+		return server;
+	}
+
+	/**
+	 * Called once when the server has answered an HTTP request.
+	 */
+	protected abstract void serverReady();
+
+	/**
+	 * Called once when the server did not answer within the timeout. The
+	 * default implementation stops the server.
+	 */
+	protected void timedOut() {
+		server.stop(false);
+	}
+
+	public String toString() {
+		return "ServerReadinessProbe[" + url + "]";
+	}
+}
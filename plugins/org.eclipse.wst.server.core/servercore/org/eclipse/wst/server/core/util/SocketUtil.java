@@ -14,19 +14,19 @@ package org.eclipse.wst.server.core.util;
 
 import java.io.IOException;
 import java.net.InetAddress;
-import java.net.NetworkInterface;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.SocketException;
-import java.net.UnknownHostException;
-import java.util.Enumeration;
-import java.util.HashMap;
+import java.nio.channels.ServerSocketChannel;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
-import org.eclipse.wst.server.core.internal.Trace;
+import org.eclipse.wst.server.core.internal.LocalhostResolver;
 /**
  * A utility class for socket-related function. It's main purposes are to find
  * unused ports, check whether a port is in use, and check whether a given
@@ -37,78 +37,21 @@ import org.eclipse.wst.server.core.internal.Trace;
 public class SocketUtil {
 	private static final Random rand = new Random(System.currentTimeMillis());
 
-	protected static final Object lock = new Object();
-
-	protected static Set<String> localHostCache = new HashSet<String>();
-	private static Set<String> notLocalHostCache = new HashSet<String>();
-	private static Map<String, CacheThread> threadMap = new HashMap<String, CacheThread>();
-
-	private static Set<InetAddress> addressCache;
+	// number of random ports probed at once when looking for an unused port
+	private static final int FIND_BATCH_SIZE = 10;
 
-	static class CacheThread extends Thread {
-		private Set<InetAddress> currentAddresses;
-		private Set<String> addressList;
-		private String host;
-		private Set<String> nonAddressList;
-		private Map threadMap2;
+	// time to wait between probes of ports that are still in use
+	private static final long PROBE_INTERVAL = 100;
 
-		public CacheThread(String host, Set<InetAddress> currentAddresses, Set<String> addressList, Set<String> nonAddressList, Map threadMap2) {
-			super("Caching localhost information");
-			this.host = host;
-			this.currentAddresses = currentAddresses;
-			this.addressList = addressList;
-			this.nonAddressList = nonAddressList;
-			this.threadMap2 = threadMap2;
-		}
+	/**
+	 * @deprecated no longer used, localhost information is cached internally
+	 */
+	protected static final Object lock = new Object();
 
-		public void run() {
-			if (currentAddresses != null) {
-				Iterator iter2 = currentAddresses.iterator();
-				while (iter2.hasNext()) {
-					InetAddress addr = (InetAddress) iter2.next();
-					String hostname = addr.getHostName().toLowerCase();
-					String hostname2 = addr.getCanonicalHostName().toLowerCase();
-					synchronized (lock) {
-						if (hostname != null && !addressList.contains(hostname))
-							addressList.add(hostname);
-						if (hostname2 != null && !addressList.contains(hostname2))
-							addressList.add(hostname2);
-					}
-				}
-			}
-			
-			try {
-				InetAddress[] addrs = InetAddress.getAllByName(host);
-				int length = addrs.length;
-				for (int j = 0; j < length; j++) {
-					InetAddress addr = addrs[0];
-					String hostname = addr.getHostName().toLowerCase();
-					String hostname2 = addr.getCanonicalHostName().toLowerCase();
-					synchronized (lock) {
-						if (addr.isLoopbackAddress()) {
-							if (hostname != null && !addressList.contains(hostname))
-								addressList.add(hostname);
-							if (hostname2 != null && !addressList.contains(hostname2))
-								addressList.add(hostname2);
-						} else {
-							if (hostname != null && !nonAddressList.contains(hostname))
-								nonAddressList.add(hostname);
-							if (hostname2 != null && !nonAddressList.contains(hostname2))
-								nonAddressList.add(hostname2);
-						}
-					}
-				}
-			} catch (UnknownHostException e) {
-				synchronized (lock) {
-					if (host != null && !nonAddressList.contains(host))
-						nonAddressList.add(host);
-				}
-			}
-			synchronized (lock) {
-				threadMap2.remove(host);
-			}
-		}
-	}
+	/**
+	 * @deprecated no longer used, localhost information is cached internally
+	 */
+	protected static Set<String> localHostCache = new HashSet<String>();
 
 	/**
 	 * Static utility class - cannot create an instance.
@@ -141,10 +84,14 @@ public class SocketUtil {
 		if (high < low)
 			return -1;
 		
-		for (int i = 0; i < 10; i++) {
-			int port = getRandomPort(low, high);
-			if (!isPortInUse(address, port))
-				return port;
+		int[] ports = new int[FIND_BATCH_SIZE];
+		for (int i = 0; i < FIND_BATCH_SIZE; i++)
+			ports[i] = getRandomPort(low, high);
+		
+		boolean[] inUse = probePorts(address, ports);
+		for (int i = 0; i < FIND_BATCH_SIZE; i++) {
+			if (!inUse[i])
+				return ports[i];
 		}
 		return -1;
 	}
@@ -187,17 +134,127 @@ public class SocketUtil {
 	 * @since 1.1
 	 */
 	public static boolean isPortInUse(InetAddress address, int port, int count) {
-		boolean inUse = isPortInUse(address, port);
-		while (inUse && count > 0) {
+		Map<Integer, Boolean> map = getPortsInUse(address, new int[] { port }, count * 500L);
+		return map.get(Integer.valueOf(port)).booleanValue();
+	}
+
+	/**
+	 * Checks which of the given local port numbers are being used. All of the
+	 * ports are probed together with non-blocking socket binds, and ports that
+	 * are in use are probed again until they are released or the timeout
+	 * expires. The total time spent is bounded by the timeout, regardless of the
+	 * number of ports.
+	 * <p>
+	 * This is useful before starting a server with several configured ports,
+	 * to avoid waiting for each port in turn.
+	 * </p>
+	 *
+	 * @param address a local InetAddress, or <code>null</code> for the wildcard address
+	 * @param ports the port numbers to check
+	 * @param timeout the maximum time to wait for ports that are in use to be
+	 *    released, in milliseconds, or <code>0</code> to probe only once
+	 * @return a map from each port number, in the given order, to
+	 *    <code>Boolean.TRUE</code> if the port is in use, and
+	 *    <code>Boolean.FALSE</code> otherwise
+	 * @since 1.11
+	 */
+	public static Map<Integer, Boolean> getPortsInUse(InetAddress address, int[] ports, long timeout) {
+		if (ports == null)
+			throw new IllegalArgumentException("Ports cannot be null");
+		
+		long deadline = System.currentTimeMillis() + timeout;
+		
+		// probe a port listed more than once only once, since a second bind
+		// would fail against the first channel
+		Set<Integer> set = new LinkedHashSet<Integer>();
+		for (int i = 0; i < ports.length; i++)
+			set.add(Integer.valueOf(ports[i]));
+		int size = set.size();
+		int[] unique = new int[size];
+		Iterator<Integer> iterator = set.iterator();
+		for (int i = 0; i < size; i++)
+			unique[i] = iterator.next().intValue();
+		
+		boolean[] inUse = probePorts(address, unique);
+		
+		int used = count(inUse);
+		while (used > 0) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0)
+				break;
+			
 			try {
-				Thread.sleep(500);
-			} catch (Exception e) {
-				// ignore
+				Thread.sleep(Math.min(PROBE_INTERVAL, remaining));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			
+			// only probe the ports that were still in use
+			int[] ports2 = new int[used];
+			int j = 0;
+			for (int i = 0; i < size; i++) {
+				if (inUse[i])
+					ports2[j++] = unique[i];
+			}
+			boolean[] inUse2 = probePorts(address, ports2);
+			j = 0;
+			for (int i = 0; i < size; i++) {
+				if (inUse[i])
+					inUse[i] = inUse2[j++];
+			}
+			used = count(inUse);
+		}
+		
+		Map<Integer, Boolean> map = new LinkedHashMap<Integer, Boolean>(size * 2);
+		for (int i = 0; i < size; i++)
+			map.put(Integer.valueOf(unique[i]), Boolean.valueOf(inUse[i]));
+		return map;
+	}
+
+	private static int count(boolean[] b) {
+		int count = 0;
+		for (int i = 0; i < b.length; i++) {
+			if (b[i])
+				count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Probes the given ports by binding a non-blocking server socket channel to
+	 * each of them. All of the channels are bound before any are closed, so the
+	 * ports must be distinct.
+	 *
+	 * @param address a local InetAddress, or <code>null</code> for the wildcard address
+	 * @param ports the distinct port numbers to check
+	 * @return an array with <code>true</code> for each port that is in use
+	 */
+	private static boolean[] probePorts(InetAddress address, int[] ports) {
+		int size = ports.length;
+		boolean[] inUse = new boolean[size];
+		ServerSocketChannel[] channels = new ServerSocketChannel[size];
+		try {
+			for (int i = 0; i < size; i++) {
+				try {
+					channels[i] = ServerSocketChannel.open();
+					channels[i].configureBlocking(false);
+					channels[i].bind(new InetSocketAddress(address, ports[i]), 0);
+				} catch (Exception e) {
+					inUse[i] = true;
+				}
+			}
+		} finally {
+			for (int i = 0; i < size; i++) {
+				if (channels[i] != null) {
+					try {
+						channels[i].close();
+					} catch (Exception e) {
+						// ignore
+					}
+				}
 			}
-			inUse = isPortInUse(address, port);
-			count --;
 		}
-	
 		return inUse;
 	}
 
@@ -252,22 +309,17 @@ public class SocketUtil {
 	 * Checks if the given host (name, fully qualified name, or IP address) is
 	 * referring to the local machine.
 	 * <p>
-	 * The first time this method is called (or the first call after each time
-	 * the network configuration has changed, e.g. by the user switching from a
-	 * wired connection to wireless) a background process is used to cache the
-	 * network information. On most machines the network information will be found
-	 * quickly and the results of this call will be returned immediately.
-	 * </p><p>
-	 * On machines where the network configuration of the machine is bad or the
-	 * network has problems, the first call to this method will always return after
-	 * 350ms, even if the caching is not complete. At that point it may return
-	 * "false negative" results. (i.e. the method will return <code>false</code>
-	 * even though it may later determine that the host address is a local host)
+	 * The addresses of the local network interfaces and their host names are
+	 * cached in the background on startup, and this method answers from that
+	 * cache without blocking on name resolution. Other host names are resolved
+	 * in the background the first time they are checked, and the result is
+	 * cached for subsequent calls. Until then, this method may return "false
+	 * negative" results. (i.e. the method will return <code>false</code> even
+	 * though it may later determine that the host address is a local host)
 	 * </p><p>
-	 * All subsequent calls (until the network configuration changes) will
-	 * return very quickly. If the background process is still running it will
-	 * continue to fill the cache and each subsequent call to this method may be
-	 * more correct/complete.
+	 * After the network configuration has changed, e.g. by the user switching
+	 * from a wired connection to wireless, the cache is refreshed in the
+	 * background once it has expired.
 	 * </p>
 	 * 
 	 * @param host a hostname or IP address
@@ -282,165 +334,6 @@ public class SocketUtil {
 		if ("localhost".equals(host) || "127.0.0.1".equals(host) || "::1".equals(host))
 			return true;
 		
-		// check existing caches to see if the host is there
-		synchronized (lock) {
-			if (localHostCache.contains(host))
-				return true;
-			if (notLocalHostCache.contains(host))
-				return false;
-		}
-		InetAddress localHostaddr = null;
-		
-		// check simple cases
-		try {
-			localHostaddr = InetAddress.getLocalHost();
-			if (host.equals(localHostaddr.getHostName().toLowerCase())
-					|| host.equals(localHostaddr.getHostAddress().toLowerCase())){
-				synchronized (lock) {
-					localHostCache.add(host);
-				}
-				return true;
-			}
-		} catch (Exception e) {
-			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Localhost caching failure", e);
-			}
-		}
-		
-		// Bug 337763 - the InetAddress's getCanonicalHostName was removed from the simple case
-		// to be called in its own separate thread. This was due to the call being platform
-		// dependent and in some cases, taking up to 10 seconds to return. 
-		// 
-		// The cached thread may perform operations that are expensive. Therefore, to handle
-		// the case where the canonical host name returns quickly, a thread that terminates 
-		// after 100ms is used.
-		try {
-			final String hostFinal = host;
-			final InetAddress localHostaddrFinal = localHostaddr;
-			Thread compareCanonicalHostNameThread = new Thread(){
-				public void run(){
-					boolean isLocal = 
-						hostFinal.equals(localHostaddrFinal.getCanonicalHostName().toLowerCase());					
-					if (isLocal){
-						synchronized (lock) {
-							localHostCache.add(hostFinal);
-						}
-					}
-				}
-			};
-			compareCanonicalHostNameThread.start();
-			compareCanonicalHostNameThread.join(100);
-			// Check cache again
-			if (localHostCache.contains(host)){
-				return true;
-			}
-		} catch (Exception e){
-			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Comparing host with local host conical host name failed", e);
-			}			
-		}
-		
-		// check for current thread and wait if necessary
-		boolean currentThread = false;
-		try {
-			Thread t = null;
-			synchronized (lock) {
-				t = threadMap.get(host);
-			}
-			if (t != null && t.isAlive()) {
-				currentThread = true;
-				t.join(30);
-			}
-		} catch (Exception e) {
-			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Localhost caching failure", e);
-			}
-		}
-		
-		// check if cache is still ok
-		boolean refreshedCache = false;
-		try {
-			// get network interfaces
-			final Set<InetAddress> currentAddresses = new HashSet<InetAddress>();
-			
-			if(localHostaddr != null)
-				currentAddresses.add(localHostaddr);
-			
-			Enumeration nis = NetworkInterface.getNetworkInterfaces();
-			while (nis.hasMoreElements()) {
-				NetworkInterface inter = (NetworkInterface) nis.nextElement();
-				Enumeration<InetAddress> ias = inter.getInetAddresses();
-				while (ias.hasMoreElements())
-					currentAddresses.add(ias.nextElement());
-			}
-			
-			// check if cache is empty or old and refill it if necessary
-			if (addressCache == null || !addressCache.containsAll(currentAddresses) || !currentAddresses.containsAll(addressCache)) {
-				CacheThread cacheThread = null;
-				refreshedCache = true;
-				
-				synchronized (lock) {
-					addressCache = currentAddresses;
-					notLocalHostCache = new HashSet<String>();
-					localHostCache = new HashSet<String>(currentAddresses.size() * 3);
-					
-					Iterator iter = currentAddresses.iterator();
-					while (iter.hasNext()) {
-						InetAddress addr = (InetAddress) iter.next();
-						String a = addr.getHostAddress().toLowerCase();
-						if (a != null && !localHostCache.contains(a))
-							localHostCache.add(a);
-					}
-					
-					cacheThread = new CacheThread(host, currentAddresses, localHostCache, notLocalHostCache, threadMap);
-					threadMap.put(host, cacheThread);
-					cacheThread.setDaemon(true);
-					cacheThread.setPriority(Thread.NORM_PRIORITY - 1);
-					cacheThread.start();
-				}
-				cacheThread.join(200);
-			}
-		} catch (Exception e) {
-			if (Trace.WARNING) {
-				Trace.trace(Trace.STRING_WARNING, "Localhost caching failure", e);
-			}
-		}
-		
-		synchronized (lock) {
-			if (localHostCache.contains(host))
-				return true;
-			if (notLocalHostCache.contains(host))
-				return false;
-		}
-		
-		// if the cache hasn't been cleared, maybe we still need to lookup the host  
-		if (!refreshedCache && !currentThread) {
-			try {
-				CacheThread cacheThread = null;
-				synchronized (lock) {
-					cacheThread = new CacheThread(host, null, localHostCache, notLocalHostCache, threadMap);
-					threadMap.put(host, cacheThread);
-					cacheThread.setDaemon(true);
-					cacheThread.setPriority(Thread.NORM_PRIORITY - 1);
-					cacheThread.start();
-				}
-				cacheThread.join(75);
-				
-				synchronized (lock) {
-					if (localHostCache.contains(host))
-						return true;
-				}
-			} catch (Exception e) {
-				if (Trace.WARNING) {
-					Trace.trace(Trace.STRING_WARNING, "Could not find localhost", e);
-				}
-			}
-		}
-		synchronized (lock) {
-			if(!notLocalHostCache.contains(host)){
-				notLocalHostCache.add(host);
-			}
-		}
-		return false;
+		return LocalhostResolver.getInstance().isLocalhost(host);
 	}
 }
\ No newline at end of file
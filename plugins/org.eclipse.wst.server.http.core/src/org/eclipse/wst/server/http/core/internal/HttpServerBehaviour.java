@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2009 IBM Corporation and others.
+ * Copyright (c) 2007, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -25,12 +25,13 @@ import org.eclipse.wst.server.core.model.IModuleResource;
 import org.eclipse.wst.server.core.model.ServerBehaviourDelegate;
 import org.eclipse.wst.server.core.util.IStaticWeb;
 import org.eclipse.wst.server.core.util.PublishHelper;
+import org.eclipse.wst.server.core.util.ServerReadinessProbe;
 /**
  * Generic HTTP server implementation.
  */
 public class HttpServerBehaviour extends ServerBehaviourDelegate {
-	// the thread used to ping the server to check for startup
-	protected transient PingThread ping = null;
+	// the probe used to ping the server to check for startup
+	protected transient ServerReadinessProbe ping = null;
 
 	/**
 	 * HttpServer.
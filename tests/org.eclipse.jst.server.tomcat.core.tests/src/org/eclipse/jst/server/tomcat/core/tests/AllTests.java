@@ -15,10 +15,13 @@ package org.eclipse.jst.server.tomcat.core.tests;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.jst.server.tomcat.core.tests.internal.CatalinaVersionCacheTestCase;
+import org.eclipse.jst.server.tomcat.core.tests.internal.ModuleDeltaClassifierTestCase;
 import org.eclipse.jst.server.tomcat.core.tests.internal.UtilTestCase;
 import org.eclipse.jst.server.tomcat.core.tests.internal.XmlTestCase;
 import org.eclipse.jst.server.tomcat.core.tests.module.DeleteModuleTestCase;
 import org.eclipse.jst.server.tomcat.core.tests.module.ModuleTestCase;
+import org.eclipse.jst.server.tomcat.core.tests.module.ModuleTraversalCacheTestCase;
 
 public class AllTests {
 	public static Test suite() {
@@ -140,6 +143,9 @@ public class AllTests {
 
 		suite.addTestSuite(UtilTestCase.class);
 		suite.addTestSuite(XmlTestCase.class);
+		suite.addTestSuite(CatalinaVersionCacheTestCase.class);
+		suite.addTestSuite(ModuleDeltaClassifierTestCase.class);
+		suite.addTest(ModuleTraversalCacheTestCase.getOrderedTests());
 		
 		suite.addTestSuite(DeleteModuleTestCase.class);
 		//$JUnit-END$
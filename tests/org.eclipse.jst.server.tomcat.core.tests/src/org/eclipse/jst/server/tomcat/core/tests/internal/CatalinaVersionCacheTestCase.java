@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.tests.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jst.server.tomcat.core.internal.CatalinaVersionCache;
+
+/**
+ * Test case for reading the version of catalina.jar.
+ */
+public class CatalinaVersionCacheTestCase extends TestCase {
+	private static final String SERVER_INFO = "org/apache/catalina/util/ServerInfo.properties";
+
+	private List<File> files = new ArrayList<File>();
+
+	protected void tearDown() throws Exception {
+		for (File f : files)
+			f.delete();
+	}
+
+	private File createTempFile(String suffix) throws IOException {
+		File f = File.createTempFile("catalina", suffix);
+		files.add(f);
+		return f;
+	}
+
+	private static byte[] getServerInfo(String version) throws IOException {
+		return ("server.info=Apache Tomcat/" + version + "\nserver.number=" + version + ".0\n").getBytes("ISO-8859-1");
+	}
+
+	/**
+	 * Create a jar with some other entries, then the given entry, using the
+	 * given compression method.
+	 */
+	private File createJar(String name, byte[] b, int method, String comment) throws IOException {
+		File jar = createTempFile(".jar");
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+		try {
+			for (int i = 0; i < 20; i++)
+				putEntry(out, "org/apache/catalina/Class" + i + ".class", new byte[100 + i], ZipEntry.DEFLATED);
+			if (name != null)
+				putEntry(out, name, b, method);
+			if (comment != null)
+				out.setComment(comment);
+		} finally {
+			out.close();
+		}
+		return jar;
+	}
+
+	private static void putEntry(ZipOutputStream out, String name, byte[] b, int method) throws IOException {
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(method);
+		if (method == ZipEntry.STORED) {
+			CRC32 crc = new CRC32();
+			crc.update(b);
+			entry.setSize(b.length);
+			entry.setCompressedSize(b.length);
+			entry.setCrc(crc.getValue());
+		}
+		out.putNextEntry(entry);
+		out.write(b);
+		out.closeEntry();
+	}
+
+	private static byte[] readWithZipFile(File jar, String name) throws IOException {
+		ZipFile zip = new ZipFile(jar);
+		try {
+			ZipEntry entry = zip.getEntry(name);
+			if (entry == null)
+				return null;
+			InputStream in = zip.getInputStream(entry);
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buf = new byte[4096];
+				int n = in.read(buf);
+				while (n >= 0) {
+					out.write(buf, 0, n);
+					n = in.read(buf);
+				}
+				return out.toByteArray();
+			} finally {
+				in.close();
+			}
+		} finally {
+			zip.close();
+		}
+	}
+
+	private static void assertSameEntry(File jar, String name) throws IOException {
+		byte[] expected = readWithZipFile(jar, name);
+		assertNotNull(expected);
+		assertTrue(Arrays.equals(expected, CatalinaVersionCache.readEntry(jar, name)));
+	}
+
+	public void testStoredEntry() throws Exception {
+		File jar = createJar(SERVER_INFO, getServerInfo("9.0.50"), ZipEntry.STORED, null);
+		assertSameEntry(jar, SERVER_INFO);
+		assertSameEntry(jar, "org/apache/catalina/Class7.class");
+		assertEquals("9.0.50", CatalinaVersionCache.readVersion(jar));
+	}
+
+	public void testDeflatedEntry() throws Exception {
+		File jar = createJar(SERVER_INFO, getServerInfo("10.1.8"), ZipEntry.DEFLATED, null);
+		assertSameEntry(jar, SERVER_INFO);
+		assertSameEntry(jar, "org/apache/catalina/Class19.class");
+		assertEquals("10.1.8", CatalinaVersionCache.readVersion(jar));
+	}
+
+	public void testArchiveComment() throws Exception {
+		// a comment that contains an end of central directory signature
+		String comment = "PK\u0005\u0006 trailing comment";
+		File jar = createJar(SERVER_INFO, getServerInfo("8.5.90"), ZipEntry.DEFLATED, comment);
+		assertSameEntry(jar, SERVER_INFO);
+		assertEquals("8.5.90", CatalinaVersionCache.readVersion(jar));
+	}
+
+	public void testMissingEntry() throws Exception {
+		File jar = createJar(null, null, ZipEntry.STORED, null);
+		assertNull(readWithZipFile(jar, SERVER_INFO));
+		assertNull(CatalinaVersionCache.readEntry(jar, SERVER_INFO));
+		assertEquals("", CatalinaVersionCache.readVersion(jar));
+	}
+
+	public void testZipFileFallback() throws Exception {
+		// data in front of the archive, as in a self-extracting archive, moves
+		// the central directory away from the offset that is recorded for it
+		File jar = createJar(SERVER_INFO, getServerInfo("9.0.71"), ZipEntry.DEFLATED, null);
+		File prefixed = createTempFile(".jar");
+		OutputStream out = new FileOutputStream(prefixed);
+		try {
+			out.write(new byte[512]);
+			InputStream in = new FileInputStream(jar);
+			try {
+				byte[] buf = new byte[4096];
+				int n = in.read(buf);
+				while (n >= 0) {
+					out.write(buf, 0, n);
+					n = in.read(buf);
+				}
+			} finally {
+				in.close();
+			}
+		} finally {
+			out.close();
+		}
+
+		try {
+			CatalinaVersionCache.readEntry(prefixed, SERVER_INFO);
+			fail("Central directory should not be found");
+		} catch (IOException e) {
+			// expected
+		}
+		assertNotNull(readWithZipFile(prefixed, SERVER_INFO));
+		assertEquals("9.0.71", CatalinaVersionCache.readVersion(prefixed));
+	}
+
+	public void testNotAZip() throws Exception {
+		File f = createTempFile(".jar");
+		OutputStream out = new FileOutputStream(f);
+		try {
+			out.write(new byte[100]);
+		} finally {
+			out.close();
+		}
+		assertEquals("", CatalinaVersionCache.readVersion(f));
+	}
+
+	public void testCache() throws Exception {
+		File cacheFile = createTempFile(".properties");
+		cacheFile.delete();
+		File jar1 = createJar(SERVER_INFO, getServerInfo("9.0.50"), ZipEntry.DEFLATED, null);
+		File jar2 = createJar(SERVER_INFO, getServerInfo("10.1.8"), ZipEntry.DEFLATED, null);
+
+		CatalinaVersionCache cache = new CatalinaVersionCache(cacheFile);
+		assertEquals("9.0.50", cache.getVersion(jar1));
+		assertEquals("10.1.8", cache.getVersion(jar2));
+		assertEquals(2, loadProperties(cacheFile).size());
+
+		// a new cache uses the stored versions
+		assertEquals("9.0.50", new CatalinaVersionCache(cacheFile).getVersion(jar1));
+	}
+
+	public void testPruneMissingJars() throws Exception {
+		File cacheFile = createTempFile(".properties");
+		cacheFile.delete();
+		File jar1 = createJar(SERVER_INFO, getServerInfo("9.0.50"), ZipEntry.DEFLATED, null);
+		File jar2 = createJar(SERVER_INFO, getServerInfo("10.1.8"), ZipEntry.DEFLATED, null);
+		File jar3 = createJar(SERVER_INFO, getServerInfo("11.0.0"), ZipEntry.DEFLATED, null);
+
+		CatalinaVersionCache cache = new CatalinaVersionCache(cacheFile);
+		cache.getVersion(jar1);
+		cache.getVersion(jar2);
+		assertTrue(jar2.delete());
+
+		cache = new CatalinaVersionCache(cacheFile);
+		assertEquals("11.0.0", cache.getVersion(jar3));
+		Properties props = loadProperties(cacheFile);
+		assertEquals(2, props.size());
+		assertTrue(props.containsKey(jar1.getAbsolutePath()));
+		assertFalse(props.containsKey(jar2.getAbsolutePath()));
+		assertTrue(props.containsKey(jar3.getAbsolutePath()));
+	}
+
+	private static Properties loadProperties(File f) throws IOException {
+		Properties props = new Properties();
+		InputStream in = new FileInputStream(f);
+		try {
+			props.load(in);
+		} finally {
+			in.close();
+		}
+		return props;
+	}
+}
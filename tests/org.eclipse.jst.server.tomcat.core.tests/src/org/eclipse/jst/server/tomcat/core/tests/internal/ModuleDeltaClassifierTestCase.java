@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.tests.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jst.server.tomcat.core.internal.ModuleDeltaClassifier;
+import org.eclipse.wst.server.core.internal.ModuleResourceDelta;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.core.util.ModuleFile;
+import org.eclipse.wst.server.core.util.ModuleFolder;
+
+/**
+ * Test case for classifying the changed files of a web module.
+ */
+public class ModuleDeltaClassifierTestCase extends TestCase {
+	private static int classify(String path, int kind) {
+		return ModuleDeltaClassifier.classify(new Path(path), kind);
+	}
+
+	private static int classify(String path) {
+		return classify(path, IModuleResourceDelta.CHANGED);
+	}
+
+	private static IModuleResourceDelta createFileDelta(String path, int kind) {
+		IPath p = new Path(path);
+		ModuleFile file = new ModuleFile(p.lastSegment(), p.removeLastSegments(1), 1000L);
+		return new ModuleResourceDelta(file, kind);
+	}
+
+	private static IModuleResourceDelta createFolderDelta(String path, IModuleResourceDelta[] children) {
+		IPath p = new Path(path);
+		ModuleFolder folder = new ModuleFolder(null, p.lastSegment(), p.removeLastSegments(1));
+		ModuleResourceDelta delta = new ModuleResourceDelta(folder, IModuleResourceDelta.NO_CHANGE);
+		delta.setChildren(children);
+		return delta;
+	}
+
+	public void testDescriptor() {
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("WEB-INF/web.xml"));
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("WEB-INF/web.xml", IModuleResourceDelta.ADDED));
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("WEB-INF/faces-config.xml"));
+	}
+
+	public void testContextXml() {
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("META-INF/context.xml"));
+		// only the top-level context.xml configures the context
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("META-INF/other/context.xml"));
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("META-INF/MANIFEST.MF"));
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("context.xml"));
+	}
+
+	public void testTagLibraryDescriptor() {
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("tags/mytags.tld"));
+		assertEquals(ModuleDeltaClassifier.DESCRIPTOR, classify("WEB-INF/tags/mytags.tld"));
+	}
+
+	public void testClass() {
+		// nothing has loaded an added class yet
+		assertEquals(0, classify("WEB-INF/classes/com/example/Foo.class", IModuleResourceDelta.ADDED));
+		assertEquals(ModuleDeltaClassifier.CLASS, classify("WEB-INF/classes/com/example/Foo.class", IModuleResourceDelta.CHANGED));
+		assertEquals(ModuleDeltaClassifier.CLASS, classify("WEB-INF/classes/com/example/Foo.class", IModuleResourceDelta.REMOVED));
+		assertEquals(ModuleDeltaClassifier.CLASS, classify("WEB-INF/classes/messages.properties"));
+	}
+
+	public void testJar() {
+		assertEquals(0, classify("WEB-INF/lib/library.jar", IModuleResourceDelta.ADDED));
+		assertEquals(ModuleDeltaClassifier.CLASS, classify("WEB-INF/lib/library.jar", IModuleResourceDelta.CHANGED));
+		assertEquals(ModuleDeltaClassifier.CLASS, classify("WEB-INF/lib/library.jar", IModuleResourceDelta.REMOVED));
+	}
+
+	public void testJsp() {
+		assertEquals(ModuleDeltaClassifier.JSP, classify("index.jsp"));
+		assertEquals(ModuleDeltaClassifier.JSP, classify("pages/header.jspf"));
+		assertEquals(ModuleDeltaClassifier.JSP, classify("pages/INDEX.JSP"));
+		// JSPs under WEB-INF are not served directly, but are still recompiled
+		assertEquals(ModuleDeltaClassifier.JSP, classify("WEB-INF/views/home.jsp"));
+		assertEquals(ModuleDeltaClassifier.JSP, classify("WEB-INF/tags/box.tag"));
+	}
+
+	public void testStatic() {
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("index.html"));
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("css/site.css"));
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("images/logo.png", IModuleResourceDelta.REMOVED));
+		assertEquals(ModuleDeltaClassifier.STATIC, classify("classes/Foo.class"));
+		assertEquals(0, classify(""));
+	}
+
+	public void testClassifyDelta() {
+		IModuleResourceDelta html = createFileDelta("index.html", IModuleResourceDelta.CHANGED);
+		IModuleResourceDelta jsp = createFileDelta("pages/list.jsp", IModuleResourceDelta.ADDED);
+		IModuleResourceDelta added = createFileDelta("WEB-INF/classes/Foo.class", IModuleResourceDelta.ADDED);
+		IModuleResourceDelta[] delta = new IModuleResourceDelta[] {
+			html,
+			createFolderDelta("pages", new IModuleResourceDelta[] { jsp }),
+			createFolderDelta("WEB-INF", new IModuleResourceDelta[] {
+				createFolderDelta("WEB-INF/classes", new IModuleResourceDelta[] { added })
+			})
+		};
+
+		List<IModuleResourceDelta> hotUpdates = new ArrayList<IModuleResourceDelta>();
+		assertEquals(ModuleDeltaClassifier.STATIC | ModuleDeltaClassifier.JSP, ModuleDeltaClassifier.classify(delta, hotUpdates));
+		assertEquals(2, hotUpdates.size());
+		assertTrue(hotUpdates.contains(html));
+		assertTrue(hotUpdates.contains(jsp));
+	}
+
+	public void testClassifyDeltaReload() {
+		IModuleResourceDelta css = createFileDelta("css/site.css", IModuleResourceDelta.CHANGED);
+		IModuleResourceDelta[] delta = new IModuleResourceDelta[] {
+			createFolderDelta("css", new IModuleResourceDelta[] { css }),
+			createFolderDelta("WEB-INF", new IModuleResourceDelta[] {
+				createFileDelta("WEB-INF/web.xml", IModuleResourceDelta.CHANGED),
+				createFolderDelta("WEB-INF/lib", new IModuleResourceDelta[] {
+					createFileDelta("WEB-INF/lib/library.jar", IModuleResourceDelta.REMOVED)
+				})
+			})
+		};
+
+		List<IModuleResourceDelta> hotUpdates = new ArrayList<IModuleResourceDelta>();
+		int kinds = ModuleDeltaClassifier.classify(delta, hotUpdates);
+		assertEquals(ModuleDeltaClassifier.STATIC | ModuleDeltaClassifier.CLASS | ModuleDeltaClassifier.DESCRIPTOR, kinds);
+		assertTrue((kinds & ModuleDeltaClassifier.RELOAD) != 0);
+		assertEquals(1, hotUpdates.size());
+		assertSame(css, hotUpdates.get(0));
+
+		// without a list for hot updates
+		assertEquals(kinds, ModuleDeltaClassifier.classify(delta, null));
+		assertEquals(0, ModuleDeltaClassifier.classify(null, hotUpdates));
+	}
+}
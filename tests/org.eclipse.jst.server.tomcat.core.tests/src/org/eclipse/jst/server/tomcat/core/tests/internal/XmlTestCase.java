@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 SAS Institute, Inc. and others.
+ * Copyright (c) 2007, 2026 SAS Institute, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -13,12 +13,20 @@
 package org.eclipse.jst.server.tomcat.core.tests.internal;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import junit.framework.TestCase;
 
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.jst.server.tomcat.core.internal.TomcatVersionHelper;
 import org.eclipse.jst.server.tomcat.core.internal.xml.Factory;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server32.ContextManager;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server32.Parameter;
@@ -30,6 +38,8 @@ import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Listener;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Server;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.ServerInstance;
 import org.eclipse.jst.server.tomcat.core.internal.xml.server40.Service;
+import org.eclipse.jst.server.tomcat.core.internal.xml.XMLUtil;
+import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
@@ -594,4 +604,204 @@ public class XmlTestCase extends TestCase {
 		assertTrue(context.isEquivalentTest(context2));
 		assertTrue(context2.isEquivalentTest(context));
 	}
+	
+	/**
+	 * Test that contexts created and removed through the model are seen by
+	 * later lookups, and that saving preserves the original formatting.
+	 */
+	public void testContextIndex() throws Exception {
+		String xml = "<Server port=\"8005\">\n" +
+			"  <!-- comment -->\n" +
+			"  <Service name=\"Service\">\n" +
+			"    <Engine name=\"Engine\">\n" +
+			"      <Host name=\"localhost\">\n" +
+			"        <Context path=\"/WebApp1\"/>\n" +
+			"        <Context path=\"/WebApp2\"/>\n" +
+			"      </Host>\n" +
+			"    </Engine>\n" +
+			"  </Service>\n" +
+			"</Server>";
+		Factory factory = new Factory();
+		factory.setPackageName("org.eclipse.jst.server.tomcat.core.internal.xml.server40");
+		Server server = (Server)factory.loadDocument(new ByteArrayInputStream(xml.getBytes()));
+		assertTrue(new String(factory.getContents(), "UTF-8").endsWith(xml));
+
+		Host host = server.getService(0).getEngine().getHost();
+		assertEquals(2, host.getContextCount());
+		Context context = (Context)host.createElement(1, "Context");
+		context.setPath("/Inserted");
+		assertEquals(3, host.getContextCount());
+		assertEquals("/WebApp1", host.getContext(0).getPath());
+		assertEquals("/Inserted", host.getContext(1).getPath());
+		assertEquals("/WebApp2", host.getContext(2).getPath());
+
+		assertTrue(host.removeElement("Context", 0));
+		assertFalse(host.removeElement("Context", 2));
+		assertEquals(2, host.getContextCount());
+		assertEquals("/Inserted", host.getContext(0).getPath());
+	}
+
+	private static Document parse(String xml) throws Exception {
+		return XMLUtil.getDocumentBuilder().parse(new ByteArrayInputStream(xml.getBytes("UTF-8")));
+	}
+
+	private static boolean isEquivalent(String xml, String xml2) throws Exception {
+		Element element = parse(xml).getDocumentElement();
+		Element element2 = parse(xml2).getDocumentElement();
+		boolean b = XMLUtil.isEquivalent(element, element2);
+		assertEquals(b, XMLUtil.isEquivalent(element2, element));
+		return b;
+	}
+
+	private static void write(File file, String s) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(s.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (int i = 0; i < files.length; i++)
+				delete(files[i]);
+		}
+		file.delete();
+	}
+
+	public void testIsEquivalentWhitespace() throws Exception {
+		String xml = "<Context docBase=\"shop\" path=\"/shop\"><Resource name=\"jdbc/db\"/><Loader/></Context>";
+		assertTrue(isEquivalent(xml, xml));
+		assertTrue(isEquivalent(xml, "<Context docBase=\"shop\" path=\"/shop\">\n  <Resource name=\"jdbc/db\"/>\n  <Loader/>\n</Context>"));
+		assertTrue(isEquivalent(xml, "<Context docBase=\"shop\" path=\"/shop\">\r\n\t<Resource name=\"jdbc/db\">  </Resource>\r\n\t<Loader></Loader>\r\n</Context>\r\n"));
+		// whitespace in attribute values is significant
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop \" path=\"/shop\"><Resource name=\"jdbc/db\"/><Loader/></Context>"));
+	}
+
+	public void testIsEquivalentAttributeOrder() throws Exception {
+		assertTrue(isEquivalent("<Context docBase=\"shop\" path=\"/shop\" reloadable=\"true\"/>",
+				"<Context reloadable=\"true\" path=\"/shop\" docBase=\"shop\"/>"));
+		// child elements are compared in order
+		assertFalse(isEquivalent("<Context><Resource name=\"a\"/><Resource name=\"b\"/></Context>",
+				"<Context><Resource name=\"b\"/><Resource name=\"a\"/></Context>"));
+	}
+
+	public void testIsEquivalentText() throws Exception {
+		String xml = "<Context><WatchedResource>WEB-INF/web.xml</WatchedResource></Context>";
+		assertTrue(isEquivalent(xml, "<Context><WatchedResource>\n  WEB-INF/web.xml\n</WatchedResource></Context>"));
+		assertTrue(isEquivalent(xml, "<Context><WatchedResource><![CDATA[WEB-INF/web.xml]]></WatchedResource></Context>"));
+		assertFalse(isEquivalent(xml, "<Context><WatchedResource>WEB-INF/tomcat-web.xml</WatchedResource></Context>"));
+		assertFalse(isEquivalent(xml, "<Context><WatchedResource><![CDATA[WEB-INF/tomcat-web.xml]]></WatchedResource></Context>"));
+		assertFalse(isEquivalent(xml, "<Context><WatchedResource/></Context>"));
+	}
+
+	public void testIsEquivalentAttributeChange() throws Exception {
+		String xml = "<Context docBase=\"shop\" path=\"/shop\"><Resource name=\"jdbc/db\"/></Context>";
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop2\" path=\"/shop\"><Resource name=\"jdbc/db\"/></Context>"));
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop\"><Resource name=\"jdbc/db\"/></Context>"));
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop\" path=\"/shop\" reloadable=\"true\"><Resource name=\"jdbc/db\"/></Context>"));
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop\" path=\"/shop\"><Resource name=\"jdbc/db2\"/></Context>"));
+		assertFalse(isEquivalent(xml, "<Context docBase=\"shop\" path=\"/shop\"><Resource name=\"jdbc/db\"/><Loader/></Context>"));
+		assertFalse(isEquivalent(xml, "<Host docBase=\"shop\" path=\"/shop\"><Resource name=\"jdbc/db\"/></Host>"));
+
+		Element element = parse(xml).getDocumentElement();
+		assertTrue(XMLUtil.isEquivalent(null, null));
+		assertFalse(XMLUtil.isEquivalent(element, null));
+		assertFalse(XMLUtil.isEquivalent(null, element));
+	}
+
+	public void testSaveIfChanged() throws Exception {
+		File file = File.createTempFile("context", ".xml");
+		try {
+			String xml = "<Context docBase=\"shop\" path=\"/shop\" reloadable=\"true\"><Resource name=\"jdbc/db\"/></Context>";
+			// an empty file is always written
+			assertTrue(XMLUtil.saveIfChanged(file.getAbsolutePath(), parse(xml)));
+
+			// same document
+			long time = file.lastModified() - 10000;
+			assertTrue(file.setLastModified(time));
+			assertFalse(XMLUtil.saveIfChanged(file.getAbsolutePath(), parse(xml)));
+			assertEquals(time, file.lastModified());
+
+			// the same content in other formatting and attribute order is kept
+			String reformatted = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<Context reloadable=\"true\" path=\"/shop\" docBase=\"shop\">\r\n\t<Resource name=\"jdbc/db\" />\r\n</Context>\r\n";
+			write(file, reformatted);
+			assertTrue(file.setLastModified(time));
+			assertFalse(XMLUtil.saveIfChanged(file.getAbsolutePath(), parse(xml)));
+			assertEquals(time, file.lastModified());
+			assertTrue(XMLUtil.isEquivalent(parse(reformatted).getDocumentElement(),
+					XMLUtil.getDocumentBuilder().parse(file).getDocumentElement()));
+
+			// a real change is written
+			String changed = "<Context docBase=\"shop\" path=\"/shop\" reloadable=\"false\"><Resource name=\"jdbc/db\"/></Context>";
+			assertTrue(XMLUtil.saveIfChanged(file.getAbsolutePath(), parse(changed)));
+			assertTrue(XMLUtil.isEquivalent(parse(changed).getDocumentElement(),
+					XMLUtil.getDocumentBuilder().parse(file).getDocumentElement()));
+
+			// a file that cannot be parsed is replaced
+			write(file, "<Context");
+			assertTrue(XMLUtil.saveIfChanged(file.getAbsolutePath(), parse(xml)));
+			assertTrue(XMLUtil.isEquivalent(parse(xml).getDocumentElement(),
+					XMLUtil.getDocumentBuilder().parse(file).getDocumentElement()));
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test that a context that is moved to a separate file without its path
+	 * is only written when it changed.
+	 */
+	public void testMoveContextsToSeparateFilesNoPath() throws Exception {
+		String serverXml = "<Server port=\"8005\">\n" +
+			"  <Service name=\"Catalina\">\n" +
+			"    <Engine defaultHost=\"localhost\" name=\"Catalina\">\n" +
+			"      <Host appBase=\"webapps\" name=\"localhost\">\n" +
+			"        <Context docBase=\"shop\" path=\"/shop\" reloadable=\"true\" source=\"org.eclipse.jst.jee.server:shop\"/>\n" +
+			"      </Host>\n" +
+			"    </Engine>\n" +
+			"  </Service>\n" +
+			"</Server>\n";
+		File baseDir = File.createTempFile("tomcat", null);
+		baseDir.delete();
+		try {
+			File conf = new File(baseDir, "conf");
+			conf.mkdirs();
+			File serverFile = new File(conf, "server.xml");
+			File contextFile = new File(conf, "Catalina/localhost/shop.xml");
+			Path basePath = new Path(baseDir.getAbsolutePath());
+
+			write(serverFile, serverXml);
+			Set<String> changed = new HashSet<String>();
+			IStatus status = TomcatVersionHelper.moveContextsToSeparateFiles(basePath, true, changed, null);
+			assertTrue(status.isOK());
+			assertTrue(contextFile.exists());
+			assertTrue(changed.contains("/shop"));
+			Element context = XMLUtil.getDocumentBuilder().parse(contextFile).getDocumentElement();
+			assertFalse(context.hasAttribute("path"));
+			assertEquals("shop", context.getAttribute("docBase"));
+
+			// the context without its path compares as unchanged
+			write(serverFile, serverXml);
+			long time = contextFile.lastModified() - 10000;
+			assertTrue(contextFile.setLastModified(time));
+			changed.clear();
+			status = TomcatVersionHelper.moveContextsToSeparateFiles(basePath, true, changed, null);
+			assertTrue(status.isOK());
+			assertTrue(changed.isEmpty());
+			assertEquals(time, contextFile.lastModified());
+
+			// a changed context is written
+			write(serverFile, serverXml.replace("reloadable=\"true\"", "reloadable=\"false\""));
+			status = TomcatVersionHelper.moveContextsToSeparateFiles(basePath, true, changed, null);
+			assertTrue(status.isOK());
+			assertTrue(changed.contains("/shop"));
+			context = XMLUtil.getDocumentBuilder().parse(contextFile).getDocumentElement();
+			assertEquals("false", context.getAttribute("reloadable"));
+		} finally {
+			delete(baseDir);
+		}
+	}
 }
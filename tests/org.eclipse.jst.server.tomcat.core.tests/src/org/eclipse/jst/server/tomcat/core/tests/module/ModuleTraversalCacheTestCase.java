@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jst.server.tomcat.core.tests.module;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jst.server.tomcat.core.internal.wst.IModuleVisitor;
+import org.eclipse.jst.server.tomcat.core.internal.wst.ModuleTraversalCache;
+import org.eclipse.jst.server.tomcat.core.internal.wst.ModuleTraverser;
+import org.eclipse.wst.common.componentcore.resources.IVirtualComponent;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.internal.IMemento;
+import org.eclipse.wst.server.core.internal.XMLMemento;
+
+/**
+ * Test case for replaying cached module traversals, and for discarding them
+ * when the classpath or the component structure changes.
+ */
+public class ModuleTraversalCacheTestCase extends TestCase {
+	protected static final String WEB_MODULE_NAME = "TraversalWeb";
+	protected static final String SOURCE_FOLDER = "src2";
+
+	/**
+	 * A visitor that records the calls it gets.
+	 */
+	protected static class RecordingVisitor implements IModuleVisitor {
+		protected final List<String> calls = new ArrayList<String>();
+
+		public void visitWebComponent(IVirtualComponent component) {
+			calls.add("visitWebComponent " + component.getName());
+		}
+
+		public void endVisitWebComponent(IVirtualComponent component) {
+			calls.add("endVisitWebComponent " + component.getName());
+		}
+
+		public void visitArchiveComponent(IPath runtimePath, IPath workspacePath) {
+			calls.add("visitArchiveComponent " + runtimePath + " " + workspacePath);
+		}
+
+		public void visitDependentJavaProject(IJavaProject javaProject) {
+			calls.add("visitDependentJavaProject " + javaProject.getElementName());
+		}
+
+		public void visitDependentComponent(IPath runtimePath, IPath workspacePath) {
+			calls.add("visitDependentComponent " + runtimePath + " " + workspacePath);
+		}
+
+		public void visitWebResource(IPath runtimePath, IPath workspacePath) {
+			calls.add("visitWebResource " + runtimePath + " " + workspacePath);
+		}
+
+		public void visitDependentContentResource(IPath runtimePath, IPath workspacePath) {
+			calls.add("visitDependentContentResource " + runtimePath + " " + workspacePath);
+		}
+
+		public void visitEarResource(IPath runtimePath, IPath workspacePath) {
+			calls.add("visitEarResource " + runtimePath + " " + workspacePath);
+		}
+
+		public void endVisitEarComponent(IVirtualComponent component) {
+			calls.add("endVisitEarComponent " + component.getName());
+		}
+
+		protected int count(String prefix) {
+			int count = 0;
+			for (String call : calls) {
+				if (call.startsWith(prefix))
+					count++;
+			}
+			return count;
+		}
+	}
+
+	// This test suite ensures the test methods are run in order
+	public static TestSuite getOrderedTests() {
+		TestSuite mySuite = new TestSuite();
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test00CreateWebModule"));
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test01Replay"));
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test02ContentChange"));
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test03ClasspathChange"));
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test04ComponentChange"));
+		mySuite.addTest(TestSuite.createTest(ModuleTraversalCacheTestCase.class, "test05DeleteWebModule"));
+		return mySuite;
+	}
+
+	private static IProject getProject() {
+		return ResourcesPlugin.getWorkspace().getRoot().getProject(WEB_MODULE_NAME);
+	}
+
+	private static boolean isCached() throws Exception {
+		return ModuleTraversalCache.getInstance().isCached(ModuleHelper.getModule(WEB_MODULE_NAME));
+	}
+
+	/**
+	 * Traverse the module twice, and check that the second traversal is
+	 * replayed from the cache with the same calls.
+	 */
+	private static RecordingVisitor traverse() throws Exception {
+		IModule module = ModuleHelper.getModule(WEB_MODULE_NAME);
+		assertFalse(ModuleTraversalCache.getInstance().isCached(module));
+		RecordingVisitor fresh = new RecordingVisitor();
+		ModuleTraverser.traverse(module, fresh, null);
+		assertTrue(ModuleTraversalCache.getInstance().isCached(module));
+
+		RecordingVisitor replayed = new RecordingVisitor();
+		ModuleTraverser.traverse(module, replayed, null);
+		assertEquals(fresh.calls, replayed.calls);
+		return fresh;
+	}
+
+	public void test00CreateWebModule() throws Exception {
+		ModuleHelper.createModule(WEB_MODULE_NAME);
+		ModuleHelper.buildFull();
+	}
+
+	public void test01Replay() throws Exception {
+		RecordingVisitor visitor = traverse();
+		assertEquals(1, visitor.count("visitWebComponent"));
+		assertEquals(1, visitor.count("endVisitWebComponent"));
+	}
+
+	public void test02ContentChange() throws Exception {
+		assertTrue(isCached());
+		ModuleHelper.createWebContent(WEB_MODULE_NAME, 0);
+		ModuleHelper.createJavaContent(WEB_MODULE_NAME, 0);
+		ModuleHelper.buildIncremental();
+		assertTrue(isCached());
+	}
+
+	public void test03ClasspathChange() throws Exception {
+		IProject project = getProject();
+		IFolder folder = project.getFolder(SOURCE_FOLDER);
+		folder.create(true, true, null);
+		assertTrue(isCached());
+
+		IJavaProject javaProject = JavaCore.create(project);
+		IClasspathEntry[] entries = javaProject.getRawClasspath();
+		IClasspathEntry[] entries2 = new IClasspathEntry[entries.length + 1];
+		System.arraycopy(entries, 0, entries2, 0, entries.length);
+		entries2[entries.length] = JavaCore.newSourceEntry(folder.getFullPath());
+		javaProject.setRawClasspath(entries2, null);
+		assertFalse(isCached());
+
+		traverse();
+	}
+
+	public void test04ComponentChange() throws Exception {
+		RecordingVisitor before = new RecordingVisitor();
+		ModuleTraverser.traverse(ModuleHelper.getModule(WEB_MODULE_NAME), before, null);
+		assertTrue(isCached());
+
+		// map the new source folder into the module
+		IFile file = getProject().getFile(new Path(".settings").append("org.eclipse.wst.common.component"));
+		XMLMemento memento;
+		InputStream in = file.getContents();
+		try {
+			memento = (XMLMemento) XMLMemento.loadMemento(in);
+		} finally {
+			in.close();
+		}
+		IMemento child = memento.getChild("wb-module").createChild("wb-resource");
+		child.putString("deploy-path", "/WEB-INF/classes");
+		child.putString("source-path", "/" + SOURCE_FOLDER);
+		file.setContents(memento.getInputStream(), true, true, null);
+		assertFalse(isCached());
+
+		RecordingVisitor after = traverse();
+		assertEquals(before.count("visitWebResource") + 1, after.count("visitWebResource"));
+	}
+
+	public void test05DeleteWebModule() throws Exception {
+		ModuleHelper.deleteModule(WEB_MODULE_NAME);
+	}
+}
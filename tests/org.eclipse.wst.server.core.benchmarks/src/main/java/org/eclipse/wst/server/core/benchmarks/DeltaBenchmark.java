@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ServerPublishInfo;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.tests.performance.common.ModuleTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures computing resource deltas, and saving and loading the publish
+ * information of 50 modules, on in-memory module trees of 3 folder levels with
+ * 4 subfolders and 20 files each (1700 files).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeltaBenchmark {
+	private static final int MODULES = 50;
+
+	protected static class TestServerPublishInfo extends ServerPublishInfo {
+		protected TestServerPublishInfo(IPath path) {
+			super(path);
+		}
+
+		protected void setResources(IModule[] module, IModuleResource[] resources) {
+			getModulePublishInfo(module).setResources(resources);
+		}
+
+		protected IModuleResource[] getResources2(IModule[] module) {
+			return getModulePublishInfo(module).getResources();
+		}
+
+		protected static IModuleResourceDelta[] getDelta2(IModuleResource[] original, IModuleResource[] current) {
+			return getDelta(original, current);
+		}
+
+		protected static boolean hasDelta2(IModuleResource[] original, IModuleResource[] current) {
+			return hasDelta(original, current);
+		}
+	}
+
+	private IModuleResource[] original;
+	private IModuleResource[] current;
+	private File file;
+	private IPath path;
+	private IModule[][] modules;
+	private TestServerPublishInfo info;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		original = ModuleTree.createResources(3, 4, 20);
+		// every 20th file has changed
+		current = ModuleTree.touch(original, 20);
+
+		file = File.createTempFile("benchmark", ".dat");
+		file.delete();
+		path = new Path(file.getAbsolutePath());
+
+		modules = new IModule[MODULES][];
+		info = new TestServerPublishInfo(path);
+		for (int i = 0; i < MODULES; i++) {
+			modules[i] = new IModule[] { new DeletedModule("web" + i, "web" + i, null) };
+			info.setResources(modules[i], original);
+		}
+		info.save();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public IModuleResourceDelta[] getDelta() {
+		return TestServerPublishInfo.getDelta2(original, current);
+	}
+
+	@Benchmark
+	public IModuleResourceDelta[] getDeltaNoChange() {
+		return TestServerPublishInfo.getDelta2(original, original);
+	}
+
+	@Benchmark
+	public boolean hasDelta() {
+		return TestServerPublishInfo.hasDelta2(original, current);
+	}
+
+	@Benchmark
+	public void save() {
+		info.save();
+	}
+
+	@Benchmark
+	public TestServerPublishInfo load() {
+		return new TestServerPublishInfo(path);
+	}
+
+	@Benchmark
+	public int loadResources() {
+		TestServerPublishInfo info2 = new TestServerPublishInfo(path);
+		int count = 0;
+		for (int i = 0; i < MODULES; i++)
+			count += info2.getResources2(modules[i]).length;
+		return count;
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.wst.server.core.internal.IMemento;
+import org.eclipse.wst.server.core.internal.XMLMemento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures parsing and writing an XMLMemento shaped like the server
+ * configuration files, with 50 servers of 20 attributes each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MementoBenchmark {
+	private static final int SERVERS = 50;
+	private static final int ATTRIBUTES = 20;
+
+	private XMLMemento memento;
+	private byte[] contents;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		memento = XMLMemento.createWriteRoot("servers");
+		for (int i = 0; i < SERVERS; i++) {
+			IMemento child = memento.createChild("server");
+			child.putString("id", "server" + i);
+			child.putString("name", "Server " + i);
+			child.putString("server-type", "org.eclipse.jst.server.tomcat.90");
+			for (int j = 0; j < ATTRIBUTES; j++)
+				child.putString("attribute" + j, "value" + j);
+			IMemento list = child.createChild("list");
+			list.putString("key", "modules");
+			for (int j = 0; j < ATTRIBUTES; j++)
+				list.putString("value" + j, "web" + j + "::org.eclipse.jst.jee.server:web" + j);
+		}
+		contents = memento.getContents();
+	}
+
+	@Benchmark
+	public IMemento load() {
+		return XMLMemento.loadMemento(new ByteArrayInputStream(contents));
+	}
+
+	@Benchmark
+	public int loadAndRead() {
+		IMemento root = XMLMemento.loadMemento(new ByteArrayInputStream(contents));
+		int count = 0;
+		for (IMemento child : root.getChildren("server")) {
+			if (child.getString("id") != null)
+				count++;
+			count += child.getNames().size();
+		}
+		return count;
+	}
+
+	@Benchmark
+	public byte[] save() throws IOException {
+		return memento.getContents();
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerListener;
+import org.eclipse.wst.server.core.ServerEvent;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ServerNotificationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+/**
+ * Measures ServerNotificationManager broadcasting server and module events
+ * to a number of listeners, half of which only listen to server events and
+ * half to module events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NotificationBenchmark {
+	@Param({ "1", "10", "100" })
+	public int listeners;
+
+	private TestNotificationManager manager;
+	private ServerEvent serverEvent;
+	private ServerEvent moduleEvent;
+
+	protected static class TestNotificationManager extends ServerNotificationManager {
+		protected void broadcastChange2(ServerEvent event) {
+			broadcastChange(event);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp(final Blackhole blackhole) {
+		manager = new TestNotificationManager();
+		IServerListener listener = new IServerListener() {
+			public void serverChanged(ServerEvent event) {
+				blackhole.consume(event);
+			}
+		};
+		for (int i = 0; i < listeners; i++) {
+			int type = (i % 2 == 0) ? ServerEvent.SERVER_CHANGE : ServerEvent.MODULE_CHANGE;
+			manager.addListener(listener, type | ServerEvent.STATE_CHANGE | ServerEvent.PUBLISH_STATE_CHANGE);
+		}
+
+		IServer server = createServer();
+		serverEvent = new ServerEvent(ServerEvent.STATE_CHANGE, server, IServer.STATE_STARTED,
+				IServer.PUBLISH_STATE_NONE, false);
+		IModule[] module = new IModule[] { new DeletedModule("web", "web", null) };
+		moduleEvent = new ServerEvent(ServerEvent.PUBLISH_STATE_CHANGE, server, module, IServer.STATE_STARTED,
+				IServer.PUBLISH_STATE_INCREMENTAL, false);
+	}
+
+	/**
+	 * Returns a server that is only used as the source of events.
+	 */
+	private static IServer createServer() {
+		return (IServer) Proxy.newProxyInstance(IServer.class.getClassLoader(), new Class[] { IServer.class },
+				new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				if ("toString".equals(method.getName()))
+					return "BenchmarkServer";
+				if ("hashCode".equals(method.getName()))
+					return Integer.valueOf(System.identityHashCode(proxy));
+				if ("equals".equals(method.getName()))
+					return Boolean.valueOf(proxy == args[0]);
+				return null;
+			}
+		});
+	}
+
+	@Benchmark
+	public void broadcastServerChange() {
+		manager.broadcastChange2(serverEvent);
+	}
+
+	@Benchmark
+	public void broadcastModuleChange() {
+		manager.broadcastChange2(moduleEvent);
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.core.util.PublishHelper;
+import org.eclipse.wst.server.tests.performance.common.ModuleTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures PublishHelper publishing a synthetic module of 3 folder levels with
+ * 4 subfolders and 20 files each (1700 files of 4 kB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PublishBenchmark {
+	private File dir;
+	private IModuleResource[] resources;
+	private IModuleResourceDelta[] delta;
+	private PublishHelper helper;
+	private IPath target;
+	private IPath zip;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		dir = File.createTempFile("benchmark", null);
+		dir.delete();
+		File source = new File(dir, "source");
+		ModuleTree.createFiles(source, 3, 4, 20, 4096);
+		resources = ModuleTree.getResources(source);
+		// every 20th file has changed
+		delta = ModuleTree.createDelta(resources, 20);
+		helper = new PublishHelper(new File(dir, "temp"));
+		target = new Path(new File(dir, "target").getAbsolutePath());
+		zip = new Path(new File(dir, "module.jar").getAbsolutePath());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ModuleTree.delete(dir);
+	}
+
+	/**
+	 * Full publish into an empty directory.
+	 */
+	@State(Scope.Benchmark)
+	public static class Empty {
+		@Setup(Level.Invocation)
+		public void setUp(PublishBenchmark benchmark) {
+			ModuleTree.delete(benchmark.target.toFile());
+		}
+	}
+
+	/**
+	 * Publish into a directory that already holds the module.
+	 */
+	@State(Scope.Benchmark)
+	public static class Published {
+		@Setup(Level.Trial)
+		public void setUp(PublishBenchmark benchmark) {
+			check(benchmark.helper.publishSmart(benchmark.resources, benchmark.target, null));
+		}
+	}
+
+	private static IStatus[] check(IStatus[] status) {
+		if (status.length > 0)
+			throw new IllegalStateException(status[0].getMessage());
+		return status;
+	}
+
+	@Benchmark
+	public IStatus[] publishSmartFull(Empty empty) {
+		return check(helper.publishSmart(resources, target, null));
+	}
+
+	@Benchmark
+	public IStatus[] publishSmartNoChange(Published published) {
+		return check(helper.publishSmart(resources, target, null));
+	}
+
+	@Benchmark
+	public IStatus[] publishDelta(Published published) {
+		return check(helper.publishDelta(delta, target, null));
+	}
+
+	@Benchmark
+	public IStatus[] publishZip() {
+		return check(helper.publishZip(resources, zip, null));
+	}
+}
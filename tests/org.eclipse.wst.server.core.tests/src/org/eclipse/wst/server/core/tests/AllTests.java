@@ -60,6 +60,14 @@ public class AllTests {
 		
 		suite.addTestSuite(ServerCoreTestCase.class);
 		suite.addTestSuite(ServerUtilTestCase.class);
+		suite.addTestSuite(ModulePathTestCase.class);
+		suite.addTestSuite(MementoStoreTestCase.class);
+		suite.addTestSuite(XMLMementoTestCase.class);
+		suite.addTestSuite(PublishMetricsTestCase.class);
+		suite.addTestSuite(ServerGroupTestCase.class);
+		suite.addTestSuite(ScratchSpaceTestCase.class);
+		suite.addTestSuite(LocalhostResolverTestCase.class);
+		suite.addTestSuite(ServerPublishInfoTestCase.class);
 		TestSuite subSuite = new TestSuite(ProjectPropertiesTestCase.class);
 		ProjectPropertiesTestCase.addOrderedTests(subSuite);
 		suite.addTest(subSuite);
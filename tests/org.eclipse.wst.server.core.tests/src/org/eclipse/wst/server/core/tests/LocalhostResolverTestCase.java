@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.internal.LocalhostResolver;
+
+public class LocalhostResolverTestCase extends TestCase {
+	public void testIPv4Literal() {
+		assertTrue(LocalhostResolver.isAddressLiteral("127.0.0.1"));
+		assertTrue(LocalhostResolver.isAddressLiteral("255.255.255.255"));
+		assertFalse(LocalhostResolver.isAddressLiteral("999.1.1.1"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1.2.3"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1.2.3.4.5"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1..2.3"));
+		assertFalse(LocalhostResolver.isAddressLiteral("12345"));
+	}
+
+	public void testIPv6Literal() {
+		assertTrue(LocalhostResolver.isAddressLiteral("::1"));
+		assertTrue(LocalhostResolver.isAddressLiteral("[::1]"));
+		assertTrue(LocalhostResolver.isAddressLiteral("fe80::1%eth0"));
+		assertTrue(LocalhostResolver.isAddressLiteral("1:2:3:4:5:6:7:8"));
+		assertTrue(LocalhostResolver.isAddressLiteral("::ffff:127.0.0.1"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1:2:3:4:5:6:7"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1:2:3:4:5:6:7:8:9"));
+		assertFalse(LocalhostResolver.isAddressLiteral("1::2::3"));
+		assertFalse(LocalhostResolver.isAddressLiteral(":::"));
+		assertFalse(LocalhostResolver.isAddressLiteral("abcd::g"));
+		assertFalse(LocalhostResolver.isAddressLiteral("::ffff:999.0.0.1"));
+	}
+
+	public void testHostName() {
+		assertFalse(LocalhostResolver.isAddressLiteral("localhost"));
+		assertFalse(LocalhostResolver.isAddressLiteral("example.com"));
+	}
+}
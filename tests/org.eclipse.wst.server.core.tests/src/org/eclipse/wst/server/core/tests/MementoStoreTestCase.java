@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.internal.IMemento;
+import org.eclipse.wst.server.core.internal.MementoStore;
+import org.eclipse.wst.server.core.internal.XMLMemento;
+
+public class MementoStoreTestCase extends TestCase {
+	private File dir;
+
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("store", null);
+		dir.delete();
+	}
+
+	protected void tearDown() throws Exception {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files)
+				f.delete();
+		}
+		dir.delete();
+	}
+
+	private static XMLMemento createRecord(String id, String value) {
+		XMLMemento memento = XMLMemento.createWriteRoot("server");
+		memento.putString("id", id);
+		memento.putString("value", value);
+		return memento;
+	}
+
+	private static void writeFile(File file, String s) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(s.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	public void testEmpty() {
+		MementoStore store = new MementoStore(dir);
+		assertFalse(store.exists());
+		assertEquals(0, store.load().size());
+	}
+
+	public void testSaveLoad() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		store.save("c", createRecord("c", "3"));
+		assertTrue(store.exists());
+		
+		List<IMemento> list = new MementoStore(dir).load();
+		assertEquals(3, list.size());
+		assertEquals("a", list.get(0).getString("id"));
+		assertEquals("b", list.get(1).getString("id"));
+		assertEquals("c", list.get(2).getString("id"));
+	}
+
+	public void testUpdate() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		store.save("a", createRecord("a", "3"));
+		
+		List<IMemento> list = new MementoStore(dir).load();
+		assertEquals(2, list.size());
+		assertEquals("a", list.get(0).getString("id"));
+		assertEquals("3", list.get(0).getString("value"));
+	}
+
+	public void testUnchangedNotWritten() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		File[] files = dir.listFiles();
+		for (File f : files)
+			f.setLastModified(1000);
+		
+		store.save("a", createRecord("a", "1"));
+		for (File f : files)
+			assertEquals(1000, f.lastModified() / 1000 * 1000);
+	}
+
+	public void testRemove() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		store.remove("a");
+		
+		List<IMemento> list = new MementoStore(dir).load();
+		assertEquals(1, list.size());
+		assertEquals("b", list.get(0).getString("id"));
+		assertEquals(2, dir.listFiles().length);
+	}
+
+	public void testRetain() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		store.save("c", createRecord("c", "3"));
+		store.retain(Arrays.asList(new String[] { "b" }));
+		
+		List<IMemento> list = new MementoStore(dir).load();
+		assertEquals(1, list.size());
+		assertEquals("b", list.get(0).getString("id"));
+	}
+
+	public void testTempFileDeleted() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		File temp = new File(dir, "r5.xml.tmp");
+		writeFile(temp, "<server");
+		
+		assertEquals(1, new MementoStore(dir).load().size());
+		assertFalse(temp.exists());
+	}
+
+	public void testUnlistedFileKept() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		File other = new File(dir, "r7.xml");
+		writeFile(other, "<server id=\"x\"/>");
+		
+		store = new MementoStore(dir);
+		assertEquals(1, store.load().size());
+		assertTrue(other.exists());
+		
+		// a new record must not overwrite the unlisted file
+		store.save("b", createRecord("b", "2"));
+		assertEquals(4, dir.listFiles().length);
+		assertTrue(other.exists());
+		assertEquals(2, new MementoStore(dir).load().size());
+	}
+
+	public void testCorruptManifest() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		writeFile(new File(dir, "manifest.xml"), "<manifest");
+		File temp = new File(dir, "r0.xml.tmp");
+		writeFile(temp, "<server");
+		
+		assertEquals(0, new MementoStore(dir).load().size());
+		assertEquals(4, dir.listFiles().length);
+		assertTrue(temp.exists());
+	}
+
+	public void testCorruptRecord() throws Exception {
+		MementoStore store = new MementoStore(dir);
+		store.save("a", createRecord("a", "1"));
+		store.save("b", createRecord("b", "2"));
+		File[] files = dir.listFiles();
+		File record = null;
+		for (File f : files) {
+			if (!"manifest.xml".equals(f.getName()) && f.getName().startsWith("r0"))
+				record = f;
+		}
+		assertNotNull(record);
+		writeFile(record, "<server");
+		
+		store = new MementoStore(dir);
+		List<IMemento> list = store.load();
+		assertEquals(1, list.size());
+		assertEquals("b", list.get(0).getString("id"));
+		assertTrue(record.exists());
+		
+		// the unreadable record survives other changes
+		store.save("c", createRecord("c", "3"));
+		store.retain(Arrays.asList(new String[] { "c" }));
+		assertTrue(record.exists());
+		
+		// and is replaced when it is saved again
+		store.save("a", createRecord("a", "4"));
+		list = new MementoStore(dir).load();
+		assertEquals(2, list.size());
+		assertEquals("a", list.get(0).getString("id"));
+		assertEquals("4", list.get(0).getString("value"));
+		assertEquals("c", list.get(1).getString("id"));
+	}
+}
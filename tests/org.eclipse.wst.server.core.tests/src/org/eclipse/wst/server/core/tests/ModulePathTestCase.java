@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ModulePath;
+
+public class ModulePathTestCase extends TestCase {
+	private static IModule[] getModules(String[] ids) {
+		IModule[] modules = new IModule[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			modules[i] = new DeletedModule(ids[i], ids[i], null);
+		return modules;
+	}
+
+	public void testToString() {
+		ModulePath path = ModulePath.create(getModules(new String[] { "ear", "web" }));
+		assertEquals("ear#web", path.toString());
+	}
+
+	public void testParse() {
+		ModulePath path = ModulePath.parse("ear#web");
+		assertEquals(2, path.size());
+		assertEquals(ModulePath.create(getModules(new String[] { "ear", "web" })), path);
+	}
+
+	public void testEquals() {
+		ModulePath path = ModulePath.create(getModules(new String[] { "ear", "web" }));
+		ModulePath path2 = ModulePath.create(getModules(new String[] { "ear", "web" }));
+		assertEquals(path, path2);
+		assertEquals(path.hashCode(), path2.hashCode());
+		assertFalse(path.equals(ModulePath.create(getModules(new String[] { "ear" }))));
+		assertFalse(path.equals(ModulePath.create(getModules(new String[] { "web", "ear" }))));
+	}
+
+	public void testNullModule() {
+		ModulePath path = ModulePath.create(new IModule[] { null });
+		assertEquals("null", path.toString());
+	}
+
+	public void testSubPath() {
+		ModulePath path = ModulePath.parse("ear#web#util");
+		assertEquals(ModulePath.parse("ear"), path.subPath(1));
+		assertEquals(ModulePath.parse("ear#web"), path.subPath(2));
+		assertSame(path, path.subPath(3));
+	}
+
+	public void testIntern() {
+		ModulePath.Table table = new ModulePath.Table();
+		IModule[] modules = getModules(new String[] { "ear", "web" });
+		ModulePath path = table.intern(modules);
+		assertSame(path, table.intern(modules));
+		assertSame(path, table.intern(getModules(new String[] { "ear", "web" })));
+		assertSame(path, table.intern("ear#web"));
+	}
+
+	public void testInternMany() {
+		ModulePath.Table table = new ModulePath.Table();
+		ModulePath[] paths = new ModulePath[200];
+		for (int i = 0; i < paths.length; i++)
+			paths[i] = table.intern(getModules(new String[] { "ear", "web" + i }));
+		for (int i = 0; i < paths.length; i++)
+			assertSame(paths[i], table.intern("ear#web" + i));
+	}
+
+	public void testRetain() {
+		ModulePath.Table table = new ModulePath.Table();
+		ModulePath ear = table.intern(getModules(new String[] { "ear" }));
+		ModulePath web = table.intern(getModules(new String[] { "ear", "web" }));
+		table.intern(getModules(new String[] { "ear", "util" }));
+		assertEquals(3, table.size());
+		
+		table.retain(Arrays.asList(new ModulePath[] { ear, web }));
+		assertEquals(2, table.size());
+		assertSame(ear, table.intern("ear"));
+		assertSame(web, table.intern(getModules(new String[] { "ear", "web" })));
+		assertEquals(2, table.size());
+		
+		// a removed path is added again when it is next used
+		ModulePath util = table.intern("ear#util");
+		assertEquals(3, table.size());
+		assertSame(util, table.intern(getModules(new String[] { "ear", "util" })));
+	}
+
+	public void testConcurrentIntern() throws Exception {
+		final ModulePath.Table table = new ModulePath.Table();
+		final ModulePath[][] paths = new ModulePath[4][100];
+		Thread[] threads = new Thread[paths.length];
+		for (int i = 0; i < threads.length; i++) {
+			final ModulePath[] p = paths[i];
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < p.length; j++)
+						p[j] = table.intern(getModules(new String[] { "ear", "web" + j }));
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		assertEquals(100, table.size());
+		for (int i = 1; i < paths.length; i++) {
+			for (int j = 0; j < paths[i].length; j++)
+				assertSame(paths[0][j], paths[i][j]);
+		}
+	}
+}
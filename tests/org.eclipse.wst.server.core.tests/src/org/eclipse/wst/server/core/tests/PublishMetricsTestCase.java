@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IPublishMetrics;
+import org.eclipse.wst.server.core.IPublishMetricsListener;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.PublishMetrics;
+
+public class PublishMetricsTestCase extends TestCase {
+	private static IModule[] getModule(String id) {
+		return new IModule[] { new DeletedModule(id, id, null) };
+	}
+
+	public void testPhases() {
+		PublishMetrics metrics = PublishMetrics.start(null, IServer.PUBLISH_FULL);
+		try {
+			long time = System.nanoTime();
+			time = metrics.phaseFinished(IPublishMetrics.PHASE_DELTA, time);
+			metrics.phaseFinished(IPublishMetrics.PHASE_SERVER, time);
+		} finally {
+			metrics.finish(Status.OK_STATUS);
+		}
+
+		String[] phases = metrics.getPhases();
+		assertEquals(2, phases.length);
+		assertEquals(IPublishMetrics.PHASE_DELTA, phases[0]);
+		assertEquals(IPublishMetrics.PHASE_SERVER, phases[1]);
+		assertTrue(metrics.getPhaseTime(IPublishMetrics.PHASE_DELTA) >= 0);
+		assertEquals(-1, metrics.getPhaseTime(IPublishMetrics.PHASE_MODULES));
+		assertEquals(IServer.PUBLISH_FULL, metrics.getKind());
+		assertTrue(metrics.getTotalTime() >= 0);
+	}
+
+	public void testFilesCopied() {
+		IModule[] module = getModule("web");
+		PublishMetrics metrics = PublishMetrics.start(null, IServer.PUBLISH_INCREMENTAL);
+		try {
+			PublishMetrics.fileCopied(10);
+			metrics.moduleStarted(module);
+			long time = System.nanoTime();
+			PublishMetrics.fileCopied(100);
+			PublishMetrics.fileCopied(1000);
+			metrics.moduleFinished(module, time);
+		} finally {
+			metrics.finish(Status.OK_STATUS);
+		}
+
+		assertEquals(3, metrics.getFilesCopied());
+		assertEquals(1110, metrics.getBytesCopied());
+		assertEquals(1, metrics.getModules().length);
+		assertEquals(2, metrics.getModuleFilesCopied(getModule("web")));
+		assertEquals(1100, metrics.getModuleBytesCopied(getModule("web")));
+		assertTrue(metrics.getModuleTime(getModule("web")) >= 0);
+		assertEquals(-1, metrics.getModuleTime(getModule("ejb")));
+	}
+
+	public void testNotMeasuring() {
+		PublishMetrics metrics = PublishMetrics.start(null, IServer.PUBLISH_INCREMENTAL);
+		metrics.finish(Status.OK_STATUS);
+
+		// no publish is running, so these are ignored
+		PublishMetrics.fileCopied(100);
+		assertNotSame(metrics, PublishMetrics.getCurrent());
+		assertEquals(0, metrics.getFilesCopied());
+
+		// the metrics returned when nothing is measured are shared and stay empty
+		PublishMetrics none = PublishMetrics.getCurrent();
+		assertSame(none, PublishMetrics.getCurrent());
+		none.phaseFinished(IPublishMetrics.PHASE_DELTA, System.nanoTime());
+		none.moduleStarted(getModule("web"));
+		assertEquals(0, none.getPhases().length);
+		assertEquals(0, none.getModules().length);
+	}
+
+	public void testListener() {
+		final IPublishMetrics[] measured = new IPublishMetrics[1];
+		IPublishMetricsListener listener = new IPublishMetricsListener() {
+			public void publishMeasured(IPublishMetrics metrics) {
+				measured[0] = metrics;
+			}
+		};
+		ServerCore.addPublishMetricsListener(listener);
+		try {
+			PublishMetrics metrics = PublishMetrics.start(null, IServer.PUBLISH_INCREMENTAL);
+			metrics.finish(Status.OK_STATUS);
+			assertSame(metrics, measured[0]);
+			assertSame(Status.OK_STATUS, measured[0].getStatus());
+		} finally {
+			ServerCore.removePublishMetricsListener(listener);
+		}
+	}
+}
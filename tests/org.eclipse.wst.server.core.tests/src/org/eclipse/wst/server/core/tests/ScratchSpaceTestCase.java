@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.internal.ScratchSpace;
+
+public class ScratchSpaceTestCase extends TestCase {
+	private File dir;
+
+	protected void setUp() throws Exception {
+		dir = File.createTempFile("scratch", null);
+		dir.delete();
+		dir.mkdirs();
+	}
+
+	protected void tearDown() throws Exception {
+		File[] files = dir.listFiles();
+		if (files != null) {
+			for (File f : files)
+				f.delete();
+		}
+		dir.delete();
+	}
+
+	public void testSameFileStore() throws Exception {
+		File target = new File(dir, "test.class");
+		File temp = ScratchSpace.getInstance().createTempFile(target, null);
+		try {
+			assertTrue(temp.exists());
+			assertEquals(Files.getFileStore(dir.toPath()), Files.getFileStore(temp.toPath()));
+			assertTrue(temp.renameTo(target));
+		} finally {
+			temp.delete();
+		}
+	}
+
+	public void testPreferred() throws Exception {
+		File preferred = new File(dir, "temp");
+		preferred.mkdirs();
+		File temp = ScratchSpace.getInstance().createTempFile(new File(dir, "test.jar"), preferred);
+		try {
+			assertEquals(preferred, temp.getParentFile());
+		} finally {
+			temp.delete();
+			preferred.delete();
+		}
+	}
+
+	public void testOneDirectoryPerFileStore() throws Exception {
+		File a = new File(dir, "a");
+		File b = new File(dir, "b");
+		File temp1 = ScratchSpace.getInstance().createTempFile(new File(a, "test.class"), null);
+		File temp2 = ScratchSpace.getInstance().createTempFile(new File(b, "test.class"), null);
+		try {
+			assertEquals(temp1.getParentFile(), temp2.getParentFile());
+		} finally {
+			temp1.delete();
+			temp2.delete();
+			a.delete();
+			b.delete();
+		}
+	}
+
+	public void testCreateTempFile() throws Exception {
+		File temp = ScratchSpace.getInstance().createTempFile();
+		try {
+			assertTrue(temp.exists());
+			assertEquals(0, temp.length());
+		} finally {
+			temp.delete();
+		}
+	}
+}
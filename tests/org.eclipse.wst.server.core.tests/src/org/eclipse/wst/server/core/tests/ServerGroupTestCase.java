@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerType;
+import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.internal.ServerGroup;
+
+public class ServerGroupTestCase extends TestCase {
+	private static IServer createServer(String id) throws CoreException {
+		IServerType type = ServerCore.findServerType("org.eclipse.wst.server.core.tests.empty");
+		return type.createServer(id, null, null);
+	}
+
+	public void testStartOrder() throws Exception {
+		IServer web = createServer("web");
+		IServer db = createServer("db");
+		IServer mq = createServer("mq");
+		IServer app = createServer("app");
+
+		ServerGroup group = new ServerGroup("test");
+		group.addServer(web, new IServer[] { app });
+		group.addServer(app, new IServer[] { db, mq });
+
+		assertEquals(4, group.getServers().length);
+		assertEquals(2, group.getDependencies(app).length);
+		assertEquals(0, group.getDependencies(db).length);
+
+		IServer[][] order = group.getStartOrder();
+		assertEquals(3, order.length);
+		List<IServer> first = Arrays.asList(order[0]);
+		assertEquals(2, first.size());
+		assertTrue(first.contains(db));
+		assertTrue(first.contains(mq));
+		assertSame(app, order[1][0]);
+		assertSame(web, order[2][0]);
+	}
+
+	public void testCycle() throws Exception {
+		IServer a = createServer("a");
+		IServer b = createServer("b");
+
+		ServerGroup group = new ServerGroup("test");
+		group.addServer(a, new IServer[] { b });
+		group.addServer(b, new IServer[] { a });
+		try {
+			group.getStartOrder();
+			fail("Circular dependency not detected");
+		} catch (CoreException e) {
+			assertEquals(IStatus.ERROR, e.getStatus().getSeverity());
+		}
+		assertEquals(IStatus.ERROR, group.start("run", null).getSeverity());
+
+		group.removeServer(b);
+		assertEquals(1, group.getStartOrder().length);
+	}
+
+	public void testStopStopped() throws Exception {
+		IServer web = createServer("web");
+		IServer app = createServer("app");
+
+		ServerGroup group = new ServerGroup("test");
+		group.addServer(web, new IServer[] { app });
+
+		// stopped servers are left alone
+		assertTrue(group.stop(false, null).isOK());
+	}
+
+	public void testParallelStart() throws Exception {
+		final IServer db = createServer("db");
+		final IServer mq = createServer("mq");
+		IServer app = createServer("app");
+
+		// db and mq only start once both of them are starting at the same time
+		final CountDownLatch latch = new CountDownLatch(2);
+		final List<IServer> started = Collections.synchronizedList(new ArrayList<IServer>());
+		ServerGroup group = new ServerGroup("test") {
+			protected IStatus startServer(IServer server, String launchMode, IProgressMonitor monitor) {
+				if (server == db || server == mq) {
+					latch.countDown();
+					try {
+						if (!latch.await(10, TimeUnit.SECONDS))
+							return new Status(IStatus.ERROR, "test", "Not started in parallel");
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return Status.CANCEL_STATUS;
+					}
+				}
+				started.add(server);
+				return Status.OK_STATUS;
+			}
+		};
+		group.addServer(app, new IServer[] { db, mq });
+
+		assertTrue(group.start("run", null).isOK());
+		assertEquals(3, started.size());
+		assertSame(app, started.get(2));
+	}
+
+	public void testSkipDependents() throws Exception {
+		final IServer db = createServer("db");
+		IServer app = createServer("app");
+		IServer web = createServer("web");
+		IServer mq = createServer("mq");
+
+		final List<IServer> started = Collections.synchronizedList(new ArrayList<IServer>());
+		ServerGroup group = new ServerGroup("test") {
+			protected IStatus startServer(IServer server, String launchMode, IProgressMonitor monitor) {
+				started.add(server);
+				if (server == db)
+					return new Status(IStatus.ERROR, "test", "Failed");
+				return Status.OK_STATUS;
+			}
+		};
+		group.addServer(web, new IServer[] { app });
+		group.addServer(app, new IServer[] { db });
+		group.addServer(mq, null);
+
+		IStatus status = group.start("run", null);
+		assertEquals(IStatus.ERROR, status.getSeverity());
+		assertEquals(3, status.getChildren().length);
+		assertEquals(2, started.size());
+		assertTrue(started.contains(db));
+		assertTrue(started.contains(mq));
+	}
+
+	public void testStopOrder() throws Exception {
+		IServer db = createServer("db");
+		IServer app = createServer("app");
+		IServer web = createServer("web");
+
+		final List<IServer> stopped = Collections.synchronizedList(new ArrayList<IServer>());
+		ServerGroup group = new ServerGroup("test") {
+			protected IStatus stopServer(IServer server, boolean force, IProgressMonitor monitor) {
+				stopped.add(server);
+				return Status.OK_STATUS;
+			}
+		};
+		group.addServer(web, new IServer[] { app });
+		group.addServer(app, new IServer[] { db });
+
+		assertTrue(group.stop(false, null).isOK());
+		assertEquals(Arrays.asList(new IServer[] { web, app, db }), stopped);
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ServerPublishInfo;
+import org.eclipse.wst.server.core.model.IModuleFile;
+import org.eclipse.wst.server.core.model.IModuleFolder;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.util.ModuleFile;
+import org.eclipse.wst.server.core.util.ModuleFolder;
+
+public class ServerPublishInfoTestCase extends TestCase {
+	protected static class TestServerPublishInfo extends ServerPublishInfo {
+		// number of times module resources were read from the file
+		protected int reads;
+
+		protected TestServerPublishInfo(IPath path) {
+			super(path);
+		}
+
+		protected void setResources(IModule[] module, IModuleResource[] resources) {
+			getModulePublishInfo(module).setResources(resources);
+		}
+
+		protected IModuleResource[] getResources2(IModule[] module) {
+			return getModulePublishInfo(module).getResources();
+		}
+
+		protected byte[] readResources(long offset, int length) throws IOException {
+			reads++;
+			return super.readResources(offset, length);
+		}
+	}
+
+	private File file;
+	private IPath path;
+	private IModule[] web;
+	private IModule[] ejb;
+
+	protected void setUp() throws Exception {
+		file = File.createTempFile("publish", ".dat");
+		file.delete();
+		path = new Path(file.getAbsolutePath());
+		web = new IModule[] { new DeletedModule("web", "web", null) };
+		ejb = new IModule[] { new DeletedModule("ejb", "ejb", null) };
+	}
+
+	protected void tearDown() throws Exception {
+		file.delete();
+	}
+
+	private static IModuleResource[] createResources(String name, long stamp) {
+		ModuleFolder folder = new ModuleFolder(null, "WEB-INF", Path.EMPTY);
+		folder.setMembers(new IModuleResource[] {
+			new ModuleFile("web.xml", new Path("WEB-INF"), stamp),
+			new ModuleFolder(null, "lib", new Path("WEB-INF"))
+		});
+		return new IModuleResource[] { new ModuleFile(name, Path.EMPTY, stamp), folder };
+	}
+
+	private static void assertResources(IModuleResource[] expected, IModuleResource[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getName(), actual[i].getName());
+			assertEquals(expected[i].getModuleRelativePath(), actual[i].getModuleRelativePath());
+			if (expected[i] instanceof IModuleFile) {
+				assertTrue(actual[i] instanceof IModuleFile);
+				assertEquals(((IModuleFile) expected[i]).getModificationStamp(), ((IModuleFile) actual[i]).getModificationStamp());
+			} else {
+				assertTrue(actual[i] instanceof IModuleFolder);
+				assertResources(((IModuleFolder) expected[i]).members(), ((IModuleFolder) actual[i]).members());
+			}
+		}
+	}
+
+	private void save(IModuleResource[] webResources, IModuleResource[] ejbResources) {
+		TestServerPublishInfo info = new TestServerPublishInfo(path);
+		info.setResources(web, webResources);
+		info.setResources(ejb, ejbResources);
+		info.save();
+	}
+
+	public void testSaveLoad() throws Exception {
+		IModuleResource[] webResources = createResources("index.html", 1);
+		IModuleResource[] ejbResources = createResources("ejb.jar", 2);
+		save(webResources, ejbResources);
+
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			in.readByte();
+			in.readByte();
+			assertEquals(2, in.readByte());
+		} finally {
+			in.close();
+		}
+
+		TestServerPublishInfo info = new TestServerPublishInfo(path);
+		assertTrue(info.hasModulePublishInfo(web));
+		assertTrue(info.hasModulePublishInfo(ejb));
+		assertResources(webResources, info.getResources2(web));
+		assertResources(ejbResources, info.getResources2(ejb));
+	}
+
+	public void testLazyLoad() throws Exception {
+		save(createResources("index.html", 1), createResources("ejb.jar", 2));
+
+		// resources are only read when they are first needed, and only once
+		TestServerPublishInfo info = new TestServerPublishInfo(path);
+		assertEquals(0, info.reads);
+		info.getResources2(web);
+		assertEquals(1, info.reads);
+		info.getResources2(web);
+		assertEquals(1, info.reads);
+		info.getResources2(ejb);
+		assertEquals(2, info.reads);
+	}
+
+	public void testSaveUnread() throws Exception {
+		IModuleResource[] ejbResources = createResources("ejb.jar", 2);
+		save(createResources("index.html", 1), ejbResources);
+
+		// change one module and save without reading the other
+		IModuleResource[] webResources = createResources("index.jsp", 3);
+		TestServerPublishInfo info = new TestServerPublishInfo(path);
+		info.setResources(web, webResources);
+		info.save();
+		assertEquals(0, info.reads);
+
+		// the unread resources have been copied and can still be read from the old instance
+		assertResources(ejbResources, info.getResources2(ejb));
+
+		info = new TestServerPublishInfo(path);
+		assertResources(webResources, info.getResources2(web));
+		assertResources(ejbResources, info.getResources2(ejb));
+	}
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.core.tests;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.internal.IMemento;
+import org.eclipse.wst.server.core.internal.XMLMemento;
+
+public class XMLMementoTestCase extends TestCase {
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator", "\n");
+
+	private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+
+	// a .server file as written by earlier versions
+	private static final String SERVER_FILE = lines(new String[] {
+		HEADER,
+		"<server auto-publish-setting=\"2\" hostname=\"localhost\" id=\"Tomcat v9.0 Server at localhost\" name=\"Tomcat v9.0 Server at localhost\" runtime=\"Apache Tomcat v9.0\" server-type=\"org.eclipse.jst.server.tomcat.90\" start-timeout=\"45\">",
+		"  <list key=\"modules\" value0=\"web::org.eclipse.jst.j2ee.server:web::jst.web::4.0\"/>",
+		"  <map a=\"x &amp; &quot;y&quot; &lt;z&gt;&#10;&#9;line&#13;\" key=\"props\"/>",
+		"</server>"
+	});
+
+	// a servers.xml file as written by earlier versions
+	private static final String SERVERS_FILE = lines(new String[] {
+		HEADER,
+		"<servers>",
+		"  <server configuration-id=\"/Servers/Tomcat v9.0 Server at localhost-config\" id=\"Tomcat v9.0 Server at localhost\" name=\"Tomcat v9.0 Server at localhost\" runtime=\"Apache Tomcat v9.0\" server-type=\"org.eclipse.jst.server.tomcat.90\" timestamp=\"3\">",
+		"    <list key=\"modules\" value0=\"ROOT::org.eclipse.jst.j2ee.server:ROOT::jst.web::4.0\" value1=\"shop::org.eclipse.jst.j2ee.server:shop::jst.web::4.0\"/>",
+		"    <map key=\"module-properties\" path=\"/shop\"/>",
+		"  </server>",
+		"</servers>"
+	});
+
+	private static String lines(String[] lines) {
+		StringBuffer sb = new StringBuffer();
+		for (String s : lines) {
+			sb.append(s);
+			sb.append(LINE_SEPARATOR);
+		}
+		return sb.toString();
+	}
+
+	private static XMLMemento load(String s) throws Exception {
+		XMLMemento memento = (XMLMemento) XMLMemento.loadMemento(new ByteArrayInputStream(s.getBytes("UTF-8")));
+		assertNotNull(memento);
+		return memento;
+	}
+
+	public void testEscapeAttribute() throws Exception {
+		String value = "a \"quoted\" & <tagged> value>\nwith\ttabs\rand returns";
+		XMLMemento memento = XMLMemento.createWriteRoot("server");
+		memento.putString("value", value);
+
+		String s = memento.saveToString();
+		assertEquals(lines(new String[] {
+			HEADER,
+			"<server value=\"a &quot;quoted&quot; &amp; &lt;tagged&gt; value&gt;&#10;with&#9;tabs&#13;and returns\"/>"
+		}), s);
+		assertEquals(value, load(s).getString("value"));
+	}
+
+	public void testTextData() throws Exception {
+		XMLMemento memento = XMLMemento.createWriteRoot("servers");
+		XMLMemento child = (XMLMemento) memento.createChild("text");
+		child.putTextData("some <text> & \"more\"");
+
+		String s = memento.saveToString();
+		assertEquals(lines(new String[] {
+			HEADER,
+			"<servers>",
+			"  <text>some &lt;text&gt; &amp; \"more\"</text>",
+			"</servers>"
+		}), s);
+		assertEquals(s, load(s).saveToString());
+	}
+
+	public void testNestedChildren() throws Exception {
+		XMLMemento memento = XMLMemento.createWriteRoot("a");
+		IMemento b1 = memento.createChild("b");
+		b1.putString("id", "1");
+		IMemento c = b1.createChild("c");
+		c.putInteger("n", 5);
+		c.createChild("d").putBoolean("flag", true);
+		memento.createChild("e");
+		memento.createChild("b").putString("id", "2");
+
+		String s = memento.saveToString();
+		assertEquals(lines(new String[] {
+			HEADER,
+			"<a>",
+			"  <b id=\"1\">",
+			"    <c n=\"5\">",
+			"      <d flag=\"true\"/>",
+			"    </c>",
+			"  </b>",
+			"  <e/>",
+			"  <b id=\"2\"/>",
+			"</a>"
+		}), s);
+
+		IMemento loaded = load(s);
+		IMemento[] b = loaded.getChildren("b");
+		assertEquals(2, b.length);
+		assertEquals("1", b[0].getString("id"));
+		assertEquals("2", b[1].getString("id"));
+		assertEquals(Integer.valueOf(5), b[0].getChild("c").getInteger("n"));
+		assertEquals(Boolean.TRUE, b[0].getChild("c").getChild("d").getBoolean("flag"));
+		assertNotNull(loaded.getChild("e"));
+		assertNull(loaded.getChild("c"));
+		assertEquals(0, loaded.getChildren("c").length);
+	}
+
+	public void testGetNames() throws Exception {
+		XMLMemento memento = XMLMemento.createWriteRoot("server");
+		memento.putString("name", "1");
+		memento.putString("id", "2");
+		memento.putString("timestamp", "3");
+		memento.putString("auto-publish-setting", "4");
+		memento.putString("id", "5");
+
+		// in name order, regardless of the order the attributes were added in
+		assertEquals(Arrays.asList(new String[] { "auto-publish-setting", "id", "name", "timestamp" }), memento.getNames());
+		assertEquals("5", memento.getString("id"));
+
+		IMemento loaded = load("<server timestamp=\"3\" name=\"1\" id=\"5\" auto-publish-setting=\"4\"/>");
+		assertEquals(memento.getNames(), loaded.getNames());
+	}
+
+	public void testResaveServerFile() throws Exception {
+		XMLMemento memento = load(SERVER_FILE);
+		assertEquals("x & \"y\" <z>\n\tline\r", memento.getChild("map").getString("a"));
+		assertEquals(SERVER_FILE, memento.saveToString());
+		assertTrue(Arrays.equals(SERVER_FILE.getBytes("UTF-8"), memento.getContents()));
+	}
+
+	public void testResaveServersFile() throws Exception {
+		XMLMemento memento = load(SERVERS_FILE);
+		assertEquals(SERVERS_FILE, memento.saveToString());
+	}
+
+	public void testResaveReformattedServersFile() throws Exception {
+		// the same content with other indentation, line ends, and attribute order
+		String s = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<servers>\r\n\t<server timestamp=\"3\" server-type=\"org.eclipse.jst.server.tomcat.90\" runtime=\"Apache Tomcat v9.0\" name=\"Tomcat v9.0 Server at localhost\" id=\"Tomcat v9.0 Server at localhost\" configuration-id=\"/Servers/Tomcat v9.0 Server at localhost-config\">\r\n"
+			+ "\t\t<list value1=\"shop::org.eclipse.jst.j2ee.server:shop::jst.web::4.0\" value0=\"ROOT::org.eclipse.jst.j2ee.server:ROOT::jst.web::4.0\" key=\"modules\" />\r\n"
+			+ "\t\t<map path=\"/shop\" key=\"module-properties\"></map>\r\n\t</server>\r\n</servers>";
+		assertEquals(SERVERS_FILE, load(s).saveToString());
+	}
+}
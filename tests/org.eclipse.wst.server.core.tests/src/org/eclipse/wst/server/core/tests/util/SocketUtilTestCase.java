@@ -12,6 +12,9 @@
  *******************************************************************************/
 package org.eclipse.wst.server.core.tests.util;
 
+import java.net.ServerSocket;
+import java.util.Map;
+
 import org.eclipse.wst.server.core.util.SocketUtil;
 
 import junit.framework.TestCase;
@@ -45,4 +48,34 @@ public class SocketUtilTestCase extends TestCase {
 	public void testIsPortInUse2() {
 		assertFalse(SocketUtil.isPortInUse(22054, 5));
 	}
-}
\ No newline at end of file
+	
+	public void testGetPortsInUse() {
+		Map<Integer, Boolean> map = SocketUtil.getPortsInUse(null, new int[] { 22055, 22056 }, 0);
+		assertEquals(2, map.size());
+		assertEquals(Boolean.FALSE, map.get(new Integer(22055)));
+		assertEquals(Boolean.FALSE, map.get(new Integer(22056)));
+	}
+	
+	public void testGetPortsInUse2() throws Exception {
+		ServerSocket s = new ServerSocket(22057);
+		try {
+			long time = System.currentTimeMillis();
+			Map<Integer, Boolean> map = SocketUtil.getPortsInUse(null, new int[] { 22057, 22058 }, 500);
+			assertTrue(System.currentTimeMillis() - time < 2000);
+			assertEquals(Boolean.TRUE, map.get(new Integer(22057)));
+			assertEquals(Boolean.FALSE, map.get(new Integer(22058)));
+		} finally {
+			s.close();
+		}
+	}
+
+	public void testGetPortsInUseDuplicate() {
+		// a port that is listed twice is only probed once, and is not reported in use
+		long time = System.currentTimeMillis();
+		Map<Integer, Boolean> map = SocketUtil.getPortsInUse(null, new int[] { 22059, 22060, 22059 }, 2000);
+		assertTrue(System.currentTimeMillis() - time < 1000);
+		assertEquals(2, map.size());
+		assertEquals(Boolean.FALSE, map.get(Integer.valueOf(22059)));
+		assertEquals(Boolean.FALSE, map.get(Integer.valueOf(22060)));
+	}
+}
@@ -23,6 +23,9 @@ public class AllTests {
 		suite.addTestSuite(ModuleFactoriesExtensionTestCase.class);
 		suite.addTestSuite(AddRemoveModulesWizardTestCase.class);
 		suite.addTestSuite(MementoTestCase.class);
+		suite.addTestSuite(ServerNotificationTestCase.class);
+		suite.addTestSuite(PublishHelperTestCase.class);
+		suite.addTestSuite(ServerPublishInfoTestCase.class);
 		//$JUnit-END$
 		return suite;
 	}
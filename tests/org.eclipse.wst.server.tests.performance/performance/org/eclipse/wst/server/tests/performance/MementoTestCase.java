@@ -19,6 +19,7 @@ import java.net.URL;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.PerformanceTestCase;
 import org.eclipse.wst.server.core.internal.IMemento;
 import org.eclipse.wst.server.core.internal.XMLMemento;
@@ -80,6 +81,73 @@ public class MementoTestCase extends PerformanceTestCase {
 		assertPerformance();
 	}
 
+	public void testMementoLoadServers() throws Exception {
+		Dimension[] dims = new Dimension[] {Dimension.ELAPSED_PROCESS, Dimension.USED_JAVA_HEAP};
+		tagAsSummary("Load 100 server files", dims);
+		
+		File dir = File.createTempFile("perftest", null);
+		dir.delete();
+		dir.mkdir();
+		try {
+			File[] files = new File[100];
+			for (int i = 0; i < files.length; i++) {
+				files[i] = new File(dir, "Server " + i + ".server");
+				createServer(i).saveToFile(files[i].getAbsolutePath());
+			}
+			
+			for (int i = 0; i < 5; i++) {
+				startMeasuring();
+				for (File f : files) {
+					IMemento memento = XMLMemento.loadMemento(f.getAbsolutePath());
+					memento.getNames();
+					memento.getChildren("list");
+					memento.getChildren("map");
+				}
+				stopMeasuring();
+			}
+			commitMeasurements();
+			assertPerformance();
+		} finally {
+			for (File f : dir.listFiles())
+				f.delete();
+			dir.delete();
+		}
+	}
+
+	/**
+	 * Create a memento with the content of a typical .server file.
+	 */
+	protected static XMLMemento createServer(int i) {
+		XMLMemento memento = XMLMemento.createWriteRoot("server");
+		memento.putString("id", "Tomcat v9.0 Server at localhost (" + i + ")");
+		memento.putString("name", "Tomcat v9.0 Server at localhost (" + i + ")");
+		memento.putString("server-type", "org.eclipse.jst.server.tomcat.90");
+		memento.putString("server-type-id", "org.eclipse.jst.server.tomcat.90");
+		memento.putString("runtime-id", "Apache Tomcat v9.0");
+		memento.putString("hostname", "localhost");
+		memento.putString("configuration-id", "/Servers/Tomcat v9.0 Server at localhost-config" + i);
+		memento.putBoolean("auto-publish-setting", true);
+		memento.putInteger("auto-publish-time", 1);
+		memento.putInteger("start-timeout", 45);
+		memento.putInteger("stop-timeout", 15);
+		memento.putBoolean("testEnvironment", false);
+		memento.putBoolean("serveModulesWithoutPublish", false);
+		memento.putBoolean("modulesReloadableByDefault", true);
+		memento.putString("deployDir", "wtpwebapps");
+		memento.putString("timestamp", Integer.toString(i));
+		
+		IMemento list = memento.createChild("list");
+		list.putString("key", "modules");
+		for (int j = 0; j < 20; j++)
+			list.putString("value" + j, "web" + j + "::org.eclipse.jst.jee.server:web" + j + "::jst.web::4.0");
+		
+		IMemento map = memento.createChild("map");
+		map.putString("key", "publish-tasks");
+		for (int j = 0; j < 5; j++)
+			map.putString("task" + j, "org.eclipse.wst.server.task" + j);
+		return memento;
+	}
+
 	protected void copy(IMemento a, IMemento b) {
 		String s = a.getString("name");
 		if (s != null)
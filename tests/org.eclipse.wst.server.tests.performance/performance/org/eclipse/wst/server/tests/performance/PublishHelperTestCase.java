@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.tests.performance;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.core.util.PublishHelper;
+import org.eclipse.wst.server.tests.performance.common.ModuleTree;
+
+/**
+ * Measures PublishHelper publishing a synthetic module of 3 folder levels with
+ * 4 subfolders and 20 files each (1700 files of 4 kB).
+ */
+public class PublishHelperTestCase extends PerformanceTestCase {
+	private File dir;
+	private File source;
+	private IModuleResource[] resources;
+	private PublishHelper helper;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		dir = File.createTempFile("perftest", null);
+		dir.delete();
+		source = new File(dir, "source");
+		ModuleTree.createFiles(source, 3, 4, 20, 4096);
+		resources = ModuleTree.getResources(source);
+		helper = new PublishHelper(new File(dir, "temp"));
+	}
+
+	protected void tearDown() throws Exception {
+		ModuleTree.delete(dir);
+		super.tearDown();
+	}
+
+	public void testPublishSmartFull() throws Exception {
+		Dimension[] dims = new Dimension[] {Dimension.ELAPSED_PROCESS, Dimension.USED_JAVA_HEAP};
+		tagAsSummary("Full publish of 1700 files", dims);
+
+		IPath target = new Path(new File(dir, "target").getAbsolutePath());
+		for (int i = 0; i < 5; i++) {
+			ModuleTree.delete(target.toFile());
+			startMeasuring();
+			IStatus[] status = helper.publishSmart(resources, target, null);
+			stopMeasuring();
+			assertEquals(0, status.length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testPublishSmartNoChange() throws Exception {
+		IPath target = new Path(new File(dir, "target").getAbsolutePath());
+		helper.publishSmart(resources, target, null);
+
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			IStatus[] status = helper.publishSmart(resources, target, null);
+			stopMeasuring();
+			assertEquals(0, status.length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testPublishDelta() throws Exception {
+		IPath target = new Path(new File(dir, "target").getAbsolutePath());
+		helper.publishSmart(resources, target, null);
+
+		// every 20th file has changed
+		IModuleResourceDelta[] delta = ModuleTree.createDelta(resources, 20);
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			IStatus[] status = helper.publishDelta(delta, target, null);
+			stopMeasuring();
+			assertEquals(0, status.length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testPublishZip() throws Exception {
+		IPath target = new Path(new File(dir, "module.jar").getAbsolutePath());
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			IStatus[] status = helper.publishZip(resources, target, null);
+			stopMeasuring();
+			assertEquals(0, status.length);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.tests.performance;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.eclipse.wst.server.core.IServerListener;
+import org.eclipse.wst.server.core.ServerEvent;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ServerNotificationManager;
+
+/**
+ * Measures the cost of broadcasting server and module events to 100
+ * registered listeners with a typical mix of event masks.
+ */
+public class ServerNotificationTestCase extends PerformanceTestCase {
+	private static final int LISTENERS = 100;
+	private static final int EVENTS = 100000;
+
+	protected static class TestNotificationManager extends ServerNotificationManager {
+		protected void fire(ServerEvent event) {
+			broadcastChange(event);
+		}
+	}
+
+	protected static class CountingListener implements IServerListener {
+		protected int count;
+
+		public void serverChanged(ServerEvent event) {
+			count++;
+		}
+	}
+
+	protected static IServer createServer() {
+		return (IServer) Proxy.newProxyInstance(IServer.class.getClassLoader(), new Class[] { IServer.class },
+			new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) {
+					if ("hashCode".equals(method.getName()))
+						return new Integer(System.identityHashCode(proxy));
+					if ("equals".equals(method.getName()))
+						return new Boolean(proxy == args[0]);
+					if ("toString".equals(method.getName()))
+						return "TestServer";
+					return null;
+				}
+			});
+	}
+
+	public void testBroadcastChange() throws Exception {
+		TestNotificationManager manager = new TestNotificationManager();
+		CountingListener[] listeners = new CountingListener[LISTENERS];
+		for (int i = 0; i < LISTENERS; i++) {
+			listeners[i] = new CountingListener();
+			// a mix of the masks used by the servers view, editors and publish listeners
+			switch (i % 4) {
+				case 0:
+					manager.addListener(listeners[i]);
+					break;
+				case 1:
+					manager.addListener(listeners[i], ServerEvent.SERVER_CHANGE | ServerEvent.STATE_CHANGE);
+					break;
+				case 2:
+					manager.addListener(listeners[i], ServerEvent.MODULE_CHANGE | ServerEvent.PUBLISH_STATE_CHANGE);
+					break;
+				default:
+					manager.addListener(listeners[i], ServerEvent.SERVER_CHANGE | ServerEvent.ATTRIBUTE_CHANGE);
+			}
+		}
+		
+		IServer server = createServer();
+		IModule[] module = new IModule[] { new DeletedModule("test", "test", null) };
+		ServerEvent[] events = new ServerEvent[] {
+			new ServerEvent(ServerEvent.PUBLISH_STATE_CHANGE, server, module, IServer.STATE_STARTED, IServer.PUBLISH_STATE_NONE, false),
+			new ServerEvent(ServerEvent.STATE_CHANGE, server, module, IServer.STATE_STARTED, IServer.PUBLISH_STATE_NONE, false),
+			new ServerEvent(ServerEvent.STATE_CHANGE, server, IServer.STATE_STARTED, IServer.PUBLISH_STATE_NONE, false),
+			new ServerEvent(ServerEvent.PUBLISH_STATE_CHANGE, server, IServer.STATE_STARTED, IServer.PUBLISH_STATE_NONE, false)
+		};
+		
+		for (int j = 0; j < 5; j++) {
+			startMeasuring();
+			for (int i = 0; i < EVENTS; i++)
+				manager.fire(events[i % events.length]);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+		
+		// listeners for all events see every event, the others only their own kind
+		assertEquals(5 * EVENTS, listeners[0].count);
+		assertEquals(5 * EVENTS / 4, listeners[1].count);
+		assertEquals(5 * EVENTS / 4, listeners[2].count);
+		assertEquals(0, listeners[3].count);
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.tests.performance;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.test.performance.Dimension;
+import org.eclipse.test.performance.PerformanceTestCase;
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.internal.DeletedModule;
+import org.eclipse.wst.server.core.internal.ServerPublishInfo;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.tests.performance.common.ModuleTree;
+
+/**
+ * Measures saving and loading the publish information of a server with 50
+ * modules of 1700 resources each, and computing resource deltas.
+ */
+public class ServerPublishInfoTestCase extends PerformanceTestCase {
+	private static final int MODULES = 50;
+
+	protected static class TestServerPublishInfo extends ServerPublishInfo {
+		protected TestServerPublishInfo(IPath path) {
+			super(path);
+		}
+
+		protected void setResources(IModule[] module, IModuleResource[] resources) {
+			getModulePublishInfo(module).setResources(resources);
+		}
+
+		protected IModuleResource[] getResources2(IModule[] module) {
+			return getModulePublishInfo(module).getResources();
+		}
+
+		protected static IModuleResourceDelta[] getDelta2(IModuleResource[] original, IModuleResource[] current) {
+			return getDelta(original, current);
+		}
+	}
+
+	private File file;
+	private IModule[][] modules;
+
+	protected void setUp() throws Exception {
+		super.setUp();
+		file = File.createTempFile("perftest", ".dat");
+		file.delete();
+
+		modules = new IModule[MODULES][];
+		for (int i = 0; i < MODULES; i++)
+			modules[i] = new IModule[] { new DeletedModule("web" + i, "web" + i, null) };
+	}
+
+	protected void tearDown() throws Exception {
+		file.delete();
+		super.tearDown();
+	}
+
+	private TestServerPublishInfo createPublishInfo() {
+		TestServerPublishInfo info = new TestServerPublishInfo(new Path(file.getAbsolutePath()));
+		IModuleResource[] resources = ModuleTree.createResources(3, 4, 20);
+		for (int i = 0; i < MODULES; i++)
+			info.setResources(modules[i], resources);
+		return info;
+	}
+
+	public void testSave() throws Exception {
+		TestServerPublishInfo info = createPublishInfo();
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			info.save();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testLoad() throws Exception {
+		Dimension[] dims = new Dimension[] {Dimension.ELAPSED_PROCESS, Dimension.USED_JAVA_HEAP};
+		tagAsSummary("Load publish info of 50 modules", dims);
+
+		createPublishInfo().save();
+		IPath path = new Path(file.getAbsolutePath());
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			TestServerPublishInfo info = new TestServerPublishInfo(path);
+			stopMeasuring();
+			assertTrue(info.hasModulePublishInfo(modules[0]));
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testLoadResources() throws Exception {
+		createPublishInfo().save();
+		IPath path = new Path(file.getAbsolutePath());
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			TestServerPublishInfo info = new TestServerPublishInfo(path);
+			for (int j = 0; j < MODULES; j++)
+				info.getResources2(modules[j]);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	public void testGetDelta() throws Exception {
+		IModuleResource[] original = ModuleTree.createResources(3, 4, 20);
+		// every 20th file has changed
+		IModuleResource[] current = ModuleTree.touch(original, 20);
+
+		for (int i = 0; i < 5; i++) {
+			startMeasuring();
+			for (int j = 0; j < 20; j++)
+				TestServerPublishInfo.getDelta2(original, current);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+
+		assertTrue(TestServerPublishInfo.getDelta2(original, current).length > 0);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2006 IBM Corporation and others.
+ * Copyright (c) 2004, 2026 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ package org.eclipse.wst.server.tests.performance;
 import org.eclipse.test.performance.Dimension;
 import org.eclipse.test.performance.PerformanceTestCase;
 import org.eclipse.wst.server.core.ServerCore;
+import org.eclipse.wst.server.core.internal.ServerPlugin;
 
 public class StartupExtensionTestCase extends PerformanceTestCase {
 	public void testStartupExtension() throws Exception {
@@ -29,4 +30,61 @@ public class StartupExtensionTestCase extends PerformanceTestCase {
 		commitMeasurements();
 		assertPerformance();
 	}
+
+	public void testExtensionPointStartup() throws Exception {
+		Dimension[] dims = new Dimension[] {Dimension.ELAPSED_PROCESS};
+		tagAsSummary("Extension point cold start", dims);
+		
+		// the first access to each extension point, from concurrent threads as on startup
+		Runnable[] loaders = new Runnable[] {
+			new Runnable() {
+				public void run() {
+					ServerPlugin.getLaunchableAdapters();
+				}
+			},
+			new Runnable() {
+				public void run() {
+					ServerPlugin.getClients();
+				}
+			},
+			new Runnable() {
+				public void run() {
+					ServerPlugin.getModuleFactories();
+				}
+			},
+			new Runnable() {
+				public void run() {
+					ServerPlugin.getPublishTasks();
+					ServerPlugin.getPublishers();
+				}
+			},
+			new Runnable() {
+				public void run() {
+					ServerPlugin.getServerMonitors();
+					ServerPlugin.getRuntimeLocators();
+				}
+			},
+			new Runnable() {
+				public void run() {
+					ServerPlugin.hasModuleArtifact(this);
+				}
+			}
+		};
+		
+		for (int i = 0; i < 5; i++) {
+			// start each measurement with empty caches
+			ServerPlugin.clearExtensionCaches();
+			startMeasuring();
+			Thread[] threads = new Thread[loaders.length];
+			for (int j = 0; j < loaders.length; j++) {
+				threads[j] = new Thread(loaders[j]);
+				threads[j].start();
+			}
+			for (Thread thread : threads)
+				thread.join();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
 }
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.wst.server.tests.performance.common;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.wst.server.core.internal.ModuleResourceDelta;
+import org.eclipse.wst.server.core.model.IModuleFile;
+import org.eclipse.wst.server.core.model.IModuleFolder;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.model.IModuleResourceDelta;
+import org.eclipse.wst.server.core.util.ModuleFile;
+import org.eclipse.wst.server.core.util.ModuleFolder;
+/**
+ * Synthetic module resource trees for publishing benchmarks. Trees are either
+ * backed by files on disk, so that they can be published, or kept in memory
+ * with fixed modification stamps, for delta and publish info measurements.
+ */
+public class ModuleTree {
+	private ModuleTree() {
+		// utility class
+	}
+
+	/**
+	 * Create a directory tree on disk. Each folder holds the given number of
+	 * files and subfolders, down to the given depth.
+	 *
+	 * @param dir the root directory
+	 * @param depth the number of folder levels below the root
+	 * @param folders the number of subfolders in each folder
+	 * @param files the number of files in each folder
+	 * @param size the size of each file in bytes
+	 * @throws IOException if the files could not be written
+	 */
+	public static void createFiles(File dir, int depth, int folders, int files, int size) throws IOException {
+		dir.mkdirs();
+		byte[] b = new byte[size];
+		for (int i = 0; i < size; i++)
+			b[i] = (byte) ('a' + i % 26);
+
+		for (int i = 0; i < files; i++) {
+			OutputStream out = new FileOutputStream(new File(dir, "file" + i + ".class"));
+			try {
+				out.write(b);
+			} finally {
+				out.close();
+			}
+		}
+
+		if (depth > 0) {
+			for (int i = 0; i < folders; i++)
+				createFiles(new File(dir, "folder" + i), depth - 1, folders, files, size);
+		}
+	}
+
+	/**
+	 * Returns the module resources for a directory tree on disk.
+	 *
+	 * @param dir the root directory
+	 * @return the module resources
+	 */
+	public static IModuleResource[] getResources(File dir) {
+		return getResources(dir, Path.EMPTY);
+	}
+
+	private static IModuleResource[] getResources(File dir, IPath path) {
+		File[] files = dir.listFiles();
+		if (files == null)
+			return new IModuleResource[0];
+
+		IModuleResource[] resources = new IModuleResource[files.length];
+		for (int i = 0; i < files.length; i++) {
+			String name = files[i].getName();
+			if (files[i].isDirectory()) {
+				ModuleFolder folder = new ModuleFolder(null, name, path);
+				folder.setMembers(getResources(files[i], path.append(name)));
+				resources[i] = folder;
+			} else
+				resources[i] = new ModuleFile(files[i], name, path);
+		}
+		return resources;
+	}
+
+	/**
+	 * Create an in-memory module resource tree with fixed modification stamps.
+	 *
+	 * @param depth the number of folder levels below the root
+	 * @param folders the number of subfolders in each folder
+	 * @param files the number of files in each folder
+	 * @return the module resources
+	 */
+	public static IModuleResource[] createResources(int depth, int folders, int files) {
+		return createResources(Path.EMPTY, depth, folders, files);
+	}
+
+	private static IModuleResource[] createResources(IPath path, int depth, int folders, int files) {
+		int size = files + (depth > 0 ? folders : 0);
+		IModuleResource[] resources = new IModuleResource[size];
+		for (int i = 0; i < files; i++)
+			resources[i] = new ModuleFile("file" + i + ".class", path, 1000L + i);
+
+		if (depth > 0) {
+			for (int i = 0; i < folders; i++) {
+				String name = "folder" + i;
+				ModuleFolder folder = new ModuleFolder(null, name, path);
+				folder.setMembers(createResources(path.append(name), depth - 1, folders, files));
+				resources[files + i] = folder;
+			}
+		}
+		return resources;
+	}
+
+	/**
+	 * Returns a copy of an in-memory tree in which every n-th file has a new
+	 * modification stamp.
+	 *
+	 * @param resources the module resources
+	 * @param n the interval of changed files
+	 * @return the changed module resources
+	 */
+	public static IModuleResource[] touch(IModuleResource[] resources, int n) {
+		return touch(resources, n, new int[1]);
+	}
+
+	private static IModuleResource[] touch(IModuleResource[] resources, int n, int[] count) {
+		IModuleResource[] resources2 = new IModuleResource[resources.length];
+		for (int i = 0; i < resources.length; i++) {
+			if (resources[i] instanceof IModuleFolder) {
+				IModuleFolder mf = (IModuleFolder) resources[i];
+				ModuleFolder folder = new ModuleFolder(null, mf.getName(), mf.getModuleRelativePath());
+				folder.setMembers(touch(mf.members(), n, count));
+				resources2[i] = folder;
+			} else {
+				IModuleFile mf = (IModuleFile) resources[i];
+				long stamp = mf.getModificationStamp();
+				if (count[0]++ % n == 0)
+					stamp++;
+				resources2[i] = new ModuleFile(mf.getName(), mf.getModuleRelativePath(), stamp);
+			}
+		}
+		return resources2;
+	}
+
+	/**
+	 * Returns a delta that marks every n-th file of the given tree as changed.
+	 *
+	 * @param resources the module resources
+	 * @param n the interval of changed files
+	 * @return the resource delta
+	 */
+	public static IModuleResourceDelta[] createDelta(IModuleResource[] resources, int n) {
+		return createDelta(resources, n, new int[1]);
+	}
+
+	private static IModuleResourceDelta[] createDelta(IModuleResource[] resources, int n, int[] count) {
+		List<IModuleResourceDelta> list = new ArrayList<IModuleResourceDelta>();
+		for (int i = 0; i < resources.length; i++) {
+			if (resources[i] instanceof IModuleFolder) {
+				IModuleResourceDelta[] children = createDelta(((IModuleFolder) resources[i]).members(), n, count);
+				if (children.length > 0) {
+					ModuleResourceDelta delta = new ModuleResourceDelta(resources[i], IModuleResourceDelta.NO_CHANGE);
+					delta.setChildren(children);
+					list.add(delta);
+				}
+			} else if (count[0]++ % n == 0)
+				list.add(new ModuleResourceDelta(resources[i], IModuleResourceDelta.CHANGED));
+		}
+		return list.toArray(new IModuleResourceDelta[list.size()]);
+	}
+
+	/**
+	 * Recursively delete a file or directory.
+	 *
+	 * @param file a file or directory
+	 */
+	public static void delete(File file) {
+		File[] files = file.listFiles();
+		if (files != null) {
+			for (File f : files)
+				delete(f);
+		}
+		file.delete();
+	}
+}